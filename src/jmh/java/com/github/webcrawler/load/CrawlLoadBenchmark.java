@@ -0,0 +1,268 @@
+package com.github.webcrawler.load;
+
+import com.github.webcrawler.app.CrawlPipeline;
+import com.github.webcrawler.metrics.CrawlMetrics;
+import com.github.webcrawler.translator.BatchingTranslator;
+import com.github.webcrawler.translator.Language;
+import com.github.webcrawler.translator.Translator;
+import com.github.webcrawler.webpage.Crawler;
+import com.github.webcrawler.webpage.WebPage;
+import com.github.webcrawler.webpage.provider.DocumentParser;
+import com.github.webcrawler.webpage.provider.HostScheduler;
+import com.github.webcrawler.webpage.provider.OkHttpDocumentProvider;
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import okhttp3.OkHttpClient;
+import picocli.CommandLine;
+
+/**
+ * Crawls a SyntheticSite through the same CrawlPipeline as the DefaultApp and reports the webpages
+ * crawled per second including the broken ones, the latencies of their requests, the bytes
+ * transferred and the peak heap. Nothing leaves the machine: the site is served on the loopback
+ * interface and the headings are batched for translation but returned as they are. The first runs
+ * include the warm up of the JIT, so the crawl is repeated.
+ */
+@CommandLine.Command(name = "crawl-load-benchmark", mixinStandardHelpOptions = true)
+public class CrawlLoadBenchmark implements Callable<Integer> {
+
+  private static final Translator NO_TRANSLATOR =
+      texts -> new Translator.Result(Language.UNKNOWN, Language.ENGLISH, texts);
+
+  @CommandLine.Option(
+      names = {"--depth"},
+      defaultValue = "3",
+      description = "The depth of the site and of the crawl (default: ${DEFAULT-VALUE})")
+  private int depth;
+
+  @CommandLine.Option(
+      names = {"--fan-out"},
+      defaultValue = "10",
+      description = "The number of links of each page to new pages (default: ${DEFAULT-VALUE})")
+  private int fanOut;
+
+  @CommandLine.Option(
+      names = {"--page-size"},
+      defaultValue = "16384",
+      description = "The minimum size of each page in bytes (default: ${DEFAULT-VALUE})")
+  private int pageSize;
+
+  @CommandLine.Option(
+      names = {"--headings"},
+      defaultValue = "10",
+      description = "The number of headings of each page (default: ${DEFAULT-VALUE})")
+  private int headings;
+
+  @CommandLine.Option(
+      names = {"--broken-ratio"},
+      defaultValue = "0.05",
+      description = "The share of the links which are broken (default: ${DEFAULT-VALUE})")
+  private double brokenRatio;
+
+  @CommandLine.Option(
+      names = {"--latency"},
+      defaultValue = "20",
+      description =
+          "The time in milliseconds the server waits before each response (default:"
+              + " ${DEFAULT-VALUE})")
+  private long latency;
+
+  @CommandLine.Option(
+      names = {"--runs"},
+      defaultValue = "3",
+      description = "How often the site is crawled (default: ${DEFAULT-VALUE})")
+  private int runs;
+
+  @CommandLine.Option(
+      names = {"-t", "--threads"},
+      defaultValue = "8",
+      description = "The number of webpages to crawl concurrently (default: ${DEFAULT-VALUE})")
+  private int threads;
+
+  @CommandLine.Option(
+      names = {"--virtual-threads"},
+      defaultValue = "false",
+      description =
+          "Whether to crawl on virtual threads, requires Java 21 (default: ${DEFAULT-VALUE})")
+  private boolean virtualThreads;
+
+  @CommandLine.Option(
+      names = {"--host-connections"},
+      defaultValue = "4",
+      description =
+          "The maximum number of concurrent requests to the site (default: ${DEFAULT-VALUE})")
+  private int hostConnections;
+
+  @CommandLine.Option(
+      names = {"--connection-pool"},
+      defaultValue = "16",
+      description =
+          "The maximum number of idle connections kept alive by okhttp (default:"
+              + " ${DEFAULT-VALUE})")
+  private int connectionPoolSize;
+
+  @CommandLine.Option(
+      names = {"--parser"},
+      defaultValue = "dom",
+      description =
+          "How to extract headings and links, either dom or streaming (default: ${DEFAULT-VALUE})")
+  private String parser;
+
+  @CommandLine.Option(
+      names = {"--verify-leaves"},
+      defaultValue = "false",
+      description =
+          "Whether to only check the pages at the maximum depth for being reachable (default:"
+              + " ${DEFAULT-VALUE})")
+  private boolean verifyLeaves;
+
+  @CommandLine.Option(
+      names = {"--ignore-robots"},
+      defaultValue = "false",
+      description =
+          "Whether to skip fetching the robots.txt of the site (default: ${DEFAULT-VALUE})")
+  private boolean ignoreRobotsTxt;
+
+  @CommandLine.Option(
+      names = {"--metrics"},
+      defaultValue = "false",
+      description =
+          "Whether to record the metrics of the crawl like the app does with --metrics (default:"
+              + " ${DEFAULT-VALUE})")
+  private boolean metrics;
+
+  @CommandLine.Option(
+      names = {"--translation-batch-size"},
+      defaultValue = "50",
+      description =
+          "The number of headings which are batched for translation (default: ${DEFAULT-VALUE})")
+  private int translationBatchSize;
+
+  @CommandLine.Option(
+      names = {"--translation-window"},
+      defaultValue = "200",
+      description =
+          "The maximum time in milliseconds headings wait for their batch to fill up (default:"
+              + " ${DEFAULT-VALUE})")
+  private long translationWindow;
+
+  public static void main(String[] args) {
+    System.exit(new CommandLine(new CrawlLoadBenchmark()).execute(args));
+  }
+
+  @Override
+  public Integer call() throws IOException {
+    SyntheticSite.Shape shape =
+        new SyntheticSite.Shape(
+            fanOut, pageSize, headings, brokenRatio, Duration.ofMillis(latency));
+
+    try (SyntheticSite site = new SyntheticSite(shape)) {
+      System.out.println("run      pages  pages/s    p50 ms    p99 ms        MiB  peak heap MiB");
+      for (int run = 1; run <= runs; run++) {
+        System.out.println(crawl(site, run));
+      }
+    }
+    return 0;
+  }
+
+  private String crawl(SyntheticSite site, int run) throws IOException {
+    System.gc();
+    long bytesBefore = site.bytes();
+
+    OkHttpClient httpClient = OkHttpDocumentProvider.newPooledClient(connectionPoolSize, threads);
+
+    TimedDocumentProvider timed;
+    long start;
+    long elapsed;
+    long peakHeap;
+    try (HeapSampler heap = new HeapSampler();
+        Crawler crawler = new Crawler(threads, virtualThreads);
+        CrawlPipeline pipeline =
+            new CrawlPipeline(
+                httpClient,
+                new HostScheduler.Limits(hostConnections, Duration.ZERO, 0),
+                metrics ? new CrawlMetrics() : null,
+                null,
+                !ignoreRobotsTxt);
+        BatchingTranslator translator =
+            pipeline.batch(
+                pipeline.withMetrics(NO_TRANSLATOR),
+                translationBatchSize,
+                Duration.ofMillis(translationWindow))) {
+      timed =
+          new TimedDocumentProvider(
+              new OkHttpDocumentProvider(
+                  pipeline.getPageClient(), DocumentParser.fromString(parser)));
+      WebPage webPage =
+          pipeline.newRoot(
+              site.rootUrl(),
+              depth,
+              pipeline.wrap(timed, List.of()),
+              translator,
+              crawler,
+              verifyLeaves);
+
+      start = System.nanoTime();
+      webPage.tryFetchAsync().thenCompose(fetched -> webPage.tryAnalyzeAsync()).join();
+      webPage.toMarkdown(Writer.nullWriter(), 0);
+      elapsed = System.nanoTime() - start;
+      peakHeap = heap.peak();
+    } finally {
+      httpClient.dispatcher().executorService().shutdown();
+      httpClient.connectionPool().evictAll();
+    }
+
+    // Every webpage is fetched or verified exactly once, while the site also counts the HEAD and
+    // range requests of a verification and the request of the robots.txt.
+    long pages = timed.count();
+    return "%3d %10d %8.1f %9.2f %9.2f %10.1f %14.1f"
+        .formatted(
+            run,
+            pages,
+            pages / (elapsed / 1e9),
+            timed.percentile(50) / 1e6,
+            timed.percentile(99) / 1e6,
+            (site.bytes() - bytesBefore) / (double) (1 << 20),
+            peakHeap / (double) (1 << 20));
+  }
+
+  /** Samples the used heap every few milliseconds and keeps the highest sample. */
+  private static final class HeapSampler implements AutoCloseable {
+
+    private final MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+    private final AtomicLong peak = new AtomicLong();
+    private final ScheduledExecutorService sampler =
+        Executors.newSingleThreadScheduledExecutor(
+            runnable -> {
+              Thread thread = new Thread(runnable, "heap-sampler");
+              thread.setDaemon(true);
+              return thread;
+            });
+
+    HeapSampler() {
+      sampler.scheduleAtFixedRate(this::sample, 0, 5, TimeUnit.MILLISECONDS);
+    }
+
+    private void sample() {
+      peak.accumulateAndGet(memory.getHeapMemoryUsage().getUsed(), Math::max);
+    }
+
+    long peak() {
+      sample();
+      return peak.get();
+    }
+
+    @Override
+    public void close() {
+      sampler.shutdownNow();
+    }
+  }
+}
@@ -0,0 +1,163 @@
+package com.github.webcrawler.load;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A website served by an HTTP server on the loopback interface, whose pages are generated on
+ * request. The pages form a tree in which page n links to the pages n * fanOut + 1 to n * fanOut +
+ * fanOut, and every page also links back to the root and to its parent, so the crawler has to skip
+ * links it has already seen. A share of the links points to pages which answer with 404. Every
+ * response is sent after a fixed latency, without blocking a thread of the server meanwhile.
+ */
+final class SyntheticSite implements AutoCloseable {
+
+  private static final String FILLER =
+      "Lorem ipsum dolor sit amet, consectetur adipiscing elit, sed do eiusmod tempor incididunt"
+          + " ut labore et dolore magna aliqua. ";
+
+  /**
+   * @param fanOut The number of links of each page to new pages.
+   * @param pageSize The minimum number of bytes of each page.
+   * @param headings The number of headings of each page.
+   * @param brokenRatio The share of the links to new pages which are broken.
+   * @param latency The time the server waits before it answers.
+   */
+  record Shape(int fanOut, int pageSize, int headings, double brokenRatio, Duration latency) {}
+
+  private final Shape shape;
+  private final HttpServer server;
+  private final ExecutorService handlers;
+  private final ScheduledExecutorService responders;
+
+  private final AtomicLong bytes = new AtomicLong();
+
+  /**
+   * Start the server on a free port.
+   *
+   * @param shape The shape of the site.
+   * @throws IOException If the server cannot be started.
+   */
+  SyntheticSite(Shape shape) throws IOException {
+    this.shape = shape;
+    this.server =
+        HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 1024);
+    this.handlers = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+    this.responders = Executors.newScheduledThreadPool(2);
+
+    server.createContext("/", this::handle);
+    server.setExecutor(handlers);
+    server.start();
+  }
+
+  /** @return The URL of the root page. */
+  String rootUrl() {
+    return "http://%s:%d/page/0"
+        .formatted(server.getAddress().getHostString(), server.getAddress().getPort());
+  }
+
+  /** @return The number of bytes of the bodies sent so far. */
+  long bytes() {
+    return bytes.get();
+  }
+
+  private void handle(HttpExchange exchange) {
+    String path = exchange.getRequestURI().getPath();
+
+    byte[] body;
+    int status;
+    if (path.startsWith("/page/")) {
+      status = 200;
+      body = page(Long.parseLong(path.substring("/page/".length())));
+    } else {
+      status = 404;
+      body = "<h1>Not Found</h1>".getBytes(StandardCharsets.UTF_8);
+    }
+
+    long latency = shape.latency().toNanos();
+    if (latency == 0) {
+      respond(exchange, status, body);
+    } else {
+      responders.schedule(
+          () -> handlers.execute(() -> respond(exchange, status, body)),
+          latency,
+          TimeUnit.NANOSECONDS);
+    }
+  }
+
+  private void respond(HttpExchange exchange, int status, byte[] body) {
+    try (exchange) {
+      exchange.getResponseHeaders().set("Content-Type", "text/html; charset=utf-8");
+      if (exchange.getRequestMethod().equals("HEAD")) {
+        exchange.sendResponseHeaders(status, -1);
+      } else {
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+          out.write(body);
+        }
+        bytes.addAndGet(body.length);
+      }
+    } catch (IOException ignored) {
+      // The crawler has given up on the request.
+    }
+  }
+
+  private byte[] page(long id) {
+    SplittableRandom random = new SplittableRandom(id);
+    StringBuilder html = new StringBuilder(shape.pageSize() + 1024);
+
+    html.append("<!DOCTYPE html><html><head><title>Page ")
+        .append(id)
+        .append("</title></head><body>\n");
+    for (int i = 0; i < shape.headings(); i++) {
+      int level = i % 6 + 1;
+      html.append("<h")
+          .append(level)
+          .append(">Heading ")
+          .append(i)
+          .append(" of page ")
+          .append(id)
+          .append("</h")
+          .append(level)
+          .append(">\n");
+    }
+
+    html.append("<a href=\"/page/0\">Home</a>\n");
+    html.append("<a href=\"/page/")
+        .append(id == 0 ? 0 : (id - 1) / shape.fanOut())
+        .append("\">Up</a>\n");
+    for (int i = 1; i <= shape.fanOut(); i++) {
+      long child = id * shape.fanOut() + i;
+      String prefix = random.nextDouble() < shape.brokenRatio() ? "/missing/" : "/page/";
+      html.append("<a href=\"").append(prefix).append(child).append("\">Child ").append(i);
+      html.append("</a>\n");
+    }
+
+    while (html.length() < shape.pageSize()) {
+      html.append("<p>").append(FILLER).append(FILLER).append("</p>\n");
+    }
+    html.append("</body></html>\n");
+
+    return html.toString().getBytes(StandardCharsets.UTF_8);
+  }
+
+  /** Stop the server and its threads. */
+  @Override
+  public void close() {
+    server.stop(0);
+    responders.shutdownNow();
+    handlers.shutdownNow();
+  }
+}
@@ -0,0 +1,83 @@
+package com.github.webcrawler.load;
+
+import com.github.webcrawler.webpage.component.Document;
+import com.github.webcrawler.webpage.provider.DocumentProvider;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * A DocumentProvider which records how long each request of another DocumentProvider takes, from
+ * sending it to the parsed Document, whether it succeeds or not.
+ */
+final class TimedDocumentProvider implements DocumentProvider {
+
+  private final DocumentProvider provider;
+
+  private long[] latencies = new long[1024];
+  private int count;
+
+  TimedDocumentProvider(DocumentProvider provider) {
+    this.provider = provider;
+  }
+
+  private synchronized void record(long start) {
+    if (count == latencies.length) {
+      latencies = Arrays.copyOf(latencies, count * 2);
+    }
+    latencies[count++] = System.nanoTime() - start;
+  }
+
+  @Override
+  public Document getDocument(String url) throws IOException {
+    long start = System.nanoTime();
+    try {
+      return provider.getDocument(url);
+    } finally {
+      record(start);
+    }
+  }
+
+  @Override
+  public CompletableFuture<Document> getDocumentAsync(String url) {
+    long start = System.nanoTime();
+    return provider.getDocumentAsync(url).whenComplete((document, t) -> record(start));
+  }
+
+  @Override
+  public void verify(String url) throws IOException {
+    long start = System.nanoTime();
+    try {
+      provider.verify(url);
+    } finally {
+      record(start);
+    }
+  }
+
+  @Override
+  public CompletableFuture<Void> verifyAsync(String url) {
+    long start = System.nanoTime();
+    return provider.verifyAsync(url).whenComplete((ignored, t) -> record(start));
+  }
+
+  /** @return The number of requests recorded. */
+  synchronized int count() {
+    return count;
+  }
+
+  /**
+   * @param percentile The percentile between 0 and 100.
+   * @return The latency in nanoseconds which the given percentage of the requests did not exceed, 0
+   *     if there were none.
+   */
+  synchronized long percentile(double percentile) {
+    if (count == 0) {
+      return 0;
+    }
+
+    long[] sorted = Arrays.copyOf(latencies, count);
+    Arrays.sort(sorted);
+    int index = (int) Math.ceil(percentile / 100 * count) - 1;
+    return sorted[Math.max(0, Math.min(count - 1, index))];
+  }
+}
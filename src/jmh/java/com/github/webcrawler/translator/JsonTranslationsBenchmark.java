@@ -0,0 +1,48 @@
+package com.github.webcrawler.translator;
+
+import com.github.webcrawler.translator.DeepLTranslator.JsonTranslations;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/** Encoding and decoding of the translations sent to and received from the DeepL API. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class JsonTranslationsBenchmark {
+
+  @Param({"1", "50"})
+  private int texts;
+
+  private JsonTranslations translations;
+  private String json;
+
+  @Setup
+  public void setup() {
+    List<String> headings = new ArrayList<>();
+    for (int i = 0; i < texts; i++) {
+      headings.add("\u00dcberschrift " + i + ": Die Welt im Wandel \"zitiert\"");
+    }
+
+    translations = JsonTranslations.fromLanguageAndTexts(Language.GERMAN, headings);
+    json = translations.toJsonString();
+  }
+
+  @Benchmark
+  public String toJsonString() {
+    return translations.toJsonString();
+  }
+
+  @Benchmark
+  public JsonTranslations fromJsonString() {
+    return JsonTranslations.fromJsonString(json);
+  }
+}
@@ -0,0 +1,87 @@
+package com.github.webcrawler.webpage;
+
+import com.github.webcrawler.translator.TranslationException;
+import com.github.webcrawler.translator.Translator;
+import com.github.webcrawler.webpage.component.Document;
+import com.github.webcrawler.webpage.component.Heading;
+import com.github.webcrawler.webpage.component.Link;
+import com.github.webcrawler.webpage.component.StreamingDocument;
+import com.github.webcrawler.webpage.provider.DocumentProvider;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Rendering the Markdown report of a crawled tree of webpages. The tree is crawled once from a
+ * synthetic site in which every webpage has the same number of headings and of links to new
+ * webpages, so its size is width to the power of the depth.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class WebPageBenchmark {
+
+  private static final String ROOT = "https://example.com/";
+  private static final int HEADINGS = 5;
+
+  @Param({"1", "2", "3"})
+  private int depth;
+
+  @Param({"10", "30"})
+  private int width;
+
+  private WebPage webPage;
+
+  /** A site without network access, which answers every URL with a page of fresh links. */
+  private record SyntheticSite(int width) implements DocumentProvider {
+
+    @Override
+    public Document getDocument(String url) {
+      List<Heading> headings = new ArrayList<>();
+      for (int i = 0; i < HEADINGS; i++) {
+        headings.add(new Heading(Heading.Level.values()[i % 6], "Heading " + i + " of " + url));
+      }
+
+      String base = url.endsWith("/") ? url : url + "/";
+      List<Link> links = new ArrayList<>();
+      for (int i = 0; i < width; i++) {
+        links.add(Link.fromString(base + i));
+      }
+      return new StreamingDocument(headings, links, 0);
+    }
+  }
+
+  @Setup
+  public void setup() throws IOException {
+    Translator translator =
+        texts -> {
+          throw new TranslationException("Benchmarks do not translate.");
+        };
+
+    try (Crawler crawler = new Crawler()) {
+      webPage = new WebPage(ROOT, depth, new SyntheticSite(width), translator, crawler);
+      webPage.fetch();
+      webPage.analyze();
+    }
+  }
+
+  @Benchmark
+  public String toMarkdown() {
+    return webPage.toMarkdown();
+  }
+
+  @Benchmark
+  public void toMarkdownStreaming() throws IOException {
+    webPage.toMarkdown(Writer.nullWriter(), 0);
+  }
+}
@@ -0,0 +1,84 @@
+package com.github.webcrawler.webpage.component;
+
+/**
+ * Builds HTML pages which look like the articles of a news site or a wiki: a head with meta tags,
+ * styles and scripts, a navigation and a footer full of links and an article whose sections have
+ * headings, paragraphs with inline markup and links and tables.
+ */
+final class HtmlFixtures {
+
+  static final String BASE_URL = "https://news.example.com/world/2024/article";
+
+  private HtmlFixtures() {}
+
+  /**
+   * @param sections The number of sections of the article, each with a few headings and links.
+   * @return The HTML of the page.
+   */
+  static String article(int sections) {
+    StringBuilder html = new StringBuilder(2048 + sections * 2048);
+
+    html.append(
+        """
+        <!DOCTYPE html>
+        <html lang="de">
+        <head>
+          <meta charset="utf-8">
+          <meta name="viewport" content="width=device-width, initial-scale=1">
+          <title>Die Welt im Wandel &ndash; Nachrichten</title>
+          <link rel="stylesheet" href="/static/css/main.css">
+          <style>body { font-family: sans-serif; } .nav > li { display: inline; }</style>
+          <script>window.dataLayer = window.dataLayer || []; if (a < b && c > d) { track(); }</script>
+        </head>
+        <body>
+        <header><nav><ul class="nav">
+        """);
+    for (int i = 0; i < 40; i++) {
+      html.append("  <li><a href=\"/ressort/")
+          .append(i)
+          .append("\" class=\"nav-link\">Ressort ")
+          .append(i)
+          .append("</a></li>\n");
+    }
+    html.append("</ul></nav></header>\n<main><article>\n");
+    html.append("<h1>Die Welt im Wandel: Was sich &auml;ndert</h1>\n");
+
+    for (int section = 0; section < sections; section++) {
+      html.append("<section id=\"s").append(section).append("\">\n");
+      html.append("  <h2>Abschnitt ").append(section).append(" <small>aktualisiert</small></h2>\n");
+      for (int paragraph = 0; paragraph < 3; paragraph++) {
+        html.append("  <p>Lorem ipsum dolor sit amet, <em>consectetur</em> adipiscing elit, ")
+            .append("sed do eiusmod <a href=\"../related/")
+            .append(section)
+            .append('-')
+            .append(paragraph)
+            .append(".html?utm_source=article#top\">tempor incididunt</a> ut labore et dolore ")
+            .append("magna aliqua. Ut enim ad minim veniam, <strong>quis nostrud</strong> ")
+            .append("exercitation ullamco laboris nisi ut aliquip ex ea commodo consequat.</p>\n");
+      }
+      html.append("  <h3>Hintergrund zu ").append(section).append("</h3>\n");
+      html.append("  <table><tr><th>Jahr</th><th>Wert</th></tr>");
+      for (int row = 0; row < 4; row++) {
+        html.append("<tr><td>")
+            .append(2020 + row)
+            .append("</td><td>")
+            .append(row * section)
+            .append("</td></tr>");
+      }
+      html.append("</table>\n");
+      html.append("  <a href=\"https://partner.example.org/story/")
+          .append(section)
+          .append("\" rel=\"noopener\">Mehr beim Partner</a>\n");
+      html.append("  <a href=\"javascript:void(0)\">Teilen</a>\n");
+      html.append("</section>\n");
+    }
+
+    html.append("</article></main>\n<footer>\n");
+    for (int i = 0; i < 20; i++) {
+      html.append("  <a href=\"https://www.example.com/legal/").append(i).append("\">Link</a>\n");
+    }
+    html.append("</footer>\n</body>\n</html>\n");
+
+    return html.toString();
+  }
+}
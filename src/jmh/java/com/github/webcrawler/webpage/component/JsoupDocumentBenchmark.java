@@ -0,0 +1,41 @@
+package com.github.webcrawler.webpage.component;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.jsoup.Jsoup;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/** Extraction of the Headings and Links from a parsed page, which runs for every crawled page. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class JsoupDocumentBenchmark {
+
+  @Param({"10", "100"})
+  private int sections;
+
+  private JsoupDocument document;
+
+  @Setup
+  public void setup() {
+    document =
+        new JsoupDocument(Jsoup.parse(HtmlFixtures.article(sections), HtmlFixtures.BASE_URL));
+  }
+
+  @Benchmark
+  public List<Heading> getHeadings() {
+    return document.getHeadings();
+  }
+
+  @Benchmark
+  public List<Link> getLinks() {
+    return document.getLinks();
+  }
+}
@@ -0,0 +1,154 @@
+package com.github.webcrawler.app;
+
+import com.github.webcrawler.metrics.CrawlMetrics;
+import com.github.webcrawler.metrics.CrawlTrace;
+import com.github.webcrawler.metrics.HttpEventListener;
+import com.github.webcrawler.translator.BatchingTranslator;
+import com.github.webcrawler.translator.MeteredTranslator;
+import com.github.webcrawler.translator.Translator;
+import com.github.webcrawler.webpage.Crawler;
+import com.github.webcrawler.webpage.WebPage;
+import com.github.webcrawler.webpage.provider.DocumentProvider;
+import com.github.webcrawler.webpage.provider.HostScheduler;
+import com.github.webcrawler.webpage.provider.MeteredDocumentProvider;
+import com.github.webcrawler.webpage.provider.PoliteDocumentProvider;
+import com.github.webcrawler.webpage.provider.RobotsTxtCache;
+import com.github.webcrawler.webpage.provider.SitemapDocumentProvider;
+import java.time.Duration;
+import java.util.List;
+import okhttp3.OkHttpClient;
+
+/**
+ * CrawlPipeline wires the clients, DocumentProviders and Translators of a crawl and prepares its
+ * root WebPages. The DefaultApp and the load benchmark both crawl through it, so the benchmark
+ * measures the same chain the app runs. Closing the CrawlPipeline closes its HostScheduler.
+ */
+public class CrawlPipeline implements AutoCloseable {
+
+  private final OkHttpClient pageClient;
+  private final HostScheduler hostScheduler;
+  private final CrawlMetrics metrics;
+  private final CrawlTrace trace;
+  private final RobotsTxtCache robotsTxts;
+
+  /**
+   * @param httpClient The client to fetch the webpages, sitemaps and robots.txt files with.
+   * @param hostLimits The limits the requests to each host have to obey.
+   * @param metrics The metrics to record, null to record none.
+   * @param trace The trace to write the webpages to, null to write none.
+   * @param obeyRobotsTxt Whether to skip links which the robots.txt of their host disallows.
+   */
+  public CrawlPipeline(
+      OkHttpClient httpClient,
+      HostScheduler.Limits hostLimits,
+      CrawlMetrics metrics,
+      CrawlTrace trace,
+      boolean obeyRobotsTxt) {
+    this.pageClient = withEventListener(httpClient, metrics, trace);
+    this.hostScheduler = new HostScheduler(hostLimits);
+    this.metrics = metrics;
+    this.trace = trace;
+    this.robotsTxts =
+        obeyRobotsTxt
+            ? new RobotsTxtCache(
+                pageClient,
+                RobotsTxtCache.DEFAULT_USER_AGENT,
+                hostScheduler,
+                hostScheduler::setMinDelay)
+            : null;
+  }
+
+  /**
+   * @return A client sharing the connections of httpClient which counts the bytes it fetches and
+   *     times its calls for the trace.
+   */
+  private static OkHttpClient withEventListener(
+      OkHttpClient httpClient, CrawlMetrics metrics, CrawlTrace trace) {
+    if (metrics == null && trace == null) {
+      return httpClient;
+    }
+
+    return httpClient
+        .newBuilder()
+        .eventListenerFactory(HttpEventListener.factory(metrics, trace))
+        .build();
+  }
+
+  /** @return The client to fetch the webpages with. */
+  public OkHttpClient getPageClient() {
+    return pageClient;
+  }
+
+  /**
+   * Wrap the DocumentProvider fetching the webpages, so the sitemaps are read, the metrics are
+   * recorded and the limits of the hosts are obeyed.
+   *
+   * @param provider The DocumentProvider fetching the webpages with the page client.
+   * @param sitemaps The urls of the sitemaps which are crawled.
+   * @return The DocumentProvider to crawl with.
+   */
+  public DocumentProvider wrap(DocumentProvider provider, List<String> sitemaps) {
+    if (!sitemaps.isEmpty()) {
+      provider = new SitemapDocumentProvider(pageClient, provider, sitemaps, hostScheduler);
+    }
+    if (metrics != null) {
+      provider = new MeteredDocumentProvider(provider, metrics);
+    }
+    return new PoliteDocumentProvider(provider, hostScheduler);
+  }
+
+  /**
+   * @param translator The Translator to translate the batches with.
+   * @param maxBatchSize The number of texts after which a batch is sent without waiting.
+   * @param window The maximum time texts wait for a batch to fill up.
+   * @return A BatchingTranslator which already translates the headings while crawling.
+   */
+  public BatchingTranslator batch(Translator translator, int maxBatchSize, Duration window) {
+    return new BatchingTranslator(translator, maxBatchSize, window);
+  }
+
+  /** @return The translator which records the metrics of its translations. */
+  public Translator withMetrics(Translator translator) {
+    return metrics == null ? translator : new MeteredTranslator(translator, metrics);
+  }
+
+  /**
+   * Create a root WebPage which records the metrics, writes the trace and obeys the robots.txt
+   * files. The crawler awaits the turns of the hosts before it starts a webpage.
+   *
+   * @param url The url of the webpage.
+   * @param maxDepth The depth to crawl to.
+   * @param provider The DocumentProvider returned by wrap.
+   * @param translator The Translator for the headings.
+   * @param crawler The Crawler to crawl the children with.
+   * @param verifyLeaves Whether to only verify the webpages at the maximum depth.
+   * @return The WebPage, not fetched yet.
+   */
+  public WebPage newRoot(
+      String url,
+      int maxDepth,
+      DocumentProvider provider,
+      Translator translator,
+      Crawler crawler,
+      boolean verifyLeaves) {
+    crawler.awaitHostTurns(hostScheduler);
+
+    WebPage webPage = new WebPage(url, maxDepth, provider, translator, crawler, verifyLeaves);
+    if (metrics != null) {
+      webPage.recordMetrics(metrics);
+    }
+    if (trace != null) {
+      webPage.traceTo(trace);
+    }
+    if (robotsTxts != null) {
+      webPage.obeyRobotsTxt(robotsTxts);
+    }
+    return webPage;
+  }
+
+  /** Stops the HostScheduler. */
+  @Override
+  public void close() {
+    hostScheduler.close();
+  }
+}
@@ -4,20 +4,47 @@ import com.github.webcrawler.commandline.Arguments;
 import com.github.webcrawler.commandline.CommandLine;
 import com.github.webcrawler.commandline.CommandlineException;
 import com.github.webcrawler.commandline.PicocliCommandline;
+import com.github.webcrawler.metrics.CrawlMetrics;
+import com.github.webcrawler.metrics.CrawlTrace;
+import com.github.webcrawler.metrics.MetricsServer;
+import com.github.webcrawler.metrics.ProgressReporter;
+import com.github.webcrawler.translator.BatchingTranslator;
+import com.github.webcrawler.translator.CachingTranslator;
 import com.github.webcrawler.translator.DeepLTranslator;
 import com.github.webcrawler.translator.Translator;
+import com.github.webcrawler.util.LongSet;
+import com.github.webcrawler.webpage.CrawlJournal;
+import com.github.webcrawler.webpage.Crawler;
+import com.github.webcrawler.webpage.SeenLinks;
 import com.github.webcrawler.webpage.WebPage;
+import com.github.webcrawler.webpage.provider.CachingDocumentProvider;
+import com.github.webcrawler.webpage.provider.DocumentParser;
+import com.github.webcrawler.webpage.provider.DocumentProvider;
+import com.github.webcrawler.webpage.provider.HostScheduler;
 import com.github.webcrawler.webpage.provider.JsoupDocumentProvider;
+import com.github.webcrawler.webpage.provider.OkHttpDocumentProvider;
+import java.io.BufferedWriter;
 import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.Charset;
 import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.time.Duration;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import javax.management.JMException;
+import okhttp3.OkHttpClient;
+import okhttp3.Response;
 
 public class DefaultApp implements App {
 
   private final CommandLine commandLine = new PicocliCommandline();
   private Arguments parsedArgs;
+  private CrawlMetrics metrics;
 
   /**
    * Crawl Webpages recursively, translate the headings and write a Markdown report.
@@ -37,8 +64,58 @@ public class DefaultApp implements App {
         return 0;
       }
 
-      List<WebPage> webPages = initializeWebpages();
-      analyzeTranslateAndWriteMarkdownReport(webPages);
+      OkHttpClient httpClient =
+          OkHttpDocumentProvider.newPooledClient(
+              parsedArgs.getConnectionPoolSize(), parsedArgs.getThreads());
+      this.metrics = createMetrics();
+      CrawlTrace trace = createTrace();
+
+      try (trace;
+          MetricsServer metricsServer = createMetricsServer();
+          Crawler crawler =
+              new Crawler(
+                  parsedArgs.getThreads(),
+                  parsedArgs.getVirtualThreads(),
+                  getSeenLinksFactory(),
+                  toPath(parsedArgs.getFrontierDirectory()));
+          CrawlPipeline pipeline =
+              new CrawlPipeline(
+                  httpClient, getHostLimits(), metrics, trace, !parsedArgs.getIgnoreRobotsTxt());
+          BatchingTranslator translator =
+              createTranslator(pipeline, withTranslationErrors(httpClient));
+          CrawlJournal journal = createJournal();
+          CachingDocumentProvider httpCache = createHttpCache(pipeline.getPageClient())) {
+        if (metricsServer != null) {
+          // With port 0 the server listens on any free port, which is only known now.
+          System.err.println(
+              "Serving metrics at http://localhost:" + metricsServer.getPort() + "/metrics");
+        }
+        DocumentProvider provider =
+            pipeline.wrap(
+                httpCache == null ? createDocumentProvider(pipeline.getPageClient()) : httpCache,
+                parsedArgs.getSitemaps());
+
+        List<WebPage> webPages = initializeWebpages(pipeline, crawler, provider, translator);
+        if (parsedArgs.getNearDuplicateDistance() >= 0) {
+          webPages.forEach(
+              webPage -> webPage.skipNearDuplicates(parsedArgs.getNearDuplicateDistance()));
+        }
+        if (journal != null) {
+          webPages.forEach(webPage -> webPage.journalTo(journal));
+        }
+
+        // The progress is only reported while crawling, so it is closed before the other resources.
+        ProgressReporter progress = createProgressReporter(crawler);
+        try {
+          analyzeTranslateAndWriteMarkdownReport(webPages);
+        } finally {
+          if (progress != null) {
+            progress.close();
+          }
+        }
+      } finally {
+        httpClient.dispatcher().executorService().shutdown();
+      }
 
     } catch (CommandlineException ex) {
       System.err.println(ex.getMessage());
@@ -52,42 +129,218 @@ public class DefaultApp implements App {
     return 0;
   }
 
-  private List<WebPage> initializeWebpages() {
-    Translator translator =
+  private CrawlMetrics createMetrics() throws JMException {
+    if (!parsedArgs.getMetrics() && parsedArgs.getMetricsPort() < 0 && !parsedArgs.getProgress()) {
+      return null;
+    }
+
+    CrawlMetrics crawlMetrics = new CrawlMetrics();
+    crawlMetrics.registerMBean();
+    return crawlMetrics;
+  }
+
+  private MetricsServer createMetricsServer() throws IOException {
+    if (parsedArgs.getMetricsPort() < 0) {
+      return null;
+    }
+    return new MetricsServer(metrics, parsedArgs.getMetricsPort());
+  }
+
+  private ProgressReporter createProgressReporter(Crawler crawler) {
+    if (!parsedArgs.getProgress()) {
+      return null;
+    }
+    return new ProgressReporter(
+        metrics,
+        crawler::getFrontierSize,
+        System.err,
+        Duration.ofMillis(parsedArgs.getProgressInterval()));
+  }
+
+  private CrawlTrace createTrace() throws IOException {
+    if (parsedArgs.getTracePath() == null) {
+      return null;
+    }
+    return new CrawlTrace(Paths.get(parsedArgs.getTracePath()), CrawlTrace.DEFAULT_CAPACITY);
+  }
+
+  /** @return A client sharing the connections of httpClient which counts error responses. */
+  private OkHttpClient withTranslationErrors(OkHttpClient httpClient) {
+    if (metrics == null) {
+      return httpClient;
+    }
+
+    return httpClient
+        .newBuilder()
+        .addInterceptor(
+            chain -> {
+              Response response = chain.proceed(chain.request());
+              if (!response.isSuccessful()) {
+                metrics.countTranslationError(response.code());
+              }
+              return response;
+            })
+        .build();
+  }
+
+  private HostScheduler.Limits getHostLimits() {
+    return new HostScheduler.Limits(
+        parsedArgs.getHostConnections(),
+        Duration.ofMillis(parsedArgs.getHostDelay()),
+        parsedArgs.getHostRate());
+  }
+
+  private Supplier<LongSet> getSeenLinksFactory() {
+    return SeenLinks.fromString(parsedArgs.getSeenLinks())
+        .factory(
+            parsedArgs.getSeenLinksFalsePositiveRate(), toPath(parsedArgs.getSeenLinksDirectory()));
+  }
+
+  private static Path toPath(String path) {
+    return path == null ? null : Paths.get(path);
+  }
+
+  private CrawlJournal createJournal() throws IOException {
+    if (parsedArgs.getCheckpointPath() == null) {
+      if (parsedArgs.getResume()) {
+        throw new IllegalArgumentException("Resuming requires a checkpoint file.");
+      }
+      return null;
+    }
+
+    return new CrawlJournal(
+        Paths.get(parsedArgs.getCheckpointPath()),
+        Duration.ofMillis(parsedArgs.getCheckpointInterval()),
+        parsedArgs.getResume());
+  }
+
+  private CachingDocumentProvider createHttpCache(OkHttpClient httpClient) {
+    if (parsedArgs.getHttpCacheDirectory() == null) {
+      return null;
+    }
+    if (!parsedArgs.getHttpClient().equalsIgnoreCase("okhttp")) {
+      throw new IllegalArgumentException("The HTTP cache requires the okhttp client.");
+    }
+
+    return new CachingDocumentProvider(
+        httpClient,
+        DocumentParser.fromString(parsedArgs.getParser()),
+        Paths.get(parsedArgs.getHttpCacheDirectory()),
+        parsedArgs.getHttpCacheSize() << 20);
+  }
+
+  private DocumentProvider createDocumentProvider(OkHttpClient httpClient) {
+    DocumentParser parser = DocumentParser.fromString(parsedArgs.getParser());
+
+    return switch (parsedArgs.getHttpClient().toLowerCase()) {
+      case "okhttp" -> new OkHttpDocumentProvider(httpClient, parser);
+      case "jsoup" -> new JsoupDocumentProvider(parser);
+      default -> throw new IllegalArgumentException(
+          "Unknown HTTP client: " + parsedArgs.getHttpClient());
+    };
+  }
+
+  private BatchingTranslator createTranslator(CrawlPipeline pipeline, OkHttpClient httpClient)
+      throws IOException {
+    return pipeline.batch(
+        createUnbatchedTranslator(pipeline, httpClient),
+        parsedArgs.getTranslationBatchSize(),
+        Duration.ofMillis(parsedArgs.getTranslationWindow()));
+  }
+
+  private Translator createUnbatchedTranslator(CrawlPipeline pipeline, OkHttpClient httpClient)
+      throws IOException {
+    DeepLTranslator deepLTranslator =
         new DeepLTranslator(
+            httpClient,
             parsedArgs.getTargetLanguage(),
             parsedArgs.getDeeplAuthKey(),
-            parsedArgs.getDeeplIsPro());
+            parsedArgs.getDeeplIsPro(),
+            DeepLTranslator.Limits.withRequestLimits(
+                parsedArgs.getTranslationRequests(),
+                parsedArgs.getTranslationRate(),
+                parsedArgs.getTranslationRetries()));
+    Translator translator = pipeline.withMetrics(deepLTranslator);
 
-    return parsedArgs.getUrls().stream()
-        .map(
-            url ->
-                new WebPage(url, parsedArgs.getMaxDepth(), new JsoupDocumentProvider(), translator))
+    if (parsedArgs.getTranslationCachePath() == null) {
+      return translator;
+    }
+    return new CachingTranslator(
+        translator,
+        deepLTranslator.targetLanguage(),
+        Paths.get(parsedArgs.getTranslationCachePath()));
+  }
+
+  private List<WebPage> initializeWebpages(
+      CrawlPipeline pipeline, Crawler crawler, DocumentProvider provider, Translator translator) {
+    int maxDepth = parsedArgs.getMaxDepth();
+
+    // The webpages of a sitemap are its children, so they get one more level to reach the depth.
+    return Stream.concat(
+            parsedArgs.getUrls().stream()
+                .map(url -> newWebPage(pipeline, url, maxDepth, crawler, provider, translator)),
+            parsedArgs.getSitemaps().stream()
+                .map(
+                    sitemap ->
+                        newWebPage(pipeline, sitemap, maxDepth + 1, crawler, provider, translator)))
         .toList();
   }
 
+  private WebPage newWebPage(
+      CrawlPipeline pipeline,
+      String url,
+      int maxDepth,
+      Crawler crawler,
+      DocumentProvider provider,
+      Translator translator) {
+    return pipeline.newRoot(
+        url, maxDepth, provider, translator, crawler, parsedArgs.getVerifyLeaves());
+  }
+
   private void analyzeTranslateAndWriteMarkdownReport(List<WebPage> webPages) throws IOException {
     analyzeAndTranslateWebpages(webPages);
+
+    long start = System.nanoTime();
     writeMarkdownReport(webPages);
+    if (metrics != null) {
+      metrics.stage(CrawlMetrics.Stage.RENDER).recordSince(start);
+    }
   }
 
   private void analyzeAndTranslateWebpages(List<WebPage> webPages) {
-    webPages.parallelStream()
-        .forEach(
-            webPage -> {
-              webPage.tryFetch();
-              webPage.tryAnalyze();
-              webPage.tryTranslate();
-            });
+    CompletableFuture.allOf(
+            webPages.stream()
+                .map(
+                    webPage ->
+                        webPage
+                            .tryFetchAsync()
+                            .thenCompose(fetched -> webPage.tryAnalyzeAsync())
+                            .thenRunAsync(webPage::tryTranslate))
+                .toArray(CompletableFuture[]::new))
+        .join();
   }
 
   private void writeMarkdownReport(List<WebPage> webPages) throws IOException {
-    String generatedMarkdown =
-        webPages.stream().map(WebPage::toMarkdown).collect(Collectors.joining("\n\n\n"));
+    if (parsedArgs.getOutputFilePath().equals("-")) {
+      Writer out = new BufferedWriter(new OutputStreamWriter(System.out, Charset.defaultCharset()));
+      writeMarkdownReport(webPages, out);
+      out.write(System.lineSeparator());
+      out.flush();
+    } else {
+      try (Writer out =
+          Files.newBufferedWriter(
+              Paths.get(parsedArgs.getOutputFilePath()), Charset.defaultCharset())) {
+        writeMarkdownReport(webPages, out);
+      }
+    }
+  }
 
-    if (parsedArgs.getOutputFilePath().equals("-")) System.out.println(generatedMarkdown);
-    else {
-      Files.write(Paths.get(parsedArgs.getOutputFilePath()), generatedMarkdown.getBytes());
+  private void writeMarkdownReport(List<WebPage> webPages, Writer out) throws IOException {
+    String delimiter = "";
+    for (WebPage webPage : webPages) {
+      out.write(delimiter);
+      webPage.toMarkdown(out, 0);
+      delimiter = "\n\n\n";
     }
   }
 }
@@ -6,6 +6,8 @@ public interface Arguments {
 
   List<String> getUrls();
 
+  List<String> getSitemaps();
+
   int getMaxDepth();
 
   String getTargetLanguage();
@@ -14,5 +16,67 @@ public interface Arguments {
 
   boolean getDeeplIsPro();
 
+  int getTranslationRequests();
+
+  double getTranslationRate();
+
+  int getTranslationRetries();
+
+  String getTranslationCachePath();
+
+  int getTranslationBatchSize();
+
+  long getTranslationWindow();
+
   String getOutputFilePath();
+
+  int getThreads();
+
+  boolean getVirtualThreads();
+
+  int getHostConnections();
+
+  long getHostDelay();
+
+  double getHostRate();
+
+  String getHttpClient();
+
+  String getHttpCacheDirectory();
+
+  long getHttpCacheSize();
+
+  String getParser();
+
+  String getSeenLinks();
+
+  double getSeenLinksFalsePositiveRate();
+
+  String getSeenLinksDirectory();
+
+  String getFrontierDirectory();
+
+  boolean getIgnoreRobotsTxt();
+
+  int getNearDuplicateDistance();
+
+  String getCheckpointPath();
+
+  long getCheckpointInterval();
+
+  boolean getResume();
+
+  int getConnectionPoolSize();
+
+  boolean getVerifyLeaves();
+
+  boolean getMetrics();
+
+  int getMetricsPort();
+
+  boolean getProgress();
+
+  long getProgressInterval();
+
+  String getTracePath();
 }
@@ -8,10 +8,17 @@ public class PicocliArguments implements Arguments {
 
   @CommandLine.Parameters(
       paramLabel = "URLS",
-      arity = "1..*",
+      arity = "0..*",
       description = "The URL for the webpage to crawl")
   private List<String> urls;
 
+  @CommandLine.Option(
+      names = {"--sitemap"},
+      description =
+          "The URL of a sitemap or sitemap index, which may be gzip compressed, whose webpages are"
+              + " crawled up to the depth as if they were given as URLS")
+  private List<String> sitemaps;
+
   @CommandLine.Option(
       names = {"-d", "--depth"},
       defaultValue = "2",
@@ -36,16 +43,256 @@ public class PicocliArguments implements Arguments {
       description = "Whether to use DeepL pro version or not (default: ${DEFAULT-VALUE})")
   private boolean deeplIsPro;
 
+  @CommandLine.Option(
+      names = {"--translation-requests"},
+      defaultValue = "4",
+      description =
+          "The maximum number of concurrent requests to the DeepL API (default: ${DEFAULT-VALUE})")
+  private int translationRequests;
+
+  @CommandLine.Option(
+      names = {"--translation-rate"},
+      defaultValue = "0",
+      description =
+          "The maximum number of requests per second to the DeepL API, 0 for no limit (default:"
+              + " ${DEFAULT-VALUE})")
+  private double translationRate;
+
+  @CommandLine.Option(
+      names = {"--translation-retries"},
+      defaultValue = "5",
+      description =
+          "How often a failed request to the DeepL API is retried with backoff (default:"
+              + " ${DEFAULT-VALUE})")
+  private int translationRetries;
+
+  @CommandLine.Option(
+      names = {"--translation-cache"},
+      description =
+          "A file to keep translations in, so that they are reused by later runs instead of being"
+              + " sent to DeepL again")
+  private String translationCachePath;
+
+  @CommandLine.Option(
+      names = {"--translation-batch-size"},
+      defaultValue = "50",
+      description =
+          "The number of headings which are sent for translation together while crawling"
+              + " (default: ${DEFAULT-VALUE})")
+  private int translationBatchSize;
+
+  @CommandLine.Option(
+      names = {"--translation-window"},
+      defaultValue = "200",
+      description =
+          "The maximum time in milliseconds headings wait for their batch to fill up (default:"
+              + " ${DEFAULT-VALUE})")
+  private long translationWindow;
+
   @CommandLine.Option(
       names = {"-o", "--output-file"},
       defaultValue = "-",
       description =
-          "The path to the generated markdown report. Use '-' to print to console (default: ${DEFAULT-VALUE})")
+          "The path to the generated markdown report. Use '-' to print to console (default:"
+              + " ${DEFAULT-VALUE})")
   private String outputFilePath;
 
+  @CommandLine.Option(
+      names = {"-t", "--threads"},
+      defaultValue = "8",
+      description = "The number of webpages to crawl concurrently (default: ${DEFAULT-VALUE})")
+  private int threads;
+
+  @CommandLine.Option(
+      names = {"--virtual-threads"},
+      defaultValue = "false",
+      description =
+          "Whether to crawl on virtual threads, requires Java 21 (default: ${DEFAULT-VALUE})")
+  private boolean virtualThreads;
+
+  @CommandLine.Option(
+      names = {"--host-connections"},
+      defaultValue = "4",
+      description =
+          "The maximum number of concurrent requests per host (default: ${DEFAULT-VALUE})")
+  private int hostConnections;
+
+  @CommandLine.Option(
+      names = {"--host-delay"},
+      defaultValue = "0",
+      description =
+          "The minimum delay in milliseconds between two requests to the same host (default:"
+              + " ${DEFAULT-VALUE})")
+  private long hostDelay;
+
+  @CommandLine.Option(
+      names = {"--host-rate"},
+      defaultValue = "0",
+      description =
+          "The maximum number of requests per second per host, 0 for no limit (default:"
+              + " ${DEFAULT-VALUE})")
+  private double hostRate;
+
+  @CommandLine.Option(
+      names = {"--http-client"},
+      defaultValue = "okhttp",
+      description =
+          "The HTTP client to fetch webpages with, either okhttp or jsoup (default:"
+              + " ${DEFAULT-VALUE})")
+  private String httpClient;
+
+  @CommandLine.Option(
+      names = {"--http-cache"},
+      description =
+          "A directory to cache the fetched webpages in, so that later runs only download the"
+              + " webpages which have changed (requires the okhttp client)")
+  private String httpCacheDirectory;
+
+  @CommandLine.Option(
+      names = {"--http-cache-size"},
+      defaultValue = "512",
+      description = "The maximum size of the HTTP cache in MiB (default: ${DEFAULT-VALUE})")
+  private long httpCacheSize;
+
+  @CommandLine.Option(
+      names = {"--parser"},
+      defaultValue = "dom",
+      description =
+          "How to extract headings and links, either dom or streaming without building a tree"
+              + " (default: ${DEFAULT-VALUE})")
+  private String parser;
+
+  @CommandLine.Option(
+      names = {"--seen-links"},
+      defaultValue = "exact",
+      description =
+          "How to remember the links already seen, either exact, bloom for a Bloom filter which"
+              + " may skip a few links or disk for an exact set in a file (default:"
+              + " ${DEFAULT-VALUE})")
+  private String seenLinks;
+
+  @CommandLine.Option(
+      names = {"--seen-links-fpp"},
+      defaultValue = "0.0001",
+      description =
+          "The probability that the Bloom filter skips a link which has not been seen (default:"
+              + " ${DEFAULT-VALUE})")
+  private double seenLinksFalsePositiveRate;
+
+  @CommandLine.Option(
+      names = {"--seen-links-dir"},
+      description = "The directory for the seen links on disk instead of the temporary directory")
+  private String seenLinksDirectory;
+
+  @CommandLine.Option(
+      names = {"--frontier-dir"},
+      description =
+          "A directory to keep the webpages waiting to be crawled in memory-mapped files instead"
+              + " of on the heap")
+  private String frontierDirectory;
+
+  @CommandLine.Option(
+      names = {"--ignore-robots"},
+      defaultValue = "false",
+      description =
+          "Whether to crawl links which the robots.txt of their host disallows (default:"
+              + " ${DEFAULT-VALUE})")
+  private boolean ignoreRobotsTxt;
+
+  @CommandLine.Option(
+      names = {"--near-duplicates"},
+      defaultValue = "-1",
+      description =
+          "The maximum number of bits in which the SimHashes of the texts of two webpages differ"
+              + " for the later one to be skipped as near duplicate, -1 to analyze all webpages"
+              + " (default: ${DEFAULT-VALUE})")
+  private int nearDuplicateDistance;
+
+  @CommandLine.Option(
+      names = {"--checkpoint"},
+      description =
+          "A file to record the progress of the crawl in, so that it can be resumed with --resume"
+              + " if it is interrupted")
+  private String checkpointPath;
+
+  @CommandLine.Option(
+      names = {"--checkpoint-interval"},
+      defaultValue = "1000",
+      description =
+          "The time in milliseconds between two writes of the progress to the checkpoint file"
+              + " (default: ${DEFAULT-VALUE})")
+  private long checkpointInterval;
+
+  @CommandLine.Option(
+      names = {"--resume"},
+      defaultValue = "false",
+      description =
+          "Whether to continue the crawl recorded in the checkpoint file instead of starting over"
+              + " (default: ${DEFAULT-VALUE})")
+  private boolean resume;
+
+  @CommandLine.Option(
+      names = {"--connection-pool"},
+      defaultValue = "16",
+      description =
+          "The maximum number of idle connections kept alive by okhttp (default:"
+              + " ${DEFAULT-VALUE})")
+  private int connectionPoolSize;
+
+  @CommandLine.Option(
+      names = {"--verify-leaves"},
+      defaultValue = "false",
+      description =
+          "Whether to only check the webpages at the maximum depth for being reachable instead of"
+              + " fetching their headings (default: ${DEFAULT-VALUE})")
+  private boolean verifyLeaves;
+
+  @CommandLine.Option(
+      names = {"--metrics"},
+      defaultValue = "false",
+      description =
+          "Whether to count the crawled webpages and time the stages of the crawl, which can be"
+              + " read over JMX (default: ${DEFAULT-VALUE})")
+  private boolean metrics;
+
+  @CommandLine.Option(
+      names = {"--metrics-port"},
+      defaultValue = "-1",
+      description =
+          "The port to serve the metrics in the Prometheus text format at /metrics on localhost,"
+              + " which turns on --metrics, -1 to not serve them (default: ${DEFAULT-VALUE})")
+  private int metricsPort;
+
+  @CommandLine.Option(
+      names = {"--progress"},
+      defaultValue = "false",
+      description =
+          "Whether to periodically print the progress of the crawl to stderr, which turns on"
+              + " --metrics (default: ${DEFAULT-VALUE})")
+  private boolean progress;
+
+  @CommandLine.Option(
+      names = {"--progress-interval"},
+      defaultValue = "5000",
+      description =
+          "The time in milliseconds between two lines of progress (default: ${DEFAULT-VALUE})")
+  private long progressInterval;
+
+  @CommandLine.Option(
+      names = {"--trace"},
+      description =
+          "A file to write one json line per crawled webpage to, with the time it waited, the"
+              + " phases of its HTTP request, parsing and extracting")
+  private String tracePath;
+
   @Override
   public List<String> getUrls() {
-    return urls;
+    return urls == null ? List.of() : urls;
+  }
+
+  @Override
+  public List<String> getSitemaps() {
+    return sitemaps == null ? List.of() : sitemaps;
   }
 
   @Override
@@ -68,8 +315,163 @@ public class PicocliArguments implements Arguments {
     return deeplIsPro;
   }
 
+  @Override
+  public int getTranslationRequests() {
+    return translationRequests;
+  }
+
+  @Override
+  public double getTranslationRate() {
+    return translationRate;
+  }
+
+  @Override
+  public int getTranslationRetries() {
+    return translationRetries;
+  }
+
+  @Override
+  public String getTranslationCachePath() {
+    return translationCachePath;
+  }
+
+  @Override
+  public int getTranslationBatchSize() {
+    return translationBatchSize;
+  }
+
+  @Override
+  public long getTranslationWindow() {
+    return translationWindow;
+  }
+
   @Override
   public String getOutputFilePath() {
     return outputFilePath;
   }
+
+  @Override
+  public int getThreads() {
+    return threads;
+  }
+
+  @Override
+  public boolean getVirtualThreads() {
+    return virtualThreads;
+  }
+
+  @Override
+  public int getHostConnections() {
+    return hostConnections;
+  }
+
+  @Override
+  public long getHostDelay() {
+    return hostDelay;
+  }
+
+  @Override
+  public double getHostRate() {
+    return hostRate;
+  }
+
+  @Override
+  public String getHttpClient() {
+    return httpClient;
+  }
+
+  @Override
+  public String getParser() {
+    return parser;
+  }
+
+  @Override
+  public String getSeenLinks() {
+    return seenLinks;
+  }
+
+  @Override
+  public double getSeenLinksFalsePositiveRate() {
+    return seenLinksFalsePositiveRate;
+  }
+
+  @Override
+  public String getSeenLinksDirectory() {
+    return seenLinksDirectory;
+  }
+
+  @Override
+  public String getFrontierDirectory() {
+    return frontierDirectory;
+  }
+
+  @Override
+  public boolean getIgnoreRobotsTxt() {
+    return ignoreRobotsTxt;
+  }
+
+  @Override
+  public int getNearDuplicateDistance() {
+    return nearDuplicateDistance;
+  }
+
+  @Override
+  public String getCheckpointPath() {
+    return checkpointPath;
+  }
+
+  @Override
+  public long getCheckpointInterval() {
+    return checkpointInterval;
+  }
+
+  @Override
+  public boolean getResume() {
+    return resume;
+  }
+
+  @Override
+  public String getHttpCacheDirectory() {
+    return httpCacheDirectory;
+  }
+
+  @Override
+  public long getHttpCacheSize() {
+    return httpCacheSize;
+  }
+
+  @Override
+  public int getConnectionPoolSize() {
+    return connectionPoolSize;
+  }
+
+  @Override
+  public boolean getVerifyLeaves() {
+    return verifyLeaves;
+  }
+
+  @Override
+  public boolean getMetrics() {
+    return metrics;
+  }
+
+  @Override
+  public int getMetricsPort() {
+    return metricsPort;
+  }
+
+  @Override
+  public boolean getProgress() {
+    return progress;
+  }
+
+  @Override
+  public long getProgressInterval() {
+    return progressInterval;
+  }
+
+  @Override
+  public String getTracePath() {
+    return tracePath;
+  }
 }
@@ -3,6 +3,7 @@ package com.github.webcrawler.commandline;
 import java.io.ByteArrayOutputStream;
 import java.io.PrintStream;
 import java.nio.charset.StandardCharsets;
+import java.util.List;
 
 public class PicocliCommandline implements CommandLine {
   private final picocli.CommandLine commandLine;
@@ -17,6 +18,17 @@ public class PicocliCommandline implements CommandLine {
   public Arguments parseArgs(String[] args) throws CommandlineException {
     try {
       commandLine.parseArgs(args);
+      if (!isUsageHelpRequested()
+          && !isVersionHelpRequested()
+          && arguments.getUrls().isEmpty()
+          && arguments.getSitemaps().isEmpty()) {
+        // Either URLS or --sitemap is required, which picocli cannot express for a parameter.
+        picocli.CommandLine.Model.CommandSpec spec = commandLine.getCommandSpec();
+        throw new picocli.CommandLine.MissingParameterException(
+            commandLine,
+            List.of(spec.positionalParameters().get(0), spec.findOption("--sitemap")),
+            "Missing required parameter: 'URLS' or option '--sitemap'");
+      }
     } catch (picocli.CommandLine.ParameterException ex) {
       throw new CommandlineException(ex);
     }
@@ -0,0 +1,291 @@
+package com.github.webcrawler.metrics;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToLongFunction;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * CrawlMetrics counts what happens while crawling and times the stages of the pipeline. Recording
+ * only increments LongAdders and Histograms, so the instrumentation is cheap enough to stay on
+ * while crawling. The metrics can be read over JMX and written in the Prometheus text format.
+ */
+public class CrawlMetrics implements CrawlMetricsMXBean {
+
+  /** The name the metrics are registered under with the platform MBeanServer. */
+  public static final String OBJECT_NAME = "com.github.webcrawler:type=CrawlMetrics";
+
+  /** The timed stages of the pipeline. */
+  public enum Stage {
+    /** Fetching and parsing a webpage. */
+    FETCH,
+    /** Extracting the headings from a parsed webpage. */
+    EXTRACT_HEADINGS,
+    /** Extracting the links from a parsed webpage. */
+    EXTRACT_LINKS,
+    /** A request to the translation api. */
+    TRANSLATE,
+    /** Rendering the Markdown report of a crawl. */
+    RENDER;
+
+    String label() {
+      return name().toLowerCase(Locale.ROOT);
+    }
+  }
+
+  private static final double[] QUANTILES = {0.5, 0.9, 0.99};
+
+  private final Map<Stage, Histogram> stages = new EnumMap<>(Stage.class);
+  private final ConcurrentMap<String, LongAdder> pages = new ConcurrentHashMap<>();
+  private final ConcurrentMap<String, LongAdder> translationErrors = new ConcurrentHashMap<>();
+  private final LongAdder fetchedBytes = new LongAdder();
+  private final LongAdder brokenLinks = new LongAdder();
+  private final LongAdder translatedCharacters = new LongAdder();
+  private final LongAdder submittedHeadings = new LongAdder();
+  private final LongAdder translatedHeadings = new LongAdder();
+
+  public CrawlMetrics() {
+    for (Stage stage : Stage.values()) {
+      stages.put(stage, new Histogram());
+    }
+  }
+
+  /**
+   * @param stage The stage of the pipeline.
+   * @return The histogram of the durations of the stage in nanoseconds.
+   */
+  public Histogram stage(Stage stage) {
+    return stages.get(stage);
+  }
+
+  /**
+   * Count a webpage which has entered a state.
+   *
+   * @param state The name of the state, for example "analyzed".
+   */
+  public void countPage(String state) {
+    pages.computeIfAbsent(state, ignored -> new LongAdder()).increment();
+  }
+
+  /** Count a link which has been found to be broken. */
+  public void countBrokenLink() {
+    brokenLinks.increment();
+  }
+
+  /**
+   * @param bytes The number of bytes of the body of a fetched webpage.
+   */
+  public void addFetchedBytes(long bytes) {
+    fetchedBytes.add(bytes);
+  }
+
+  /**
+   * @param characters The number of characters sent for translation.
+   */
+  public void addTranslatedCharacters(long characters) {
+    translatedCharacters.add(characters);
+  }
+
+  /**
+   * @param headings The number of headings sent for translation while crawling.
+   */
+  public void addSubmittedHeadings(long headings) {
+    submittedHeadings.add(headings);
+  }
+
+  /**
+   * @param headings The number of headings sent for translation while crawling which have been
+   *     translated.
+   */
+  public void addTranslatedHeadings(long headings) {
+    translatedHeadings.add(headings);
+  }
+
+  /**
+   * @param code The HTTP status code of an error response of the translation api.
+   */
+  public void countTranslationError(int code) {
+    translationErrors.computeIfAbsent(String.valueOf(code), ignored -> new LongAdder()).increment();
+  }
+
+  /**
+   * Register the metrics with the platform MBeanServer, replacing metrics registered before.
+   *
+   * @throws JMException If the metrics cannot be registered.
+   */
+  public void registerMBean() throws JMException {
+    MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+    ObjectName name = new ObjectName(OBJECT_NAME);
+
+    if (server.isRegistered(name)) {
+      server.unregisterMBean(name);
+    }
+    server.registerMBean(this, name);
+  }
+
+  @Override
+  public long getFetchedBytes() {
+    return fetchedBytes.sum();
+  }
+
+  @Override
+  public Map<String, Long> getPages() {
+    return sums(pages);
+  }
+
+  @Override
+  public long getBrokenLinks() {
+    return brokenLinks.sum();
+  }
+
+  @Override
+  public long getTranslatedCharacters() {
+    return translatedCharacters.sum();
+  }
+
+  @Override
+  public long getSubmittedHeadings() {
+    return submittedHeadings.sum();
+  }
+
+  @Override
+  public long getTranslatedHeadings() {
+    return translatedHeadings.sum();
+  }
+
+  @Override
+  public Map<String, Long> getTranslationErrors() {
+    return sums(translationErrors);
+  }
+
+  @Override
+  public Map<String, Long> getStageCounts() {
+    return byStage(Histogram::getCount);
+  }
+
+  @Override
+  public Map<String, Double> getStageMedianMillis() {
+    return byStageMillis(histogram -> histogram.quantile(0.5));
+  }
+
+  @Override
+  public Map<String, Double> getStageP99Millis() {
+    return byStageMillis(histogram -> histogram.quantile(0.99));
+  }
+
+  private static Map<String, Long> sums(Map<String, LongAdder> adders) {
+    Map<String, Long> sums = new TreeMap<>();
+    adders.forEach((key, adder) -> sums.put(key, adder.sum()));
+    return sums;
+  }
+
+  private Map<String, Long> byStage(ToLongFunction<Histogram> value) {
+    Map<String, Long> values = new TreeMap<>();
+    stages.forEach((stage, histogram) -> values.put(stage.label(), value.applyAsLong(histogram)));
+    return values;
+  }
+
+  private Map<String, Double> byStageMillis(ToDoubleFunction<Histogram> nanos) {
+    Map<String, Double> values = new TreeMap<>();
+    stages.forEach(
+        (stage, histogram) -> values.put(stage.label(), nanos.applyAsDouble(histogram) / 1e6));
+    return values;
+  }
+
+  /**
+   * Write the metrics in the Prometheus text exposition format.
+   *
+   * @param out The Appendable to write the metrics to.
+   * @throws IOException If the metrics cannot be written.
+   */
+  public void writePrometheus(Appendable out) throws IOException {
+    header(out, "webcrawler_fetched_bytes_total", "counter", "Bytes of the fetched webpages.");
+    sample(out, "webcrawler_fetched_bytes_total", "", getFetchedBytes());
+
+    header(out, "webcrawler_pages_total", "counter", "Webpages which have entered a state.");
+    for (Map.Entry<String, Long> entry : getPages().entrySet()) {
+      sample(out, "webcrawler_pages_total", label("state", entry.getKey()), entry.getValue());
+    }
+
+    header(out, "webcrawler_broken_links_total", "counter", "Links found to be broken.");
+    sample(out, "webcrawler_broken_links_total", "", getBrokenLinks());
+
+    header(
+        out,
+        "webcrawler_translated_characters_total",
+        "counter",
+        "Characters sent for translation.");
+    sample(out, "webcrawler_translated_characters_total", "", getTranslatedCharacters());
+
+    header(
+        out,
+        "webcrawler_submitted_headings_total",
+        "counter",
+        "Headings sent for translation while crawling.");
+    sample(out, "webcrawler_submitted_headings_total", "", getSubmittedHeadings());
+
+    header(
+        out,
+        "webcrawler_translated_headings_total",
+        "counter",
+        "Headings sent for translation while crawling which are translated.");
+    sample(out, "webcrawler_translated_headings_total", "", getTranslatedHeadings());
+
+    header(
+        out,
+        "webcrawler_translation_errors_total",
+        "counter",
+        "Error responses of the translation api.");
+    for (Map.Entry<String, Long> entry : getTranslationErrors().entrySet()) {
+      sample(
+          out,
+          "webcrawler_translation_errors_total",
+          label("code", entry.getKey()),
+          entry.getValue());
+    }
+
+    header(out, "webcrawler_stage_seconds", "summary", "Durations of the stages of the pipeline.");
+    for (Map.Entry<Stage, Histogram> entry : stages.entrySet()) {
+      String stage = label("stage", entry.getKey().label());
+      Histogram histogram = entry.getValue();
+      for (double quantile : QUANTILES) {
+        sample(
+            out,
+            "webcrawler_stage_seconds",
+            stage + "," + label("quantile", String.valueOf(quantile)),
+            histogram.quantile(quantile) / 1e9);
+      }
+      sample(out, "webcrawler_stage_seconds_sum", stage, histogram.getSum() / 1e9);
+      sample(out, "webcrawler_stage_seconds_count", stage, histogram.getCount());
+    }
+  }
+
+  private static void header(Appendable out, String name, String type, String help)
+      throws IOException {
+    out.append("# HELP ").append(name).append(' ').append(help).append('\n');
+    out.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+  }
+
+  private static String label(String name, String value) {
+    return name + "=\"" + value + "\"";
+  }
+
+  private static void sample(Appendable out, String name, String labels, Number value)
+      throws IOException {
+    out.append(name);
+    if (!labels.isEmpty()) {
+      out.append('{').append(labels).append('}');
+    }
+    out.append(' ').append(value.toString()).append('\n');
+  }
+}
@@ -0,0 +1,37 @@
+package com.github.webcrawler.metrics;
+
+import java.util.Map;
+
+/** The view of the CrawlMetrics for JMX clients like JConsole or VisualVM. */
+public interface CrawlMetricsMXBean {
+
+  /** @return The number of bytes of the bodies of the fetched webpages. */
+  long getFetchedBytes();
+
+  /** @return The number of webpages which have entered a state, by the name of the state. */
+  Map<String, Long> getPages();
+
+  /** @return The number of links found to be broken. */
+  long getBrokenLinks();
+
+  /** @return The number of characters sent for translation. */
+  long getTranslatedCharacters();
+
+  /** @return The number of headings which have been sent for translation while crawling. */
+  long getSubmittedHeadings();
+
+  /** @return The number of headings sent for translation while crawling which are translated. */
+  long getTranslatedHeadings();
+
+  /** @return The number of error responses of the translation api, by their HTTP status code. */
+  Map<String, Long> getTranslationErrors();
+
+  /** @return The number of timed operations, by the name of the stage. */
+  Map<String, Long> getStageCounts();
+
+  /** @return The median duration in milliseconds, by the name of the stage. */
+  Map<String, Double> getStageMedianMillis();
+
+  /** @return The 99th percentile of the duration in milliseconds, by the name of the stage. */
+  Map<String, Double> getStageP99Millis();
+}
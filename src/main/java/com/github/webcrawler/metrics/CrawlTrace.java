@@ -0,0 +1,227 @@
+package com.github.webcrawler.metrics;
+
+import com.google.gson.Gson;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import okhttp3.HttpUrl;
+import okhttp3.Request;
+
+/**
+ * CrawlTrace writes one json encoded line per crawled webpage to a file, with where the time of the
+ * webpage went: waiting in the frontier, resolving, connecting, waiting for the first byte,
+ * downloading, parsing and extracting. The lines are handed over to a background thread through a
+ * bounded buffer, so tracing never waits for the disk. If the buffer is full, the line is dropped
+ * instead of slowing down the crawl.
+ *
+ * <p>The timings of the HTTP calls are measured by an HttpEventListener and joined with the
+ * webpages by their URL. Only the calls whose request is tagged as fetching or verifying a webpage
+ * are kept, and only until the webpage is done. Webpages fetched without OkHttp have no such
+ * timings.
+ */
+public class CrawlTrace implements AutoCloseable {
+
+  /** The number of lines the buffer holds. */
+  public static final int DEFAULT_CAPACITY = 8192;
+
+  private static final Gson GSON = new Gson();
+
+  // Tells the writer that no more lines will come.
+  private static final JsonTrace END = new JsonTrace();
+
+  private final BlockingQueue<JsonTrace> buffer;
+  private final Map<HttpUrl, HttpTimings> httpTimings = new ConcurrentHashMap<>();
+  private final LongAdder dropped = new LongAdder();
+  private final Writer writer;
+  private final Thread thread;
+
+  private volatile IOException writeException;
+
+  // Tags the requests of webpages.
+  private enum WebPageCall {
+    INSTANCE
+  }
+
+  /** A single line in the file. */
+  private static final class JsonTrace {
+    private String url;
+    private String parent;
+    private int depth;
+    private String state;
+    private Double queue_ms;
+    private Double fetch_ms;
+    private Double dns_ms;
+    private Double connect_ms;
+    private Double ttfb_ms;
+    private Double download_ms;
+    private Double parse_ms;
+    private Double extract_ms;
+    private Long bytes;
+  }
+
+  /**
+   * Creates a new CrawlTrace, which overwrites the file.
+   *
+   * @param path The file to write the trace to.
+   * @param capacity The number of lines the buffer holds.
+   * @throws IOException If the file cannot be opened.
+   */
+  public CrawlTrace(Path path, int capacity) throws IOException {
+    this.buffer = new ArrayBlockingQueue<>(capacity);
+    this.writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8);
+
+    this.thread = new Thread(this::writeLines, "crawl-trace-writer");
+    thread.setDaemon(true);
+    thread.start();
+  }
+
+  /**
+   * Tag a request as fetching or verifying a webpage, so the timings of its call are traced.
+   *
+   * @param request The builder of the request.
+   * @return The builder.
+   */
+  public static Request.Builder tagWebPage(Request.Builder request) {
+    return request.tag(WebPageCall.class, WebPageCall.INSTANCE);
+  }
+
+  /**
+   * @param request The request of a call.
+   * @return Whether the request is tagged as fetching or verifying a webpage.
+   */
+  static boolean isWebPage(Request request) {
+    return request.tag(WebPageCall.class) != null;
+  }
+
+  /**
+   * Keep the timings of an HTTP call until the webpage of the URL is recorded. The timings of
+   * several calls for the same webpage are added up.
+   *
+   * @param url The URL of the call.
+   * @param timings The timings of the call.
+   */
+  void putHttpTimings(HttpUrl url, HttpTimings timings) {
+    httpTimings.merge(url, timings, HttpTimings::add);
+  }
+
+  /**
+   * Forget the timings of the HTTP calls of a webpage which is done without being recorded.
+   *
+   * @param url The URL of the webpage.
+   */
+  public void discardHttpTimings(String url) {
+    HttpUrl httpUrl = HttpUrl.parse(url);
+    if (httpUrl != null) {
+      httpTimings.remove(httpUrl);
+    }
+  }
+
+  /** @return The number of webpages whose timings are kept until they are recorded. */
+  int getPendingHttpTimings() {
+    return httpTimings.size();
+  }
+
+  /**
+   * Record a crawled webpage without blocking, the line is dropped if the buffer is full.
+   *
+   * @param page What has been measured of the webpage.
+   */
+  public void record(PageTrace page) {
+    if (!buffer.offer(toJson(page))) {
+      dropped.increment();
+    }
+  }
+
+  private JsonTrace toJson(PageTrace page) {
+    JsonTrace json = new JsonTrace();
+    json.url = page.url();
+    json.parent = page.parent();
+    json.depth = page.depth();
+    json.state = page.state();
+    json.queue_ms = page.parent() == null ? null : millis(page.queueWaitNanos());
+    if (page.fetchStartNanos() != 0) {
+      json.fetch_ms = millis(page.fetchEndNanos() - page.fetchStartNanos());
+    }
+    if (page.extractNanos() != 0) {
+      json.extract_ms = millis(page.extractNanos());
+    }
+
+    HttpUrl url = HttpUrl.parse(page.url());
+    HttpTimings timings = url == null ? null : httpTimings.remove(url);
+    if (timings != null) {
+      json.dns_ms = millis(timings.dnsNanos);
+      json.connect_ms = millis(timings.connectNanos);
+      json.ttfb_ms = millis(timings.timeToFirstByteNanos);
+      json.download_ms = millis(timings.downloadNanos);
+      json.bytes = timings.bytes;
+      // With a streaming parser, most of the parsing already happens while downloading.
+      if (timings.bodyEndNanos != 0 && page.fetchEndNanos() >= timings.bodyEndNanos) {
+        json.parse_ms = millis(page.fetchEndNanos() - timings.bodyEndNanos);
+      }
+    }
+    return json;
+  }
+
+  private static double millis(long nanos) {
+    return Math.round(nanos / 1e3) / 1e3;
+  }
+
+  private void writeLines() {
+    while (true) {
+      JsonTrace json;
+      try {
+        json = buffer.take();
+      } catch (InterruptedException e) {
+        return;
+      }
+      if (json == END) {
+        return;
+      }
+
+      // After a failed write, the lines are still taken so recording never blocks.
+      if (writeException == null) {
+        try {
+          writer.write(GSON.toJson(json));
+          writer.write('\n');
+          if (buffer.isEmpty()) {
+            writer.flush();
+          }
+        } catch (IOException e) {
+          writeException = e;
+        }
+      }
+    }
+  }
+
+  /** @return The number of lines dropped because the buffer was full. */
+  public long getDropped() {
+    return dropped.sum();
+  }
+
+  /**
+   * Write the lines left in the buffer and close the file.
+   *
+   * @throws IOException If a line could not be written.
+   */
+  @Override
+  public void close() throws IOException {
+    try {
+      buffer.put(END);
+      thread.join();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+
+    writer.close();
+    if (writeException != null) {
+      throw writeException;
+    }
+  }
+}
@@ -0,0 +1,115 @@
+package com.github.webcrawler.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A histogram of non-negative values like durations in nanoseconds, which records a value with a
+ * few atomic increments and without allocating. Like an HdrHistogram, the buckets are log-linear:
+ * every power of two is split into 16 buckets of equal width, so a percentile is accurate to 1/16
+ * of its value across the whole range of longs in a fixed array of counts.
+ */
+public class Histogram {
+
+  private static final int SUB_BUCKET_BITS = 4;
+  private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+  private static final int BUCKETS = (Long.SIZE - SUB_BUCKET_BITS + 1) * SUB_BUCKETS;
+
+  private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+  private final LongAdder count = new LongAdder();
+  private final LongAdder sum = new LongAdder();
+  private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+  /**
+   * Record a value, negative values are recorded as 0.
+   *
+   * @param value The value to record.
+   */
+  public void record(long value) {
+    long clamped = Math.max(0, value);
+
+    counts.incrementAndGet(bucket(clamped));
+    count.increment();
+    sum.add(clamped);
+    max.accumulate(clamped);
+  }
+
+  /**
+   * Record the time which has passed since a start time.
+   *
+   * @param startNanos The start time from System.nanoTime().
+   */
+  public void recordSince(long startNanos) {
+    record(System.nanoTime() - startNanos);
+  }
+
+  /** @return The index of the bucket of a non-negative value. */
+  static int bucket(long value) {
+    if (value < SUB_BUCKETS) {
+      return (int) value;
+    }
+
+    int exponent = Long.SIZE - 1 - Long.numberOfLeadingZeros(value);
+    int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+    return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+  }
+
+  /** @return The largest value which falls into a bucket. */
+  static long highestValue(int bucket) {
+    if (bucket < SUB_BUCKETS) {
+      return bucket;
+    }
+
+    int exponent = bucket / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+    long lowest = (long) (SUB_BUCKETS + bucket % SUB_BUCKETS) << (exponent - SUB_BUCKET_BITS);
+    long width = 1L << (exponent - SUB_BUCKET_BITS);
+    // The last bucket ends at Long.MAX_VALUE, where lowest + width would overflow.
+    return lowest + (width - 1);
+  }
+
+  /**
+   * The value below or at which the given share of the recorded values lie. The values recorded
+   * concurrently may or may not be taken into account.
+   *
+   * @param quantile The share of values between 0 and 1.
+   * @return The highest value of the bucket the quantile falls into, but at most the largest value
+   *     recorded, 0 if no value has been recorded.
+   */
+  public long quantile(double quantile) {
+    long total = 0;
+    long[] snapshot = new long[BUCKETS];
+    for (int i = 0; i < BUCKETS; i++) {
+      snapshot[i] = counts.get(i);
+      total += snapshot[i];
+    }
+    if (total == 0) {
+      return 0;
+    }
+
+    long rank = Math.max(1, (long) Math.ceil(quantile * total));
+    long seen = 0;
+    for (int i = 0; i < BUCKETS; i++) {
+      seen += snapshot[i];
+      if (seen >= rank) {
+        return Math.min(highestValue(i), getMax());
+      }
+    }
+    return getMax();
+  }
+
+  /** @return The number of recorded values. */
+  public long getCount() {
+    return count.sum();
+  }
+
+  /** @return The sum of the recorded values. */
+  public long getSum() {
+    return sum.sum();
+  }
+
+  /** @return The largest recorded value, 0 if no value has been recorded. */
+  public long getMax() {
+    return max.get();
+  }
+}
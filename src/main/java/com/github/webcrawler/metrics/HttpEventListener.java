@@ -0,0 +1,119 @@
+package com.github.webcrawler.metrics;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Proxy;
+import java.util.List;
+import okhttp3.Call;
+import okhttp3.EventListener;
+import okhttp3.Protocol;
+
+/**
+ * An OkHttp EventListener which measures a single call: it counts the fetched bytes in the
+ * CrawlMetrics and hands the timings of its phases over to the CrawlTrace once the call of a
+ * webpage has ended. OkHttp creates one listener per call, so no state is shared between calls.
+ */
+public class HttpEventListener extends EventListener {
+
+  private final CrawlMetrics metrics;
+  private final CrawlTrace trace;
+  private final HttpTimings timings = new HttpTimings();
+
+  private long dnsStart;
+  private long connectStart;
+  private long requestStart;
+  private long bodyStart;
+
+  /**
+   * @param metrics The metrics to count the bytes in, or null to not count them.
+   * @param trace The trace to hand the timings over to, or null to not trace the call.
+   */
+  public HttpEventListener(CrawlMetrics metrics, CrawlTrace trace) {
+    this.metrics = metrics;
+    this.trace = trace;
+  }
+
+  /**
+   * @param metrics The metrics to count the bytes in, or null to not count them.
+   * @param trace The trace to hand the timings over to, or null to not trace the calls.
+   * @return A factory creating a new HttpEventListener for every call.
+   */
+  public static EventListener.Factory factory(CrawlMetrics metrics, CrawlTrace trace) {
+    return call -> new HttpEventListener(metrics, trace);
+  }
+
+  @Override
+  public void dnsStart(Call call, String domainName) {
+    dnsStart = System.nanoTime();
+  }
+
+  @Override
+  public void dnsEnd(Call call, String domainName, List<InetAddress> inetAddressList) {
+    timings.dnsNanos += System.nanoTime() - dnsStart;
+  }
+
+  @Override
+  public void connectStart(Call call, InetSocketAddress inetSocketAddress, Proxy proxy) {
+    connectStart = System.nanoTime();
+  }
+
+  @Override
+  public void connectEnd(
+      Call call, InetSocketAddress inetSocketAddress, Proxy proxy, Protocol protocol) {
+    timings.connectNanos += System.nanoTime() - connectStart;
+  }
+
+  @Override
+  public void connectFailed(
+      Call call,
+      InetSocketAddress inetSocketAddress,
+      Proxy proxy,
+      Protocol protocol,
+      IOException ioe) {
+    timings.connectNanos += System.nanoTime() - connectStart;
+  }
+
+  @Override
+  public void requestHeadersStart(Call call) {
+    requestStart = System.nanoTime();
+  }
+
+  @Override
+  public void responseHeadersStart(Call call) {
+    timings.timeToFirstByteNanos = System.nanoTime() - requestStart;
+  }
+
+  @Override
+  public void responseBodyStart(Call call) {
+    bodyStart = System.nanoTime();
+  }
+
+  @Override
+  public void responseBodyEnd(Call call, long byteCount) {
+    timings.bodyEndNanos = System.nanoTime();
+    timings.downloadNanos = timings.bodyEndNanos - bodyStart;
+    timings.bytes += byteCount;
+
+    if (metrics != null) {
+      metrics.addFetchedBytes(byteCount);
+    }
+  }
+
+  @Override
+  public void callEnd(Call call) {
+    end(call);
+  }
+
+  @Override
+  public void callFailed(Call call, IOException ioe) {
+    end(call);
+  }
+
+  private void end(Call call) {
+    // The timings of other calls, like for robots.txt files and sitemaps, belong to no webpage.
+    if (trace != null && CrawlTrace.isWebPage(call.request())) {
+      trace.putHttpTimings(call.request().url(), timings);
+    }
+  }
+}
@@ -0,0 +1,34 @@
+package com.github.webcrawler.metrics;
+
+/**
+ * The phases of an HTTP call in nanoseconds, filled in by an HttpEventListener. Redirects and
+ * retries are part of the same call: their lookups and connects add up, the other phases are those
+ * of the last response. The same holds for several calls for the same webpage, like the HEAD and
+ * the Range request verifying it.
+ */
+final class HttpTimings {
+  long dnsNanos;
+  long connectNanos;
+  long timeToFirstByteNanos;
+  long downloadNanos;
+  long bytes;
+
+  // The time from System.nanoTime() when the body was read completely, 0 until it is.
+  long bodyEndNanos;
+
+  /**
+   * Add the timings of a later call for the same webpage.
+   *
+   * @param later The timings of the later call.
+   * @return These timings.
+   */
+  HttpTimings add(HttpTimings later) {
+    dnsNanos += later.dnsNanos;
+    connectNanos += later.connectNanos;
+    timeToFirstByteNanos = later.timeToFirstByteNanos;
+    downloadNanos = later.downloadNanos;
+    bytes += later.bytes;
+    bodyEndNanos = later.bodyEndNanos;
+    return this;
+  }
+}
@@ -0,0 +1,67 @@
+package com.github.webcrawler.metrics;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * MetricsServer serves the CrawlMetrics in the Prometheus text format at /metrics. It only listens
+ * on the loopback interface and answers on a single thread of its own.
+ */
+public class MetricsServer implements AutoCloseable {
+
+  private static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+  private final CrawlMetrics metrics;
+  private final HttpServer server;
+
+  /**
+   * Start serving the metrics.
+   *
+   * @param metrics The metrics to serve.
+   * @param port The port to listen on, 0 for any free port.
+   * @throws IOException If the server cannot be started.
+   */
+  public MetricsServer(CrawlMetrics metrics, int port) throws IOException {
+    this.metrics = metrics;
+    this.server =
+        HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+
+    server.createContext("/metrics", this::handle);
+    server.start();
+  }
+
+  /** @return The port the server listens on. */
+  public int getPort() {
+    return server.getAddress().getPort();
+  }
+
+  private void handle(HttpExchange exchange) throws IOException {
+    try (exchange) {
+      if (!exchange.getRequestMethod().equals("GET")) {
+        exchange.sendResponseHeaders(405, -1);
+        return;
+      }
+
+      StringBuilder text = new StringBuilder();
+      metrics.writePrometheus(text);
+      byte[] body = text.toString().getBytes(StandardCharsets.UTF_8);
+
+      exchange.getResponseHeaders().set("Content-Type", CONTENT_TYPE);
+      exchange.sendResponseHeaders(200, body.length);
+      try (OutputStream out = exchange.getResponseBody()) {
+        out.write(body);
+      }
+    }
+  }
+
+  /** Stop the server. */
+  @Override
+  public void close() {
+    server.stop(0);
+  }
+}
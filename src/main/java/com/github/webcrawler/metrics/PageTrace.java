@@ -0,0 +1,25 @@
+package com.github.webcrawler.metrics;
+
+/**
+ * What a crawl has measured of a single webpage, before the timings of its HTTP call are added by
+ * the CrawlTrace.
+ *
+ * @param url The URL of the webpage.
+ * @param parent The URL of the webpage it was found on, or null for the root of a crawl.
+ * @param depth The depth of the webpage in the crawl.
+ * @param state What became of the webpage, for example "analyzed" or "unreachable".
+ * @param queueWaitNanos The time the webpage waited in the frontier, 0 for the root of a crawl.
+ * @param fetchStartNanos The time from System.nanoTime() when fetching started, 0 if it did not.
+ * @param fetchEndNanos The time from System.nanoTime() when the Document was ready or fetching
+ *     failed, 0 if fetching did not start.
+ * @param extractNanos The time spent extracting the headings and the links.
+ */
+public record PageTrace(
+    String url,
+    String parent,
+    int depth,
+    String state,
+    long queueWaitNanos,
+    long fetchStartNanos,
+    long fetchEndNanos,
+    long extractNanos) {}
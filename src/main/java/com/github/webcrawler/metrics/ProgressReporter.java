@@ -0,0 +1,136 @@
+package com.github.webcrawler.metrics;
+
+import java.io.PrintStream;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntSupplier;
+
+/**
+ * ProgressReporter periodically prints a line about the progress of a crawl, so a long crawl can be
+ * watched while it runs. The line is built on a background thread from the CrawlMetrics, which only
+ * sums their counters, so reporting never holds up the threads crawling.
+ *
+ * <p>The rates are measured since the previous line, so a crawl stuck on a slow host shows up as a
+ * rate dropping towards zero. The estimated time left only takes the webpages into account which
+ * are already waiting to be crawled, and grows as more links are found.
+ */
+public class ProgressReporter implements AutoCloseable {
+
+  private final CrawlMetrics metrics;
+  private final IntSupplier waitingWebPages;
+  private final PrintStream out;
+  private final ScheduledExecutorService reporter;
+
+  private long previousNanos;
+  private long previousCrawled;
+  private long previousBytes;
+
+  /**
+   * Start reporting the progress.
+   *
+   * @param metrics The metrics of the crawl.
+   * @param waitingWebPages Supplies the number of webpages waiting to be crawled.
+   * @param out The stream to print the progress to, for example System.err.
+   * @param interval The time between two lines.
+   */
+  public ProgressReporter(
+      CrawlMetrics metrics, IntSupplier waitingWebPages, PrintStream out, Duration interval) {
+    this.metrics = metrics;
+    this.waitingWebPages = waitingWebPages;
+    this.out = out;
+    this.previousNanos = System.nanoTime();
+
+    this.reporter =
+        Executors.newSingleThreadScheduledExecutor(
+            runnable -> {
+              Thread thread = new Thread(runnable, "progress-reporter");
+              thread.setDaemon(true);
+              return thread;
+            });
+    long millis = Math.max(1, interval.toMillis());
+    reporter.scheduleAtFixedRate(this::print, millis, millis, TimeUnit.MILLISECONDS);
+  }
+
+  private void print() {
+    out.println(report(System.nanoTime()));
+  }
+
+  /**
+   * Build the line about the progress since the previous line.
+   *
+   * @param nowNanos The current time from System.nanoTime().
+   * @return The line without line separator.
+   */
+  synchronized String report(long nowNanos) {
+    Map<String, Long> pages = metrics.getPages();
+    long fetched = pages.getOrDefault("fetched", 0L);
+    long analyzed = pages.getOrDefault("analyzed", 0L);
+    long verified = pages.getOrDefault("verified", 0L);
+    long failed = metrics.getBrokenLinks();
+    long crawled = fetched + verified + failed;
+    long bytes = metrics.getFetchedBytes();
+    int waiting = waitingWebPages.getAsInt();
+
+    double seconds = Math.max(1, nowNanos - previousNanos) / 1e9;
+    double pagesPerSecond = (crawled - previousCrawled) / seconds;
+    double bytesPerSecond = (bytes - previousBytes) / seconds;
+
+    previousNanos = nowNanos;
+    previousCrawled = crawled;
+    previousBytes = bytes;
+
+    return String.format(
+        Locale.ROOT,
+        "progress: %d fetched, %d analyzed, %d verified, %d failed, %d waiting, %.1f pages/s,"
+            + " %s/s, %d/%d headings translated, eta %s",
+        fetched,
+        analyzed,
+        verified,
+        failed,
+        waiting,
+        pagesPerSecond,
+        formatBytes(bytesPerSecond),
+        metrics.getTranslatedHeadings(),
+        metrics.getSubmittedHeadings(),
+        formatEta(waiting, pagesPerSecond));
+  }
+
+  static String formatBytes(double bytes) {
+    String[] units = {"B", "KiB", "MiB", "GiB"};
+    int unit = 0;
+    while (bytes >= 1024 && unit < units.length - 1) {
+      bytes /= 1024;
+      unit++;
+    }
+    return String.format(Locale.ROOT, "%.1f %s", bytes, units[unit]);
+  }
+
+  static String formatEta(int waiting, double pagesPerSecond) {
+    if (waiting == 0) {
+      return "0:00:00";
+    }
+    if (pagesPerSecond <= 0) {
+      return "unknown";
+    }
+
+    long seconds = (long) Math.ceil(waiting / pagesPerSecond);
+    return String.format(
+        Locale.ROOT, "%d:%02d:%02d", seconds / 3600, seconds / 60 % 60, seconds % 60);
+  }
+
+  /** Stop reporting and print a last line with the final counts. */
+  @Override
+  public void close() {
+    reporter.shutdownNow();
+    try {
+      reporter.awaitTermination(1, TimeUnit.SECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    print();
+  }
+}
@@ -0,0 +1,180 @@
+package com.github.webcrawler.translator;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A Translator which collects the texts of many small asynchronous translations into batches for
+ * another Translator. A batch is sent as soon as it holds enough texts or when the oldest texts in
+ * it have waited for the batch window, so texts can be submitted while they are found and are
+ * translated in the background.
+ */
+public class BatchingTranslator implements Translator, AutoCloseable {
+
+  private final Translator translator;
+  private final int maxBatchSize;
+  private final Duration window;
+
+  private final ScheduledExecutorService timer =
+      Executors.newSingleThreadScheduledExecutor(daemonThreadFactory("batching-translator-timer"));
+  private final ExecutorService workers =
+      Executors.newCachedThreadPool(daemonThreadFactory("batching-translator"));
+
+  private List<Submission> pending = new ArrayList<>();
+  private int pendingTexts;
+  private ScheduledFuture<?> scheduledFlush;
+
+  private record Submission(List<String> texts, CompletableFuture<Result> result) {}
+
+  /**
+   * @param translator The Translator to translate the batches with.
+   * @param maxBatchSize The number of texts after which a batch is sent without waiting.
+   * @param window The maximum time texts wait for a batch to fill up.
+   */
+  public BatchingTranslator(Translator translator, int maxBatchSize, Duration window) {
+    if (maxBatchSize < 1) {
+      throw new IllegalArgumentException("A batch has to hold at least one text.");
+    }
+    if (window.isNegative()) {
+      throw new IllegalArgumentException("The batch window must not be negative.");
+    }
+
+    this.translator = translator;
+    this.maxBatchSize = maxBatchSize;
+    this.window = window;
+  }
+
+  /**
+   * Translate a list of texts and block until they are translated as part of a batch.
+   *
+   * @param texts The texts to translate.
+   * @return The Result containing source language, target language and the translations.
+   * @throws TranslationException If errors occur on translation.
+   */
+  @Override
+  public Result translate(List<String> texts) throws TranslationException {
+    try {
+      return translateAsync(texts).join();
+    } catch (CompletionException e) {
+      if (e.getCause() instanceof TranslationException cause) {
+        throw cause;
+      }
+      throw new TranslationException(e.getCause());
+    }
+  }
+
+  /**
+   * Add texts to the current batch.
+   *
+   * @param texts The texts to translate.
+   * @return A future of the Result for exactly these texts, which completes once their batch is
+   *     translated.
+   */
+  @Override
+  public CompletableFuture<Result> translateAsync(List<String> texts) {
+    if (texts == null || texts.isEmpty()) {
+      return CompletableFuture.supplyAsync(() -> translator.translate(texts), workers);
+    }
+
+    CompletableFuture<Result> result = new CompletableFuture<>();
+    List<Submission> batch = null;
+
+    synchronized (this) {
+      pending.add(new Submission(List.copyOf(texts), result));
+      pendingTexts += texts.size();
+
+      if (pendingTexts >= maxBatchSize) {
+        batch = takePending();
+      } else if (scheduledFlush == null) {
+        scheduledFlush = timer.schedule(this::flush, window.toNanos(), TimeUnit.NANOSECONDS);
+      }
+    }
+
+    if (batch != null) {
+      send(batch);
+    }
+    return result;
+  }
+
+  /** Send the current batch without waiting for it to fill up. */
+  public void flush() {
+    List<Submission> batch;
+    synchronized (this) {
+      batch = takePending();
+    }
+    send(batch);
+  }
+
+  private List<Submission> takePending() {
+    List<Submission> batch = pending;
+    pending = new ArrayList<>();
+    pendingTexts = 0;
+
+    if (scheduledFlush != null) {
+      scheduledFlush.cancel(false);
+      scheduledFlush = null;
+    }
+    return batch;
+  }
+
+  private void send(List<Submission> batch) {
+    if (!batch.isEmpty()) {
+      workers.execute(() -> translateBatch(batch));
+    }
+  }
+
+  private void translateBatch(List<Submission> batch) {
+    Result result;
+    try {
+      result =
+          translator.translate(
+              batch.stream().map(Submission::texts).flatMap(List::stream).toList());
+    } catch (Exception e) {
+      batch.forEach(submission -> submission.result().completeExceptionally(e));
+      return;
+    }
+
+    int offset = 0;
+    for (Submission submission : batch) {
+      int end = offset + submission.texts().size();
+      List<Language> sourceLanguages = result.sourceLanguages().subList(offset, end);
+
+      submission
+          .result()
+          .complete(
+              new Result(
+                  Result.dominantLanguage(sourceLanguages),
+                  result.targetLanguage(),
+                  result.translatedTexts().subList(offset, end),
+                  sourceLanguages));
+      offset = end;
+    }
+  }
+
+  /** Sends the texts which are still waiting and stops the threads once they are translated. */
+  @Override
+  public void close() {
+    flush();
+    timer.shutdownNow();
+    workers.shutdown();
+  }
+
+  private static ThreadFactory daemonThreadFactory(String name) {
+    AtomicInteger threadCount = new AtomicInteger();
+    return runnable -> {
+      Thread thread = new Thread(runnable, name + "-" + threadCount.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    };
+  }
+}
@@ -0,0 +1,185 @@
+package com.github.webcrawler.translator;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A Translator which remembers the translations of another Translator in a file, so texts which
+ * have been translated in an earlier run are not sent to the other Translator again. The file is an
+ * append-only log with one json encoded translation per line, which is read into an index in memory
+ * when the CachingTranslator is created.
+ */
+public class CachingTranslator implements Translator {
+
+  private static final Gson GSON = new Gson();
+
+  private final Translator translator;
+  private final Language targetLanguage;
+  private final Path path;
+
+  private final Map<Key, CachedTranslation> cache = new HashMap<>();
+
+  private record Key(Language targetLanguage, String text) {}
+
+  private record CachedTranslation(Language sourceLanguage, String translatedText) {}
+
+  /** A single line in the file. */
+  private static final class JsonCacheEntry {
+    private String target_lang;
+    private String detected_source_language;
+    private String text;
+    private String translation;
+  }
+
+  /**
+   * Creates a new CachingTranslator and loads the translations cached in the file.
+   *
+   * @param translator The Translator to translate the texts which are not cached with.
+   * @param targetLanguage The language to which the other Translator translates.
+   * @param path The file to cache the translations in, which is created if it does not exist.
+   * @throws IOException If the file cannot be read.
+   */
+  public CachingTranslator(Translator translator, Language targetLanguage, Path path)
+      throws IOException {
+    this.translator = translator;
+    this.targetLanguage = targetLanguage;
+    this.path = path;
+
+    load();
+  }
+
+  private void load() throws IOException {
+    if (!Files.exists(path)) {
+      return;
+    }
+
+    try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+      String line;
+      while ((line = reader.readLine()) != null) {
+        try {
+          JsonCacheEntry entry = GSON.fromJson(line, JsonCacheEntry.class);
+          if (entry == null
+              || entry.target_lang == null
+              || entry.text == null
+              || entry.translation == null) {
+            continue;
+          }
+
+          // A translation to an unknown language can never be looked up.
+          Language entryTargetLanguage = Language.fromString(entry.target_lang);
+          if (entryTargetLanguage == Language.UNKNOWN) {
+            continue;
+          }
+
+          Language sourceLanguage =
+              entry.detected_source_language == null
+                  ? Language.UNKNOWN
+                  : Language.fromString(entry.detected_source_language);
+          cache.put(
+              new Key(entryTargetLanguage, entry.text),
+              new CachedTranslation(sourceLanguage, entry.translation));
+        } catch (JsonParseException | IllegalArgumentException ignored) {
+          // A line written only partially by an interrupted run or by hand is skipped.
+        }
+      }
+    }
+  }
+
+  /** @return The number of cached translations. */
+  public synchronized int size() {
+    return cache.size();
+  }
+
+  /**
+   * Translate the texts which are not cached yet with the other Translator and add their
+   * translations to the cache.
+   *
+   * @param texts The texts to translate.
+   * @return The Result containing source language, target language and the translations.
+   * @throws TranslationException If errors occur on translation or on writing the cache.
+   */
+  @Override
+  public Result translate(List<String> texts) throws TranslationException {
+    if (texts == null || texts.isEmpty()) {
+      return translator.translate(texts);
+    }
+
+    Map<String, CachedTranslation> translations = new HashMap<>();
+    Set<String> misses = new LinkedHashSet<>();
+    synchronized (this) {
+      for (String text : texts) {
+        CachedTranslation cached = cache.get(new Key(targetLanguage, text));
+        if (cached == null) {
+          misses.add(text);
+        } else {
+          translations.put(text, cached);
+        }
+      }
+    }
+
+    if (!misses.isEmpty()) {
+      translations.putAll(translateMisses(new ArrayList<>(misses)));
+    }
+
+    List<String> translatedTexts = new ArrayList<>(texts.size());
+    List<Language> sourceLanguages = new ArrayList<>(texts.size());
+    for (String text : texts) {
+      CachedTranslation translation = translations.get(text);
+      translatedTexts.add(translation.translatedText());
+      sourceLanguages.add(translation.sourceLanguage());
+    }
+
+    Language sourceLanguage = Result.dominantLanguage(sourceLanguages);
+    return new Result(sourceLanguage, targetLanguage, translatedTexts, sourceLanguages);
+  }
+
+  private Map<String, CachedTranslation> translateMisses(List<String> misses) {
+    Result result = translator.translate(misses);
+
+    Map<String, CachedTranslation> translations = new HashMap<>();
+    for (int i = 0; i < misses.size(); i++) {
+      translations.put(
+          misses.get(i),
+          new CachedTranslation(result.sourceLanguages().get(i), result.translatedTexts().get(i)));
+    }
+
+    try {
+      append(translations);
+    } catch (IOException e) {
+      throw new TranslationException(e);
+    }
+    return translations;
+  }
+
+  private synchronized void append(Map<String, CachedTranslation> translations) throws IOException {
+    try (BufferedWriter writer =
+        Files.newBufferedWriter(
+            path, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+      for (Map.Entry<String, CachedTranslation> translation : translations.entrySet()) {
+        JsonCacheEntry entry = new JsonCacheEntry();
+        entry.target_lang = targetLanguage.tag;
+        entry.detected_source_language = translation.getValue().sourceLanguage().tag;
+        entry.text = translation.getKey();
+        entry.translation = translation.getValue().translatedText();
+
+        writer.write(GSON.toJson(entry));
+        writer.newLine();
+
+        cache.put(new Key(targetLanguage, translation.getKey()), translation.getValue());
+      }
+    }
+  }
+}
@@ -1,21 +1,148 @@
 package com.github.webcrawler.translator;
 
+import static java.time.format.DateTimeFormatter.RFC_1123_DATE_TIME;
+
+import com.github.webcrawler.util.TokenBucket;
 import com.google.gson.*;
 import java.io.IOException;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeParseException;
 import java.util.*;
-import java.util.function.Function;
-import java.util.stream.Collectors;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
 import okhttp3.*;
 
 /**
- * @param client The OkHttpClient to use for communication with the api.
- * @param targetLanguage The language to which this Translator should translate.
- * @param authKey The auth_key for the DeepL api.
- * @param apiUrl The api url for the DeepL api.
+ * Translator which uses the DeepL api. The texts are split into chunks which fit into a single
+ * request and the chunks are translated concurrently. Requests are throttled on the client and a
+ * chunk which fails transiently is retried on its own with exponential backoff.
  */
-public record DeepLTranslator(
-    OkHttpClient client, Language targetLanguage, String authKey, String apiUrl)
-    implements Translator {
+public final class DeepLTranslator implements Translator {
+
+  /** The upper bound of the backoff between two attempts without a Retry-After header. */
+  static final Duration MAX_BACKOFF = Duration.ofSeconds(30);
+
+  /** Requests the api asks to delay longer than this are not retried. */
+  static final Duration MAX_RETRY_AFTER = Duration.ofMinutes(2);
+
+  /**
+   * @param maxTextsPerRequest The maximum number of texts sent in a single request.
+   * @param maxRequestBytes The maximum size of the form encoded body of a single request.
+   * @param parallelism The maximum number of requests in flight at the same time.
+   * @param requestsPerSecond The maximum number of requests per second, 0 for no limit.
+   * @param maxRetries The number of times a failed request is retried.
+   * @param initialBackoff The upper bound of the backoff before the first retry, which doubles for
+   *     every further retry.
+   */
+  public record Limits(
+      int maxTextsPerRequest,
+      int maxRequestBytes,
+      int parallelism,
+      double requestsPerSecond,
+      int maxRetries,
+      Duration initialBackoff) {
+
+    /**
+     * The limits of the DeepL api: 50 texts and 128 KiB per request. Failed requests are retried up
+     * to five times.
+     */
+    public static final Limits DEFAULT =
+        new Limits(50, 128 * 1024, 4, 0, 5, Duration.ofMillis(500));
+
+    public Limits {
+      if (maxTextsPerRequest < 1 || maxRequestBytes < 1 || parallelism < 1) {
+        throw new IllegalArgumentException("The translation limits have to be at least 1.");
+      }
+      if (requestsPerSecond < 0 || maxRetries < 0 || initialBackoff.isNegative()) {
+        throw new IllegalArgumentException("The rate, retries and backoff must not be negative.");
+      }
+    }
+
+    /**
+     * Creates new Limits with the default rate and retries.
+     *
+     * @param maxTextsPerRequest The maximum number of texts sent in a single request.
+     * @param maxRequestBytes The maximum size of the form encoded body of a single request.
+     * @param parallelism The maximum number of requests in flight at the same time.
+     */
+    public Limits(int maxTextsPerRequest, int maxRequestBytes, int parallelism) {
+      this(
+          maxTextsPerRequest,
+          maxRequestBytes,
+          parallelism,
+          DEFAULT.requestsPerSecond,
+          DEFAULT.maxRetries,
+          DEFAULT.initialBackoff);
+    }
+
+    /**
+     * @param parallelism The maximum number of requests in flight at the same time.
+     * @param requestsPerSecond The maximum number of requests per second, 0 for no limit.
+     * @param maxRetries The number of times a failed request is retried.
+     * @return The default limits of the DeepL api with other request limits.
+     */
+    public static Limits withRequestLimits(
+        int parallelism, double requestsPerSecond, int maxRetries) {
+      return new Limits(
+          DEFAULT.maxTextsPerRequest,
+          DEFAULT.maxRequestBytes,
+          parallelism,
+          requestsPerSecond,
+          maxRetries,
+          DEFAULT.initialBackoff);
+    }
+  }
+
+  private final OkHttpClient client;
+  private final Language targetLanguage;
+  private final String authKey;
+  private final String apiUrl;
+  private final Limits limits;
+
+  // Each request takes a token, null for no throttling.
+  private final TokenBucket throttle;
+  // Shared by all concurrent translations, so no more than limits.parallelism() requests are sent
+  // at the same time.
+  private final Semaphore inFlight;
+
+  /**
+   * @param client The OkHttpClient to use for communication with the api.
+   * @param targetLanguage The language to which this Translator should translate.
+   * @param authKey The auth_key for the DeepL api.
+   * @param apiUrl The api url for the DeepL api.
+   * @param limits The limits for splitting the texts into requests and for retrying them.
+   */
+  public DeepLTranslator(
+      OkHttpClient client, Language targetLanguage, String authKey, String apiUrl, Limits limits) {
+    this.client = client;
+    this.targetLanguage = targetLanguage;
+    this.authKey = authKey;
+    this.apiUrl = apiUrl;
+    this.limits = limits;
+    this.throttle =
+        limits.requestsPerSecond() > 0
+            ? new TokenBucket(limits.requestsPerSecond(), Math.max(1, limits.requestsPerSecond()))
+            : null;
+    this.inFlight = new Semaphore(limits.parallelism());
+  }
+
+  /**
+   * @param client The OkHttpClient to use for communication with the api.
+   * @param targetLanguage The language to which this Translator should translate.
+   * @param authKey The auth_key for the DeepL api.
+   * @param apiUrl The api url for the DeepL api.
+   */
+  public DeepLTranslator(
+      OkHttpClient client, Language targetLanguage, String authKey, String apiUrl) {
+    this(client, targetLanguage, authKey, apiUrl, Limits.DEFAULT);
+  }
 
   /**
    * @param client client The OkHttpClient to use for communication with the api.
@@ -25,11 +152,24 @@ public record DeepLTranslator(
    */
   public DeepLTranslator(
       OkHttpClient client, String targetLanguage, String authKey, boolean isPro) {
+    this(client, targetLanguage, authKey, isPro, Limits.DEFAULT);
+  }
+
+  /**
+   * @param client client The OkHttpClient to use for communication with the api.
+   * @param targetLanguage The language to which this Translator should translate.
+   * @param authKey The auth_key for the DeepL api.
+   * @param isPro Whether to use the pro api or the free api.
+   * @param limits The limits for splitting the texts into requests.
+   */
+  public DeepLTranslator(
+      OkHttpClient client, String targetLanguage, String authKey, boolean isPro, Limits limits) {
     this(
         client,
         Language.fromString(targetLanguage),
         authKey,
-        isPro ? DEEPL_PRO_API_URL : DEEPL_FREE_API_URL);
+        isPro ? DEEPL_PRO_API_URL : DEEPL_FREE_API_URL,
+        limits);
   }
 
   /**
@@ -46,6 +186,31 @@ public record DeepLTranslator(
   static final String DEEPL_FREE_API_URL = "https://api-free.deepl.com/v2/translate";
   static final String DEEPL_PRO_API_URL = "https://api.deepl.com/v2/translate";
 
+  /** @return The OkHttpClient to use for communication with the api. */
+  public OkHttpClient client() {
+    return client;
+  }
+
+  /** @return The language to which this Translator translates. */
+  public Language targetLanguage() {
+    return targetLanguage;
+  }
+
+  /** @return The auth_key for the DeepL api. */
+  public String authKey() {
+    return authKey;
+  }
+
+  /** @return The api url for the DeepL api. */
+  public String apiUrl() {
+    return apiUrl;
+  }
+
+  /** @return The limits for splitting the texts into requests and for retrying them. */
+  public Limits limits() {
+    return limits;
+  }
+
   /**
    * JsonTranslations handles the DeepL api result which is a List of json encoded JsonTranslation
    * Objects.
@@ -57,6 +222,17 @@ public record DeepLTranslator(
       this.translations = translations;
     }
 
+    /**
+     * Concatenates the translations of several requests in order.
+     *
+     * @param chunks The JsonTranslations of the requests.
+     * @return The JsonTranslations containing all translations.
+     */
+    public static JsonTranslations concat(List<JsonTranslations> chunks) {
+      return new JsonTranslations(
+          chunks.stream().flatMap(chunk -> chunk.translations.stream()).toList());
+    }
+
     /**
      * Creates a JsonTranslations Object from language and a List of texts.
      *
@@ -97,28 +273,13 @@ public record DeepLTranslator(
           .toList();
     }
 
-    /**
-     * @param collection The collection to analyze.
-     * @param <T> The type of objects in the collection.
-     * @return The object with the highest occurrence.
-     */
-    private static <T> T getElementWithHighestOccurrence(Collection<T> collection) {
-      return collection.stream()
-          .collect(Collectors.groupingBy(Function.identity(), Collectors.counting()))
-          .entrySet()
-          .stream()
-          .max(Map.Entry.comparingByValue())
-          .get()
-          .getKey();
-    }
-
     /**
      * Get the language with the highest occurrence of all detected source languages.
      *
      * @return The language with the highest occurrence.
      */
     public Language getDominantSourceLanguage() {
-      return getElementWithHighestOccurrence(getSourceLanguages());
+      return Result.dominantLanguage(getSourceLanguages());
     }
 
     /**
@@ -212,10 +373,13 @@ public record DeepLTranslator(
     public String toString() {
       return switch (this) {
         case BAD_REQUEST -> "Bad request. Please check error message and your parameters.";
-        case AUTHORIZATION_FAILED -> "Authorization failed. Please supply a valid auth_key parameter.";
+        case AUTHORIZATION_FAILED -> "Authorization failed. Please supply a valid auth_key"
+            + " parameter.";
         case RESOURCE_NOT_FOUND -> "The requested resource could not be found.";
         case REQUEST_SIZE_EXCEEDS_LIMIT -> "The request size exceeds the limit.";
-        case REQUEST_URL_TOO_LONG -> "The request URL is too long. You can avoid this error by using a POST request instead of a GET request, and sending the parameters in the HTTP body.";
+        case REQUEST_URL_TOO_LONG -> "The request URL is too long. You can avoid this error by"
+            + " using a POST request instead of a GET request, and"
+            + " sending the parameters in the HTTP body.";
         case TOO_MANY_REQUESTS -> "Too many requests. Please wait and resend your request.";
         case QUOTA_EXCEEDED -> "Quota exceeded. The character limit has been reached.";
         case RESOURCE_UNAVAILABLE -> "Resource currently unavailable. Try again later.";
@@ -224,50 +388,217 @@ public record DeepLTranslator(
     }
   }
 
-  private ResponseBody doRequest(List<String> texts) throws TranslationException {
-    RequestBody requestBody = buildRequestBody(texts);
-    Request request = buildRequest(requestBody);
+  /**
+   * Split the texts into chunks which respect the limits of a single request. A text which exceeds
+   * the size limit on its own is sent alone and left to the api to reject.
+   */
+  List<List<String>> chunk(List<String> texts) {
+    int fixedBytes =
+        formFieldBytes("auth_key", authKey) + formFieldBytes("target_lang", targetLanguage.tag);
+    List<List<String>> chunks = new ArrayList<>();
+
+    List<String> chunk = new ArrayList<>();
+    int chunkBytes = fixedBytes;
+    for (String text : texts) {
+      int textBytes = formFieldBytes("text", text);
+
+      if (!chunk.isEmpty()
+          && (chunk.size() == limits.maxTextsPerRequest()
+              || chunkBytes + textBytes > limits.maxRequestBytes())) {
+        chunks.add(chunk);
+        chunk = new ArrayList<>();
+        chunkBytes = fixedBytes;
+      }
+
+      chunk.add(text);
+      chunkBytes += textBytes;
+    }
+    chunks.add(chunk);
+
+    return chunks;
+  }
+
+  /** @return The size of a form field including its separator. */
+  private static int formFieldBytes(String name, String value) {
+    return name.length() + URLEncoder.encode(value, StandardCharsets.UTF_8).length() + 2;
+  }
 
-    try {
-      Response response = client.newCall(request).execute();
-      if (!response.isSuccessful()) {
-        throw new TranslationException(Error.fromCode(response.code()).toString());
+  /** Send the texts in a single request and retry it as long as it fails transiently. */
+  private JsonTranslations doRequest(List<String> texts) throws TranslationException {
+    Request request = buildRequest(buildRequestBody(texts));
+
+    for (int attempt = 0; ; attempt++) {
+      boolean retry = attempt < limits.maxRetries();
+      Duration retryAfter = null;
+
+      // The permit is only held while sending, not while backing off.
+      acquirePermit();
+      try (Response response = send(request)) {
+        if (response.isSuccessful()) {
+          return extractTranslationResults(response, texts);
+        }
+
+        retryAfter = parseRetryAfter(response.header("Retry-After"));
+        if (!retry || !isTransient(response.code()) || exceedsMaxRetryAfter(retryAfter)) {
+          throw new TranslationException(Error.fromCode(response.code()).toString());
+        }
+      } catch (IOException e) {
+        if (!retry) {
+          throw new TranslationException(e);
+        }
+      } finally {
+        inFlight.release();
       }
 
-      return response.body();
-    } catch (IOException e) {
+      sleep(retryAfter != null ? retryAfter : backoff(attempt));
+    }
+  }
+
+  private Response send(Request request) throws IOException {
+    awaitThrottle();
+    return client.newCall(request).execute();
+  }
+
+  private void acquirePermit() throws TranslationException {
+    try {
+      inFlight.acquire();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
       throw new TranslationException(e);
     }
   }
 
-  private JsonTranslations extractTranslationResults(ResponseBody body)
-      throws TranslationException {
+  private JsonTranslations extractTranslationResults(Response response, List<String> texts)
+      throws IOException {
+    JsonTranslations translations = JsonTranslations.fromJsonString(response.body().string());
+
+    if (translations.translations.size() != texts.size()) {
+      throw new TranslationException(
+          "Expected %d translations, but got %d."
+              .formatted(texts.size(), translations.translations.size()));
+    }
+    return translations;
+  }
+
+  /** @return Whether the request may succeed when it is sent again later. */
+  private static boolean isTransient(int code) {
+    return code == 429 || (code >= 500 && code != 501);
+  }
+
+  private static boolean exceedsMaxRetryAfter(Duration retryAfter) {
+    return retryAfter != null && retryAfter.compareTo(MAX_RETRY_AFTER) > 0;
+  }
+
+  /**
+   * @param retryAfter The value of a Retry-After header, either in seconds or as HTTP date.
+   * @return The time to wait or null if the header is missing or invalid.
+   */
+  static Duration parseRetryAfter(String retryAfter) {
+    if (retryAfter == null) {
+      return null;
+    }
+
+    try {
+      return Duration.ofSeconds(Math.max(0, Long.parseLong(retryAfter.trim())));
+    } catch (NumberFormatException e) {
+      // Not in seconds, so it has to be a date.
+    }
+
+    try {
+      ZonedDateTime date = ZonedDateTime.parse(retryAfter.trim(), RFC_1123_DATE_TIME);
+      Duration delay = Duration.between(ZonedDateTime.now(date.getZone()), date);
+      return delay.isNegative() ? Duration.ZERO : delay;
+    } catch (DateTimeParseException e) {
+      return null;
+    }
+  }
+
+  /** @return A random backoff up to the exponentially growing upper bound ("full jitter"). */
+  private Duration backoff(int attempt) {
+    long maxBackoffMillis = MAX_BACKOFF.toMillis();
+    long boundMillis =
+        Math.min(maxBackoffMillis, limits.initialBackoff().toMillis() << Math.min(attempt, 20));
+
+    return Duration.ofMillis(ThreadLocalRandom.current().nextLong(boundMillis + 1));
+  }
+
+  private void awaitThrottle() throws TranslationException {
+    if (throttle == null) {
+      return;
+    }
+
     try {
-      String bodyString = body.string();
-      return JsonTranslations.fromJsonString(bodyString);
-    } catch (IOException e) {
+      throttle.take();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
       throw new TranslationException(e);
     }
   }
 
+  private static void sleep(Duration duration) throws TranslationException {
+    try {
+      Thread.sleep(duration.toMillis());
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new TranslationException(e);
+    }
+  }
+
+  /**
+   * Translate the chunks with at most limits.parallelism() requests in flight and return the
+   * results in the order of the chunks.
+   */
+  private List<JsonTranslations> doRequests(List<List<String>> chunks) throws TranslationException {
+    if (chunks.size() == 1) {
+      return List.of(doRequest(chunks.get(0)));
+    }
+
+    ExecutorService executor =
+        Executors.newFixedThreadPool(
+            Math.min(limits.parallelism(), chunks.size()),
+            runnable -> {
+              Thread thread = new Thread(runnable, "deepl-translator");
+              thread.setDaemon(true);
+              return thread;
+            });
+
+    try {
+      List<CompletableFuture<JsonTranslations>> requests =
+          chunks.stream()
+              .map(chunk -> CompletableFuture.supplyAsync(() -> doRequest(chunk), executor))
+              .toList();
+
+      return CompletableFuture.allOf(requests.toArray(CompletableFuture[]::new))
+          .thenApply(ignored -> requests.stream().map(CompletableFuture::join).toList())
+          .join();
+    } catch (CompletionException e) {
+      if (e.getCause() instanceof TranslationException cause) {
+        throw cause;
+      }
+      throw new TranslationException(e.getCause());
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
   /**
    * Translate a list of texts with the DeepL api.
    *
    * @param texts The texts to translate.
    * @return The Result containing source language, target language and the translations.
-   * @throws IOException If errors occur on DeepL api requests.
+   * @throws TranslationException If errors occur on DeepL api requests.
    */
   @Override
   public Result translate(List<String> texts) throws TranslationException {
     if (texts == null || texts.size() == 0)
       return new Result(targetLanguage, targetLanguage, new ArrayList<>());
 
-    ResponseBody responseBody = doRequest(texts);
-    JsonTranslations translationResults = extractTranslationResults(responseBody);
+    JsonTranslations translationResults = JsonTranslations.concat(doRequests(chunk(texts)));
 
     Language sourceLanguage = translationResults.getDominantSourceLanguage();
     List<String> translatedTexts = translationResults.getTranslatedTexts();
+    List<Language> sourceLanguages = translationResults.getSourceLanguages();
 
-    return new Result(sourceLanguage, targetLanguage, translatedTexts);
+    return new Result(sourceLanguage, targetLanguage, translatedTexts, sourceLanguages);
   }
 }
@@ -0,0 +1,39 @@
+package com.github.webcrawler.translator;
+
+import com.github.webcrawler.metrics.CrawlMetrics;
+import com.github.webcrawler.metrics.Histogram;
+import java.util.List;
+
+/**
+ * A Translator which times the translations of another Translator and counts the characters sent to
+ * it. Wrapping the Translator which calls the api, behind any cache, only measures the requests
+ * which are actually sent.
+ *
+ * @param translator The Translator to translate the texts with.
+ * @param metrics The CrawlMetrics to record the translations in.
+ */
+public record MeteredTranslator(Translator translator, CrawlMetrics metrics) implements Translator {
+
+  /**
+   * Translate the texts with the wrapped Translator and record the duration, also of failed
+   * translations.
+   *
+   * @param texts The texts to translate.
+   * @return The Result of the wrapped Translator.
+   * @throws TranslationException If the wrapped Translator fails.
+   */
+  @Override
+  public Result translate(List<String> texts) throws TranslationException {
+    if (texts != null) {
+      metrics.addTranslatedCharacters(texts.stream().mapToLong(String::length).sum());
+    }
+
+    Histogram histogram = metrics.stage(CrawlMetrics.Stage.TRANSLATE);
+    long start = System.nanoTime();
+    try {
+      return translator.translate(texts);
+    } finally {
+      histogram.recordSince(start);
+    }
+  }
+}
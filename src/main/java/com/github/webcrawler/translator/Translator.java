@@ -1,6 +1,13 @@
 package com.github.webcrawler.translator;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 public interface Translator {
 
@@ -8,8 +15,65 @@ public interface Translator {
    * @param sourceLanguage The detected source language.
    * @param targetLanguage The language of the translated texts.
    * @param translatedTexts The translated texts.
+   * @param sourceLanguages The detected source language of each text.
    */
-  record Result(Language sourceLanguage, Language targetLanguage, List<String> translatedTexts) {}
+  record Result(
+      Language sourceLanguage,
+      Language targetLanguage,
+      List<String> translatedTexts,
+      List<Language> sourceLanguages) {
+
+    /**
+     * Creates a new Result in which all texts have the same source language.
+     *
+     * @param sourceLanguage The detected source language.
+     * @param targetLanguage The language of the translated texts.
+     * @param translatedTexts The translated texts.
+     */
+    public Result(Language sourceLanguage, Language targetLanguage, List<String> translatedTexts) {
+      this(
+          sourceLanguage,
+          targetLanguage,
+          translatedTexts,
+          Collections.nCopies(translatedTexts.size(), sourceLanguage));
+    }
+
+    /**
+     * @param languages The detected source languages of several texts, at least one.
+     * @return The language which occurs most often.
+     */
+    public static Language dominantLanguage(Collection<Language> languages) {
+      return languages.stream()
+          .collect(Collectors.groupingBy(Function.identity(), Collectors.counting()))
+          .entrySet()
+          .stream()
+          .max(Map.Entry.comparingByValue())
+          .get()
+          .getKey();
+    }
+
+    /**
+     * Concatenate the Results of several translations to the same target language.
+     *
+     * @param results The Results to concatenate, at least one.
+     * @return The Result containing the translations of all Results in order.
+     */
+    public static Result concat(List<Result> results) {
+      List<String> translatedTexts = new ArrayList<>();
+      List<Language> sourceLanguages = new ArrayList<>();
+      for (Result result : results) {
+        translatedTexts.addAll(result.translatedTexts());
+        sourceLanguages.addAll(result.sourceLanguages());
+      }
+
+      Language sourceLanguage =
+          sourceLanguages.isEmpty()
+              ? results.get(0).sourceLanguage()
+              : dominantLanguage(sourceLanguages);
+      return new Result(
+          sourceLanguage, results.get(0).targetLanguage(), translatedTexts, sourceLanguages);
+    }
+  }
 
   /**
    * Translate a list of texts.
@@ -19,4 +83,19 @@ public interface Translator {
    * @throws TranslationException If errors occur on translation.
    */
   Result translate(List<String> texts) throws TranslationException;
+
+  /**
+   * Translate a list of texts without blocking. By default, this translates synchronously and
+   * returns a completed future.
+   *
+   * @param texts The texts to translate.
+   * @return A future of the Result, which fails with a TranslationException on errors.
+   */
+  default CompletableFuture<Result> translateAsync(List<String> texts) {
+    try {
+      return CompletableFuture.completedFuture(translate(texts));
+    } catch (Exception e) {
+      return CompletableFuture.failedFuture(e);
+    }
+  }
 }
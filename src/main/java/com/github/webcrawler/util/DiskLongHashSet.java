@@ -0,0 +1,181 @@
+package com.github.webcrawler.util;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * A thread safe set of primitive longs which keeps its values in a file instead of on the heap. The
+ * file is a hash table with open addressing and linear probing, each slot holds one value. The file
+ * belongs to the set and is deleted when the set is closed.
+ */
+public class DiskLongHashSet implements LongSet {
+
+  private static final int MIN_CAPACITY = 1 << 16;
+  private static final int SLOTS_PER_READ = 1 << 13;
+
+  private final Path path;
+  private final ByteBuffer slot = ByteBuffer.allocate(Long.BYTES);
+
+  private FileChannel channel;
+  private long capacity;
+  private long size;
+  private boolean containsZero;
+
+  /**
+   * Creates a new empty DiskLongHashSet.
+   *
+   * @param path The file to keep the values in, an existing file is overwritten.
+   * @throws IOException If the file cannot be created.
+   */
+  public DiskLongHashSet(Path path) throws IOException {
+    this.path = path;
+    this.capacity = MIN_CAPACITY;
+    this.channel = createTable(path, capacity);
+  }
+
+  /**
+   * Creates a new empty DiskLongHashSet in a new temporary file.
+   *
+   * @param directory The directory to create the file in, null for the default temporary directory.
+   * @return The new DiskLongHashSet.
+   * @throws IOException If the file cannot be created.
+   */
+  public static DiskLongHashSet createTemporary(Path directory) throws IOException {
+    return new DiskLongHashSet(
+        directory == null
+            ? Files.createTempFile("long-hash-set-", ".bin")
+            : Files.createTempFile(directory, "long-hash-set-", ".bin"));
+  }
+
+  private static FileChannel createTable(Path path, long capacity) throws IOException {
+    FileChannel channel =
+        FileChannel.open(
+            path,
+            StandardOpenOption.CREATE,
+            StandardOpenOption.TRUNCATE_EXISTING,
+            StandardOpenOption.READ,
+            StandardOpenOption.WRITE);
+
+    // Writing the last byte extends the file, all slots before it read as 0, which marks them free.
+    channel.write(ByteBuffer.allocate(1), capacity * Long.BYTES - 1);
+    return channel;
+  }
+
+  /**
+   * Add a value to the set.
+   *
+   * @param value The value to add.
+   * @return True if the value has not been in the set before.
+   * @throws UncheckedIOException If the file cannot be read or written.
+   */
+  @Override
+  public synchronized boolean add(long value) {
+    if (value == 0) {
+      if (containsZero) {
+        return false;
+      }
+      containsZero = true;
+      size++;
+      return true;
+    }
+
+    try {
+      long index = indexOf(channel, capacity, value);
+      if (readSlot(channel, index) == value) {
+        return false;
+      }
+
+      writeSlot(channel, index, value);
+      size++;
+      if (size * 2 > capacity) {
+        grow();
+      }
+      return true;
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  /** @return The number of values in the set. */
+  public synchronized long size() {
+    return size;
+  }
+
+  private void grow() throws IOException {
+    Path grownPath = path.resolveSibling(path.getFileName() + ".grow");
+    long grownCapacity = capacity * 2;
+    FileChannel grownChannel = createTable(grownPath, grownCapacity);
+
+    ByteBuffer slots = ByteBuffer.allocate(SLOTS_PER_READ * Long.BYTES);
+    for (long position = 0; position < capacity * Long.BYTES; position += slots.capacity()) {
+      slots.clear();
+      readFully(channel, slots, position);
+      slots.flip();
+
+      while (slots.hasRemaining()) {
+        long value = slots.getLong();
+        if (value != 0) {
+          writeSlot(grownChannel, indexOf(grownChannel, grownCapacity, value), value);
+        }
+      }
+    }
+
+    channel.close();
+    Files.move(grownPath, path, StandardCopyOption.REPLACE_EXISTING);
+    channel = grownChannel;
+    capacity = grownCapacity;
+  }
+
+  /** @return The slot holding the value or the free slot it belongs into. */
+  private long indexOf(FileChannel channel, long capacity, long value) throws IOException {
+    long mask = capacity - 1;
+    long index = LongHashSet.mix(value) & mask;
+
+    long current;
+    while ((current = readSlot(channel, index)) != 0 && current != value) {
+      index = (index + 1) & mask;
+    }
+    return index;
+  }
+
+  private long readSlot(FileChannel channel, long index) throws IOException {
+    slot.clear();
+    readFully(channel, slot, index * Long.BYTES);
+    return slot.getLong(0);
+  }
+
+  private void writeSlot(FileChannel channel, long index, long value) throws IOException {
+    slot.clear();
+    slot.putLong(value).flip();
+    while (slot.hasRemaining()) {
+      channel.write(slot, index * Long.BYTES + slot.position());
+    }
+  }
+
+  private static void readFully(FileChannel channel, ByteBuffer buffer, long position)
+      throws IOException {
+    while (buffer.hasRemaining()) {
+      int read = channel.read(buffer, position + buffer.position());
+      if (read < 0) {
+        throw new IOException("Unexpected end of file " + position);
+      }
+    }
+  }
+
+  /**
+   * Close and delete the file.
+   *
+   * @throws IOException If the file cannot be deleted.
+   */
+  @Override
+  public synchronized void close() throws IOException {
+    channel.close();
+    Files.deleteIfExists(path);
+  }
+}
@@ -0,0 +1,118 @@
+package com.github.webcrawler.util;
+
+/**
+ * A thread safe set of primitive longs with open addressing and linear probing. Unlike a
+ * Set&lt;Long&gt; it holds no boxed values and no entry objects, every element takes 8 to 16 bytes.
+ */
+public class LongHashSet implements LongSet {
+
+  private static final int MIN_CAPACITY = 16;
+
+  // 0 marks a free slot, so whether 0 itself is in the set is tracked separately.
+  private long[] table;
+  private int size;
+  private boolean containsZero;
+
+  /** Creates a new empty LongHashSet. */
+  public LongHashSet() {
+    this(MIN_CAPACITY / 2);
+  }
+
+  /**
+   * @param expectedSize The number of elements the set holds without growing.
+   */
+  public LongHashSet(int expectedSize) {
+    if (expectedSize < 0) {
+      throw new IllegalArgumentException("The expected size must not be negative.");
+    }
+
+    this.table = new long[capacityFor(expectedSize)];
+  }
+
+  private static int capacityFor(int size) {
+    // The load factor is kept at or below 1/2, so probe sequences stay short.
+    return Math.max(MIN_CAPACITY, Integer.highestOneBit(Math.max(1, size) * 2 - 1) << 1);
+  }
+
+  /**
+   * Add a value to the set.
+   *
+   * @param value The value to add.
+   * @return True if the value has not been in the set before.
+   */
+  @Override
+  public synchronized boolean add(long value) {
+    if (value == 0) {
+      if (containsZero) {
+        return false;
+      }
+      containsZero = true;
+      size++;
+      return true;
+    }
+
+    int index = indexOf(table, value);
+    if (table[index] == value) {
+      return false;
+    }
+
+    table[index] = value;
+    size++;
+    if (size * 2 > table.length) {
+      grow();
+    }
+    return true;
+  }
+
+  /**
+   * @param value The value to look up.
+   * @return True if the value is in the set.
+   */
+  public synchronized boolean contains(long value) {
+    if (value == 0) {
+      return containsZero;
+    }
+    return table[indexOf(table, value)] == value;
+  }
+
+  /** @return The number of values in the set. */
+  public synchronized int size() {
+    return size;
+  }
+
+  private void grow() {
+    long[] newTable = new long[table.length * 2];
+    for (long value : table) {
+      if (value != 0) {
+        newTable[indexOf(newTable, value)] = value;
+      }
+    }
+    table = newTable;
+  }
+
+  /** @return The slot holding the value or the free slot it belongs into. */
+  private static int indexOf(long[] table, long value) {
+    int mask = table.length - 1;
+    int index = (int) mix(value) & mask;
+    while (table[index] != 0 && table[index] != value) {
+      index = (index + 1) & mask;
+    }
+    return index;
+  }
+
+  /**
+   * Spread the bits of a value, so values which differ only in their high bits do not end up in the
+   * same slots (the finalizer of MurmurHash3).
+   *
+   * @param value The value to mix.
+   * @return The mixed value.
+   */
+  public static long mix(long value) {
+    value ^= value >>> 33;
+    value *= 0xff51afd7ed558ccdL;
+    value ^= value >>> 33;
+    value *= 0xc4ceb9fe1a85ec53L;
+    value ^= value >>> 33;
+    return value;
+  }
+}
@@ -0,0 +1,23 @@
+package com.github.webcrawler.util;
+
+import java.io.IOException;
+
+/** A set of primitive longs, which may hold its values in memory, on disk or only approximately. */
+public interface LongSet extends AutoCloseable {
+
+  /**
+   * Add a value to the set.
+   *
+   * @param value The value to add.
+   * @return True if the value has not been in the set before.
+   */
+  boolean add(long value);
+
+  /**
+   * Release the resources held by the set. By default, there is nothing to release.
+   *
+   * @throws IOException If the resources cannot be released.
+   */
+  @Override
+  default void close() throws IOException {}
+}
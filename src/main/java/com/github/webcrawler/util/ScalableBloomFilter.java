@@ -0,0 +1,129 @@
+package com.github.webcrawler.util;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A thread safe scalable Bloom filter of longs (Almeida et al., Scalable Bloom Filters). It is a
+ * series of Bloom filters, each twice as large as the one before and with a tighter false positive
+ * rate, so the overall false positive rate stays below the configured one however many values are
+ * added. A value which has been added is always reported as seen, a value which has not been added
+ * is reported as seen with at most the false positive rate.
+ */
+public class ScalableBloomFilter implements LongSet {
+
+  private static final int GROWTH_FACTOR = 2;
+  private static final double TIGHTENING_RATIO = 0.5;
+  private static final long SECOND_HASH_SEED = 0x9e3779b97f4a7c15L;
+
+  private final List<Slice> slices = new ArrayList<>();
+
+  /**
+   * @param initialCapacity The number of values the first filter holds.
+   * @param falsePositiveRate The maximum probability that a value which has not been added is
+   *     reported as seen.
+   */
+  public ScalableBloomFilter(int initialCapacity, double falsePositiveRate) {
+    if (initialCapacity < 1) {
+      throw new IllegalArgumentException("The initial capacity has to be at least 1.");
+    }
+    if (!(falsePositiveRate > 0 && falsePositiveRate < 1)) {
+      throw new IllegalArgumentException("The false positive rate has to be between 0 and 1.");
+    }
+
+    // The rates of the slices form a geometric series which sums up to the false positive rate.
+    slices.add(new Slice(initialCapacity, falsePositiveRate * (1 - TIGHTENING_RATIO)));
+  }
+
+  /**
+   * Add a value to the filter.
+   *
+   * @param value The value to add.
+   * @return True if the value has definitely not been added before, false if it probably has.
+   */
+  @Override
+  public synchronized boolean add(long value) {
+    long hash1 = LongHashSet.mix(value);
+    long hash2 = LongHashSet.mix(hash1 ^ SECOND_HASH_SEED) | 1;
+
+    if (mightContain(hash1, hash2)) {
+      return false;
+    }
+
+    Slice slice = slices.get(slices.size() - 1);
+    if (slice.isFull()) {
+      slice = new Slice(slice.capacity * GROWTH_FACTOR, slice.falsePositiveRate * TIGHTENING_RATIO);
+      slices.add(slice);
+    }
+
+    slice.put(hash1, hash2);
+    return true;
+  }
+
+  /**
+   * @param value The value to look up.
+   * @return False if the value has definitely not been added, true if it probably has.
+   */
+  public synchronized boolean mightContain(long value) {
+    long hash1 = LongHashSet.mix(value);
+    return mightContain(hash1, LongHashSet.mix(hash1 ^ SECOND_HASH_SEED) | 1);
+  }
+
+  private boolean mightContain(long hash1, long hash2) {
+    for (Slice slice : slices) {
+      if (slice.mightContain(hash1, hash2)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /** @return The number of bits of all filters, which is the memory the filter takes. */
+  public synchronized long bitSize() {
+    return slices.stream().mapToLong(slice -> slice.numBits).sum();
+  }
+
+  /** A plain Bloom filter with a fixed capacity, which uses double hashing for its k hashes. */
+  private static final class Slice {
+    private final int capacity;
+    private final double falsePositiveRate;
+    private final long numBits;
+    private final int numHashes;
+    private final long[] bits;
+
+    private int count;
+
+    Slice(int capacity, double falsePositiveRate) {
+      this.capacity = capacity;
+      this.falsePositiveRate = falsePositiveRate;
+
+      double ln2 = Math.log(2);
+      long optimalBits = (long) Math.ceil(-capacity * Math.log(falsePositiveRate) / (ln2 * ln2));
+      this.numBits = Math.max(Long.SIZE, optimalBits);
+      this.numHashes = Math.max(1, (int) Math.round((double) numBits / capacity * ln2));
+      this.bits = new long[Math.toIntExact((numBits + Long.SIZE - 1) / Long.SIZE)];
+    }
+
+    boolean isFull() {
+      return count >= capacity;
+    }
+
+    void put(long hash1, long hash2) {
+      for (int i = 0; i < numHashes; i++) {
+        long bit = Math.floorMod(hash1 + i * hash2, numBits);
+        bits[(int) (bit >>> 6)] |= 1L << bit;
+      }
+      count++;
+    }
+
+    boolean mightContain(long hash1, long hash2) {
+      for (int i = 0; i < numHashes; i++) {
+        long bit = Math.floorMod(hash1 + i * hash2, numBits);
+        if ((bits[(int) (bit >>> 6)] & (1L << bit)) == 0) {
+          return false;
+        }
+      }
+      return true;
+    }
+  }
+}
@@ -0,0 +1,104 @@
+package com.github.webcrawler.util;
+
+/**
+ * Computes the SimHash (Charikar, Similarity Estimation Techniques from Rounding Algorithms) of a
+ * text while the text is appended character by character. The features are the lowercase words and
+ * the pairs of consecutive words, so texts which share most of their words in the same order have
+ * fingerprints which differ in only a few bits.
+ */
+public class SimHash {
+
+  private static final int MAX_WORD_LENGTH = 64;
+  private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+  private static final long FNV_PRIME = 0x100000001b3L;
+  private static final long PAIR_SEED = 0x9e3779b97f4a7c15L;
+
+  private final int[] weights = new int[Long.SIZE];
+
+  private long word = FNV_OFFSET_BASIS;
+  private int wordLength;
+  private long previousWord;
+  private boolean hasPreviousWord;
+
+  /**
+   * @param text The text to compute the SimHash of.
+   * @return The SimHash of the text.
+   */
+  public static long of(CharSequence text) {
+    SimHash simHash = new SimHash();
+    simHash.append(text);
+    return simHash.value();
+  }
+
+  /**
+   * @param first A SimHash.
+   * @param second Another SimHash.
+   * @return The number of bits in which the two differ.
+   */
+  public static int distance(long first, long second) {
+    return Long.bitCount(first ^ second);
+  }
+
+  /**
+   * Append a character of the text. Letters and digits form words, everything else separates them.
+   *
+   * @param c The character to append.
+   */
+  public void append(char c) {
+    if (Character.isLetterOrDigit(c)) {
+      // Only the start of very long words counts, like the rest of a word which is cut off.
+      if (wordLength++ < MAX_WORD_LENGTH) {
+        word = (word ^ Character.toLowerCase(c)) * FNV_PRIME;
+      }
+    } else {
+      finishWord();
+    }
+  }
+
+  /**
+   * Append a part of the text.
+   *
+   * @param text The part to append.
+   */
+  public void append(CharSequence text) {
+    for (int i = 0; i < text.length(); i++) {
+      append(text.charAt(i));
+    }
+  }
+
+  private void finishWord() {
+    if (wordLength == 0) {
+      return;
+    }
+
+    long hash = LongHashSet.mix(word);
+    add(hash);
+    if (hasPreviousWord) {
+      add(LongHashSet.mix(previousWord * PAIR_SEED + hash));
+    }
+
+    previousWord = hash;
+    hasPreviousWord = true;
+    word = FNV_OFFSET_BASIS;
+    wordLength = 0;
+  }
+
+  private void add(long feature) {
+    for (int bit = 0; bit < Long.SIZE; bit++) {
+      weights[bit] += (feature >>> bit & 1) == 0 ? -1 : 1;
+    }
+  }
+
+  /** @return The SimHash of the text appended so far. */
+  public long value() {
+    finishWord();
+
+    long value = 0;
+    for (int bit = 0; bit < Long.SIZE; bit++) {
+      if (weights[bit] > 0) {
+        value |= 1L << bit;
+      }
+    }
+    return value;
+  }
+}
@@ -0,0 +1,86 @@
+package com.github.webcrawler.util;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A thread safe index of SimHashes which finds a SimHash within a maximum Hamming distance without
+ * comparing it to every SimHash in the index (Manku et al., Detecting Near-Duplicates for Web
+ * Crawling). The 64 bits are split into one more block than the maximum distance, two SimHashes
+ * within the distance agree in at least one whole block, so only the SimHashes sharing a block are
+ * compared.
+ *
+ * @param <T> The type of the values stored with the SimHashes.
+ */
+public class SimHashIndex<T> {
+
+  private final int maxDistance;
+  private final int[] blockStarts;
+  private final List<Map<Long, List<Entry<T>>>> blocks = new ArrayList<>();
+
+  private int size;
+
+  private record Entry<T>(long simHash, T value) {}
+
+  /**
+   * @param maxDistance The maximum number of bits in which two SimHashes differ to be near.
+   */
+  public SimHashIndex(int maxDistance) {
+    if (maxDistance < 0 || maxDistance >= Long.SIZE / 2) {
+      throw new IllegalArgumentException("The maximum distance has to be between 0 and 31.");
+    }
+
+    this.maxDistance = maxDistance;
+
+    int blockCount = maxDistance + 1;
+    this.blockStarts = new int[blockCount + 1];
+    for (int i = 0; i <= blockCount; i++) {
+      blockStarts[i] = i * Long.SIZE / blockCount;
+    }
+    for (int i = 0; i < blockCount; i++) {
+      blocks.add(new HashMap<>());
+    }
+  }
+
+  private long block(long simHash, int block) {
+    int start = blockStarts[block];
+    int length = blockStarts[block + 1] - start;
+    return length == Long.SIZE ? simHash : (simHash >>> start) & ((1L << length) - 1);
+  }
+
+  /**
+   * Add a SimHash unless a near one is in the index already.
+   *
+   * @param simHash The SimHash to add.
+   * @param value The value to store with the SimHash.
+   * @return The value of a near SimHash in the index, or null if the SimHash has been added.
+   */
+  public synchronized T addIfAbsent(long simHash, T value) {
+    for (int i = 0; i < blocks.size(); i++) {
+      List<Entry<T>> candidates = blocks.get(i).get(block(simHash, i));
+      if (candidates == null) {
+        continue;
+      }
+
+      for (Entry<T> candidate : candidates) {
+        if (SimHash.distance(simHash, candidate.simHash()) <= maxDistance) {
+          return candidate.value();
+        }
+      }
+    }
+
+    Entry<T> entry = new Entry<>(simHash, value);
+    for (int i = 0; i < blocks.size(); i++) {
+      blocks.get(i).computeIfAbsent(block(simHash, i), block -> new ArrayList<>(1)).add(entry);
+    }
+    size++;
+    return null;
+  }
+
+  /** @return The number of SimHashes in the index. */
+  public synchronized int size() {
+    return size;
+  }
+}
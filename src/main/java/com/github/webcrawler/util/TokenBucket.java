@@ -0,0 +1,77 @@
+package com.github.webcrawler.util;
+
+import java.util.concurrent.TimeUnit;
+
+/** A thread safe token bucket which is refilled continuously at a fixed rate up to its capacity. */
+public class TokenBucket {
+
+  private static final double NANOS_PER_SECOND = 1_000_000_000d;
+
+  private final double tokensPerNano;
+  private final double capacity;
+
+  private double tokens;
+  private long lastRefill;
+
+  /**
+   * Creates a new full TokenBucket.
+   *
+   * @param tokensPerSecond The rate at which tokens are added to the bucket.
+   * @param capacity The maximum number of tokens the bucket can hold.
+   */
+  public TokenBucket(double tokensPerSecond, double capacity) {
+    if (tokensPerSecond <= 0 || capacity < 1) {
+      throw new IllegalArgumentException(
+          "The rate has to be positive and the capacity at least 1.");
+    }
+
+    this.tokensPerNano = tokensPerSecond / NANOS_PER_SECOND;
+    this.capacity = capacity;
+    this.tokens = capacity;
+    this.lastRefill = System.nanoTime();
+  }
+
+  /**
+   * Take a token if one is available.
+   *
+   * @return True if a token has been taken.
+   */
+  public synchronized boolean tryTake() {
+    refill();
+
+    if (tokens < 1) {
+      return false;
+    }
+
+    tokens -= 1;
+    return true;
+  }
+
+  /**
+   * Block until a token is available and take it.
+   *
+   * @throws InterruptedException If interrupted while waiting.
+   */
+  public void take() throws InterruptedException {
+    while (!tryTake()) {
+      TimeUnit.NANOSECONDS.sleep(Math.max(1, nanosUntilAvailable()));
+    }
+  }
+
+  /** @return The nanoseconds until the next token is available, 0 if one is available now. */
+  public synchronized long nanosUntilAvailable() {
+    refill();
+
+    if (tokens >= 1) {
+      return 0;
+    }
+
+    return (long) Math.ceil((1 - tokens) / tokensPerNano);
+  }
+
+  private void refill() {
+    long now = System.nanoTime();
+    tokens = Math.min(capacity, tokens + (now - lastRefill) * tokensPerNano);
+    lastRefill = now;
+  }
+}
@@ -1,12 +1,9 @@
 package com.github.webcrawler.webpage;
 
 import com.github.webcrawler.translator.Translator;
-import com.github.webcrawler.webpage.component.Heading;
 import com.github.webcrawler.webpage.provider.DocumentProvider;
-import java.util.ArrayList;
 import java.util.List;
-import java.util.stream.Collectors;
-import java.util.stream.IntStream;
+import java.util.concurrent.CompletionException;
 
 public class AnalyzedState extends State {
 
@@ -26,19 +23,40 @@ public class AnalyzedState extends State {
 
   @Override
   void translate() {
-    List<Heading> allHeadings = webPage.aggregateHeadings();
-    List<String> allHeadingTexts = allHeadings.stream().map(Heading::text).toList();
+    if (webPage.translatesIncrementally()) {
+      translateIncrementally();
+    } else {
+      translateAggregated();
+    }
+  }
+
+  private void translateAggregated() {
+    translated(webPage.translateHeadings());
+  }
 
-    Translator.Result translationResult = webPage.getTranslator().translate(allHeadingTexts);
+  private void translateIncrementally() {
+    List<Translator.Result> results;
+    try {
+      results = webPage.awaitTranslations();
+    } catch (CompletionException e) {
+      if (e.getCause() instanceof RuntimeException cause) {
+        throw cause;
+      }
+      throw e;
+    }
 
-    List<String> translatedTexts = translationResult.translatedTexts();
-    ArrayList<Heading> translatedHeadings =
-        IntStream.range(0, allHeadings.size())
-            .mapToObj(i -> new Heading(allHeadings.get(i).level(), translatedTexts.get(i)))
-            .collect(Collectors.toCollection(ArrayList::new));
+    if (results.isEmpty()) {
+      // No webpage has any headings, so there was nothing to translate while crawling.
+      translateAggregated();
+      return;
+    }
 
-    webPage.subdivideHeadings(translatedHeadings);
+    webPage.applyTranslations();
+
+    translated(Translator.Result.concat(results));
+  }
 
+  private void translated(Translator.Result translationResult) {
     webPage.setSourceLanguage(translationResult.sourceLanguage().toString());
     webPage.setTargetLanguage(translationResult.targetLanguage().toString());
 
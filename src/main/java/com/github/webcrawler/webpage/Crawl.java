@@ -0,0 +1,270 @@
+package com.github.webcrawler.webpage;
+
+import com.github.webcrawler.metrics.CrawlMetrics;
+import com.github.webcrawler.metrics.CrawlTrace;
+import com.github.webcrawler.util.LongSet;
+import com.github.webcrawler.util.SimHashIndex;
+import com.github.webcrawler.webpage.component.Link;
+import com.github.webcrawler.webpage.provider.RobotsTxtCache;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+/**
+ * Crawl holds the state shared by all WebPages reachable from a single root: the links which have
+ * already been seen, the headings found so far, the fingerprints of the texts, the number of
+ * webpages which are not yet crawled, how to crawl them, which links robots.txt files allow, where
+ * to record the progress and where to count and trace it.
+ */
+class Crawl {
+
+  private final Crawler crawler;
+  private final boolean ownsCrawler;
+  private final boolean verifyLeaves;
+
+  // Only the fingerprints of the seen links are kept, the links themselves are owned by the
+  // webpages. Two different links would have to share 64 bits for one of them to be skipped,
+  // unless the crawler hands out a probabilistic set.
+  private final LongSet seenLinks;
+  private final HeadingArena headingArena = new HeadingArena();
+  private final AtomicInteger pendingWebPages = new AtomicInteger();
+  private final CompletableFuture<Void> completion = new CompletableFuture<>();
+
+  private Link root;
+  private CrawlJournal journal;
+  private SimHashIndex<Link> simHashes;
+  private RobotsTxtCache robotsTxts;
+  private CrawlMetrics metrics;
+  private CrawlTrace trace;
+
+  /**
+   * @param crawler The crawler to crawl the webpages with.
+   * @param ownsCrawler Whether the crawler was created for this crawl alone and is closed by it.
+   * @param verifyLeaves Whether webpages at the maximum depth are only checked for being reachable.
+   */
+  Crawl(Crawler crawler, boolean ownsCrawler, boolean verifyLeaves) {
+    this.crawler = crawler;
+    this.ownsCrawler = ownsCrawler;
+    this.verifyLeaves = verifyLeaves;
+    this.seenLinks = crawler.newSeenLinks();
+  }
+
+  /** @return Whether webpages at the maximum depth are only checked for being reachable. */
+  boolean verifiesLeaves() {
+    return verifyLeaves;
+  }
+
+  /** @return The arena holding the headings of all webpages of the crawl. */
+  HeadingArena getHeadingArena() {
+    return headingArena;
+  }
+
+  /**
+   * Atomically mark a link as seen.
+   *
+   * @param link The link to mark.
+   * @return True if the link has not been seen before.
+   */
+  boolean markSeen(Link link) {
+    return seenLinks.add(link.fingerprint());
+  }
+
+  /**
+   * Only crawl the links which the robots.txt of their host allows.
+   *
+   * @param robotsTxts The robots.txt files of the hosts.
+   */
+  void obeyRobotsTxt(RobotsTxtCache robotsTxts) {
+    this.robotsTxts = robotsTxts;
+  }
+
+  /**
+   * Check links against the robots.txt of their hosts without blocking while a robots.txt is
+   * fetched.
+   *
+   * @param links The links to check.
+   * @return A future with the links which may be crawled in their order, which are all of them if
+   *     robots.txt is ignored.
+   */
+  CompletableFuture<List<Link>> allowedLinks(List<Link> links) {
+    if (robotsTxts == null || links.isEmpty()) {
+      return CompletableFuture.completedFuture(links);
+    }
+
+    List<CompletableFuture<Boolean>> allowed =
+        links.stream().map(robotsTxts::isAllowedAsync).toList();
+    return CompletableFuture.allOf(allowed.toArray(CompletableFuture[]::new))
+        .thenApply(
+            ignored ->
+                IntStream.range(0, links.size())
+                    .filter(i -> allowed.get(i).join())
+                    .mapToObj(links::get)
+                    .toList());
+  }
+
+  /**
+   * Detect webpages whose text is nearly the same as that of a webpage crawled before.
+   *
+   * @param maxDistance The maximum number of bits in which the SimHashes of near duplicates differ.
+   */
+  void detectNearDuplicates(int maxDistance) {
+    this.simHashes = new SimHashIndex<>(maxDistance);
+  }
+
+  /** @return Whether webpages are checked for being near duplicates. */
+  boolean detectsNearDuplicates() {
+    return simHashes != null;
+  }
+
+  /**
+   * Atomically remember the SimHash of a webpage unless a webpage with a near SimHash is known.
+   *
+   * @param simHash The SimHash of the text of the webpage.
+   * @param link The link of the webpage.
+   * @return The link of the webpage with a near SimHash or null if there is none.
+   */
+  Link markSimHash(long simHash, Link link) {
+    return simHashes.addIfAbsent(simHash, link);
+  }
+
+  /**
+   * Hand the children of a webpage over to the crawler.
+   *
+   * @param parent The webpage the links were found on.
+   * @param firstIndex The index of the child of the first link.
+   * @param links The links of the children to crawl, null for a child which is not crawled.
+   */
+  void enqueue(WebPage parent, int firstIndex, List<Link> links) {
+    pendingWebPages.addAndGet((int) links.stream().filter(Objects::nonNull).count());
+    crawler.schedule(parent, firstIndex, links);
+  }
+
+  /**
+   * Keep the crawl from completing while children are still enqueued, until release() is called.
+   */
+  void hold() {
+    pendingWebPages.incrementAndGet();
+  }
+
+  /** Let the crawl complete once the enqueued webpages are crawled. */
+  void release() {
+    webPageDone();
+  }
+
+  /**
+   * Hand the waiting children of restored webpages over to the crawler.
+   *
+   * @param enqueue Enqueues the children of all restored webpages.
+   */
+  void resume(Runnable enqueue) {
+    // Held until all children are enqueued, so the crawl does not complete after the first ones.
+    hold();
+    try {
+      enqueue.run();
+    } finally {
+      release();
+    }
+  }
+
+  /**
+   * Record the progress of the crawl from now on.
+   *
+   * @param root The link of the root of the crawl.
+   * @param journal The journal to record the crawled webpages in.
+   */
+  void setJournal(Link root, CrawlJournal journal) {
+    this.root = root;
+    this.journal = journal;
+  }
+
+  /**
+   * Record a crawled webpage if the progress of the crawl is recorded.
+   *
+   * @param entry The entry of the webpage.
+   */
+  void record(CrawlJournal.Entry entry) {
+    if (journal != null) {
+      journal.record(root, entry);
+    }
+  }
+
+  /**
+   * Count the webpages and time the stages of the crawl from now on.
+   *
+   * @param metrics The metrics to record the crawl in.
+   */
+  void setMetrics(CrawlMetrics metrics) {
+    this.metrics = metrics;
+  }
+
+  /** @return The metrics the crawl is recorded in, or null if it is not measured. */
+  CrawlMetrics getMetrics() {
+    return metrics;
+  }
+
+  /**
+   * Count a webpage entering a state if the crawl is measured.
+   *
+   * @param state The state the webpage has entered.
+   */
+  void countState(State state) {
+    if (metrics != null) {
+      String name = state.getClass().getSimpleName();
+      metrics.countPage(name.replaceFirst("State$", "").toLowerCase(Locale.ROOT));
+    }
+  }
+
+  /** Count a webpage which cannot be fetched if the crawl is measured. */
+  void countBrokenLink() {
+    if (metrics != null) {
+      metrics.countBrokenLink();
+    }
+  }
+
+  /**
+   * Trace every crawled webpage from now on.
+   *
+   * @param trace The trace to record the webpages in.
+   */
+  void setTrace(CrawlTrace trace) {
+    this.trace = trace;
+  }
+
+  /** @return The trace the webpages are recorded in, or null if the crawl is not traced. */
+  CrawlTrace getTrace() {
+    return trace;
+  }
+
+  /** @return Whether the stages of the webpages are timed, for the metrics or for the trace. */
+  boolean isTimed() {
+    return metrics != null || trace != null;
+  }
+
+  /** Called by the crawler after a webpage has been crawled. */
+  void webPageDone() {
+    if (pendingWebPages.decrementAndGet() == 0) {
+      completion.complete(null);
+    }
+  }
+
+  /** Close the crawler once the crawl is done, if it was created for this crawl alone. */
+  void closeOwnedCrawler() {
+    if (ownsCrawler) {
+      crawler.close();
+    }
+  }
+
+  /**
+   * @return A future which completes when all enqueued webpages and the webpages discovered by them
+   *     are crawled.
+   */
+  CompletableFuture<Void> getCompletion() {
+    if (pendingWebPages.get() == 0) {
+      return CompletableFuture.completedFuture(null);
+    }
+    return completion;
+  }
+}
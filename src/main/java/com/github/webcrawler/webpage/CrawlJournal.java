@@ -0,0 +1,261 @@
+package com.github.webcrawler.webpage;
+
+import com.github.webcrawler.webpage.component.Heading;
+import com.github.webcrawler.webpage.component.Link;
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * CrawlJournal records the progress of crawls in a file, so a crawl which was interrupted can be
+ * resumed instead of starting over. The file is an append-only log with one json encoded entry per
+ * crawled webpage. Entries are only collected in memory while crawling and written to the file
+ * periodically by a background thread, so recording a webpage never waits for the disk.
+ *
+ * <p>The journal holds no separate state for the seen links and the frontier: every link a webpage
+ * has kept is seen, and every kept link without an entry of its own was still waiting.
+ */
+public class CrawlJournal implements AutoCloseable {
+
+  private static final Gson GSON = new Gson();
+
+  private final Writer writer;
+  private final ScheduledExecutorService flusher;
+
+  // The entries of the file when resuming, by the link of their root and then by their own link.
+  private final Map<Link, Map<Link, Entry>> checkpoints = new HashMap<>();
+
+  private StringBuilder pending = new StringBuilder();
+  private IOException flushException;
+
+  /** What became of a crawled webpage. */
+  enum Status {
+    ANALYZED,
+    VERIFIED,
+    UNREACHABLE,
+    DUPLICATE
+  }
+
+  /**
+   * @param link The link of the webpage.
+   * @param status What became of the webpage.
+   * @param headings The headings of the webpage before translation, empty unless it is analyzed.
+   * @param links The links the webpage has kept if it is analyzed, the link of the webpage it
+   *     duplicates if it is a near duplicate, empty otherwise.
+   * @param simHash The SimHash of the text of an analyzed webpage, 0 if it is unknown.
+   */
+  record Entry(Link link, Status status, List<Heading> headings, List<Link> links, long simHash) {}
+
+  /** A single line in the file. */
+  private static final class JsonEntry {
+    private String root;
+    private String url;
+    private String status;
+    private List<JsonHeading> headings;
+    private List<String> links;
+    private Long simhash;
+  }
+
+  private static final class JsonHeading {
+    private String level;
+    private String text;
+  }
+
+  /**
+   * Creates a new CrawlJournal.
+   *
+   * @param path The file to record the crawls in, which is created if it does not exist.
+   * @param flushInterval The time between two writes of the recorded entries to the file.
+   * @param resume Whether to load the entries in the file to resume from them and append to it
+   *     instead of overwriting it.
+   * @throws IOException If the file cannot be read or opened.
+   */
+  public CrawlJournal(Path path, Duration flushInterval, boolean resume) throws IOException {
+    if (resume) {
+      load(path);
+    }
+
+    this.writer =
+        Files.newBufferedWriter(
+            path,
+            StandardCharsets.UTF_8,
+            StandardOpenOption.CREATE,
+            StandardOpenOption.WRITE,
+            resume ? StandardOpenOption.APPEND : StandardOpenOption.TRUNCATE_EXISTING);
+
+    this.flusher =
+        Executors.newSingleThreadScheduledExecutor(
+            runnable -> {
+              Thread thread = new Thread(runnable, "crawl-journal-flusher");
+              thread.setDaemon(true);
+              return thread;
+            });
+    long interval = Math.max(1, flushInterval.toMillis());
+    flusher.scheduleWithFixedDelay(this::tryFlush, interval, interval, TimeUnit.MILLISECONDS);
+  }
+
+  private void load(Path path) throws IOException {
+    if (!Files.exists(path)) {
+      return;
+    }
+
+    try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+      String line;
+      while ((line = reader.readLine()) != null) {
+        try {
+          JsonEntry json = GSON.fromJson(line, JsonEntry.class);
+          if (json == null || json.root == null || json.url == null || json.status == null) {
+            continue;
+          }
+
+          Entry entry = fromJson(json);
+          checkpoints
+              .computeIfAbsent(Link.fromString(json.root), root -> new HashMap<>())
+              .put(entry.link(), entry);
+        } catch (JsonParseException | IllegalArgumentException ignored) {
+          // A line written only partially by an interrupted run is skipped.
+        }
+      }
+    }
+  }
+
+  private static Entry fromJson(JsonEntry json) {
+    List<Heading> headings =
+        json.headings == null
+            ? List.of()
+            : json.headings.stream()
+                .map(heading -> new Heading(Heading.Level.fromString(heading.level), heading.text))
+                .toList();
+    List<Link> links =
+        json.links == null ? List.of() : json.links.stream().map(Link::fromString).toList();
+
+    return new Entry(
+        Link.fromString(json.url),
+        Status.valueOf(json.status),
+        headings,
+        links,
+        json.simhash == null ? 0 : json.simhash);
+  }
+
+  private static JsonEntry toJson(Link root, Entry entry) {
+    JsonEntry json = new JsonEntry();
+    json.root = root.toString();
+    json.url = entry.link().toString();
+    json.status = entry.status().name();
+    if (!entry.headings().isEmpty()) {
+      json.headings =
+          entry.headings().stream()
+              .map(
+                  heading -> {
+                    JsonHeading jsonHeading = new JsonHeading();
+                    jsonHeading.level = heading.level().name();
+                    jsonHeading.text = heading.text();
+                    return jsonHeading;
+                  })
+              .toList();
+    }
+    if (!entry.links().isEmpty()) {
+      json.links = entry.links().stream().map(Link::toString).toList();
+    }
+    if (entry.simHash() != 0) {
+      json.simhash = entry.simHash();
+    }
+    return json;
+  }
+
+  /**
+   * Take the entries of an earlier crawl, which are then no longer held by the journal.
+   *
+   * @param root The link of the root of the crawl.
+   * @return The entries by their link, empty if the journal holds no entries of the crawl.
+   */
+  synchronized Map<Link, Entry> takeCheckpoint(Link root) {
+    Map<Link, Entry> checkpoint = checkpoints.remove(root);
+    return checkpoint == null ? Map.of() : checkpoint;
+  }
+
+  /**
+   * Record a crawled webpage. The entry is written with the next flush.
+   *
+   * @param root The link of the root of the crawl.
+   * @param entry The entry of the webpage.
+   */
+  void record(Link root, Entry entry) {
+    String line = GSON.toJson(toJson(root, entry));
+
+    synchronized (this) {
+      pending.append(line).append('\n');
+    }
+  }
+
+  /**
+   * Write the recorded entries to the file.
+   *
+   * @throws IOException If the entries cannot be written.
+   */
+  public void flush() throws IOException {
+    // The writer is locked first, so entries taken by concurrent flushes are written in order.
+    synchronized (writer) {
+      StringBuilder entries;
+      synchronized (this) {
+        entries = pending;
+        pending = new StringBuilder();
+      }
+
+      writer.append(entries);
+      writer.flush();
+    }
+  }
+
+  private void tryFlush() {
+    try {
+      flush();
+    } catch (IOException e) {
+      synchronized (this) {
+        if (flushException == null) {
+          flushException = e;
+        }
+      }
+    }
+  }
+
+  /**
+   * Stop flushing periodically, write the remaining entries and close the file.
+   *
+   * @throws IOException If an entry could not be written.
+   */
+  @Override
+  public void close() throws IOException {
+    flusher.shutdown();
+    try {
+      flusher.awaitTermination(1, TimeUnit.MINUTES);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+
+    try {
+      flush();
+    } finally {
+      writer.close();
+    }
+
+    synchronized (this) {
+      if (flushException != null) {
+        throw flushException;
+      }
+    }
+  }
+}
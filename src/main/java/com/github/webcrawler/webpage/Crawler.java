@@ -0,0 +1,342 @@
+package com.github.webcrawler.webpage;
+
+import com.github.webcrawler.util.LongHashSet;
+import com.github.webcrawler.util.LongSet;
+import com.github.webcrawler.webpage.component.Link;
+import com.github.webcrawler.webpage.provider.HostScheduler;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Crawler fetches and analyzes WebPages concurrently. Pages waiting to be crawled are kept in a
+ * frontier which is shared by all crawls, either on the heap or in memory-mapped files. A bounded
+ * number of them is in flight at the same time, they are fetched asynchronously if the
+ * DocumentProvider supports it and analyzed on either platform or virtual threads.
+ *
+ * <p>If the turns of the hosts are awaited, a webpage only counts as in flight once its host may be
+ * contacted, so webpages of a throttled host never hold up the webpages of other hosts.
+ */
+public class Crawler implements AutoCloseable {
+
+  public static final int DEFAULT_PARALLELISM = 8;
+
+  private final Frontier frontier;
+  private final AtomicInteger webPagesInFlight = new AtomicInteger();
+
+  // The webpages whose children are still in the frontier, by the id their children refer to.
+  private final Map<Long, PendingParent> pendingParents = new ConcurrentHashMap<>();
+  private final AtomicLong parentIds = new AtomicLong();
+
+  private final ExecutorService executor;
+  private final int parallelism;
+
+  private final Supplier<LongSet> seenLinksFactory;
+  private final List<LongSet> seenLinks = new ArrayList<>();
+
+  // Only used if the turns of the hosts are awaited, all guarded by the lock of turnsGranted.
+  private HostScheduler hostScheduler;
+  private final Deque<Frontier.Entry> turnsGranted = new ArrayDeque<>();
+  private final Map<String, Integer> awaitingTurnByHost = new HashMap<>();
+  private int awaitingTurn;
+  // The webpages of hosts which already have parallelism webpages awaiting their turn.
+  private final Map<String, Deque<Frontier.Entry>> heldBackByHost = new HashMap<>();
+  private int heldBack;
+
+  /** Creates a new Crawler with the default parallelism on platform threads. */
+  public Crawler() {
+    this(DEFAULT_PARALLELISM, false);
+  }
+
+  /**
+   * @param parallelism The maximum number of webpages to crawl at the same time.
+   * @param virtualThreads Whether the webpages should be analyzed on virtual threads instead of
+   *     platform threads.
+   */
+  public Crawler(int parallelism, boolean virtualThreads) {
+    this(parallelism, virtualThreads, LongHashSet::new);
+  }
+
+  /**
+   * @param parallelism The maximum number of webpages to crawl at the same time.
+   * @param virtualThreads Whether the webpages should be analyzed on virtual threads instead of
+   *     platform threads.
+   * @param seenLinksFactory Creates the set of fingerprints of the links seen by a crawl, which may
+   *     be exact or probabilistic. The sets are closed together with the Crawler.
+   */
+  public Crawler(int parallelism, boolean virtualThreads, Supplier<LongSet> seenLinksFactory) {
+    this(parallelism, virtualThreads, seenLinksFactory, new MemoryFrontier());
+  }
+
+  /**
+   * @param parallelism The maximum number of webpages to crawl at the same time.
+   * @param virtualThreads Whether the webpages should be analyzed on virtual threads instead of
+   *     platform threads.
+   * @param seenLinksFactory Creates the set of fingerprints of the links seen by a crawl.
+   * @param frontierDirectory The directory to keep the webpages waiting to be crawled in, null to
+   *     keep them on the heap.
+   * @throws IOException If the frontier cannot be created in the directory.
+   */
+  public Crawler(
+      int parallelism,
+      boolean virtualThreads,
+      Supplier<LongSet> seenLinksFactory,
+      Path frontierDirectory)
+      throws IOException {
+    this(
+        parallelism,
+        virtualThreads,
+        seenLinksFactory,
+        frontierDirectory == null ? new MemoryFrontier() : new MappedFrontier(frontierDirectory));
+  }
+
+  private Crawler(
+      int parallelism,
+      boolean virtualThreads,
+      Supplier<LongSet> seenLinksFactory,
+      Frontier frontier) {
+    if (parallelism < 1) {
+      throw new IllegalArgumentException("The parallelism has to be at least 1.");
+    }
+
+    this.parallelism = parallelism;
+    this.seenLinksFactory = seenLinksFactory;
+    this.frontier = frontier;
+    this.executor = virtualThreads ? newVirtualThreadExecutor() : newPlatformThreadExecutor();
+  }
+
+  private static final class PendingParent {
+    final WebPage webPage;
+    final AtomicInteger pendingChildren;
+    // All children of a parent enter the frontier at the same time.
+    final long scheduledNanos = System.nanoTime();
+
+    PendingParent(WebPage webPage, int pendingChildren) {
+      this.webPage = webPage;
+      this.pendingChildren = new AtomicInteger(pendingChildren);
+    }
+  }
+
+  /**
+   * Add the children of a webpage to the frontier and start crawling them if fewer webpages than
+   * the parallelism are in flight.
+   *
+   * @param parent The webpage the links were found on.
+   * @param firstIndex The index of the child of the first link.
+   * @param links The links of the children in the order of the children, null for a child which is
+   *     not crawled.
+   */
+  void schedule(WebPage parent, int firstIndex, List<Link> links) {
+    int pendingChildren = (int) links.stream().filter(Objects::nonNull).count();
+    if (pendingChildren == 0) {
+      return;
+    }
+
+    long parentId = parentIds.incrementAndGet();
+    pendingParents.put(parentId, new PendingParent(parent, pendingChildren));
+
+    for (int i = 0; i < links.size(); i++) {
+      if (links.get(i) != null) {
+        frontier.add(new Frontier.Entry(parentId, firstIndex + i, links.get(i)));
+      }
+    }
+    startWebPages();
+  }
+
+  /** @return A new set for the fingerprints of the links seen by a crawl. */
+  LongSet newSeenLinks() {
+    LongSet links = seenLinksFactory.get();
+    synchronized (seenLinks) {
+      seenLinks.add(links);
+    }
+    return links;
+  }
+
+  /**
+   * Await the turn of the host of a webpage before the webpage counts as in flight. The webpages
+   * have to be fetched with a PoliteDocumentProvider of the same HostScheduler, which uses the
+   * turn. Has to be called before the first webpage is crawled.
+   *
+   * @param scheduler The HostScheduler to reserve the turns at.
+   */
+  public void awaitHostTurns(HostScheduler scheduler) {
+    this.hostScheduler = scheduler;
+  }
+
+  /** @return The number of webpages waiting to be crawled. */
+  public int getFrontierSize() {
+    synchronized (turnsGranted) {
+      return frontier.size() + heldBack;
+    }
+  }
+
+  private void startWebPages() {
+    if (hostScheduler != null) {
+      startWebPagesInTurn();
+      return;
+    }
+
+    int inFlight;
+    while (!frontier.isEmpty() && (inFlight = webPagesInFlight.get()) < parallelism) {
+      if (!webPagesInFlight.compareAndSet(inFlight, inFlight + 1)) {
+        continue;
+      }
+
+      Frontier.Entry entry = frontier.poll();
+      if (entry == null) {
+        webPagesInFlight.decrementAndGet();
+        continue;
+      }
+
+      start(entry);
+    }
+  }
+
+  private void startWebPagesInTurn() {
+    List<Frontier.Entry> starting = new ArrayList<>();
+
+    synchronized (turnsGranted) {
+      while (!turnsGranted.isEmpty() && webPagesInFlight.get() < parallelism) {
+        webPagesInFlight.incrementAndGet();
+        starting.add(turnsGranted.poll());
+      }
+
+      // At most parallelism webpages of a host await their turn, further ones are held back until
+      // a turn of their host is granted, so the webpages of other hosts behind them are not held
+      // up. Only a bounded number is held back on the heap, the rest waits in the frontier.
+      int maxAwaitingTurn = parallelism * 4;
+      int maxHeldBack = maxAwaitingTurn * 4;
+      while (awaitingTurn + turnsGranted.size() < maxAwaitingTurn
+          && heldBack < maxHeldBack
+          && !frontier.isEmpty()) {
+        Frontier.Entry entry = frontier.poll();
+        if (entry == null) {
+          break;
+        }
+
+        String host = entry.link().host();
+        if (awaitingTurnByHost.getOrDefault(host, 0) >= parallelism) {
+          heldBackByHost.computeIfAbsent(host, ignored -> new ArrayDeque<>()).add(entry);
+          heldBack++;
+          continue;
+        }
+
+        reserveTurn(entry, host);
+      }
+    }
+
+    starting.forEach(this::start);
+  }
+
+  // Has to be called with the lock of turnsGranted held.
+  private void reserveTurn(Frontier.Entry entry, String host) {
+    awaitingTurnByHost.merge(host, 1, Integer::sum);
+    awaitingTurn++;
+    hostScheduler.reserve(host, entry.link().toString()).thenRun(() -> turnGranted(entry, host));
+  }
+
+  private void turnGranted(Frontier.Entry entry, String host) {
+    synchronized (turnsGranted) {
+      awaitingTurnByHost.computeIfPresent(host, (ignored, count) -> count > 1 ? count - 1 : null);
+      awaitingTurn--;
+      turnsGranted.add(entry);
+
+      Deque<Frontier.Entry> hostHeldBack = heldBackByHost.get(host);
+      if (hostHeldBack != null) {
+        Frontier.Entry next = hostHeldBack.poll();
+        heldBack--;
+        if (hostHeldBack.isEmpty()) {
+          heldBackByHost.remove(host);
+        }
+        reserveTurn(next, host);
+      }
+    }
+    startWebPages();
+  }
+
+  private void start(Frontier.Entry entry) {
+    createChild(entry)
+        .visitAsync(executor)
+        .whenComplete(
+            (ignored, t) -> {
+              if (hostScheduler != null) {
+                // The turn is still reserved if the webpage failed before it was requested.
+                hostScheduler.cancelReservation(entry.link().host(), entry.link().toString());
+              }
+              webPagesInFlight.decrementAndGet();
+              startWebPages();
+            });
+  }
+
+  private WebPage createChild(Frontier.Entry entry) {
+    PendingParent parent = pendingParents.get(entry.parentId());
+    if (parent.pendingChildren.decrementAndGet() == 0) {
+      pendingParents.remove(entry.parentId());
+    }
+
+    WebPage child = parent.webPage.createChild(entry.childIndex(), entry.link());
+    child.setQueueWait(System.nanoTime() - parent.scheduledNanos);
+    return child;
+  }
+
+  private static ExecutorService newPlatformThreadExecutor() {
+    AtomicInteger threadCount = new AtomicInteger();
+    ThreadFactory threadFactory =
+        runnable -> {
+          Thread thread = new Thread(runnable, "crawler-" + threadCount.incrementAndGet());
+          thread.setDaemon(true);
+          return thread;
+        };
+
+    return Executors.newCachedThreadPool(threadFactory);
+  }
+
+  private static ExecutorService newVirtualThreadExecutor() {
+    try {
+      return (ExecutorService)
+          Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+    } catch (ReflectiveOperationException | UnsupportedOperationException e) {
+      throw new UnsupportedOperationException("Virtual threads require Java 21 or newer.", e);
+    }
+  }
+
+  /**
+   * Stops the threads once the webpages in flight are crawled, closes the seen link sets and
+   * deletes the files of the frontier.
+   */
+  @Override
+  public void close() {
+    executor.shutdown();
+
+    try {
+      frontier.close();
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+
+    synchronized (seenLinks) {
+      for (LongSet links : seenLinks) {
+        try {
+          links.close();
+        } catch (IOException e) {
+          throw new UncheckedIOException(e);
+        }
+      }
+      seenLinks.clear();
+    }
+  }
+}
@@ -0,0 +1,46 @@
+package com.github.webcrawler.webpage;
+
+import com.github.webcrawler.webpage.provider.DocumentProvider;
+import java.io.IOException;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * The state of a webpage whose text is nearly the same as that of another webpage of the crawl. It
+ * has been fetched, but neither its headings nor its links are analyzed.
+ */
+public class DuplicateState extends State {
+
+  public DuplicateState(WebPage webPage) {
+    super(webPage);
+  }
+
+  @Override
+  void fetch(DocumentProvider provider) {
+    throw new IllegalStateException("Webpage is already fetched.");
+  }
+
+  @Override
+  void analyze() {
+    throw new IllegalStateException("Webpage is a near duplicate.");
+  }
+
+  @Override
+  void translate() {
+    throw new IllegalStateException("Webpage is a near duplicate.");
+  }
+
+  @Override
+  void toMarkdown(Appendable out) throws IOException {
+    String markdownMetadata = webPage.metadataToMarkdown();
+    String markdownDuplicate =
+        "Webpage is a near duplicate of <a>%s</a>.".formatted(webPage.getDuplicateOf());
+    String markdownExceptions = webPage.exceptionsToMarkdown();
+
+    out.append(
+        Stream.of(markdownMetadata, markdownDuplicate, markdownExceptions)
+            .filter(Predicate.not(String::isBlank))
+            .collect(Collectors.joining("\n")));
+  }
+}
@@ -1,6 +1,9 @@
 package com.github.webcrawler.webpage;
 
 import com.github.webcrawler.webpage.provider.DocumentProvider;
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -17,15 +20,41 @@ public class FetchedState extends State {
 
   @Override
   void analyze() {
-    webPage.extractHeadings();
-    webPage.extractLinks();
-    webPage.updateSeenLinks();
+    try {
+      analyzeAsync().join();
+    } catch (CompletionException e) {
+      if (e.getCause() instanceof RuntimeException cause) {
+        throw cause;
+      }
+      throw e;
+    }
+  }
 
-    if (webPage.getDepth() < webPage.getMaxDepth()) {
-      webPage.analyzeChildren();
+  @Override
+  CompletableFuture<Void> analyzeAsync() {
+    if (webPage.detectNearDuplicate()) {
+      webPage.changeState(new DuplicateState(webPage));
+      webPage.recordDuplicate();
+      return CompletableFuture.completedFuture(null);
+    }
+
+    webPage.extractHeadings();
+    if (webPage.isSitemap()) {
+      return webPage
+          .analyzeSitemap()
+          .thenRun(() -> webPage.changeState(new AnalyzedState(webPage)));
     }
 
-    webPage.changeState(new AnalyzedState(webPage));
+    return webPage
+        .extractLinks()
+        .thenCompose(
+            ignored -> {
+              webPage.recordAnalyzed();
+              return webPage.getDepth() < webPage.getMaxDepth()
+                  ? webPage.analyzeChildren()
+                  : CompletableFuture.completedFuture(null);
+            })
+        .thenRun(() -> webPage.changeState(new AnalyzedState(webPage)));
   }
 
   @Override
@@ -34,12 +63,13 @@ public class FetchedState extends State {
   }
 
   @Override
-  String toMarkdown() {
+  void toMarkdown(Appendable out) throws IOException {
     String markdownMetadata = webPage.metadataToMarkdown();
     String markdownExceptions = webPage.exceptionsToMarkdown();
 
-    return Stream.of(markdownMetadata, "Webpage not analyzed.", markdownExceptions)
-        .filter(Predicate.not(String::isBlank))
-        .collect(Collectors.joining("\n"));
+    out.append(
+        Stream.of(markdownMetadata, "Webpage not analyzed.", markdownExceptions)
+            .filter(Predicate.not(String::isBlank))
+            .collect(Collectors.joining("\n")));
   }
 }
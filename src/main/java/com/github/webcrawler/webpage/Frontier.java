@@ -0,0 +1,41 @@
+package com.github.webcrawler.webpage;
+
+import com.github.webcrawler.webpage.component.Link;
+import java.io.IOException;
+
+/**
+ * A first in, first out queue of the webpages waiting to be crawled. A waiting webpage is only
+ * described by its link and its place among the children of its parent, the WebPage itself is
+ * created once it leaves the frontier.
+ */
+interface Frontier extends AutoCloseable {
+
+  /**
+   * @param parentId The id under which the Crawler keeps the parent of the webpage.
+   * @param childIndex The index of the webpage among the children of its parent.
+   * @param link The link of the webpage.
+   */
+  record Entry(long parentId, int childIndex, Link link) {}
+
+  /**
+   * @param entry The entry to append.
+   */
+  void add(Entry entry);
+
+  /** @return The oldest entry or null if the frontier is empty. */
+  Entry poll();
+
+  /** @return Whether no entry is waiting. */
+  boolean isEmpty();
+
+  /** @return The number of waiting entries. */
+  int size();
+
+  /**
+   * Release the resources held by the frontier. By default, there is nothing to release.
+   *
+   * @throws IOException If the resources cannot be released.
+   */
+  @Override
+  default void close() throws IOException {}
+}
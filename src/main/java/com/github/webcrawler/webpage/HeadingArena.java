@@ -0,0 +1,87 @@
+package com.github.webcrawler.webpage;
+
+import com.github.webcrawler.webpage.component.Heading;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * HeadingArena stores the headings of all WebPages of a crawl in two parallel arrays of levels and
+ * texts. Every WebPage owns the contiguous range its headings were appended to, so all headings of
+ * a crawl can be translated in one pass and written back by index without copying them around.
+ */
+class HeadingArena {
+
+  private static final int INITIAL_CAPACITY = 64;
+
+  private Heading.Level[] levels = new Heading.Level[INITIAL_CAPACITY];
+  private String[] texts = new String[INITIAL_CAPACITY];
+  private int size;
+
+  /**
+   * Append the headings of a webpage.
+   *
+   * @param headings The headings to append.
+   * @return The index of the first appended heading.
+   */
+  synchronized int addAll(List<Heading> headings) {
+    int offset = size;
+    ensureCapacity(size + headings.size());
+
+    for (Heading heading : headings) {
+      levels[size] = heading.level();
+      texts[size] = heading.text();
+      size++;
+    }
+    return offset;
+  }
+
+  private void ensureCapacity(int capacity) {
+    if (capacity <= levels.length) {
+      return;
+    }
+
+    int newCapacity = Math.max(capacity, levels.length * 2);
+    levels = Arrays.copyOf(levels, newCapacity);
+    texts = Arrays.copyOf(texts, newCapacity);
+  }
+
+  /** @return The number of headings in the arena. */
+  synchronized int size() {
+    return size;
+  }
+
+  /**
+   * @param offset The index of the first heading.
+   * @param count The number of headings.
+   * @return The headings in the range.
+   */
+  synchronized List<Heading> headings(int offset, int count) {
+    List<Heading> headings = new ArrayList<>(count);
+    for (int i = offset; i < offset + count; i++) {
+      headings.add(new Heading(levels[i], texts[i]));
+    }
+    return headings;
+  }
+
+  /** @return The texts of all headings in the order they were appended. */
+  synchronized List<String> texts() {
+    return Arrays.asList(Arrays.copyOf(texts, size));
+  }
+
+  /**
+   * Replace the texts of a range of headings, for example with their translations.
+   *
+   * @param offset The index of the first heading to replace the text of.
+   * @param newTexts The new texts.
+   */
+  synchronized void setTexts(int offset, List<String> newTexts) {
+    if (offset + newTexts.size() > size) {
+      throw new IndexOutOfBoundsException("The texts do not fit into the arena.");
+    }
+
+    for (int i = 0; i < newTexts.size(); i++) {
+      texts[offset + i] = newTexts.get(i);
+    }
+  }
+}
@@ -2,6 +2,7 @@ package com.github.webcrawler.webpage;
 
 import com.github.webcrawler.webpage.provider.DocumentProvider;
 import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -18,6 +19,30 @@ public class InitializedState extends State {
     webPage.changeState(new FetchedState(webPage));
   }
 
+  @Override
+  CompletableFuture<Void> fetchAsync(DocumentProvider provider) {
+    return provider
+        .getDocumentAsync(webPage.getLink().toString())
+        .thenAccept(
+            document -> {
+              webPage.setDocument(document);
+              webPage.changeState(new FetchedState(webPage));
+            });
+  }
+
+  @Override
+  void verify(DocumentProvider provider) throws IOException {
+    provider.verify(webPage.getLink().toString());
+    webPage.changeState(new VerifiedState(webPage));
+  }
+
+  @Override
+  CompletableFuture<Void> verifyAsync(DocumentProvider provider) {
+    return provider
+        .verifyAsync(webPage.getLink().toString())
+        .thenRun(() -> webPage.changeState(new VerifiedState(webPage)));
+  }
+
   @Override
   void analyze() {
     throw new IllegalStateException("Webpage has to fetched prior to analyzing.");
@@ -29,12 +54,13 @@ public class InitializedState extends State {
   }
 
   @Override
-  String toMarkdown() {
+  void toMarkdown(Appendable out) throws IOException {
     String markdownMetadata = webPage.metadataToMarkdown();
     String markdownExceptions = webPage.exceptionsToMarkdown();
 
-    return Stream.of(markdownMetadata, "Webpage not fetched nor analyzed.", markdownExceptions)
-        .filter(Predicate.not(String::isBlank))
-        .collect(Collectors.joining("\n"));
+    out.append(
+        Stream.of(markdownMetadata, "Webpage not fetched nor analyzed.", markdownExceptions)
+            .filter(Predicate.not(String::isBlank))
+            .collect(Collectors.joining("\n")));
   }
 }
@@ -0,0 +1,207 @@
+package com.github.webcrawler.webpage;
+
+import com.github.webcrawler.webpage.component.Link;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.stream.Stream;
+
+/**
+ * A Frontier which keeps its entries in memory-mapped segment files, so the heap does not grow with
+ * the number of waiting webpages. Entries are appended to the newest segment and read from the
+ * oldest one, a segment is deleted as soon as all its entries have been read. Only the two mapped
+ * segments the frontier is writing and reading are referenced from the heap.
+ *
+ * <p>An entry is stored as its length followed by the parent id, the child index and the scheme,
+ * host and path of the link, each string as its length followed by its UTF-8 bytes. A length of 0
+ * marks the end of the entries in a segment.
+ */
+class MappedFrontier implements Frontier {
+
+  static final int DEFAULT_SEGMENT_SIZE = 8 << 20;
+
+  private static final int END_OF_SEGMENT = 0;
+
+  private final Path directory;
+  private final int segmentSize;
+
+  private MappedByteBuffer writeSegment;
+  private long writeSegmentIndex;
+  private int writePosition;
+
+  private MappedByteBuffer readSegment;
+  private long readSegmentIndex;
+  private int readPosition;
+
+  private int size;
+
+  /**
+   * @param parentDirectory The directory to create the directory of the segment files in.
+   * @throws IOException If the first segment cannot be created.
+   */
+  MappedFrontier(Path parentDirectory) throws IOException {
+    this(parentDirectory, DEFAULT_SEGMENT_SIZE);
+  }
+
+  MappedFrontier(Path parentDirectory, int segmentSize) throws IOException {
+    this.directory = Files.createTempDirectory(parentDirectory, "frontier-");
+    this.segmentSize = segmentSize;
+
+    this.writeSegment = createSegment(0, segmentSize);
+    this.readSegment = writeSegment;
+  }
+
+  private Path segmentPath(long index) {
+    return directory.resolve("segment-%08d".formatted(index));
+  }
+
+  private MappedByteBuffer createSegment(long index, int size) throws IOException {
+    try (FileChannel channel =
+        FileChannel.open(
+            segmentPath(index),
+            StandardOpenOption.CREATE_NEW,
+            StandardOpenOption.READ,
+            StandardOpenOption.WRITE)) {
+      return channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+    }
+  }
+
+  private MappedByteBuffer openSegment(long index) throws IOException {
+    try (FileChannel channel =
+        FileChannel.open(segmentPath(index), StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+      return channel.map(FileChannel.MapMode.READ_WRITE, 0, channel.size());
+    }
+  }
+
+  @Override
+  public synchronized void add(Entry entry) {
+    byte[] scheme = entry.link().scheme().getBytes(StandardCharsets.UTF_8);
+    byte[] host = entry.link().host().getBytes(StandardCharsets.UTF_8);
+    byte[] path = entry.link().path().getBytes(StandardCharsets.UTF_8);
+
+    int length =
+        Long.BYTES + Integer.BYTES + 3 * Integer.BYTES + scheme.length + host.length + path.length;
+
+    try {
+      if (writePosition + Integer.BYTES + length > writeSegment.capacity()) {
+        startNewWriteSegment(length);
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+
+    int position = writePosition;
+    writeSegment.putInt(position, length);
+    position += Integer.BYTES;
+    writeSegment.putLong(position, entry.parentId());
+    position += Long.BYTES;
+    writeSegment.putInt(position, entry.childIndex());
+    position += Integer.BYTES;
+    position = putBytes(position, scheme);
+    position = putBytes(position, host);
+    position = putBytes(position, path);
+
+    writePosition = position;
+    size++;
+  }
+
+  private int putBytes(int position, byte[] bytes) {
+    writeSegment.putInt(position, bytes.length);
+    writeSegment.put(position + Integer.BYTES, bytes);
+    return position + Integer.BYTES + bytes.length;
+  }
+
+  private void startNewWriteSegment(int length) throws IOException {
+    if (writePosition + Integer.BYTES <= writeSegment.capacity()) {
+      writeSegment.putInt(writePosition, END_OF_SEGMENT);
+    }
+
+    // An entry which is larger than a segment gets a segment of its own.
+    int newSegmentSize = Math.max(segmentSize, Integer.BYTES + length + Integer.BYTES);
+    writeSegmentIndex++;
+    writeSegment = createSegment(writeSegmentIndex, newSegmentSize);
+    writePosition = 0;
+  }
+
+  @Override
+  public synchronized Entry poll() {
+    if (size == 0) {
+      return null;
+    }
+
+    try {
+      if (readPosition + Integer.BYTES > readSegment.capacity()
+          || readSegment.getInt(readPosition) == END_OF_SEGMENT) {
+        startNextReadSegment();
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+
+    int position = readPosition + Integer.BYTES;
+    long parentId = readSegment.getLong(position);
+    position += Long.BYTES;
+    int childIndex = readSegment.getInt(position);
+    position += Integer.BYTES;
+
+    String[] strings = new String[3];
+    for (int i = 0; i < strings.length; i++) {
+      int length = readSegment.getInt(position);
+      byte[] bytes = new byte[length];
+      readSegment.get(position + Integer.BYTES, bytes);
+      strings[i] = new String(bytes, StandardCharsets.UTF_8);
+      position += Integer.BYTES + length;
+    }
+
+    readPosition = position;
+    size--;
+    return new Entry(parentId, childIndex, new Link(strings[0], strings[1], strings[2]));
+  }
+
+  private void startNextReadSegment() throws IOException {
+    Files.delete(segmentPath(readSegmentIndex));
+
+    readSegmentIndex++;
+    readSegment =
+        readSegmentIndex == writeSegmentIndex ? writeSegment : openSegment(readSegmentIndex);
+    readPosition = 0;
+  }
+
+  @Override
+  public synchronized boolean isEmpty() {
+    return size == 0;
+  }
+
+  @Override
+  public synchronized int size() {
+    return size;
+  }
+
+  /** @return The number of segment files on disk. */
+  synchronized long segmentCount() {
+    return writeSegmentIndex - readSegmentIndex + 1;
+  }
+
+  /**
+   * Delete the segment files and their directory.
+   *
+   * @throws IOException If the files cannot be deleted.
+   */
+  @Override
+  public synchronized void close() throws IOException {
+    writeSegment = null;
+    readSegment = null;
+
+    try (Stream<Path> segments = Files.list(directory)) {
+      for (Path segment : segments.toList()) {
+        Files.deleteIfExists(segment);
+      }
+    }
+    Files.deleteIfExists(directory);
+  }
+}
@@ -0,0 +1,30 @@
+package com.github.webcrawler.webpage;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/** A Frontier which keeps its entries on the heap. */
+class MemoryFrontier implements Frontier {
+
+  private final Queue<Entry> entries = new ConcurrentLinkedQueue<>();
+
+  @Override
+  public void add(Entry entry) {
+    entries.add(entry);
+  }
+
+  @Override
+  public Entry poll() {
+    return entries.poll();
+  }
+
+  @Override
+  public boolean isEmpty() {
+    return entries.isEmpty();
+  }
+
+  @Override
+  public int size() {
+    return entries.size();
+  }
+}
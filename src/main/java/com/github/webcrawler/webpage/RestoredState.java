@@ -0,0 +1,41 @@
+package com.github.webcrawler.webpage;
+
+import com.github.webcrawler.webpage.provider.DocumentProvider;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * The state of a root which has been restored from a CrawlJournal. Its headings and links are
+ * known, so it is not fetched again, and analyzing it only crawls the webpages which were still
+ * waiting when the earlier crawl was interrupted.
+ */
+public class RestoredState extends State {
+
+  public RestoredState(WebPage webPage) {
+    super(webPage);
+  }
+
+  @Override
+  void fetch(DocumentProvider provider) {
+    // The document has already been fetched by the earlier crawl.
+  }
+
+  @Override
+  CompletableFuture<Void> fetchAsync(DocumentProvider provider) {
+    return CompletableFuture.completedFuture(null);
+  }
+
+  @Override
+  void analyze() {
+    analyzeAsync().join();
+  }
+
+  @Override
+  CompletableFuture<Void> analyzeAsync() {
+    return webPage.resumeChildren().thenRun(() -> webPage.changeState(new AnalyzedState(webPage)));
+  }
+
+  @Override
+  void translate() {
+    throw new IllegalStateException("Webpage has to be analyzed prior to translation.");
+  }
+}
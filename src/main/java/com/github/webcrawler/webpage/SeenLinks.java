@@ -0,0 +1,67 @@
+package com.github.webcrawler.webpage;
+
+import com.github.webcrawler.util.DiskLongHashSet;
+import com.github.webcrawler.util.LongHashSet;
+import com.github.webcrawler.util.LongSet;
+import com.github.webcrawler.util.ScalableBloomFilter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.function.Supplier;
+
+/** SeenLinks selects how a crawl remembers the fingerprints of the links it has already seen. */
+public enum SeenLinks {
+  /** Keeps all fingerprints in memory, no link is ever skipped wrongly. */
+  EXACT {
+    @Override
+    LongSet create(double falsePositiveRate, Path directory) {
+      return new LongHashSet();
+    }
+  },
+
+  /**
+   * Keeps the fingerprints in a scalable Bloom filter, which takes a few bytes per link. A link
+   * which has not been seen is skipped with at most the false positive rate.
+   */
+  BLOOM {
+    @Override
+    LongSet create(double falsePositiveRate, Path directory) {
+      return new ScalableBloomFilter(BLOOM_FILTER_INITIAL_CAPACITY, falsePositiveRate);
+    }
+  },
+
+  /** Keeps all fingerprints in a temporary file, so the heap does not grow with the crawl. */
+  DISK {
+    @Override
+    LongSet create(double falsePositiveRate, Path directory) {
+      try {
+        return DiskLongHashSet.createTemporary(directory);
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+    }
+  };
+
+  private static final int BLOOM_FILTER_INITIAL_CAPACITY = 1 << 16;
+
+  abstract LongSet create(double falsePositiveRate, Path directory);
+
+  /**
+   * @param falsePositiveRate The false positive rate of a Bloom filter.
+   * @param directory The directory for the files on disk, null for the default temporary directory.
+   * @return A factory for the sets of seen links to pass to a Crawler.
+   */
+  public Supplier<LongSet> factory(double falsePositiveRate, Path directory) {
+    return () -> create(falsePositiveRate, directory);
+  }
+
+  /**
+   * Create a new SeenLinks from a String.
+   *
+   * @param seenLinks The string to convert from.
+   * @return A new SeenLinks.
+   */
+  public static SeenLinks fromString(String seenLinks) {
+    return SeenLinks.valueOf(seenLinks.toUpperCase());
+  }
+}
@@ -2,9 +2,9 @@ package com.github.webcrawler.webpage;
 
 import com.github.webcrawler.webpage.provider.DocumentProvider;
 import java.io.IOException;
-import java.util.function.Predicate;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 public abstract class State {
 
@@ -20,20 +20,103 @@ public abstract class State {
 
   abstract void translate();
 
+  /**
+   * Fetch without blocking. By default, this fetches synchronously and returns a completed future.
+   *
+   * @param provider The provider to fetch the document with.
+   * @return A future which completes after fetching.
+   */
+  CompletableFuture<Void> fetchAsync(DocumentProvider provider) {
+    try {
+      fetch(provider);
+      return CompletableFuture.completedFuture(null);
+    } catch (Exception e) {
+      return CompletableFuture.failedFuture(e);
+    }
+  }
+
+  /**
+   * Analyze without blocking. By default, this analyzes synchronously and returns a completed
+   * future.
+   *
+   * @return A future which completes after analyzing.
+   */
+  CompletableFuture<Void> analyzeAsync() {
+    try {
+      analyze();
+      return CompletableFuture.completedFuture(null);
+    } catch (Exception e) {
+      return CompletableFuture.failedFuture(e);
+    }
+  }
+
+  /**
+   * Check whether the webpage is reachable without fetching it. Only an initialized webpage can be
+   * verified.
+   *
+   * @param provider The provider to verify the link with.
+   * @throws IOException If the webpage is not reachable.
+   */
+  void verify(DocumentProvider provider) throws IOException {
+    throw new IllegalStateException("Only an initialized webpage can be verified.");
+  }
+
+  /**
+   * Verify without blocking. By default, this verifies synchronously and returns a completed
+   * future.
+   *
+   * @param provider The provider to verify the link with.
+   * @return A future which completes after verifying.
+   */
+  CompletableFuture<Void> verifyAsync(DocumentProvider provider) {
+    try {
+      verify(provider);
+      return CompletableFuture.completedFuture(null);
+    } catch (Exception e) {
+      return CompletableFuture.failedFuture(e);
+    }
+  }
+
+  /** @return The webpage as Markdown string. */
   String toMarkdown() {
-    String markdownMetadata = webPage.metadataToMarkdown();
+    StringBuilder markdown = new StringBuilder();
+    try {
+      toMarkdown(markdown);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    return markdown.toString();
+  }
+
+  /**
+   * Write the webpage as Markdown. The sections of the webpage itself are small, but the children
+   * are written one after another, so the whole report is never held in memory.
+   *
+   * @param out The Appendable to write the Markdown to.
+   * @throws IOException If the Markdown cannot be written.
+   */
+  void toMarkdown(Appendable out) throws IOException {
+    String delimiter = "";
+    for (String section :
+        List.of(
+            webPage.metadataToMarkdown(),
+            webPage.headingsToMarkdown(),
+            webPage.brokenLinksToMarkdown())) {
+      if (!section.isBlank()) {
+        out.append(delimiter).append(section);
+        delimiter = "\n\n";
+      }
+    }
+
+    if (webPage.hasChildren()) {
+      out.append(delimiter);
+      webPage.childrenToMarkdown(out);
+      delimiter = "\n\n";
+    }
+
     String markdownExceptions = webPage.exceptionsToMarkdown();
-    String markdownHeaders = webPage.headingsToMarkdown();
-    String markdownBrokenLinks = webPage.brokenLinksToMarkdown();
-    String markdownChildren = webPage.childrenToMarkdown();
-
-    return Stream.of(
-            markdownMetadata,
-            markdownHeaders,
-            markdownBrokenLinks,
-            markdownChildren,
-            markdownExceptions)
-        .filter(Predicate.not(String::isBlank))
-        .collect(Collectors.joining("\n\n"));
+    if (!markdownExceptions.isBlank()) {
+      out.append(delimiter).append(markdownExceptions);
+    }
   }
 }
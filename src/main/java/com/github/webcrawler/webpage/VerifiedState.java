@@ -0,0 +1,41 @@
+package com.github.webcrawler.webpage;
+
+import com.github.webcrawler.webpage.provider.DocumentProvider;
+import java.io.IOException;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/** The state of a webpage which is known to be reachable, but which has not been fetched. */
+public class VerifiedState extends State {
+
+  public VerifiedState(WebPage webPage) {
+    super(webPage);
+  }
+
+  @Override
+  void fetch(DocumentProvider provider) {
+    throw new IllegalStateException("Webpage is only verified.");
+  }
+
+  @Override
+  void analyze() {
+    throw new IllegalStateException("Webpage is only verified.");
+  }
+
+  @Override
+  void translate() {
+    throw new IllegalStateException("Webpage is only verified.");
+  }
+
+  @Override
+  void toMarkdown(Appendable out) throws IOException {
+    String markdownMetadata = webPage.metadataToMarkdown();
+    String markdownExceptions = webPage.exceptionsToMarkdown();
+
+    out.append(
+        Stream.of(markdownMetadata, "Webpage verified, but not fetched.", markdownExceptions)
+            .filter(Predicate.not(String::isBlank))
+            .collect(Collectors.joining("\n")));
+  }
+}
@@ -1,71 +1,207 @@
 package com.github.webcrawler.webpage;
 
+import com.github.webcrawler.metrics.CrawlMetrics;
+import com.github.webcrawler.metrics.CrawlTrace;
+import com.github.webcrawler.metrics.PageTrace;
+import com.github.webcrawler.translator.BatchingTranslator;
 import com.github.webcrawler.translator.TranslationException;
 import com.github.webcrawler.translator.Translator;
 import com.github.webcrawler.webpage.component.*;
 import com.github.webcrawler.webpage.provider.*;
 import java.io.IOException;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
 import java.util.function.*;
 import java.util.stream.Collectors;
-import java.util.stream.IntStream;
 import java.util.stream.Stream;
 
 /**
  * WebPage recursively crawls Documents from a Provider, extracts Links and Headings and checks
  * whether Links are broken or not. It also provides a way to recursively translate all Headings
- * with a Translator.
+ * with a Translator. The children of a WebPage are crawled concurrently by a Crawler. With a
+ * BatchingTranslator, the headings of every WebPage are already sent for translation while the
+ * crawl continues. With a CrawlJournal, an interrupted crawl can be resumed.
  */
 public class WebPage implements Markdownable {
+  // The number of links of a sitemap handed over to the Crawler at once.
+  private static final int SITEMAP_CHUNK_SIZE = 1000;
+
   private final Link link;
-  private final Set<Link> seenLinks;
+  private final Crawl crawl;
   private final int maxDepth;
   private final int depth;
 
   private final DocumentProvider provider;
   private final Translator translator;
 
-  private final List<Heading> headings = new ArrayList<>();
-  private final Set<Link> links = new LinkedHashSet<>();
+  // The links are unique, because each one is marked as seen in the crawl before it is added.
+  private final List<Link> links = new ArrayList<>();
 
   private final Set<Link> brokenLinks = new LinkedHashSet<>();
   private final Set<Exception> exceptions = new LinkedHashSet<>();
 
-  private final Set<WebPage> children = new LinkedHashSet<>();
+  // A child is null until the Crawler takes it out of the frontier.
+  private final List<WebPage> children = new ArrayList<>();
+  // The chunk of the links of a sitemap which is handed over to the Crawler last.
+  private CompletableFuture<Void> sitemapChunk = CompletableFuture.completedFuture(null);
 
   private State state;
   private Document document;
+  private CompletableFuture<Translator.Result> translation;
+  private int headingsOffset;
+  private int headingsCount;
+  private boolean unreachable;
+  private long simHash;
+  private Link duplicateOf;
+  private Timings timings;
   String sourceLanguage = "UNKNOWN";
   String targetLanguage = "UNKNOWN";
 
+  /** What is measured of a webpage for the trace, only allocated if the crawl is traced. */
+  private static final class Timings {
+    private final Link parent;
+    private long queueWaitNanos;
+    private long fetchStartNanos;
+    private long fetchEndNanos;
+    private long extractNanos;
+
+    private Timings(Link parent) {
+      this.parent = parent;
+    }
+  }
+
+  /** Crawls the children with a Crawler of its own, which is closed once the crawl is done. */
   public WebPage(String url, int maxDepth, DocumentProvider provider, Translator translator) {
-    this(Link.fromString(url), new LinkedHashSet<>(), maxDepth, provider, translator, 0);
+    this(url, maxDepth, provider, translator, new Crawl(new Crawler(), true, false));
+  }
+
+  public WebPage(
+      String url, int maxDepth, DocumentProvider provider, Translator translator, Crawler crawler) {
+    this(url, maxDepth, provider, translator, crawler, false);
   }
 
+  /**
+   * @param verifyLeaves Whether the webpages at maxDepth should only be checked for being reachable
+   *     instead of being fetched and analyzed. Their headings are missing from the report then.
+   */
   public WebPage(
+      String url,
+      int maxDepth,
+      DocumentProvider provider,
+      Translator translator,
+      Crawler crawler,
+      boolean verifyLeaves) {
+    this(url, maxDepth, provider, translator, new Crawl(crawler, false, verifyLeaves));
+  }
+
+  private WebPage(
+      String url, int maxDepth, DocumentProvider provider, Translator translator, Crawl crawl) {
+    this(Link.fromString(url), crawl, maxDepth, provider, translator, 0);
+    this.crawl.markSeen(this.link);
+  }
+
+  WebPage(Link link, WebPage parent) {
+    this(link, parent.crawl, parent.maxDepth, parent.provider, parent.translator, parent.depth + 1);
+    if (crawl.getTrace() != null) {
+      this.timings = new Timings(parent.link);
+    }
+  }
+
+  private WebPage(
       Link link,
-      Set<Link> seenLinks,
+      Crawl crawl,
       int maxDepth,
       DocumentProvider provider,
       Translator translator,
       int depth) {
     this.state = new InitializedState(this);
     this.link = link;
-    this.seenLinks = seenLinks;
-    this.seenLinks.add(link);
+    this.crawl = crawl;
     this.maxDepth = maxDepth;
     this.provider = provider;
     this.translator = translator;
     this.depth = depth;
   }
 
+  /**
+   * Record the progress of the crawl in a journal. If the journal holds entries of an earlier crawl
+   * from the same link, the webpages crawled by it are restored instead of being crawled again and
+   * only the webpages which were still waiting are crawled. Has to be called before fetching.
+   *
+   * @param journal The journal to record the crawl in and to resume from.
+   */
+  public void journalTo(CrawlJournal journal) {
+    crawl.setJournal(link, journal);
+
+    Map<Link, CrawlJournal.Entry> checkpoint = journal.takeCheckpoint(link);
+    CrawlJournal.Entry entry = checkpoint.get(link);
+    if (entry != null && entry.status() == CrawlJournal.Status.ANALYZED) {
+      restore(entry, checkpoint);
+      changeState(new RestoredState(this));
+    }
+  }
+
+  /**
+   * Only crawl the links which the robots.txt of their host allows. A link is checked before it is
+   * handed over to the Crawler, so a disallowed link is never fetched. Has to be called before
+   * fetching.
+   *
+   * @param robotsTxts The robots.txt files of the hosts, which can be shared by several crawls.
+   */
+  public void obeyRobotsTxt(RobotsTxtCache robotsTxts) {
+    crawl.obeyRobotsTxt(robotsTxts);
+  }
+
+  /**
+   * Count the webpages by the states they enter, the broken links, and time extracting the headings
+   * and the links of every webpage. Has to be called before fetching.
+   *
+   * @param metrics The metrics to record the crawl in, which can be shared by several crawls.
+   */
+  public void recordMetrics(CrawlMetrics metrics) {
+    crawl.setMetrics(metrics);
+  }
+
+  /**
+   * Write a line for every crawled webpage to a trace, with the time it waited in the frontier, the
+   * phases of its HTTP call, parsing and extracting. Has to be called before fetching.
+   *
+   * @param trace The trace to write the webpages to, which can be shared by several crawls.
+   */
+  public void traceTo(CrawlTrace trace) {
+    crawl.setTrace(trace);
+    this.timings = new Timings(null);
+  }
+
+  /**
+   * Skip webpages whose text is nearly the same as that of a webpage crawled before, for example
+   * print views or mirrors. Their headings and links are not analyzed. Has to be called before
+   * fetching, and before journalTo() for the restored webpages to be taken into account.
+   *
+   * @param maxDistance The maximum number of bits in which the SimHashes of the texts of two near
+   *     duplicates differ.
+   */
+  public void skipNearDuplicates(int maxDistance) {
+    crawl.detectNearDuplicates(maxDistance);
+  }
+
   /**
    * Fetches the Website.
    *
    * @throws IOException If an error occurs fetching the website itself.
    */
   public void fetch() throws IOException {
-    this.state.fetch(provider);
+    startFetch();
+    try {
+      this.state.fetch(provider);
+    } catch (IOException | RuntimeException e) {
+      discardRootHttpTimings();
+      throw e;
+    } finally {
+      endFetch();
+    }
   }
 
   /**
@@ -77,7 +213,7 @@ public class WebPage implements Markdownable {
   }
 
   /**
-   * Aggregates the headings of itself and its children, translates them and updates all the
+   * Translates the headings of itself and all webpages found while crawling it and updates all the
    * headings.
    *
    * @throws TranslationException If error occurs translating.
@@ -110,6 +246,131 @@ public class WebPage implements Markdownable {
     }
   }
 
+  /**
+   * Fetches the Website without blocking the calling thread.
+   *
+   * @return A future which completes when the website is fetched or fails with an IOException.
+   */
+  public CompletableFuture<Void> fetchAsync() {
+    if (timings == null) {
+      return this.state.fetchAsync(provider);
+    }
+
+    startFetch();
+    return this.state
+        .fetchAsync(provider)
+        .whenComplete(
+            (ignored, t) -> {
+              endFetch();
+              if (t != null) {
+                discardRootHttpTimings();
+              }
+            });
+  }
+
+  private void discardRootHttpTimings() {
+    // Unlike a child, a root which cannot be fetched is never recorded.
+    if (depth == 0) {
+      discardHttpTimings();
+    }
+  }
+
+  private void discardHttpTimings() {
+    if (timings != null) {
+      crawl.getTrace().discardHttpTimings(link.toString());
+    }
+  }
+
+  private void startFetch() {
+    if (timings != null) {
+      timings.fetchStartNanos = System.nanoTime();
+    }
+  }
+
+  private void endFetch() {
+    if (timings != null) {
+      timings.fetchEndNanos = System.nanoTime();
+    }
+  }
+
+  /**
+   * Extracts the headings and the links present and crawls the links up to the depth configured in
+   * the WebPage object without blocking the calling thread.
+   *
+   * @return A future which completes when the WebPage and all its children are analyzed.
+   */
+  public CompletableFuture<Void> analyzeAsync() {
+    return this.state.analyzeAsync();
+  }
+
+  public CompletableFuture<Void> tryFetchAsync() {
+    return fetchAsync().exceptionally(this::addException);
+  }
+
+  public CompletableFuture<Void> tryAnalyzeAsync() {
+    return analyzeAsync().exceptionally(this::addException);
+  }
+
+  private Void addException(Throwable t) {
+    Throwable cause = unwrap(t);
+
+    if (cause instanceof Exception e) {
+      this.exceptions.add(e);
+      return null;
+    }
+    throw new CompletionException(cause);
+  }
+
+  private static Throwable unwrap(Throwable t) {
+    return t instanceof CompletionException && t.getCause() != null ? t.getCause() : t;
+  }
+
+  /**
+   * Fetches and analyzes a child on behalf of the Crawler, or only verifies it if it is a leaf and
+   * the crawl verifies leaves. A child which cannot be fetched is later reported as broken link by
+   * its parent.
+   *
+   * @param executor The executor to start fetching and to analyze on.
+   * @return A future which completes when the child is crawled, it never fails.
+   */
+  CompletableFuture<Void> visitAsync(Executor executor) {
+    CompletableFuture<Void> crawled;
+    if (crawl.verifiesLeaves() && depth == maxDepth) {
+      crawled =
+          CompletableFuture.supplyAsync(this::verifyAsync, executor)
+              .thenCompose(Function.identity())
+              .thenRun(() -> record(CrawlJournal.Status.VERIFIED));
+    } else {
+      crawled =
+          CompletableFuture.supplyAsync(this::fetchAsync, executor)
+              .thenCompose(Function.identity())
+              .thenComposeAsync(ignored -> analyzeAsync(), executor);
+    }
+
+    return crawled.handle(
+        (ignored, t) -> {
+          try {
+            if (t != null && unwrap(t) instanceof IOException) {
+              this.unreachable = true;
+              crawl.countBrokenLink();
+              record(CrawlJournal.Status.UNREACHABLE);
+            } else if (t != null) {
+              addException(t);
+            }
+          } finally {
+            // Only the timings of a child which failed with an exception are still kept.
+            discardHttpTimings();
+            crawl.webPageDone();
+          }
+          return null;
+        });
+  }
+
+  private CompletableFuture<Void> verifyAsync() {
+    startFetch();
+    return state.verifyAsync(provider).whenComplete((ignored, t) -> endFetch());
+  }
+
   /**
    * Similar to the toString() methods, but for Markdown.
    *
@@ -131,10 +392,34 @@ public class WebPage implements Markdownable {
     return toMarkdown();
   }
 
+  /**
+   * Write the WebPage and all of its children as Markdown without building the whole string.
+   *
+   * @param out The Appendable to write the Markdown to.
+   * @param nestingLevel The indentation of the generated strings.
+   * @throws IOException If the Markdown cannot be written.
+   */
+  @Override
+  public void toMarkdown(Appendable out, int nestingLevel) throws IOException {
+    this.state.toMarkdown(out);
+  }
+
+  List<Heading> getHeadings() {
+    return crawl.getHeadingArena().headings(headingsOffset, headingsCount);
+  }
+
+  HeadingArena getHeadingArena() {
+    return crawl.getHeadingArena();
+  }
+
   Link getLink() {
     return link;
   }
 
+  Link getDuplicateOf() {
+    return duplicateOf;
+  }
+
   Translator getTranslator() {
     return translator;
   }
@@ -161,60 +446,395 @@ public class WebPage implements Markdownable {
 
   void changeState(State state) {
     this.state = state;
+    crawl.countState(state);
   }
 
   State getState() {
     return state;
   }
 
+  /**
+   * Check the fetched document against the documents of the crawl seen before.
+   *
+   * @return Whether the document is a near duplicate of one of them.
+   */
+  boolean detectNearDuplicate() {
+    // A sitemap has no text which other webpages could duplicate.
+    if (!crawl.detectsNearDuplicates() || document instanceof SitemapDocument) {
+      return false;
+    }
+
+    simHash = document.getSimHash();
+    duplicateOf = crawl.markSimHash(simHash, link);
+    return duplicateOf != null;
+  }
+
   void extractHeadings() {
-    this.headings.addAll(document.getHeadings());
+    long start = crawl.isTimed() ? System.nanoTime() : 0;
+    List<Heading> headings = document.getHeadings();
+    stopTimer(CrawlMetrics.Stage.EXTRACT_HEADINGS, start);
+
+    setHeadings(headings);
+  }
+
+  private void setHeadings(List<Heading> headings) {
+    this.headingsOffset = crawl.getHeadingArena().addAll(headings);
+    this.headingsCount = headings.size();
+
+    if (translatesIncrementally() && !headings.isEmpty()) {
+      this.translation = translator.translateAsync(headings.stream().map(Heading::text).toList());
+
+      CrawlMetrics metrics = crawl.getMetrics();
+      if (metrics != null) {
+        metrics.addSubmittedHeadings(headings.size());
+        translation.thenRun(() -> metrics.addTranslatedHeadings(headings.size()));
+      }
+    }
+  }
+
+  private void stopTimer(CrawlMetrics.Stage stage, long start) {
+    if (!crawl.isTimed()) {
+      return;
+    }
+
+    long nanos = System.nanoTime() - start;
+    if (crawl.getMetrics() != null) {
+      crawl.getMetrics().stage(stage).record(nanos);
+    }
+    if (timings != null) {
+      timings.extractNanos += nanos;
+    }
+  }
+
+  boolean translatesIncrementally() {
+    return translator instanceof BatchingTranslator;
+  }
+
+  /**
+   * Extract the links of the document which have not been seen before and which their robots.txt
+   * allows. The links of a webpage at the maximum depth are never crawled, so they are kept without
+   * fetching the robots.txt of their hosts.
+   *
+   * @return A future which completes once the robots.txt files of the links are checked.
+   */
+  CompletableFuture<Void> extractLinks() {
+    // Only extracting is timed, checking the robots.txt of a host may wait for fetching it.
+    long start = crawl.isTimed() ? System.nanoTime() : 0;
+    List<Link> documentLinks = document.getLinks();
+    stopTimer(CrawlMetrics.Stage.EXTRACT_LINKS, start);
+
+    // Marking a link as seen is atomic, so a link found by several
+    // webpages at the same time becomes the child of only one of them.
+    // Only new links are checked against the robots.txt of their host.
+    List<Link> newLinks = documentLinks.stream().filter(crawl::markSeen).toList();
+    if (depth >= maxDepth) {
+      this.links.addAll(newLinks);
+      return CompletableFuture.completedFuture(null);
+    }
+    return crawl.allowedLinks(newLinks).thenAccept(this.links::addAll);
+  }
+
+  /** Record the headings and the links of the webpage, before its children are crawled. */
+  void recordAnalyzed() {
+    record(
+        new CrawlJournal.Entry(
+            link, CrawlJournal.Status.ANALYZED, getHeadings(), List.copyOf(links), simHash));
+  }
+
+  void recordDuplicate() {
+    record(
+        new CrawlJournal.Entry(
+            link, CrawlJournal.Status.DUPLICATE, List.of(), List.of(duplicateOf), 0));
+  }
+
+  private void record(CrawlJournal.Status status) {
+    record(new CrawlJournal.Entry(link, status, List.of(), List.of(), 0));
+  }
+
+  /** Record what became of the webpage in the journal and the trace, if there are any. */
+  private void record(CrawlJournal.Entry entry) {
+    crawl.record(entry);
+    trace(entry.status());
+  }
+
+  private void trace(CrawlJournal.Status status) {
+    if (timings != null) {
+      crawl
+          .getTrace()
+          .record(
+              new PageTrace(
+                  link.toString(),
+                  timings.parent == null ? null : timings.parent.toString(),
+                  depth,
+                  status.name().toLowerCase(Locale.ROOT),
+                  timings.queueWaitNanos,
+                  timings.fetchStartNanos,
+                  timings.fetchEndNanos,
+                  timings.extractNanos));
+    }
+  }
+
+  /**
+   * Set how long the webpage has waited in the frontier, for the trace.
+   *
+   * @param nanos The time between enqueueing and taking the webpage out of the frontier.
+   */
+  void setQueueWait(long nanos) {
+    if (timings != null) {
+      timings.queueWaitNanos = nanos;
+    }
   }
 
-  void extractLinks() {
-    List<Link> allLinks = document.getLinks();
-    allLinks.removeAll(seenLinks);
+  /**
+   * Restore an analyzed webpage and the webpages it has kept from the entries of an earlier crawl.
+   * A kept link without an entry was still waiting, its child remains null until it is crawled.
+   *
+   * @param entry The entry of this webpage.
+   * @param checkpoint The entries of the earlier crawl by their link.
+   */
+  private void restore(CrawlJournal.Entry entry, Map<Link, CrawlJournal.Entry> checkpoint) {
+    setHeadings(entry.headings());
+    entry.links().forEach(crawl::markSeen);
+    if (crawl.detectsNearDuplicates() && entry.simHash() != 0) {
+      simHash = entry.simHash();
+      crawl.markSimHash(simHash, link);
+    }
+
+    if (depth >= maxDepth) {
+      links.addAll(entry.links());
+      return;
+    }
+
+    for (Link childLink : entry.links()) {
+      CrawlJournal.Entry childEntry = checkpoint.get(childLink);
+      if (childEntry == null) {
+        children.add(null);
+        links.add(childLink);
+        continue;
+      }
 
-    this.links.addAll(allLinks);
+      WebPage child = new WebPage(childLink, this);
+      switch (childEntry.status()) {
+        case ANALYZED -> {
+          child.restore(childEntry, checkpoint);
+          child.changeState(new AnalyzedState(child));
+        }
+        case VERIFIED -> child.changeState(new VerifiedState(child));
+        case UNREACHABLE -> child.unreachable = true;
+        case DUPLICATE -> {
+          child.duplicateOf = childEntry.links().get(0);
+          child.changeState(new DuplicateState(child));
+        }
+      }
+      children.add(child);
+      // Only the waiting children keep their link here, so their indices match the children.
+      links.add(null);
+    }
   }
 
-  void updateSeenLinks() {
-    seenLinks.add(this.link);
-    seenLinks.addAll(this.links);
+  /**
+   * Crawl the children which were still waiting when the restored crawl was interrupted. Like for
+   * analyzeChildren, the broken links are collected once the whole crawl is done.
+   *
+   * @return A future which completes when the children are crawled.
+   */
+  CompletableFuture<Void> resumeChildren() {
+    List<WebPage> restored = new ArrayList<>();
+    collectRestored(restored);
+
+    // All restored webpages are collected first, the crawler fills in their children afterwards.
+    crawl.resume(() -> restored.forEach(WebPage::enqueueWaitingChildren));
+
+    return awaitCrawl();
   }
 
-  void analyzeChildren() {
+  private void collectRestored(List<WebPage> restored) {
+    if (depth >= maxDepth) {
+      return;
+    }
+
+    restored.add(this);
+    for (WebPage child : children) {
+      if (child != null && child.state instanceof AnalyzedState) {
+        child.collectRestored(restored);
+      }
+    }
+  }
+
+  private void enqueueWaitingChildren() {
+    crawl.enqueue(this, 0, links);
+    links.clear();
+  }
+
+  /**
+   * Hands the links over to the Crawler, which creates the children in the order of the links once
+   * they leave the frontier. Only for the root the returned future waits for the whole crawl, after
+   * which the broken links of all webpages are collected.
+   *
+   * @return A future which completes when the children are crawled.
+   */
+  CompletableFuture<Void> analyzeChildren() {
+    children.clear();
+    brokenLinks.clear();
+
+    children.addAll(Collections.nCopies(links.size(), null));
+    crawl.enqueue(this, 0, links);
+    // The frontier holds the links from now on.
+    links.clear();
+
+    if (depth != 0) {
+      return CompletableFuture.completedFuture(null);
+    }
+    return awaitCrawl();
+  }
+
+  /**
+   * Create a child which has left the frontier.
+   *
+   * @param index The index of the child in the order of the links.
+   * @param link The link of the child.
+   * @return The new child.
+   */
+  WebPage createChild(int index, Link link) {
+    WebPage child = new WebPage(link, this);
+    // Every child has its own index, but the children of a sitemap grow while others are created.
+    synchronized (children) {
+      children.set(index, child);
+    }
+    return child;
+  }
+
+  /** @return Whether the document is a sitemap, whose links are read while they are crawled. */
+  boolean isSitemap() {
+    return document instanceof SitemapDocument;
+  }
+
+  /**
+   * Read the links of a sitemap and hand them over to the Crawler in chunks while reading, so the
+   * links of a large sitemap are never all held in memory. The links are only read if they are
+   * crawled, that is below the maximum depth. Unlike the links of other webpages, they are not
+   * recorded in the journal, a resumed crawl reads the sitemap again.
+   *
+   * @return A future which completes when the children are crawled, or fails if the sitemap cannot
+   *     be read. The children enqueued before are crawled anyway.
+   */
+  CompletableFuture<Void> analyzeSitemap() {
+    if (depth >= maxDepth) {
+      trace(CrawlJournal.Status.ANALYZED);
+      return CompletableFuture.completedFuture(null);
+    }
+
     children.clear();
     brokenLinks.clear();
 
-    for (Link link : this.links) {
-      try {
-        WebPage child = new WebPage(link, seenLinks, maxDepth, provider, translator, depth + 1);
-        child.fetch();
-        child.analyze();
-        children.add(child);
-      } catch (IOException e) {
-        brokenLinks.add(new Link(link.scheme(), link.host(), link.path(), true));
+    Exception failure = null;
+    List<Link> chunk = new ArrayList<>(SITEMAP_CHUNK_SIZE);
+    crawl.hold();
+    try {
+      ((SitemapDocument) document)
+          .readLinks(
+              link -> {
+                if (crawl.markSeen(link)) {
+                  chunk.add(link);
+                  if (chunk.size() == SITEMAP_CHUNK_SIZE) {
+                    enqueueChunk(chunk);
+                  }
+                }
+              });
+      enqueueChunk(chunk).join();
+      trace(CrawlJournal.Status.ANALYZED);
+    } catch (IOException | RuntimeException e) {
+      failure = e;
+    } finally {
+      crawl.release();
+    }
+
+    CompletableFuture<Void> crawled =
+        depth != 0 ? CompletableFuture.completedFuture(null) : awaitCrawl();
+    if (failure == null) {
+      return crawled;
+    }
+    Throwable cause = unwrap(failure);
+    return crawled.thenCompose(ignored -> CompletableFuture.failedFuture(cause));
+  }
+
+  private CompletableFuture<Void> enqueueChunk(List<Link> chunk) {
+    // The sitemap is read on a thread of its own anyway. Waiting for the robots.txt check of the
+    // previous chunk keeps the links read ahead of the checks bounded.
+    sitemapChunk.join();
+
+    sitemapChunk =
+        crawl
+            .allowedLinks(List.copyOf(chunk))
+            .thenAccept(
+                allowed -> {
+                  int firstIndex;
+                  synchronized (children) {
+                    firstIndex = children.size();
+                    children.addAll(Collections.nCopies(allowed.size(), null));
+                  }
+                  crawl.enqueue(this, firstIndex, allowed);
+                });
+    chunk.clear();
+    return sitemapChunk;
+  }
+
+  /**
+   * Wait for the whole crawl of the root, collect the broken links of all webpages and close the
+   * Crawler if the root has created it.
+   */
+  private CompletableFuture<Void> awaitCrawl() {
+    return crawl
+        .getCompletion()
+        .thenRun(this::collectBrokenLinks)
+        .whenComplete((ignored, t) -> crawl.closeOwnedCrawler());
+  }
+
+  private void collectBrokenLinks() {
+    for (WebPage child : children) {
+      if (child.unreachable) {
+        brokenLinks.add(new Link(child.link.scheme(), child.link.host(), child.link.path(), true));
+      } else {
+        child.collectBrokenLinks();
       }
     }
+    children.removeIf(child -> child.unreachable);
   }
 
-  List<Heading> aggregateHeadings() {
+  /**
+   * Translate the headings of all webpages of the crawl at once and write the translations back.
+   *
+   * @return The Result of the translation.
+   * @throws TranslationException If errors occur on translation.
+   */
+  Translator.Result translateHeadings() throws TranslationException {
+    HeadingArena headingArena = crawl.getHeadingArena();
+
+    Translator.Result result = translator.translate(headingArena.texts());
+    headingArena.setTexts(0, result.translatedTexts());
+    return result;
+  }
+
+  /**
+   * Wait for the translations of the headings of this webpage and its children, which were started
+   * while extracting the headings.
+   *
+   * @return The Results of this webpage and then of its children.
+   */
+  List<Translator.Result> awaitTranslations() {
     return Stream.concat(
-            this.headings.stream(),
-            children.stream().map(WebPage::aggregateHeadings).flatMap(Collection::stream))
+            Stream.ofNullable(translation).map(CompletableFuture::join),
+            children.stream().map(WebPage::awaitTranslations).flatMap(Collection::stream))
         .toList();
   }
 
-  void subdivideHeadings(ArrayList<Heading> aggegatedHeadings) {
-    int headingSize = this.headings.size();
-    this.headings.clear();
-
-    this.headings.addAll(aggegatedHeadings.stream().limit(headingSize).toList());
-
-    IntStream.range(0, headingSize).forEach(i -> aggegatedHeadings.remove(0));
+  /** Replace the headings of this webpage and its children with their awaited translations. */
+  void applyTranslations() {
+    if (translation != null) {
+      crawl.getHeadingArena().setTexts(headingsOffset, translation.join().translatedTexts());
+    }
 
-    children.forEach(child -> child.subdivideHeadings(aggegatedHeadings));
+    children.forEach(WebPage::applyTranslations);
   }
 
   private static <T extends Markdownable> String collectionToMarkdown(
@@ -226,15 +846,24 @@ public class WebPage implements Markdownable {
   }
 
   String headingsToMarkdown() {
-    return collectionToMarkdown(headings, depth, "\n");
+    return collectionToMarkdown(getHeadings(), depth, "\n");
   }
 
   String brokenLinksToMarkdown() {
     return collectionToMarkdown(brokenLinks, depth + 1, "\n");
   }
 
-  String childrenToMarkdown() {
-    return collectionToMarkdown(children, depth + 1, "\n\n<br>\n\n");
+  boolean hasChildren() {
+    return !children.isEmpty();
+  }
+
+  void childrenToMarkdown(Appendable out) throws IOException {
+    String delimiter = "";
+    for (WebPage child : children) {
+      out.append(delimiter);
+      child.toMarkdown(out, depth + 1);
+      delimiter = "\n\n<br>\n\n";
+    }
   }
 
   String metadataToMarkdown() {
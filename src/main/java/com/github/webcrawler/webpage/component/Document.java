@@ -1,5 +1,6 @@
 package com.github.webcrawler.webpage.component;
 
+import com.github.webcrawler.util.SimHash;
 import java.util.List;
 
 /** Facade interface to provide Headings and Links to a Webpage */
@@ -10,4 +11,20 @@ public interface Document {
 
   /** @return Links in the Document. */
   List<Link> getLinks();
+
+  /**
+   * A fingerprint of the text of the Document, the fingerprints of Documents with nearly the same
+   * text differ in only a few bits. By default, only the texts of the Headings are taken into
+   * account.
+   *
+   * @return The SimHash of the text.
+   */
+  default long getSimHash() {
+    SimHash simHash = new SimHash();
+    for (Heading heading : getHeadings()) {
+      simHash.append(heading.text());
+      simHash.append(' ');
+    }
+    return simHash.value();
+  }
 }
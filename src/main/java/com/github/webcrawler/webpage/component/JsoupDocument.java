@@ -1,5 +1,6 @@
 package com.github.webcrawler.webpage.component;
 
+import com.github.webcrawler.util.SimHash;
 import java.util.List;
 import java.util.Objects;
 import java.util.stream.Collectors;
@@ -42,6 +43,12 @@ public record JsoupDocument(org.jsoup.nodes.Document bareDocument) implements Do
         .collect(Collectors.toList());
   }
 
+  /** @return The SimHash of the whole text of the Jsoup Document Node. */
+  @Override
+  public long getSimHash() {
+    return SimHash.of(bareDocument.text());
+  }
+
   private Elements getHeadingElements() {
     return bareDocument.select(HEADING_CSS_QUERY);
   }
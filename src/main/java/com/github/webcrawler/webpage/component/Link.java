@@ -1,5 +1,6 @@
 package com.github.webcrawler.webpage.component;
 
+import com.github.webcrawler.util.LongHashSet;
 import com.github.webcrawler.webpage.util.AsciiArrow;
 import java.net.MalformedURLException;
 import java.net.URL;
@@ -9,7 +10,8 @@ import java.util.Objects;
  * A stripped version of a URL without query and fragment.
  *
  * @param scheme The protocol of a URL (example: https).
- * @param host The host of a URL (example: www.google.com).
+ * @param host The host of a URL with its port unless it is the default one (example:
+ *     www.google.com).
  * @param path The path of a URL (example: /index.html).
  * @param isBroken Whether the URL is reachable.
  */
@@ -26,6 +28,9 @@ public record Link(String scheme, String host, String path, boolean isBroken)
       <br>%s broken link <a>%s</a>
       """;
 
+  private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+  private static final long FNV_PRIME = 0x100000001b3L;
+
   /**
    * Creates a new Link which is not broken.
    *
@@ -38,11 +43,31 @@ public record Link(String scheme, String host, String path, boolean isBroken)
   }
 
   public Link {
-    try {
-      new URL(scheme + "://" + host + path);
-    } catch (MalformedURLException e) {
-      throw new IllegalArgumentException(e.getMessage());
+    // Most links are plain http(s) links, which are checked without parsing them as URL again.
+    if (!isPlainHttpLink(scheme, host, path)) {
+      try {
+        new URL(scheme + "://" + host + path);
+      } catch (MalformedURLException e) {
+        throw new IllegalArgumentException(e.getMessage());
+      }
+    }
+  }
+
+  private static boolean isPlainHttpLink(String scheme, String host, String path) {
+    if (!"http".equalsIgnoreCase(scheme) && !"https".equalsIgnoreCase(scheme)) {
+      return false;
+    }
+    if (host == null || path == null || !(path.isEmpty() || path.charAt(0) == '/')) {
+      return false;
+    }
+
+    for (int i = 0; i < host.length(); i++) {
+      char c = host.charAt(i);
+      if (!(Character.isLetterOrDigit(c) || c == '.' || c == '-' || c == '_')) {
+        return false;
+      }
     }
+    return true;
   }
 
   /**
@@ -54,7 +79,13 @@ public record Link(String scheme, String host, String path, boolean isBroken)
   public static Link fromString(String urlString) {
     try {
       URL url = new URL(urlString);
-      return new Link(url.getProtocol(), url.getHost(), url.getPath(), false);
+      // A port other than the default one is part of the host, like in the authority of the URL.
+      String host =
+          url.getPort() == -1 || url.getPort() == url.getDefaultPort()
+              ? url.getHost()
+              : url.getHost() + ":" + url.getPort();
+      // Schemes and hosts repeat across many links, so only one copy of each is kept.
+      return new Link(url.getProtocol().intern(), host.intern(), url.getPath(), false);
     } catch (MalformedURLException e) {
       throw new IllegalArgumentException(e.getMessage());
     }
@@ -105,6 +136,32 @@ public record Link(String scheme, String host, String path, boolean isBroken)
 
   @Override
   public int hashCode() {
-    return Objects.hash(scheme, host, path, isBroken);
+    int result = Objects.hashCode(scheme);
+    result = 31 * result + Objects.hashCode(host);
+    result = 31 * result + Objects.hashCode(path);
+    result = 31 * result + Boolean.hashCode(isBroken);
+    return result;
+  }
+
+  /**
+   * A 64-bit hash of the URL of the link, which is used to remember seen links without keeping the
+   * links themselves. Whether the link is broken is not part of the fingerprint.
+   *
+   * @return The fingerprint of the link.
+   */
+  public long fingerprint() {
+    long hash = FNV_OFFSET_BASIS;
+    hash = fingerprint(hash, String.valueOf(scheme));
+    hash = fingerprint(hash, "://");
+    hash = fingerprint(hash, String.valueOf(host));
+    hash = fingerprint(hash, String.valueOf(path));
+    return LongHashSet.mix(hash);
+  }
+
+  private static long fingerprint(long hash, String string) {
+    for (int i = 0; i < string.length(); i++) {
+      hash = (hash ^ string.charAt(i)) * FNV_PRIME;
+    }
+    return hash;
   }
 }
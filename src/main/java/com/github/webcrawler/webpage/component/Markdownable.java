@@ -1,5 +1,7 @@
 package com.github.webcrawler.webpage.component;
 
+import java.io.IOException;
+
 public interface Markdownable {
 
   /**
@@ -16,4 +18,16 @@ public interface Markdownable {
    * @return The Object as Markdown string.
    */
   String toMarkdown(int nestingLevel);
+
+  /**
+   * Write the Markdown to an Appendable instead of returning it, so large documents do not have to
+   * be held in memory as a whole. By default, this appends the Markdown string.
+   *
+   * @param out The Appendable to write the Markdown to.
+   * @param nestingLevel The indentation of the generated strings.
+   * @throws IOException If the Markdown cannot be written.
+   */
+  default void toMarkdown(Appendable out, int nestingLevel) throws IOException {
+    out.append(toMarkdown(nestingLevel));
+  }
 }
@@ -0,0 +1,162 @@
+package com.github.webcrawler.webpage.component;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.zip.GZIPInputStream;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+/**
+ * A Document for a sitemap, whose Links are the URLs the sitemap lists and which has no Headings.
+ * Sitemaps and sitemap indexes (https://www.sitemaps.org/protocol.html) are read with a StAX
+ * parser, so only the URL currently read is held in memory and never the whole file. The sitemap is
+ * only read once its Links are, so they can be handed over one by one without collecting them.
+ *
+ * @param reader Reads the URLs listed in the sitemap in document order.
+ */
+public record SitemapDocument(Reader reader) implements Document {
+
+  private static final XMLInputFactory XML_INPUT_FACTORY = newXmlInputFactory();
+
+  /** Reads the URLs of the webpages listed by a sitemap. */
+  @FunctionalInterface
+  public interface Reader {
+
+    /**
+     * @param webPages Receives the URLs of the webpages in document order.
+     * @throws IOException If the sitemap cannot be read.
+     */
+    void read(Consumer<Link> webPages) throws IOException;
+  }
+
+  /**
+   * @param links The URLs listed in the sitemap in document order.
+   */
+  public SitemapDocument(List<Link> links) {
+    this(List.copyOf(links)::forEach);
+  }
+
+  private static XMLInputFactory newXmlInputFactory() {
+    XMLInputFactory factory = XMLInputFactory.newFactory();
+    // A sitemap needs neither a DTD nor entities, resolving them would allow XXE attacks.
+    factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+    factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+    factory.setProperty(XMLInputFactory.IS_COALESCING, true);
+    return factory;
+  }
+
+  /**
+   * Read a sitemap or a sitemap index and hand each listed URL over as soon as it is read. A
+   * gzip-compressed stream is recognized by its magic bytes and decompressed while reading. URLs
+   * which are no valid http or https links are skipped.
+   *
+   * @param in The stream of the sitemap, which is not closed.
+   * @param webPages Receives the URLs of webpages listed by a sitemap.
+   * @param sitemaps Receives the URLs of sitemaps listed by a sitemap index.
+   * @throws IOException If reading the stream fails or the sitemap is no well-formed XML.
+   */
+  public static void parse(InputStream in, Consumer<Link> webPages, Consumer<String> sitemaps)
+      throws IOException {
+    XMLStreamReader reader = null;
+    try {
+      reader = XML_INPUT_FACTORY.createXMLStreamReader(decompress(in));
+
+      // The element which contains the current <loc>, either <url> or <sitemap>.
+      String entry = null;
+      while (reader.hasNext()) {
+        int event = reader.next();
+        if (event == XMLStreamConstants.START_ELEMENT) {
+          String name = reader.getLocalName();
+          if (name.equals("url") || name.equals("sitemap")) {
+            entry = name;
+          } else if (name.equals("loc") && entry != null) {
+            String location = reader.getElementText().trim();
+            if (entry.equals("sitemap")) {
+              sitemaps.accept(location);
+            } else {
+              addLink(location, webPages);
+            }
+          }
+        } else if (event == XMLStreamConstants.END_ELEMENT && reader.getLocalName().equals(entry)) {
+          entry = null;
+        }
+      }
+    } catch (XMLStreamException e) {
+      throw new IOException("Malformed sitemap: " + e.getMessage(), e);
+    } finally {
+      close(reader);
+    }
+  }
+
+  private static InputStream decompress(InputStream in) throws IOException {
+    BufferedInputStream stream = new BufferedInputStream(in);
+
+    stream.mark(2);
+    int first = stream.read();
+    int second = stream.read();
+    stream.reset();
+
+    if (first == 0x1f && second == 0x8b) {
+      return new GZIPInputStream(stream);
+    }
+    return stream;
+  }
+
+  private static void addLink(String location, Consumer<Link> webPages) {
+    try {
+      Link link = Link.fromString(location);
+      // A sitemap may only list webpages, which are fetched over http or https.
+      if (link.scheme().equals("http") || link.scheme().equals("https")) {
+        webPages.accept(link);
+      }
+    } catch (IllegalArgumentException ignored) {
+      // Like links in a webpage, invalid URLs are neither broken nor valid links.
+    }
+  }
+
+  private static void close(XMLStreamReader reader) throws IOException {
+    if (reader == null) {
+      return;
+    }
+    try {
+      reader.close();
+    } catch (XMLStreamException e) {
+      throw new IOException(e);
+    }
+  }
+
+  /** @return No Headings, a sitemap has none. */
+  @Override
+  public List<Heading> getHeadings() {
+    return List.of();
+  }
+
+  /**
+   * Read the sitemap and hand each listed URL over as soon as it is read.
+   *
+   * @param webPages Receives the URLs of the webpages in document order.
+   * @throws IOException If the sitemap cannot be read.
+   */
+  public void readLinks(Consumer<Link> webPages) throws IOException {
+    reader.read(webPages);
+  }
+
+  /** @return The URLs listed in the sitemap, which is read again on every call. */
+  @Override
+  public List<Link> getLinks() {
+    List<Link> links = new ArrayList<>();
+    try {
+      readLinks(links::add);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    return links;
+  }
+}
@@ -0,0 +1,534 @@
+package com.github.webcrawler.webpage.component;
+
+import com.github.webcrawler.util.SimHash;
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.StringReader;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.nio.charset.Charset;
+import java.nio.charset.IllegalCharsetNameException;
+import java.nio.charset.StandardCharsets;
+import java.nio.charset.UnsupportedCharsetException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.jsoup.parser.Parser;
+import org.jsoup.parser.Tag;
+
+/**
+ * A Document which extracts the Headings and Links in a single pass over the characters of a page
+ * without building a tree. Only the tag and the heading currently read are buffered, both up to a
+ * fixed length. The extracted Headings and Links are the same as those of a JsoupDocument for all
+ * but badly malformed pages. The SimHash of the text is computed while streaming as well.
+ *
+ * @param headings The headings of the page in document order.
+ * @param links The links of the page in document order.
+ * @param simHash The SimHash of the text of the page.
+ */
+public record StreamingDocument(List<Heading> headings, List<Link> links, long simHash)
+    implements Document {
+
+  /** The maximum number of characters of a tag including its attributes which are kept. */
+  public static final int MAX_TAG_LENGTH = 8 * 1024;
+
+  /** The maximum number of characters of the text of a heading which are kept. */
+  public static final int MAX_HEADING_LENGTH = 4 * 1024;
+
+  private static final int CHARSET_PREFIX_LENGTH = 5 * 1024;
+  private static final Pattern META_CHARSET =
+      Pattern.compile("(?i)<meta[^>]+charset\\s*=\\s*[\"']?([\\w.:-]+)");
+  private static final Pattern EXTRA_DOT_SEGMENTS = Pattern.compile("^/((\\.{1,2}/)+)");
+  private static final Pattern URI_SCHEME = Pattern.compile("^[a-zA-Z][a-zA-Z0-9+-.]*:");
+
+  public StreamingDocument {
+    headings = List.copyOf(headings);
+    links = List.copyOf(links);
+  }
+
+  /**
+   * Extract the Headings and Links from a stream. The charset is detected like Jsoup does, from a
+   * byte order mark, the given name or a meta tag near the start of the page.
+   *
+   * @param in The stream of the page, which is not closed.
+   * @param charsetName The charset of the stream or null to detect it.
+   * @param baseUrl The URL to resolve relative links against.
+   * @return A new StreamingDocument.
+   * @throws IOException If reading the stream fails.
+   */
+  public static StreamingDocument parse(InputStream in, String charsetName, String baseUrl)
+      throws IOException {
+    BufferedInputStream stream = new BufferedInputStream(in, CHARSET_PREFIX_LENGTH);
+    Charset charset = detectCharset(stream, charsetName);
+
+    return parse(new InputStreamReader(stream, charset), baseUrl);
+  }
+
+  /**
+   * Extract the Headings and Links from a string.
+   *
+   * @param html The page.
+   * @param baseUrl The URL to resolve relative links against.
+   * @return A new StreamingDocument.
+   */
+  public static StreamingDocument parse(String html, String baseUrl) {
+    try {
+      return parse(new StringReader(html), baseUrl);
+    } catch (IOException e) {
+      throw new IllegalStateException("Reading from a string cannot fail.", e);
+    }
+  }
+
+  private static StreamingDocument parse(Reader reader, String baseUrl) throws IOException {
+    Extractor extractor = new Extractor(reader, baseUrl);
+    extractor.extract();
+
+    return new StreamingDocument(extractor.headings, extractor.links, extractor.text.value());
+  }
+
+  /** @return The Headings in the Document. */
+  @Override
+  public List<Heading> getHeadings() {
+    return headings;
+  }
+
+  /** @return Links in the Document. */
+  @Override
+  public List<Link> getLinks() {
+    return links;
+  }
+
+  /** @return The SimHash of the text of the page. */
+  @Override
+  public long getSimHash() {
+    return simHash;
+  }
+
+  private static Charset detectCharset(BufferedInputStream stream, String charsetName)
+      throws IOException {
+    Charset bomCharset = skipByteOrderMark(stream);
+    if (bomCharset != null) {
+      return bomCharset;
+    }
+    if (charsetName != null) {
+      return charsetOrDefault(charsetName);
+    }
+
+    stream.mark(CHARSET_PREFIX_LENGTH);
+    byte[] prefix = stream.readNBytes(CHARSET_PREFIX_LENGTH);
+    stream.reset();
+
+    Matcher matcher = META_CHARSET.matcher(new String(prefix, StandardCharsets.ISO_8859_1));
+    return matcher.find() ? charsetOrDefault(matcher.group(1)) : StandardCharsets.UTF_8;
+  }
+
+  private static Charset skipByteOrderMark(BufferedInputStream stream) throws IOException {
+    stream.mark(3);
+    byte[] bom = stream.readNBytes(3);
+    stream.reset();
+
+    if (bom.length == 3 && (bom[0] & 0xFF) == 0xEF && (bom[1] & 0xFF) == 0xBB) {
+      stream.skipNBytes(3);
+      return StandardCharsets.UTF_8;
+    } else if (bom.length >= 2 && (bom[0] & 0xFF) == 0xFE && (bom[1] & 0xFF) == 0xFF) {
+      stream.skipNBytes(2);
+      return StandardCharsets.UTF_16BE;
+    } else if (bom.length >= 2 && (bom[0] & 0xFF) == 0xFF && (bom[1] & 0xFF) == 0xFE) {
+      stream.skipNBytes(2);
+      return StandardCharsets.UTF_16LE;
+    }
+    return null;
+  }
+
+  private static Charset charsetOrDefault(String charsetName) {
+    try {
+      return Charset.forName(charsetName.trim());
+    } catch (IllegalCharsetNameException | UnsupportedCharsetException e) {
+      return StandardCharsets.UTF_8;
+    }
+  }
+
+  /**
+   * Resolve a url against a base url the same way the absUrl of a Jsoup element does, without
+   * building an element for every link.
+   *
+   * @param baseUrl The url to resolve against.
+   * @param relUrl The url to resolve, relative or absolute.
+   * @return The absolute url, or an empty String if it cannot be resolved.
+   */
+  static String resolve(String baseUrl, String relUrl) {
+    try {
+      URL base;
+      try {
+        base = new URL(baseUrl);
+      } catch (MalformedURLException e) {
+        return new URL(relUrl).toExternalForm();
+      }
+
+      // A query on its own replaces the query of the base url, like in browsers.
+      URL resolved = new URL(base, relUrl.startsWith("?") ? base.getPath() + relUrl : relUrl);
+      // Dot segments which would climb above the root are dropped.
+      String file = EXTRA_DOT_SEGMENTS.matcher(resolved.getFile()).replaceFirst("/");
+      if (resolved.getRef() != null) {
+        file += "#" + resolved.getRef();
+      }
+      return new URL(resolved.getProtocol(), resolved.getHost(), resolved.getPort(), file)
+          .toExternalForm();
+    } catch (MalformedURLException e) {
+      return URI_SCHEME.matcher(relUrl).find() ? relUrl : "";
+    }
+  }
+
+  /** A tokenizer which only looks at the tags and text needed for Headings and Links. */
+  private static final class Extractor {
+
+    private static final Set<String> RAW_TEXT_TAGS =
+        Set.of("script", "style", "textarea", "title", "xmp", "iframe", "noembed", "noframes");
+    private static final int MAX_OPEN_TAGS = 64;
+
+    private final Reader reader;
+    private final char[] buffer = new char[8 * 1024];
+    private int position;
+    private int limit;
+
+    private final StringBuilder tag = new StringBuilder();
+    private final StringBuilder headingText = new StringBuilder();
+    private final Deque<String> tagsOpenInHeading = new ArrayDeque<>();
+    private Heading.Level headingLevel;
+
+    private String baseUrl;
+    private boolean baseUrlFromPage;
+
+    private final List<Heading> headings = new ArrayList<>();
+    private final List<Link> links = new ArrayList<>();
+    private final SimHash text = new SimHash();
+
+    Extractor(Reader reader, String baseUrl) {
+      this.reader = reader;
+      this.baseUrl = baseUrl;
+    }
+
+    void extract() throws IOException {
+      int c;
+      while ((c = read()) != -1) {
+        if (c == '<') {
+          // Markup separates words, even if it is inline.
+          text.append(' ');
+          readMarkup();
+        } else {
+          text.append((char) c);
+          if (headingLevel != null) {
+            appendHeadingText((char) c);
+          }
+        }
+      }
+      finishHeading();
+    }
+
+    private void readMarkup() throws IOException {
+      int c = peek();
+
+      if (c == '!') {
+        read();
+        skipDeclaration();
+      } else if (c == '?') {
+        skipPast(">");
+      } else if (c == '/') {
+        read();
+        String name = readTagName();
+        skipPast(">");
+        if (!name.isEmpty()) {
+          endTag(name);
+        }
+      } else if (isAsciiLetter(c)) {
+        String name = readTagName();
+        startTag(name, readTagRest());
+      } else if (headingLevel != null) {
+        appendHeadingText('<');
+      }
+    }
+
+    private void startTag(String name, String rest) throws IOException {
+      Heading.Level level = toHeadingLevel(name);
+
+      if (level != null) {
+        finishHeading();
+        headingLevel = level;
+      } else if (headingLevel != null) {
+        Tag tagInfo = Tag.valueOf(name);
+        if (tagInfo.isBlock() || name.equals("br")) {
+          appendHeadingText(' ');
+        }
+        if (!tagInfo.isEmpty() && !rest.endsWith("/") && tagsOpenInHeading.size() < MAX_OPEN_TAGS) {
+          tagsOpenInHeading.push(name);
+        }
+      }
+
+      if (name.equals("a")) {
+        String href = attribute(rest, "href");
+        if (href != null) {
+          addLink(href);
+        }
+      } else if (name.equals("base") && !baseUrlFromPage) {
+        String href = attribute(rest, "href");
+        if (href != null) {
+          baseUrl = resolve(baseUrl, href);
+          baseUrlFromPage = true;
+        }
+      }
+
+      if (RAW_TEXT_TAGS.contains(name)) {
+        skipRawText(name);
+      }
+    }
+
+    private void endTag(String name) {
+      if (headingLevel == null) {
+        return;
+      }
+
+      if (tagsOpenInHeading.contains(name)) {
+        while (!tagsOpenInHeading.pop().equals(name)) {
+          // Elements which are not closed explicitly are closed by their parent.
+        }
+      } else if (toHeadingLevel(name) != null || closesParent(name)) {
+        // Either the heading itself or an element containing it is closed.
+        finishHeading();
+      }
+    }
+
+    private void appendHeadingText(char c) {
+      if (headingText.length() < MAX_HEADING_LENGTH) {
+        headingText.append(c);
+      }
+    }
+
+    private void finishHeading() {
+      if (headingLevel == null) {
+        return;
+      }
+
+      String text = Parser.unescapeEntities(headingText.toString(), false);
+      headings.add(new Heading(headingLevel, normalizeWhitespace(text)));
+
+      headingLevel = null;
+      headingText.setLength(0);
+      tagsOpenInHeading.clear();
+    }
+
+    private void addLink(String href) {
+      try {
+        links.add(Link.fromString(resolve(baseUrl, href)));
+      } catch (IllegalArgumentException ignored) {
+        // Like in the JsoupDocument, links which are empty, have no protocol or an invalid
+        // protocol are neither considered as broken nor as valid links.
+      }
+    }
+
+    private String readTagName() throws IOException {
+      tag.setLength(0);
+
+      int c;
+      while ((c = peek()) != -1 && !isWhitespace(c) && c != '/' && c != '>') {
+        read();
+        if (tag.length() < MAX_TAG_LENGTH) {
+          tag.append(Character.toLowerCase((char) c));
+        }
+      }
+      return tag.toString();
+    }
+
+    /** @return The attributes of a tag up to, but without the closing bracket. */
+    private String readTagRest() throws IOException {
+      tag.setLength(0);
+
+      int quote = 0;
+      boolean afterEquals = false;
+      int c;
+      while ((c = read()) != -1) {
+        if (quote != 0) {
+          if (c == quote) {
+            quote = 0;
+          }
+        } else if (c == '>') {
+          break;
+        } else if ((c == '"' || c == '\'') && afterEquals) {
+          quote = c;
+        }
+
+        if (!isWhitespace(c)) {
+          afterEquals = quote == 0 && c == '=';
+        }
+        if (tag.length() < MAX_TAG_LENGTH) {
+          tag.append((char) c);
+        }
+      }
+      return tag.toString().stripTrailing();
+    }
+
+    private void skipDeclaration() throws IOException {
+      if (peek() == '-') {
+        read();
+        if (peek() == '-') {
+          read();
+          skipPast("-->");
+          return;
+        }
+      }
+      skipPast(">");
+    }
+
+    private void skipRawText(String name) throws IOException {
+      int c;
+      while ((c = read()) != -1) {
+        if (c == '<' && peek() == '/') {
+          read();
+          if (readTagName().equals(name)) {
+            skipPast(">");
+            return;
+          }
+        }
+      }
+    }
+
+    private void skipPast(String terminator) throws IOException {
+      int matched = 0;
+      int c;
+      while ((c = read()) != -1) {
+        if (c == terminator.charAt(matched)) {
+          if (++matched == terminator.length()) {
+            return;
+          }
+        } else {
+          // Only "-->" can be matched partially, a mismatching '-' keeps the "--" matched so far.
+          matched = c == terminator.charAt(0) ? Math.min(matched, terminator.length() - 1) : 0;
+        }
+      }
+    }
+
+    private int read() throws IOException {
+      if (position == limit && !fill()) {
+        return -1;
+      }
+      return buffer[position++];
+    }
+
+    private int peek() throws IOException {
+      if (position == limit && !fill()) {
+        return -1;
+      }
+      return buffer[position];
+    }
+
+    private boolean fill() throws IOException {
+      int read = reader.read(buffer);
+      position = 0;
+      limit = Math.max(read, 0);
+      return read > 0;
+    }
+
+    private static String attribute(String rest, String name) {
+      int i = 0;
+      int length = rest.length();
+
+      while (i < length) {
+        while (i < length && (isWhitespace(rest.charAt(i)) || rest.charAt(i) == '/')) {
+          i++;
+        }
+
+        int nameStart = i;
+        while (i < length
+            && !isWhitespace(rest.charAt(i))
+            && rest.charAt(i) != '='
+            && rest.charAt(i) != '/') {
+          i++;
+        }
+        String attributeName = rest.substring(nameStart, i).toLowerCase(Locale.ROOT);
+
+        while (i < length && isWhitespace(rest.charAt(i))) {
+          i++;
+        }
+
+        String value = "";
+        if (i < length && rest.charAt(i) == '=') {
+          i++;
+          while (i < length && isWhitespace(rest.charAt(i))) {
+            i++;
+          }
+
+          if (i < length && (rest.charAt(i) == '"' || rest.charAt(i) == '\'')) {
+            char quote = rest.charAt(i++);
+            int valueStart = i;
+            while (i < length && rest.charAt(i) != quote) {
+              i++;
+            }
+            value = rest.substring(valueStart, i++);
+          } else {
+            int valueStart = i;
+            while (i < length && !isWhitespace(rest.charAt(i))) {
+              i++;
+            }
+            value = rest.substring(valueStart, i);
+          }
+        }
+
+        // Like in HTML, only the first of duplicated attributes counts.
+        if (attributeName.equals(name)) {
+          return Parser.unescapeEntities(value, true);
+        }
+      }
+      return null;
+    }
+
+    private static Heading.Level toHeadingLevel(String name) {
+      if (name.length() == 2
+          && name.charAt(0) == 'h'
+          && name.charAt(1) >= '1'
+          && name.charAt(1) <= '6') {
+        return Heading.Level.fromString(name);
+      }
+      return null;
+    }
+
+    /** @return Whether a stray end tag of the element closes the elements it contains. */
+    private static boolean closesParent(String name) {
+      // A stray </p> or </br> creates an empty element instead.
+      return Tag.valueOf(name).isBlock() && !name.equals("p") && !name.equals("br");
+    }
+
+    private static String normalizeWhitespace(String text) {
+      StringBuilder normalized = new StringBuilder(text.length());
+      boolean lastWasWhitespace = true;
+
+      for (int i = 0; i < text.length(); i++) {
+        char c = text.charAt(i);
+        if (isWhitespace(c) || c == '\u00a0') {
+          if (!lastWasWhitespace) {
+            normalized.append(' ');
+          }
+          lastWasWhitespace = true;
+        } else {
+          normalized.append(c);
+          lastWasWhitespace = false;
+        }
+      }
+      return normalized.toString().trim();
+    }
+
+    private static boolean isWhitespace(int c) {
+      return c == ' ' || c == '\t' || c == '\n' || c == '\f' || c == '\r';
+    }
+
+    private static boolean isAsciiLetter(int c) {
+      return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z');
+    }
+  }
+}
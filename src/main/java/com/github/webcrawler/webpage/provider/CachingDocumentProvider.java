@@ -0,0 +1,116 @@
+package com.github.webcrawler.webpage.provider;
+
+import com.github.webcrawler.webpage.component.Document;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import okhttp3.Cache;
+import okhttp3.CacheControl;
+import okhttp3.OkHttpClient;
+
+/**
+ * Implementation of the DocumentProvider which keeps the fetched websites and their ETag and
+ * Last-Modified validators in a cache on disk. Every later fetch of a cached website is a
+ * conditional request with If-None-Match and If-Modified-Since, and a 304 Not Modified answer is
+ * served from the cache, so an unchanged website is neither downloaded nor sent again.
+ *
+ * <p>The validators are part of the HTTP exchange, which the DocumentProvider interface does not
+ * expose, so the cache sits in the OkHttpClient of an OkHttpDocumentProvider.
+ */
+public class CachingDocumentProvider implements DocumentProvider, AutoCloseable {
+
+  // Even fresh responses are revalidated, because the report has to reflect the current websites.
+  private static final CacheControl REVALIDATE =
+      new CacheControl.Builder().maxAge(0, TimeUnit.SECONDS).build();
+
+  private final Cache cache;
+  private final OkHttpDocumentProvider provider;
+
+  /**
+   * @param client The OkHttpClient to fetch the websites with, its pool and dispatcher are shared.
+   * @param parser The DocumentParser to parse the websites with.
+   * @param directory The directory of the cache, which is created if it does not exist.
+   * @param maxSize The maximum number of bytes the cache takes on disk.
+   */
+  public CachingDocumentProvider(
+      OkHttpClient client, DocumentParser parser, Path directory, long maxSize) {
+    this.cache = new Cache(directory.toFile(), maxSize);
+    this.provider =
+        new OkHttpDocumentProvider(
+            client
+                .newBuilder()
+                .cache(cache)
+                .addInterceptor(
+                    chain ->
+                        chain.proceed(
+                            chain.request().newBuilder().cacheControl(REVALIDATE).build()))
+                .build(),
+            parser);
+  }
+
+  /**
+   * Fetch the url, with a conditional request if it is cached.
+   *
+   * @param url The URL to fetch.
+   * @return A new Document containing the fetched or cached data.
+   * @throws IOException If the URL cannot be fetched, does not answer with success or is no HTML.
+   */
+  @Override
+  public Document getDocument(String url) throws IOException {
+    return provider.getDocument(url);
+  }
+
+  /**
+   * Fetch the url like getDocument() without blocking the calling thread.
+   *
+   * @param url The URL to fetch.
+   * @return A future with the Document.
+   */
+  @Override
+  public CompletableFuture<Document> getDocumentAsync(String url) {
+    return provider.getDocumentAsync(url);
+  }
+
+  /**
+   * Check the url with a HEAD request, which is never cached.
+   *
+   * @param url The URL to check.
+   * @throws IOException If the URL cannot be fetched, does not answer with success or is no HTML.
+   */
+  @Override
+  public void verify(String url) throws IOException {
+    provider.verify(url);
+  }
+
+  /**
+   * Check the url like verify() without blocking the calling thread.
+   *
+   * @param url The URL to check.
+   * @return A future which fails with an IOException if the URL cannot be fetched.
+   */
+  @Override
+  public CompletableFuture<Void> verifyAsync(String url) {
+    return provider.verifyAsync(url);
+  }
+
+  /** @return The number of responses served from the cache, most of them after a 304. */
+  public int hitCount() {
+    return cache.hitCount();
+  }
+
+  /** @return The number of requests sent over the network, including the conditional ones. */
+  public int networkCount() {
+    return cache.networkCount();
+  }
+
+  /**
+   * Write the pending changes of the cache to disk and close it.
+   *
+   * @throws IOException If the cache cannot be written.
+   */
+  @Override
+  public void close() throws IOException {
+    cache.close();
+  }
+}
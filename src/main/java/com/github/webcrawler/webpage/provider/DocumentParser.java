@@ -0,0 +1,49 @@
+package com.github.webcrawler.webpage.provider;
+
+import com.github.webcrawler.webpage.component.Document;
+import com.github.webcrawler.webpage.component.JsoupDocument;
+import com.github.webcrawler.webpage.component.StreamingDocument;
+import java.io.IOException;
+import java.io.InputStream;
+import org.jsoup.Jsoup;
+
+/** DocumentParser selects how the DocumentProviders turn a fetched page into a Document. */
+public enum DocumentParser {
+  /** Builds the full Jsoup DOM and selects the Headings and Links from it. */
+  DOM {
+    @Override
+    public Document parse(InputStream in, String charsetName, String baseUrl) throws IOException {
+      return new JsoupDocument(Jsoup.parse(in, charsetName, baseUrl));
+    }
+  },
+
+  /** Extracts the Headings and Links while streaming the page, without building a tree. */
+  STREAMING {
+    @Override
+    public Document parse(InputStream in, String charsetName, String baseUrl) throws IOException {
+      return StreamingDocument.parse(in, charsetName, baseUrl);
+    }
+  };
+
+  /**
+   * Parse a fetched page.
+   *
+   * @param in The body of the page.
+   * @param charsetName The charset of the body or null to detect it.
+   * @param baseUrl The URL to resolve relative links against.
+   * @return A new Document.
+   * @throws IOException If reading the body fails.
+   */
+  public abstract Document parse(InputStream in, String charsetName, String baseUrl)
+      throws IOException;
+
+  /**
+   * Create a new DocumentParser from a String.
+   *
+   * @param parser The string to convert from.
+   * @return A new DocumentParser.
+   */
+  public static DocumentParser fromString(String parser) {
+    return DocumentParser.valueOf(parser.toUpperCase());
+  }
+}
@@ -2,6 +2,7 @@ package com.github.webcrawler.webpage.provider;
 
 import com.github.webcrawler.webpage.component.Document;
 import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
 
 /** Interface to make it convenient to fetch Documents from an arbitrary location. */
 public interface DocumentProvider {
@@ -15,4 +16,46 @@ public interface DocumentProvider {
    * @throws IOException If an error retrieving the data occurs.
    */
   Document getDocument(String location) throws IOException;
+
+  /**
+   * Retrieve data from an arbitrary location without blocking the calling thread. Implementations
+   * which cannot fetch asynchronously fall back to getDocument() on the calling thread.
+   *
+   * @param location The location to retrieve the data from.
+   * @return A future with the document, which fails with an IOException if retrieving fails.
+   */
+  default CompletableFuture<Document> getDocumentAsync(String location) {
+    try {
+      return CompletableFuture.completedFuture(getDocument(location));
+    } catch (Exception e) {
+      return CompletableFuture.failedFuture(e);
+    }
+  }
+
+  /**
+   * Check whether a document can be retrieved from a location without retrieving its contents. By
+   * default, the document is retrieved and discarded.
+   *
+   * @param location The location to check.
+   * @throws IOException If the document cannot be retrieved.
+   */
+  default void verify(String location) throws IOException {
+    getDocument(location);
+  }
+
+  /**
+   * Check whether a document can be retrieved from a location without blocking the calling thread.
+   * Implementations which cannot check asynchronously fall back to verify() on the calling thread.
+   *
+   * @param location The location to check.
+   * @return A future which fails with an IOException if the document cannot be retrieved.
+   */
+  default CompletableFuture<Void> verifyAsync(String location) {
+    try {
+      verify(location);
+      return CompletableFuture.completedFuture(null);
+    } catch (Exception e) {
+      return CompletableFuture.failedFuture(e);
+    }
+  }
 }
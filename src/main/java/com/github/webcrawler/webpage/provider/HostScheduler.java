@@ -0,0 +1,284 @@
+package com.github.webcrawler.webpage.provider;
+
+import com.github.webcrawler.util.TokenBucket;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * HostScheduler decides when a request to a host may start. Every host has its own queue of waiting
+ * requests and its own limits, so a slow or throttled host never delays requests to other hosts.
+ */
+public class HostScheduler implements AutoCloseable {
+
+  /**
+   * @param maxConcurrentRequests The maximum number of requests in flight per host.
+   * @param minDelay The minimum delay between the start of two requests to the same host.
+   * @param requestsPerSecond The sustained number of requests per second per host, 0 for no limit.
+   */
+  public record Limits(int maxConcurrentRequests, Duration minDelay, double requestsPerSecond) {
+
+    public static final Limits UNLIMITED = new Limits(Integer.MAX_VALUE, Duration.ZERO, 0);
+
+    public Limits {
+      if (maxConcurrentRequests < 1) {
+        throw new IllegalArgumentException("At least one request per host has to be allowed.");
+      }
+      if (minDelay.isNegative() || requestsPerSecond < 0) {
+        throw new IllegalArgumentException("Delay and rate must not be negative.");
+      }
+    }
+  }
+
+  private final Limits limits;
+  private final Map<String, Host> hosts = new ConcurrentHashMap<>();
+  // The number of turns granted for each url before it is requested. Several crawls may reserve a
+  // turn for the same url at the same time, so every reservation is counted.
+  private final Map<String, Integer> reservations = new ConcurrentHashMap<>();
+  private final ScheduledExecutorService timer =
+      Executors.newSingleThreadScheduledExecutor(daemonThreadFactory("host-scheduler-timer"));
+
+  // Turns are granted on threads of their own, so whatever the caller does once its turn has come
+  // never runs on the timer or on the thread which finished the previous request to the host.
+  private final ExecutorService grants =
+      Executors.newCachedThreadPool(daemonThreadFactory("host-scheduler"));
+
+  public HostScheduler(Limits limits) {
+    this.limits = limits;
+  }
+
+  /**
+   * Request a turn to send a request to a host. The turn has to be given back with release().
+   *
+   * @param host The host to send the request to.
+   * @return A future which completes as soon as the request may start.
+   */
+  public CompletableFuture<Void> acquire(String host) {
+    return hosts.computeIfAbsent(host, ignored -> new Host()).acquire();
+  }
+
+  /**
+   * Block until a request to a host may start. The turn has to be given back with release().
+   *
+   * @param host The host to send the request to.
+   * @throws InterruptedException If the thread is interrupted while waiting.
+   */
+  public void await(String host) throws InterruptedException {
+    CompletableFuture<Void> turn = acquire(host);
+
+    try {
+      turn.get();
+    } catch (InterruptedException e) {
+      // The turn may have been granted concurrently, in that case it is given back.
+      if (!turn.cancel(false)) {
+        release(host);
+      }
+      throw e;
+    } catch (ExecutionException e) {
+      throw new IllegalStateException(e.getCause());
+    }
+  }
+
+  /**
+   * Request a turn for a url before it is requested, so a caller can wait for the host without
+   * holding any other resource. The turn is used by one claim() of the url and has to be given back
+   * with release() afterwards, or with cancelReservation() if the url is never claimed.
+   *
+   * @param host The host of the url.
+   * @param url The url the turn is reserved for.
+   * @return A future which completes as soon as the request to the url may start.
+   */
+  public CompletableFuture<Void> reserve(String host, String url) {
+    return acquire(host).thenRun(() -> reservations.merge(url, 1, Integer::sum));
+  }
+
+  /**
+   * Use the turn reserved for a url.
+   *
+   * @param url The url to request.
+   * @return Whether a turn was reserved for the url, otherwise one has to be acquired.
+   */
+  public boolean claim(String url) {
+    return removeReservation(url);
+  }
+
+  /**
+   * Give back the turn reserved for a url if it has not been claimed.
+   *
+   * @param host The host of the url.
+   * @param url The url the turn was reserved for.
+   */
+  public void cancelReservation(String host, String url) {
+    if (removeReservation(url)) {
+      release(host);
+    }
+  }
+
+  private boolean removeReservation(String url) {
+    boolean[] removed = new boolean[1];
+    reservations.computeIfPresent(
+        url,
+        (ignored, count) -> {
+          removed[0] = true;
+          return count > 1 ? count - 1 : null;
+        });
+    return removed[0];
+  }
+
+  /**
+   * Keep at least a delay between the start of two requests to a host, for example the Crawl-delay
+   * of its robots.txt. A shorter delay than the one of the Limits has no effect.
+   *
+   * @param host The host to delay the requests to.
+   * @param delay The minimum delay between the start of two requests.
+   */
+  public void setMinDelay(String host, Duration delay) {
+    hosts.computeIfAbsent(host, ignored -> new Host()).setMinDelay(delay);
+  }
+
+  /**
+   * @param host The host to look up.
+   * @return The number of turns of the host which have been granted and not given back yet.
+   */
+  public int getRequestsInFlight(String host) {
+    Host entry = hosts.get(host);
+    return entry == null ? 0 : entry.getRequestsInFlight();
+  }
+
+  /**
+   * Signal that a request to a host has finished.
+   *
+   * @param host The host the request was sent to.
+   */
+  public void release(String host) {
+    hosts.get(host).release();
+  }
+
+  @Override
+  public void close() {
+    timer.shutdownNow();
+    grants.shutdown();
+  }
+
+  private static ThreadFactory daemonThreadFactory(String name) {
+    AtomicInteger threadCount = new AtomicInteger();
+    return runnable -> {
+      Thread thread = new Thread(runnable, name + "-" + threadCount.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    };
+  }
+
+  private final class Host {
+
+    private final Deque<CompletableFuture<Void>> waiting = new ArrayDeque<>();
+    private final TokenBucket tokenBucket;
+
+    private int requestsInFlight;
+    private long minDelay = limits.minDelay().toNanos();
+    private long nextStart = System.nanoTime();
+    private boolean wakeUpScheduled;
+
+    Host() {
+      this.tokenBucket =
+          limits.requestsPerSecond() > 0
+              ? new TokenBucket(limits.requestsPerSecond(), Math.max(1, limits.requestsPerSecond()))
+              : null;
+    }
+
+    CompletableFuture<Void> acquire() {
+      CompletableFuture<Void> turn = new CompletableFuture<>();
+
+      synchronized (this) {
+        waiting.add(turn);
+      }
+      dispatch();
+
+      return turn;
+    }
+
+    synchronized int getRequestsInFlight() {
+      return requestsInFlight;
+    }
+
+    synchronized void setMinDelay(Duration delay) {
+      minDelay = Math.max(limits.minDelay().toNanos(), delay.toNanos());
+    }
+
+    void release() {
+      synchronized (this) {
+        requestsInFlight--;
+      }
+      dispatch();
+    }
+
+    private void dispatch() {
+      List<CompletableFuture<Void>> granted = new ArrayList<>();
+
+      synchronized (this) {
+        while (!waiting.isEmpty() && requestsInFlight < limits.maxConcurrentRequests()) {
+          if (waiting.peek().isCancelled()) {
+            waiting.poll();
+            continue;
+          }
+
+          long now = System.nanoTime();
+          long delay = nextStart - now;
+          if (tokenBucket != null) {
+            delay = Math.max(delay, tokenBucket.nanosUntilAvailable());
+          }
+
+          if (delay > 0) {
+            scheduleWakeUp(delay);
+            break;
+          }
+
+          if (tokenBucket != null) {
+            tokenBucket.tryTake();
+          }
+          requestsInFlight++;
+          nextStart = now + minDelay;
+          granted.add(waiting.poll());
+        }
+      }
+
+      for (CompletableFuture<Void> turn : granted) {
+        grants.execute(
+            () -> {
+              if (!turn.complete(null)) {
+                release();
+              }
+            });
+      }
+    }
+
+    private void scheduleWakeUp(long delay) {
+      if (wakeUpScheduled) {
+        return;
+      }
+
+      wakeUpScheduled = true;
+      timer.schedule(
+          () -> {
+            synchronized (this) {
+              wakeUpScheduled = false;
+            }
+            dispatch();
+          },
+          delay,
+          TimeUnit.NANOSECONDS);
+    }
+  }
+}
@@ -1,16 +1,29 @@
 package com.github.webcrawler.webpage.provider;
 
+import static java.net.HttpURLConnection.HTTP_BAD_METHOD;
+import static java.net.HttpURLConnection.HTTP_NOT_IMPLEMENTED;
+
 import com.github.webcrawler.webpage.component.Document;
-import com.github.webcrawler.webpage.component.JsoupDocument;
 import java.io.IOException;
+import java.io.InputStream;
+import org.jsoup.Connection;
+import org.jsoup.HttpStatusException;
 import org.jsoup.Jsoup;
 
-/** Implementation of the DocumentProvider to fetch websites with Jsoup. */
-public record JsoupDocumentProvider() implements DocumentProvider {
+/**
+ * Implementation of the DocumentProvider to fetch websites with Jsoup.
+ *
+ * @param parser The DocumentParser to parse the websites with.
+ */
+public record JsoupDocumentProvider(DocumentParser parser) implements DocumentProvider {
+
+  /** Creates a new JsoupDocumentProvider which parses the websites into a Jsoup DOM. */
+  public JsoupDocumentProvider() {
+    this(DocumentParser.DOM);
+  }
 
   /**
-   * Retrieve data from an url and convert it to a JSoupDocument which implements the Document
-   * interface.
+   * Retrieve data from an url and convert it to a Document with the DocumentParser.
    *
    * @param url The URL for Jsoup to fetch.
    * @return A new Document containing the fetched data.
@@ -18,8 +31,30 @@ public record JsoupDocumentProvider() implements DocumentProvider {
    */
   @Override
   public Document getDocument(String url) throws IOException {
-    org.jsoup.nodes.Document doc = Jsoup.connect(url).get();
+    Connection.Response response = Jsoup.connect(url).execute();
+
+    try (InputStream in = response.bodyStream()) {
+      return parser.parse(in, response.charset(), response.url().toExternalForm());
+    }
+  }
+
+  /**
+   * Check the url with a HEAD request, or by requesting only its first byte if the server does not
+   * implement HEAD.
+   *
+   * @param url The URL for Jsoup to check.
+   * @throws IOException If Jsoup encounters an error while fetching the URL.
+   */
+  @Override
+  public void verify(String url) throws IOException {
+    try {
+      Jsoup.connect(url).method(Connection.Method.HEAD).execute();
+    } catch (HttpStatusException e) {
+      if (e.getStatusCode() != HTTP_BAD_METHOD && e.getStatusCode() != HTTP_NOT_IMPLEMENTED) {
+        throw e;
+      }
 
-    return new JsoupDocument(doc);
+      Jsoup.connect(url).header("Range", "bytes=0-0").execute();
+    }
   }
 }
@@ -0,0 +1,86 @@
+package com.github.webcrawler.webpage.provider;
+
+import com.github.webcrawler.metrics.CrawlMetrics;
+import com.github.webcrawler.metrics.Histogram;
+import com.github.webcrawler.webpage.component.Document;
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Implementation of the DocumentProvider which times the fetches of another DocumentProvider, from
+ * sending the request until the Document is parsed or the fetch has failed. Inside a
+ * PoliteDocumentProvider, the time spent waiting for the turn at a host is not measured.
+ *
+ * @param provider The DocumentProvider to fetch the Documents with.
+ * @param metrics The CrawlMetrics to record the fetches in.
+ */
+public record MeteredDocumentProvider(DocumentProvider provider, CrawlMetrics metrics)
+    implements DocumentProvider {
+
+  private Histogram histogram() {
+    return metrics.stage(CrawlMetrics.Stage.FETCH);
+  }
+
+  /**
+   * Fetch the Document with the wrapped DocumentProvider and record the duration.
+   *
+   * @param url The URL to fetch.
+   * @return The Document fetched by the wrapped DocumentProvider.
+   * @throws IOException If the wrapped DocumentProvider fails.
+   */
+  @Override
+  public Document getDocument(String url) throws IOException {
+    long start = System.nanoTime();
+    try {
+      return provider.getDocument(url);
+    } finally {
+      histogram().recordSince(start);
+    }
+  }
+
+  /**
+   * Fetch the Document asynchronously with the wrapped DocumentProvider and record the duration
+   * once the future completes.
+   *
+   * @param url The URL to fetch.
+   * @return A future with the Document fetched by the wrapped DocumentProvider.
+   */
+  @Override
+  public CompletableFuture<Document> getDocumentAsync(String url) {
+    long start = System.nanoTime();
+    return provider
+        .getDocumentAsync(url)
+        .whenComplete((document, throwable) -> histogram().recordSince(start));
+  }
+
+  /**
+   * Verify the url with the wrapped DocumentProvider and record the duration.
+   *
+   * @param url The URL to verify.
+   * @throws IOException If the wrapped DocumentProvider fails.
+   */
+  @Override
+  public void verify(String url) throws IOException {
+    long start = System.nanoTime();
+    try {
+      provider.verify(url);
+    } finally {
+      histogram().recordSince(start);
+    }
+  }
+
+  /**
+   * Verify the url asynchronously with the wrapped DocumentProvider and record the duration once
+   * the future completes.
+   *
+   * @param url The URL to verify.
+   * @return A future which fails if the wrapped DocumentProvider fails.
+   */
+  @Override
+  public CompletableFuture<Void> verifyAsync(String url) {
+    long start = System.nanoTime();
+    return provider
+        .verifyAsync(url)
+        .whenComplete((ignored, throwable) -> histogram().recordSince(start));
+  }
+}
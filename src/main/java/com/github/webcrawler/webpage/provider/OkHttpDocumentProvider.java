@@ -0,0 +1,243 @@
+package com.github.webcrawler.webpage.provider;
+
+import static java.net.HttpURLConnection.HTTP_BAD_METHOD;
+import static java.net.HttpURLConnection.HTTP_NOT_IMPLEMENTED;
+
+import com.github.webcrawler.metrics.CrawlTrace;
+import com.github.webcrawler.webpage.component.Document;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.ConnectionPool;
+import okhttp3.Dispatcher;
+import okhttp3.MediaType;
+import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.Response;
+import org.jsoup.HttpStatusException;
+import org.jsoup.UnsupportedMimeTypeException;
+
+/**
+ * Implementation of the DocumentProvider which fetches websites with a long-lived OkHttpClient and
+ * parses them with Jsoup. Connections are kept alive in the pool of the client and reused, so only
+ * the first request to a host pays for the TCP and TLS handshakes.
+ *
+ * @param client The OkHttpClient to fetch the websites with.
+ * @param parser The DocumentParser to parse the websites with.
+ */
+public record OkHttpDocumentProvider(OkHttpClient client, DocumentParser parser)
+    implements DocumentProvider {
+
+  public static final int DEFAULT_MAX_IDLE_CONNECTIONS = 16;
+  public static final long KEEP_ALIVE_MINUTES = 5;
+
+  /** The content types Jsoup accepts besides text/*. */
+  private static final Pattern XML_CONTENT_TYPE =
+      Pattern.compile("(?i)(application|text)/\\w*\\+?xml.*");
+
+  /**
+   * Creates a new OkHttpDocumentProvider which parses the websites into a Jsoup DOM.
+   *
+   * @param client The OkHttpClient to fetch the websites with.
+   */
+  public OkHttpDocumentProvider(OkHttpClient client) {
+    this(client, DocumentParser.DOM);
+  }
+
+  /**
+   * Creates a client which prefers HTTP/2 and keeps the given number of idle connections alive. TLS
+   * sessions are cached by the SSL context shared by all connections of the client and resumed on
+   * new connections to the same host.
+   *
+   * @param maxIdleConnections The maximum number of idle connections kept in the pool.
+   * @param maxRequests The maximum number of asynchronous requests in flight. The limit per host is
+   *     left to the HostScheduler.
+   * @return The new OkHttpClient.
+   */
+  public static OkHttpClient newPooledClient(int maxIdleConnections, int maxRequests) {
+    Dispatcher dispatcher = new Dispatcher();
+    dispatcher.setMaxRequests(maxRequests);
+    dispatcher.setMaxRequestsPerHost(maxRequests);
+
+    return new OkHttpClient.Builder()
+        .dispatcher(dispatcher)
+        .connectionPool(
+            new ConnectionPool(maxIdleConnections, KEEP_ALIVE_MINUTES, TimeUnit.MINUTES))
+        .protocols(List.of(Protocol.HTTP_2, Protocol.HTTP_1_1))
+        .build();
+  }
+
+  /**
+   * Retrieve data from an url and convert it to a Document with the DocumentParser.
+   *
+   * @param url The URL to fetch.
+   * @return A new Document containing the fetched data.
+   * @throws IOException If the URL cannot be fetched, does not answer with success or is no HTML.
+   */
+  @Override
+  public Document getDocument(String url) throws IOException {
+    Request request = CrawlTrace.tagWebPage(new Request.Builder().url(url)).build();
+
+    try (Response response = client.newCall(request).execute()) {
+      return toDocument(response);
+    }
+  }
+
+  /**
+   * Enqueue the request at the dispatcher of the client and parse the response on one of its
+   * threads, so no thread of the caller waits for the network.
+   *
+   * @param url The URL to fetch.
+   * @return A future with the Document, cancelling it cancels the request.
+   */
+  @Override
+  public CompletableFuture<Document> getDocumentAsync(String url) {
+    try {
+      return enqueue(
+          CrawlTrace.tagWebPage(new Request.Builder().url(url)).build(), this::toDocument);
+    } catch (IllegalArgumentException e) {
+      return CompletableFuture.failedFuture(e);
+    }
+  }
+
+  /**
+   * Check the URL with a HEAD request. Servers which do not implement HEAD are asked for the first
+   * byte of the body instead, so the body is never downloaded or parsed.
+   *
+   * @param url The URL to check.
+   * @throws IOException If the URL cannot be fetched, does not answer with success or is no HTML.
+   */
+  @Override
+  public void verify(String url) throws IOException {
+    try (Response response = client.newCall(headRequest(url)).execute()) {
+      if (isVerified(response)) {
+        return;
+      }
+    }
+
+    try (Response response = client.newCall(rangeRequest(url)).execute()) {
+      checkResponse(response);
+    }
+  }
+
+  /**
+   * Check the URL like verify() without blocking the calling thread.
+   *
+   * @param url The URL to check.
+   * @return A future which fails with an IOException if the URL cannot be fetched.
+   */
+  @Override
+  public CompletableFuture<Void> verifyAsync(String url) {
+    try {
+      Request rangeRequest = rangeRequest(url);
+
+      return enqueue(headRequest(url), OkHttpDocumentProvider::isVerified)
+          .thenCompose(
+              verified ->
+                  verified
+                      ? CompletableFuture.completedFuture(null)
+                      : enqueue(rangeRequest, OkHttpDocumentProvider::checkResponse));
+    } catch (IllegalArgumentException e) {
+      return CompletableFuture.failedFuture(e);
+    }
+  }
+
+  private static Request headRequest(String url) {
+    return CrawlTrace.tagWebPage(new Request.Builder().url(url)).head().build();
+  }
+
+  private static Request rangeRequest(String url) {
+    return CrawlTrace.tagWebPage(new Request.Builder().url(url))
+        .header("Range", "bytes=0-0")
+        .build();
+  }
+
+  /** @return False if the server does not implement HEAD and another request has to be sent. */
+  private static boolean isVerified(Response response) throws IOException {
+    if (response.code() == HTTP_BAD_METHOD || response.code() == HTTP_NOT_IMPLEMENTED) {
+      return false;
+    }
+
+    checkResponse(response);
+    return true;
+  }
+
+  private <T> CompletableFuture<T> enqueue(Request request, ResponseHandler<T> handler) {
+    CompletableFuture<T> future = new CompletableFuture<>();
+    Call call = client.newCall(request);
+
+    call.enqueue(
+        new Callback() {
+          @Override
+          public void onFailure(Call call, IOException e) {
+            future.completeExceptionally(e);
+          }
+
+          @Override
+          public void onResponse(Call call, Response response) {
+            // The future only completes once the response is closed and the call has ended, so
+            // the listeners of the call are done before anyone waiting for the future goes on.
+            T result;
+            try (response) {
+              result = handler.handle(response);
+            } catch (IOException | RuntimeException e) {
+              future.completeExceptionally(e);
+              return;
+            }
+            future.complete(result);
+          }
+        });
+    future.whenComplete(
+        (result, t) -> {
+          if (future.isCancelled()) {
+            call.cancel();
+          }
+        });
+
+    return future;
+  }
+
+  private Document toDocument(Response response) throws IOException {
+    checkResponse(response);
+
+    MediaType mediaType = response.body().contentType();
+    Charset charset = mediaType == null ? null : mediaType.charset();
+    String url = response.request().url().toString();
+
+    try (InputStream in = response.body().byteStream()) {
+      return parser.parse(in, charset == null ? null : charset.name(), url);
+    }
+  }
+
+  /** Throws the same exceptions as Jsoup for unsuccessful responses and unsupported types. */
+  private static Void checkResponse(Response response) throws IOException {
+    String url = response.request().url().toString();
+
+    if (!response.isSuccessful()) {
+      throw new HttpStatusException("HTTP error fetching URL", response.code(), url);
+    }
+
+    MediaType mediaType = response.body().contentType();
+    if (mediaType != null && !isSupported(mediaType.toString())) {
+      throw new UnsupportedMimeTypeException("Unhandled content type", mediaType.toString(), url);
+    }
+
+    return null;
+  }
+
+  private static boolean isSupported(String contentType) {
+    return contentType.startsWith("text/") || XML_CONTENT_TYPE.matcher(contentType).matches();
+  }
+
+  @FunctionalInterface
+  private interface ResponseHandler<T> {
+    T handle(Response response) throws IOException;
+  }
+}
@@ -0,0 +1,108 @@
+package com.github.webcrawler.webpage.provider;
+
+import com.github.webcrawler.webpage.component.Document;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+/**
+ * Implementation of the DocumentProvider which waits for its turn at a HostScheduler before
+ * fetching a Document with another DocumentProvider. A turn reserved for the url beforehand is used
+ * instead of waiting again.
+ *
+ * @param provider The DocumentProvider to fetch the Documents with.
+ * @param scheduler The HostScheduler which enforces the limits per host.
+ */
+public record PoliteDocumentProvider(DocumentProvider provider, HostScheduler scheduler)
+    implements DocumentProvider {
+
+  /**
+   * Wait until the host of the url may be contacted and fetch the Document.
+   *
+   * @param url The URL to fetch.
+   * @return The Document fetched by the wrapped DocumentProvider.
+   * @throws IOException If the URL is invalid or the wrapped DocumentProvider fails.
+   */
+  @Override
+  public Document getDocument(String url) throws IOException {
+    String host = new URL(url).getAuthority();
+    if (!scheduler.claim(url)) {
+      awaitTurn(host);
+    }
+
+    try {
+      return provider.getDocument(url);
+    } finally {
+      scheduler.release(host);
+    }
+  }
+
+  /**
+   * Fetch the Document asynchronously as soon as the host of the url may be contacted. No thread is
+   * blocked while waiting for the turn.
+   *
+   * @param url The URL to fetch.
+   * @return A future with the Document fetched by the wrapped DocumentProvider.
+   */
+  @Override
+  public CompletableFuture<Document> getDocumentAsync(String url) {
+    return inTurn(url, () -> provider.getDocumentAsync(url));
+  }
+
+  /**
+   * Wait until the host of the url may be contacted and verify the url.
+   *
+   * @param url The URL to verify.
+   * @throws IOException If the URL is invalid or the wrapped DocumentProvider fails.
+   */
+  @Override
+  public void verify(String url) throws IOException {
+    String host = new URL(url).getAuthority();
+    if (!scheduler.claim(url)) {
+      awaitTurn(host);
+    }
+
+    try {
+      provider.verify(url);
+    } finally {
+      scheduler.release(host);
+    }
+  }
+
+  /**
+   * Verify the url asynchronously as soon as the host of the url may be contacted.
+   *
+   * @param url The URL to verify.
+   * @return A future which fails if the wrapped DocumentProvider fails.
+   */
+  @Override
+  public CompletableFuture<Void> verifyAsync(String url) {
+    return inTurn(url, () -> provider.verifyAsync(url));
+  }
+
+  private void awaitTurn(String host) throws InterruptedIOException {
+    try {
+      scheduler.await(host);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new InterruptedIOException("Interrupted while waiting for " + host);
+    }
+  }
+
+  private <T> CompletableFuture<T> inTurn(String url, Supplier<CompletableFuture<T>> request) {
+    String host;
+    try {
+      host = new URL(url).getAuthority();
+    } catch (MalformedURLException e) {
+      return CompletableFuture.failedFuture(e);
+    }
+
+    CompletableFuture<Void> turn =
+        scheduler.claim(url) ? CompletableFuture.completedFuture(null) : scheduler.acquire(host);
+    return turn.thenCompose(
+        granted -> request.get().whenComplete((result, t) -> scheduler.release(host)));
+  }
+}
@@ -0,0 +1,239 @@
+package com.github.webcrawler.webpage.provider;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * The rules of a robots.txt file (RFC 9309) for one user agent, compiled into a trie over the Allow
+ * and Disallow patterns. A path is matched against all patterns in a single pass over its
+ * characters, a '*' in a pattern matches any sequence of characters and a trailing '$' anchors the
+ * pattern at the end of the path. Like in RFC 9309, the longest matching pattern decides and Allow
+ * wins a tie.
+ */
+public class RobotsTxt {
+
+  /** Rules which allow every path, for hosts without a robots.txt. */
+  public static final RobotsTxt ALLOW_ALL = new RobotsTxt(new Node(), null);
+
+  /** Rules which disallow every path, for hosts whose robots.txt is unreachable. */
+  public static final RobotsTxt DISALLOW_ALL = compile(List.of(new Rule(false, "/")), null);
+
+  private final Node root;
+  private final Duration crawlDelay;
+
+  private RobotsTxt(Node root, Duration crawlDelay) {
+    this.root = root;
+    this.crawlDelay = crawlDelay;
+  }
+
+  private record Rule(boolean allow, String pattern) {}
+
+  /** A node of the trie, which is reached after reading a prefix of one or more patterns. */
+  private static final class Node {
+    private final Map<Character, Node> children = new HashMap<>(2);
+    // The node reached over a '*', which loops on every character.
+    private Node wildcard;
+    private boolean loops;
+
+    // The lengths of the patterns ending here, -1 if none does.
+    private int allowLength = -1;
+    private int disallowLength = -1;
+    private int anchoredAllowLength = -1;
+    private int anchoredDisallowLength = -1;
+  }
+
+  /**
+   * Parse a robots.txt file and compile the rules of the group for a user agent. The group of the
+   * longest user agent token the agent starts with is chosen, or the group for '*' if none matches.
+   *
+   * @param content The content of the robots.txt file.
+   * @param userAgent The product token of the crawler, for example "webcrawler".
+   * @return The compiled rules.
+   */
+  public static RobotsTxt parse(String content, String userAgent) {
+    String agent = userAgent.toLowerCase(Locale.ROOT);
+
+    List<Rule> bestRules = new ArrayList<>();
+    Duration bestCrawlDelay = null;
+    int bestMatch = -1;
+
+    List<String> groupAgents = new ArrayList<>();
+    List<Rule> groupRules = new ArrayList<>();
+    Duration groupCrawlDelay = null;
+    boolean inRules = false;
+
+    for (String line : (content + "\nuser-agent:").split("\r\n|\r|\n")) {
+      int comment = line.indexOf('#');
+      if (comment >= 0) {
+        line = line.substring(0, comment);
+      }
+      int colon = line.indexOf(':');
+      if (colon < 0) {
+        continue;
+      }
+
+      String key = line.substring(0, colon).trim().toLowerCase(Locale.ROOT);
+      String value = line.substring(colon + 1).trim();
+
+      if (key.equals("user-agent")) {
+        if (inRules) {
+          // A user-agent line after rules starts a new group, the finished one may be the best.
+          int match = match(groupAgents, agent);
+          if (match > bestMatch) {
+            bestMatch = match;
+            bestRules = groupRules;
+            bestCrawlDelay = groupCrawlDelay;
+          } else if (match == bestMatch && match >= 0) {
+            // Groups for the same user agent are combined.
+            bestRules.addAll(groupRules);
+            bestCrawlDelay = bestCrawlDelay == null ? groupCrawlDelay : bestCrawlDelay;
+          }
+
+          groupAgents = new ArrayList<>();
+          groupRules = new ArrayList<>();
+          groupCrawlDelay = null;
+          inRules = false;
+        }
+        groupAgents.add(value.toLowerCase(Locale.ROOT));
+      } else if (key.equals("allow") || key.equals("disallow")) {
+        inRules = true;
+        // An empty Disallow allows everything, which is the same as no rule.
+        if (!value.isEmpty()) {
+          groupRules.add(new Rule(key.equals("allow"), value));
+        }
+      } else if (key.equals("crawl-delay")) {
+        inRules = true;
+        groupCrawlDelay = parseCrawlDelay(value);
+      }
+    }
+
+    return compile(bestRules, bestCrawlDelay);
+  }
+
+  /** @return The length of the longest token matching the agent, 0 for '*', -1 if none matches. */
+  private static int match(List<String> groupAgents, String agent) {
+    int match = -1;
+    for (String groupAgent : groupAgents) {
+      if (groupAgent.equals("*")) {
+        match = Math.max(match, 0);
+      } else if (!groupAgent.isEmpty() && agent.startsWith(groupAgent)) {
+        match = Math.max(match, groupAgent.length());
+      }
+    }
+    return match;
+  }
+
+  private static Duration parseCrawlDelay(String value) {
+    try {
+      double seconds = Double.parseDouble(value);
+      return seconds > 0 ? Duration.ofMillis((long) (seconds * 1000)) : null;
+    } catch (NumberFormatException e) {
+      return null;
+    }
+  }
+
+  private static RobotsTxt compile(List<Rule> rules, Duration crawlDelay) {
+    Node root = new Node();
+
+    for (Rule rule : rules) {
+      String pattern = rule.pattern();
+      boolean anchored = pattern.endsWith("$");
+      if (anchored) {
+        pattern = pattern.substring(0, pattern.length() - 1);
+      }
+
+      Node node = root;
+      for (int i = 0; i < pattern.length(); i++) {
+        char c = pattern.charAt(i);
+        if (c == '*') {
+          if (!node.loops) {
+            if (node.wildcard == null) {
+              node.wildcard = new Node();
+              node.wildcard.loops = true;
+            }
+            node = node.wildcard;
+          }
+        } else {
+          node = node.children.computeIfAbsent(c, ignored -> new Node());
+        }
+      }
+
+      int length = rule.pattern().length();
+      if (anchored && rule.allow()) {
+        node.anchoredAllowLength = Math.max(node.anchoredAllowLength, length);
+      } else if (anchored) {
+        node.anchoredDisallowLength = Math.max(node.anchoredDisallowLength, length);
+      } else if (rule.allow()) {
+        node.allowLength = Math.max(node.allowLength, length);
+      } else {
+        node.disallowLength = Math.max(node.disallowLength, length);
+      }
+    }
+
+    return new RobotsTxt(root, crawlDelay);
+  }
+
+  /**
+   * @param path The path of a URL, an empty path is the same as "/".
+   * @return Whether the rules allow crawling the path.
+   */
+  public boolean isAllowed(String path) {
+    if (path.isEmpty()) {
+      path = "/";
+    }
+
+    int allowLength = -1;
+    int disallowLength = -1;
+
+    List<Node> states = new ArrayList<>();
+    addWithWildcards(states, root);
+
+    for (int i = 0; i <= path.length() && !states.isEmpty(); i++) {
+      boolean atEnd = i == path.length();
+      for (Node state : states) {
+        allowLength = Math.max(allowLength, state.allowLength);
+        disallowLength = Math.max(disallowLength, state.disallowLength);
+        if (atEnd) {
+          allowLength = Math.max(allowLength, state.anchoredAllowLength);
+          disallowLength = Math.max(disallowLength, state.anchoredDisallowLength);
+        }
+      }
+      if (atEnd) {
+        break;
+      }
+
+      char c = path.charAt(i);
+      List<Node> next = new ArrayList<>(states.size());
+      for (Node state : states) {
+        Node child = state.children.get(c);
+        if (child != null) {
+          addWithWildcards(next, child);
+        }
+        if (state.loops && !next.contains(state)) {
+          next.add(state);
+        }
+      }
+      states = next;
+    }
+
+    return allowLength >= disallowLength;
+  }
+
+  private static void addWithWildcards(List<Node> states, Node node) {
+    if (!states.contains(node)) {
+      states.add(node);
+    }
+    if (node.wildcard != null && !states.contains(node.wildcard)) {
+      states.add(node.wildcard);
+    }
+  }
+
+  /** @return The delay the robots.txt asks for between two requests, or null if it sets none. */
+  public Duration crawlDelay() {
+    return crawlDelay;
+  }
+}
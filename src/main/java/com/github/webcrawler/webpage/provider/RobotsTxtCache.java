@@ -0,0 +1,203 @@
+package com.github.webcrawler.webpage.provider;
+
+import com.github.webcrawler.webpage.component.Link;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+
+/**
+ * RobotsTxtCache fetches the robots.txt of every host once, compiles it and keeps it for the rest
+ * of the crawl. Like RFC 9309 asks for, a host without a robots.txt may be crawled completely and a
+ * host whose robots.txt cannot be fetched because of a server or network error not at all. A
+ * robots.txt is fetched asynchronously and waits for its turn at the HostScheduler like any other
+ * request to the host.
+ */
+public class RobotsTxtCache {
+
+  public static final String DEFAULT_USER_AGENT = "webcrawler";
+
+  /** The longest Crawl-delay which is obeyed, longer ones are shortened to it. */
+  public static final Duration MAX_CRAWL_DELAY = Duration.ofSeconds(60);
+
+  // Only the first 500 KiB of a robots.txt have to be parsed.
+  private static final int MAX_SIZE = 500 * 1024;
+
+  private final OkHttpClient client;
+  private final String userAgent;
+  private final HostScheduler scheduler;
+  private final BiConsumer<String, Duration> crawlDelayListener;
+
+  private final Map<String, CompletableFuture<RobotsTxt>> robotsTxts = new ConcurrentHashMap<>();
+
+  /**
+   * @param client The OkHttpClient to fetch the robots.txt files with.
+   * @param userAgent The product token whose rules are obeyed.
+   * @param crawlDelayListener Called with the host and the delay when a robots.txt sets a
+   *     Crawl-delay, for example to pace the requests with a HostScheduler.
+   */
+  public RobotsTxtCache(
+      OkHttpClient client, String userAgent, BiConsumer<String, Duration> crawlDelayListener) {
+    this(client, userAgent, null, crawlDelayListener);
+  }
+
+  /**
+   * @param client The OkHttpClient to fetch the robots.txt files with.
+   * @param userAgent The product token whose rules are obeyed.
+   * @param scheduler The HostScheduler to wait for the turn of each robots.txt at, null to fetch
+   *     them right away.
+   * @param crawlDelayListener Called with the host and the delay when a robots.txt sets a
+   *     Crawl-delay, for example to pace the requests with a HostScheduler.
+   */
+  public RobotsTxtCache(
+      OkHttpClient client,
+      String userAgent,
+      HostScheduler scheduler,
+      BiConsumer<String, Duration> crawlDelayListener) {
+    this.client = client;
+    this.userAgent = userAgent;
+    this.scheduler = scheduler;
+    this.crawlDelayListener = crawlDelayListener;
+  }
+
+  /**
+   * Check whether a link may be crawled, which fetches the robots.txt of its host the first time.
+   * Concurrent checks of links to the same host wait for the same fetch. No thread is blocked while
+   * the robots.txt is fetched.
+   *
+   * @param link The link to check.
+   * @return A future with whether the robots.txt of the host allows crawling the link.
+   */
+  public CompletableFuture<Boolean> isAllowedAsync(Link link) {
+    return robotsTxt(link).thenApply(robotsTxt -> robotsTxt.isAllowed(link.path()));
+  }
+
+  /**
+   * Check whether a link may be crawled and block while the robots.txt of its host is fetched.
+   *
+   * @param link The link to check.
+   * @return Whether the robots.txt of the host allows crawling the link.
+   */
+  public boolean isAllowed(Link link) {
+    try {
+      return isAllowedAsync(link).join();
+    } catch (CompletionException e) {
+      if (e.getCause() instanceof RuntimeException cause) {
+        throw cause;
+      }
+      throw e;
+    }
+  }
+
+  private CompletableFuture<RobotsTxt> robotsTxt(Link link) {
+    String site = link.scheme() + "://" + link.host();
+
+    CompletableFuture<RobotsTxt> robotsTxt = robotsTxts.get(site);
+    if (robotsTxt != null) {
+      return robotsTxt;
+    }
+
+    CompletableFuture<RobotsTxt> fetching = new CompletableFuture<>();
+    robotsTxt = robotsTxts.putIfAbsent(site, fetching);
+    if (robotsTxt != null) {
+      return robotsTxt;
+    }
+
+    fetchInTurn(site, link.host())
+        .whenComplete(
+            (fetched, t) -> {
+              if (t != null) {
+                fetching.completeExceptionally(t);
+              } else {
+                fetching.complete(fetched);
+              }
+            });
+    return fetching;
+  }
+
+  private CompletableFuture<RobotsTxt> fetchInTurn(String site, String host) {
+    CompletableFuture<Void> turn =
+        scheduler == null ? CompletableFuture.completedFuture(null) : scheduler.acquire(host);
+
+    return turn.thenCompose(
+            granted ->
+                fetch(site)
+                    .whenComplete(
+                        (robotsTxt, t) -> {
+                          if (scheduler != null) {
+                            scheduler.release(host);
+                          }
+                        }))
+        .thenApply(
+            robotsTxt -> {
+              Duration crawlDelay = robotsTxt.crawlDelay();
+              if (crawlDelay != null) {
+                crawlDelayListener.accept(
+                    host, crawlDelay.compareTo(MAX_CRAWL_DELAY) > 0 ? MAX_CRAWL_DELAY : crawlDelay);
+              }
+              return robotsTxt;
+            });
+  }
+
+  private CompletableFuture<RobotsTxt> fetch(String site) {
+    Request request;
+    try {
+      request = new Request.Builder().url(site + "/robots.txt").build();
+    } catch (IllegalArgumentException e) {
+      return CompletableFuture.completedFuture(RobotsTxt.DISALLOW_ALL);
+    }
+
+    CompletableFuture<RobotsTxt> robotsTxt = new CompletableFuture<>();
+    client
+        .newCall(request)
+        .enqueue(
+            new Callback() {
+              @Override
+              public void onFailure(Call call, IOException e) {
+                robotsTxt.complete(RobotsTxt.DISALLOW_ALL);
+              }
+
+              @Override
+              public void onResponse(Call call, Response response) {
+                try (response) {
+                  robotsTxt.complete(parse(response));
+                } catch (IOException e) {
+                  robotsTxt.complete(RobotsTxt.DISALLOW_ALL);
+                } catch (RuntimeException e) {
+                  robotsTxt.completeExceptionally(e);
+                }
+              }
+            });
+    return robotsTxt;
+  }
+
+  private RobotsTxt parse(Response response) throws IOException {
+    if (response.code() >= 500) {
+      return RobotsTxt.DISALLOW_ALL;
+    }
+    if (!response.isSuccessful()) {
+      // Redirects are followed by the client, any other client error means there are no rules.
+      return RobotsTxt.ALLOW_ALL;
+    }
+
+    try (InputStream in = response.body().byteStream()) {
+      String content = new String(in.readNBytes(MAX_SIZE), StandardCharsets.UTF_8);
+      return RobotsTxt.parse(content, userAgent);
+    }
+  }
+
+  /** @return The number of hosts whose robots.txt has been fetched. */
+  public int size() {
+    return robotsTxts.size();
+  }
+}
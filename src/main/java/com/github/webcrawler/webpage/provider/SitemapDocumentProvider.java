@@ -0,0 +1,180 @@
+package com.github.webcrawler.webpage.provider;
+
+import com.github.webcrawler.webpage.component.Document;
+import com.github.webcrawler.webpage.component.Link;
+import com.github.webcrawler.webpage.component.SitemapDocument;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.net.URL;
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+import org.jsoup.HttpStatusException;
+
+/**
+ * Implementation of the DocumentProvider which reads the URLs of sitemaps into a SitemapDocument
+ * and fetches all other URLs with another DocumentProvider. A WebPage for a sitemap therefore
+ * crawls the webpages the sitemap lists as its children, without fetching any webpage just to find
+ * their links. The sitemaps listed by a sitemap index are followed, each of them only once.
+ *
+ * <p>The sitemaps are only read once the Links of the SitemapDocument are, and each of them waits
+ * for its turn at the HostScheduler like any other request.
+ */
+public class SitemapDocumentProvider implements DocumentProvider {
+
+  /** The maximum number of sitemaps read for a single sitemap, including the sitemap itself. */
+  public static final int MAX_SITEMAPS = 1000;
+
+  private final OkHttpClient client;
+  private final DocumentProvider provider;
+  private final Set<String> sitemaps;
+  private final HostScheduler scheduler;
+
+  /**
+   * @param client The OkHttpClient to fetch the sitemaps with.
+   * @param provider The DocumentProvider to fetch all other URLs with.
+   * @param sitemaps The URLs of the sitemaps.
+   */
+  public SitemapDocumentProvider(
+      OkHttpClient client, DocumentProvider provider, Collection<String> sitemaps) {
+    this(client, provider, sitemaps, null);
+  }
+
+  /**
+   * @param client The OkHttpClient to fetch the sitemaps with.
+   * @param provider The DocumentProvider to fetch all other URLs with.
+   * @param sitemaps The URLs of the sitemaps.
+   * @param scheduler The HostScheduler to wait for the turn of each sitemap at, null to fetch them
+   *     right away.
+   */
+  public SitemapDocumentProvider(
+      OkHttpClient client,
+      DocumentProvider provider,
+      Collection<String> sitemaps,
+      HostScheduler scheduler) {
+    this.client = client;
+    this.provider = provider;
+    this.scheduler = scheduler;
+    // WebPages fetch their link, which is the URL without query and fragment.
+    this.sitemaps =
+        sitemaps.stream()
+            .map(sitemap -> Link.fromString(sitemap).toString())
+            .collect(Collectors.toUnmodifiableSet());
+  }
+
+  private boolean isSitemap(String url) {
+    try {
+      return sitemaps.contains(Link.fromString(url).toString());
+    } catch (IllegalArgumentException e) {
+      return false;
+    }
+  }
+
+  /**
+   * Return a SitemapDocument which reads the sitemap at the url and the sitemaps it lists, or fetch
+   * any other url with the wrapped DocumentProvider.
+   *
+   * @param url The URL to fetch.
+   * @return A SitemapDocument which reads the URLs of all webpages listed, or the fetched Document.
+   * @throws IOException If the URL is no sitemap and cannot be fetched.
+   */
+  @Override
+  public Document getDocument(String url) throws IOException {
+    if (!isSitemap(url)) {
+      return provider.getDocument(url);
+    }
+    return new SitemapDocument(webPages -> readAll(url, webPages));
+  }
+
+  private void readAll(String url, Consumer<Link> webPages) throws IOException {
+    Set<String> visited = new HashSet<>();
+    Deque<String> waiting = new ArrayDeque<>();
+    waiting.add(url);
+
+    while (!waiting.isEmpty() && visited.size() < MAX_SITEMAPS) {
+      String sitemap = waiting.poll();
+      if (visited.add(sitemap)) {
+        read(sitemap, webPages, waiting);
+      }
+    }
+  }
+
+  private void read(String sitemap, Consumer<Link> webPages, Deque<String> waiting)
+      throws IOException {
+    Request request = new Request.Builder().url(sitemap).build();
+    String host = new URL(sitemap).getAuthority();
+    awaitTurn(host);
+
+    try (Response response = client.newCall(request).execute()) {
+      if (!response.isSuccessful()) {
+        throw new HttpStatusException("HTTP error fetching sitemap", response.code(), sitemap);
+      }
+
+      try (InputStream in = response.body().byteStream()) {
+        SitemapDocument.parse(in, webPages, waiting::add);
+      }
+    } finally {
+      if (scheduler != null) {
+        scheduler.release(host);
+      }
+    }
+  }
+
+  private void awaitTurn(String host) throws InterruptedIOException {
+    if (scheduler == null) {
+      return;
+    }
+    try {
+      scheduler.await(host);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new InterruptedIOException("Interrupted while waiting for " + host);
+    }
+  }
+
+  /**
+   * Fetch any URL which is no sitemap with the wrapped DocumentProvider without blocking. Sitemaps
+   * are read on the thread which reads the Links of their SitemapDocument.
+   *
+   * @param url The URL to fetch.
+   * @return A future with the Document.
+   */
+  @Override
+  public CompletableFuture<Document> getDocumentAsync(String url) {
+    if (!isSitemap(url)) {
+      return provider.getDocumentAsync(url);
+    }
+    return DocumentProvider.super.getDocumentAsync(url);
+  }
+
+  /**
+   * Check the url with the wrapped DocumentProvider.
+   *
+   * @param url The URL to check.
+   * @throws IOException If the URL cannot be fetched.
+   */
+  @Override
+  public void verify(String url) throws IOException {
+    provider.verify(url);
+  }
+
+  /**
+   * Check the url with the wrapped DocumentProvider without blocking.
+   *
+   * @param url The URL to check.
+   * @return A future which fails with an IOException if the URL cannot be fetched.
+   */
+  @Override
+  public CompletableFuture<Void> verifyAsync(String url) {
+    return provider.verifyAsync(url);
+  }
+}
@@ -2,6 +2,7 @@ package com.github.webcrawler.commandline;
 
 import static org.junit.jupiter.api.Assertions.*;
 
+import java.util.List;
 import org.junit.jupiter.api.Test;
 
 class PicocliCommandlineTest {
@@ -12,23 +13,148 @@ class PicocliCommandlineTest {
   void getUsageHelp() {
     String expectedUsageHelp =
         """
-        Usage: crawler [-hpV] [-d=<maxDepth>] -k=<deeplAuthKey> [-l=<targetLanguage>]
-                       [-o=<outputFilePath>] URLS...
-              URLS...              The URL for the webpage to crawl
-          -d, --depth=<maxDepth>   The depth of webpages to crawl recursively (default:
-                                     2)
-          -h, --help               Show this help message and exit.
+        Usage: crawler [-hpV] [--ignore-robots] [--metrics] [--progress] [--resume]
+                       [--verify-leaves] [--virtual-threads]
+                       [--checkpoint=<checkpointPath>]
+                       [--checkpoint-interval=<checkpointInterval>]
+                       [--connection-pool=<connectionPoolSize>] [-d=<maxDepth>]
+                       [--frontier-dir=<frontierDirectory>]
+                       [--host-connections=<hostConnections>]
+                       [--host-delay=<hostDelay>] [--host-rate=<hostRate>]
+                       [--http-cache=<httpCacheDirectory>]
+                       [--http-cache-size=<httpCacheSize>] [--http-client=<httpClient>]
+                       -k=<deeplAuthKey> [-l=<targetLanguage>]
+                       [--metrics-port=<metricsPort>]
+                       [--near-duplicates=<nearDuplicateDistance>]
+                       [-o=<outputFilePath>] [--parser=<parser>]
+                       [--progress-interval=<progressInterval>]
+                       [--seen-links=<seenLinks>]
+                       [--seen-links-dir=<seenLinksDirectory>]
+                       [--seen-links-fpp=<seenLinksFalsePositiveRate>] [-t=<threads>]
+                       [--trace=<tracePath>]
+                       [--translation-batch-size=<translationBatchSize>]
+                       [--translation-cache=<translationCachePath>]
+                       [--translation-rate=<translationRate>]
+                       [--translation-requests=<translationRequests>]
+                       [--translation-retries=<translationRetries>]
+                       [--translation-window=<translationWindow>]
+                       [--sitemap=<sitemaps>]... [URLS...]
+              [URLS...]              The URL for the webpage to crawl
+              --checkpoint=<checkpointPath>
+                                     A file to record the progress of the crawl in, so
+                                       that it can be resumed with --resume if it is
+                                       interrupted
+              --checkpoint-interval=<checkpointInterval>
+                                     The time in milliseconds between two writes of the
+                                       progress to the checkpoint file (default: 1000)
+              --connection-pool=<connectionPoolSize>
+                                     The maximum number of idle connections kept alive
+                                       by okhttp (default: 16)
+          -d, --depth=<maxDepth>     The depth of webpages to crawl recursively
+                                       (default: 2)
+              --frontier-dir=<frontierDirectory>
+                                     A directory to keep the webpages waiting to be
+                                       crawled in memory-mapped files instead of on the
+                                       heap
+          -h, --help                 Show this help message and exit.
+              --host-connections=<hostConnections>
+                                     The maximum number of concurrent requests per host
+                                       (default: 4)
+              --host-delay=<hostDelay>
+                                     The minimum delay in milliseconds between two
+                                       requests to the same host (default: 0)
+              --host-rate=<hostRate> The maximum number of requests per second per
+                                       host, 0 for no limit (default: 0)
+              --http-cache=<httpCacheDirectory>
+                                     A directory to cache the fetched webpages in, so
+                                       that later runs only download the webpages which
+                                       have changed (requires the okhttp client)
+              --http-cache-size=<httpCacheSize>
+                                     The maximum size of the HTTP cache in MiB
+                                       (default: 512)
+              --http-client=<httpClient>
+                                     The HTTP client to fetch webpages with, either
+                                       okhttp or jsoup (default: okhttp)
+              --ignore-robots        Whether to crawl links which the robots.txt of
+                                       their host disallows (default: false)
           -k, --auth-key=<deeplAuthKey>
-                                   The auth key for the DeepL API.
+                                     The auth key for the DeepL API.
           -l, --language=<targetLanguage>
-                                   The language to translate the headings to (default:
-                                     EN)
+                                     The language to translate the headings to
+                                       (default: EN)
+              --metrics              Whether to count the crawled webpages and time the
+                                       stages of the crawl, which can be read over JMX
+                                       (default: false)
+              --metrics-port=<metricsPort>
+                                     The port to serve the metrics in the Prometheus
+                                       text format at /metrics on localhost, which
+                                       turns on --metrics, -1 to not serve them
+                                       (default: -1)
+              --near-duplicates=<nearDuplicateDistance>
+                                     The maximum number of bits in which the SimHashes
+                                       of the texts of two webpages differ for the
+                                       later one to be skipped as near duplicate, -1 to
+                                       analyze all webpages (default: -1)
           -o, --output-file=<outputFilePath>
-                                   The path to the generated markdown report. Use '-'
-                                     to print to console (default: -)
-          -p, --pro                Whether to use DeepL pro version or not (default:
-                                     false)
-          -V, --version            Print version information and exit.
+                                     The path to the generated markdown report. Use '-'
+                                       to print to console (default: -)
+          -p, --pro                  Whether to use DeepL pro version or not (default:
+                                       false)
+              --parser=<parser>      How to extract headings and links, either dom or
+                                       streaming without building a tree (default: dom)
+              --progress             Whether to periodically print the progress of the
+                                       crawl to stderr, which turns on --metrics
+                                       (default: false)
+              --progress-interval=<progressInterval>
+                                     The time in milliseconds between two lines of
+                                       progress (default: 5000)
+              --resume               Whether to continue the crawl recorded in the
+                                       checkpoint file instead of starting over
+                                       (default: false)
+              --seen-links=<seenLinks>
+                                     How to remember the links already seen, either
+                                       exact, bloom for a Bloom filter which may skip a
+                                       few links or disk for an exact set in a file
+                                       (default: exact)
+              --seen-links-dir=<seenLinksDirectory>
+                                     The directory for the seen links on disk instead
+                                       of the temporary directory
+              --seen-links-fpp=<seenLinksFalsePositiveRate>
+                                     The probability that the Bloom filter skips a link
+                                       which has not been seen (default: 0.0001)
+              --sitemap=<sitemaps>   The URL of a sitemap or sitemap index, which may
+                                       be gzip compressed, whose webpages are crawled
+                                       up to the depth as if they were given as URLS
+          -t, --threads=<threads>    The number of webpages to crawl concurrently
+                                       (default: 8)
+              --trace=<tracePath>    A file to write one json line per crawled webpage
+                                       to, with the time it waited, the phases of its
+                                       HTTP request, parsing and extracting
+              --translation-batch-size=<translationBatchSize>
+                                     The number of headings which are sent for
+                                       translation together while crawling (default: 50)
+              --translation-cache=<translationCachePath>
+                                     A file to keep translations in, so that they are
+                                       reused by later runs instead of being sent to
+                                       DeepL again
+              --translation-rate=<translationRate>
+                                     The maximum number of requests per second to the
+                                       DeepL API, 0 for no limit (default: 0)
+              --translation-requests=<translationRequests>
+                                     The maximum number of concurrent requests to the
+                                       DeepL API (default: 4)
+              --translation-retries=<translationRetries>
+                                     How often a failed request to the DeepL API is
+                                       retried with backoff (default: 5)
+              --translation-window=<translationWindow>
+                                     The maximum time in milliseconds headings wait for
+                                       their batch to fill up (default: 200)
+          -V, --version              Print version information and exit.
+              --verify-leaves        Whether to only check the webpages at the maximum
+                                       depth for being reachable instead of fetching
+                                       their headings (default: false)
+              --virtual-threads      Whether to crawl on virtual threads, requires Java
+                                       21 (default: false)
         """;
 
     String actualUsageHelp = commandLine.getUsageHelp();
@@ -91,7 +217,28 @@ class PicocliCommandlineTest {
         assertThrows(CommandlineException.class, () -> commandLine.parseArgs(new String[] {}));
 
     assertEquals(
-        "picocli.CommandLine$MissingParameterException: Missing required options and parameters: '--auth-key=<deeplAuthKey>', 'URLS'",
+        "picocli.CommandLine$MissingParameterException: Missing required option: '--auth-key=<deeplAuthKey>'",
+        t.getMessage());
+  }
+
+  @Test
+  void parseArgsWithSitemap() {
+    Arguments arguments =
+        commandLine.parseArgs(new String[] {"--auth-key=xyz", "--sitemap=sitemap1"});
+
+    assertEquals(List.of(), arguments.getUrls());
+    assertEquals(List.of("sitemap1"), arguments.getSitemaps());
+  }
+
+  @Test
+  void parseArgsWithoutUrlsOrSitemaps() {
+    Throwable t =
+        assertThrows(
+            CommandlineException.class,
+            () -> commandLine.parseArgs(new String[] {"--auth-key=xyz"}));
+
+    assertEquals(
+        "picocli.CommandLine$MissingParameterException: Missing required parameter: 'URLS' or option '--sitemap'",
         t.getMessage());
   }
 }
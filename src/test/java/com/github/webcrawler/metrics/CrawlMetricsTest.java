@@ -0,0 +1,68 @@
+package com.github.webcrawler.metrics;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import org.junit.jupiter.api.Test;
+
+class CrawlMetricsTest {
+
+  private static CrawlMetrics recordedMetrics() {
+    CrawlMetrics metrics = new CrawlMetrics();
+    metrics.countPage("analyzed");
+    metrics.countPage("analyzed");
+    metrics.countPage("duplicate");
+    metrics.countBrokenLink();
+    metrics.addFetchedBytes(2048);
+    metrics.addTranslatedCharacters(42);
+    metrics.countTranslationError(429);
+    metrics.stage(CrawlMetrics.Stage.FETCH).record(2_000_000);
+    metrics.stage(CrawlMetrics.Stage.FETCH).record(4_000_000);
+    return metrics;
+  }
+
+  @Test
+  void countsPagesByState() {
+    assertEquals(Map.of("analyzed", 2L, "duplicate", 1L), recordedMetrics().getPages());
+  }
+
+  @Test
+  void writesPrometheusText() throws IOException {
+    StringBuilder text = new StringBuilder();
+    recordedMetrics().writePrometheus(text);
+
+    assertTrue(text.toString().contains("# TYPE webcrawler_fetched_bytes_total counter\n"));
+    assertTrue(text.toString().contains("\nwebcrawler_fetched_bytes_total 2048\n"));
+    assertTrue(text.toString().contains("\nwebcrawler_pages_total{state=\"analyzed\"} 2\n"));
+    assertTrue(text.toString().contains("\nwebcrawler_broken_links_total 1\n"));
+    assertTrue(text.toString().contains("\nwebcrawler_translated_characters_total 42\n"));
+    assertTrue(text.toString().contains("\nwebcrawler_translation_errors_total{code=\"429\"} 1\n"));
+    assertTrue(text.toString().contains("\nwebcrawler_stage_seconds_count{stage=\"fetch\"} 2\n"));
+    assertTrue(text.toString().contains("\nwebcrawler_stage_seconds_sum{stage=\"fetch\"} 0.006\n"));
+    assertTrue(text.toString().contains("\nwebcrawler_stage_seconds_count{stage=\"render\"} 0\n"));
+    assertTrue(
+        text.toString().contains("webcrawler_stage_seconds{stage=\"fetch\",quantile=\"0.99\"}"));
+  }
+
+  @Test
+  void readableOverJmx() throws JMException {
+    CrawlMetrics metrics = recordedMetrics();
+    metrics.registerMBean();
+    // Registering again replaces the metrics of an earlier crawl.
+    metrics.registerMBean();
+
+    MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+    ObjectName name = new ObjectName(CrawlMetrics.OBJECT_NAME);
+    try {
+      assertEquals(2048L, server.getAttribute(name, "FetchedBytes"));
+      assertEquals(1L, server.getAttribute(name, "BrokenLinks"));
+    } finally {
+      server.unregisterMBean(name);
+    }
+  }
+}
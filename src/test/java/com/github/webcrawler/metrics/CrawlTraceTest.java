@@ -0,0 +1,142 @@
+package com.github.webcrawler.metrics;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonObject;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class CrawlTraceTest {
+
+  private static final Gson GSON = new Gson();
+
+  private static List<JsonObject> readLines(Path path) throws IOException {
+    return Files.readAllLines(path, StandardCharsets.UTF_8).stream()
+        .map(line -> GSON.fromJson(line, JsonObject.class))
+        .toList();
+  }
+
+  @Test
+  void writesOneLinePerWebPage(@TempDir Path directory) throws IOException {
+    Path path = directory.resolve("trace.jsonl");
+
+    try (CrawlTrace trace = new CrawlTrace(path, CrawlTrace.DEFAULT_CAPACITY)) {
+      trace.record(new PageTrace("https://host/", null, 0, "analyzed", 0, 1, 2_000_001, 500_000));
+      trace.record(
+          new PageTrace("https://host/a", "https://host/", 1, "unreachable", 3_000_000, 1, 1, 0));
+    }
+
+    List<JsonObject> lines = readLines(path);
+    assertEquals(2, lines.size());
+
+    JsonObject root = lines.get(0);
+    assertEquals("https://host/", root.get("url").getAsString());
+    assertFalse(root.has("parent"));
+    assertFalse(root.has("queue_ms"));
+    assertEquals(2.0, root.get("fetch_ms").getAsDouble());
+    assertEquals(0.5, root.get("extract_ms").getAsDouble());
+
+    JsonObject child = lines.get(1);
+    assertEquals("https://host/", child.get("parent").getAsString());
+    assertEquals(1, child.get("depth").getAsInt());
+    assertEquals("unreachable", child.get("state").getAsString());
+    assertEquals(3.0, child.get("queue_ms").getAsDouble());
+    assertFalse(child.has("extract_ms"));
+  }
+
+  @Test
+  void addsTimingsOfHttpCall(@TempDir Path directory) throws IOException {
+    Path path = directory.resolve("trace.jsonl");
+    CrawlMetrics metrics = new CrawlMetrics();
+
+    try (MockWebServer server = new MockWebServer();
+        CrawlTrace trace = new CrawlTrace(path, CrawlTrace.DEFAULT_CAPACITY)) {
+      server.enqueue(new MockResponse().setBody("x".repeat(1000)));
+      OkHttpClient client =
+          new OkHttpClient.Builder()
+              .eventListenerFactory(HttpEventListener.factory(metrics, trace))
+              .build();
+      String url = server.url("/page").toString();
+
+      long start = System.nanoTime();
+      Request request = CrawlTrace.tagWebPage(new Request.Builder().url(url)).build();
+      try (Response response = client.newCall(request).execute()) {
+        response.body().string();
+      }
+      trace.record(new PageTrace(url, null, 0, "analyzed", 0, start, System.nanoTime(), 0));
+    }
+
+    JsonObject line = readLines(path).get(0);
+    assertEquals(1000, line.get("bytes").getAsLong());
+    assertEquals(1000, metrics.getFetchedBytes());
+    for (String timing : List.of("dns_ms", "connect_ms", "ttfb_ms", "download_ms", "parse_ms")) {
+      assertTrue(line.get(timing).getAsDouble() >= 0, timing);
+    }
+  }
+
+  @Test
+  void keepsTimingsOfWebPagesUntilTheyAreDone(@TempDir Path directory) throws IOException {
+    Path path = directory.resolve("trace.jsonl");
+
+    try (MockWebServer server = new MockWebServer();
+        CrawlTrace trace = new CrawlTrace(path, CrawlTrace.DEFAULT_CAPACITY)) {
+      server.enqueue(new MockResponse().setBody("User-agent: *"));
+      server.enqueue(new MockResponse().setResponseCode(405));
+      server.enqueue(new MockResponse().setResponseCode(206).setBody("x"));
+      OkHttpClient client =
+          new OkHttpClient.Builder()
+              .eventListenerFactory(HttpEventListener.factory(null, trace))
+              .build();
+      String url = server.url("/page").toString();
+
+      // Only the calls of webpages are kept, not for example that of a robots.txt.
+      execute(client, new Request.Builder().url(server.url("/robots.txt")).build());
+      assertEquals(0, trace.getPendingHttpTimings());
+
+      // The HEAD and the Range request verifying a webpage add up.
+      execute(client, CrawlTrace.tagWebPage(new Request.Builder().url(url)).head().build());
+      execute(
+          client,
+          CrawlTrace.tagWebPage(new Request.Builder().url(url))
+              .header("Range", "bytes=0-0")
+              .build());
+      assertEquals(1, trace.getPendingHttpTimings());
+
+      trace.discardHttpTimings(url);
+      assertEquals(0, trace.getPendingHttpTimings());
+    }
+  }
+
+  private static void execute(OkHttpClient client, Request request) throws IOException {
+    try (Response response = client.newCall(request).execute()) {
+      response.body().string();
+    }
+  }
+
+  @Test
+  void dropsLinesWhenBufferIsFull(@TempDir Path directory) throws IOException {
+    Path path = directory.resolve("trace.jsonl");
+    int pages = 10_000;
+
+    CrawlTrace trace = new CrawlTrace(path, 1);
+    for (int i = 0; i < pages; i++) {
+      trace.record(new PageTrace("https://host/" + i, null, 0, "analyzed", 0, 0, 0, 0));
+    }
+    trace.close();
+
+    long written = Files.readAllLines(path, StandardCharsets.UTF_8).size();
+    assertTrue(written > 0);
+    assertEquals(pages, written + trace.getDropped());
+  }
+}
@@ -0,0 +1,68 @@
+package com.github.webcrawler.metrics;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+import org.junit.jupiter.api.Test;
+
+class HistogramTest {
+
+  @Test
+  void emptyHistogram() {
+    Histogram histogram = new Histogram();
+
+    assertEquals(0, histogram.getCount());
+    assertEquals(0, histogram.quantile(0.5));
+    assertEquals(0, histogram.getMax());
+  }
+
+  @Test
+  void smallValuesAreExact() {
+    Histogram histogram = new Histogram();
+    LongStream.range(0, 16).forEach(histogram::record);
+
+    assertEquals(7, histogram.quantile(0.5));
+    assertEquals(15, histogram.quantile(1));
+    assertEquals(120, histogram.getSum());
+  }
+
+  @Test
+  void quantilesWithinBucketWidth() {
+    Histogram histogram = new Histogram();
+    LongStream.rangeClosed(1, 100_000).forEach(histogram::record);
+
+    assertEquals(50_000, histogram.quantile(0.5), 50_000 / 16.0);
+    assertEquals(99_000, histogram.quantile(0.99), 99_000 / 16.0);
+    assertEquals(100_000, histogram.quantile(1));
+    assertEquals(100_000, histogram.getMax());
+  }
+
+  @Test
+  void bucketsCoverAllValues() {
+    for (long value : new long[] {0, 1, 15, 16, 17, 1000, 1L << 40, Long.MAX_VALUE}) {
+      int bucket = Histogram.bucket(value);
+
+      assertTrue(value <= Histogram.highestValue(bucket));
+      assertTrue(bucket == 0 || value > Histogram.highestValue(bucket - 1));
+    }
+  }
+
+  @Test
+  void negativeValuesAreZero() {
+    Histogram histogram = new Histogram();
+    histogram.record(-5);
+
+    assertEquals(1, histogram.getCount());
+    assertEquals(0, histogram.quantile(1));
+  }
+
+  @Test
+  void recordsConcurrently() {
+    Histogram histogram = new Histogram();
+    IntStream.range(0, 10_000).parallel().forEach(histogram::record);
+
+    assertEquals(10_000, histogram.getCount());
+    assertEquals(9_999, histogram.getMax());
+  }
+}
@@ -0,0 +1,46 @@
+package com.github.webcrawler.metrics;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+import org.junit.jupiter.api.Test;
+
+class MetricsServerTest {
+
+  private final OkHttpClient client = new OkHttpClient();
+
+  @Test
+  void servesMetrics() throws IOException {
+    CrawlMetrics metrics = new CrawlMetrics();
+    metrics.countBrokenLink();
+
+    try (MetricsServer server = new MetricsServer(metrics, 0)) {
+      Request request =
+          new Request.Builder().url("http://localhost:" + server.getPort() + "/metrics").build();
+
+      try (Response response = client.newCall(request).execute()) {
+        assertEquals(200, response.code());
+        assertTrue(response.header("Content-Type").startsWith("text/plain; version=0.0.4"));
+        assertTrue(response.body().string().contains("\nwebcrawler_broken_links_total 1\n"));
+      }
+    }
+  }
+
+  @Test
+  void rejectsOtherMethods() throws IOException {
+    try (MetricsServer server = new MetricsServer(new CrawlMetrics(), 0)) {
+      Request request =
+          new Request.Builder()
+              .url("http://localhost:" + server.getPort() + "/metrics")
+              .delete()
+              .build();
+
+      try (Response response = client.newCall(request).execute()) {
+        assertEquals(405, response.code());
+      }
+    }
+  }
+}
@@ -0,0 +1,65 @@
+package com.github.webcrawler.metrics;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import org.junit.jupiter.api.Test;
+
+class ProgressReporterTest {
+
+  private static final long SECOND = 1_000_000_000L;
+
+  private final ByteArrayOutputStream output = new ByteArrayOutputStream();
+  private final PrintStream out = new PrintStream(output, true, StandardCharsets.UTF_8);
+
+  @Test
+  void reportsRatesSincePreviousLine() {
+    CrawlMetrics metrics = new CrawlMetrics();
+
+    try (ProgressReporter reporter =
+        new ProgressReporter(metrics, () -> 40, out, Duration.ofHours(1))) {
+      long start = System.nanoTime();
+      reporter.report(start);
+
+      for (int i = 0; i < 18; i++) {
+        metrics.countPage("fetched");
+      }
+      metrics.countPage("analyzed");
+      metrics.countBrokenLink();
+      metrics.countBrokenLink();
+      metrics.addFetchedBytes(20 * 1024);
+      metrics.addSubmittedHeadings(10);
+      metrics.addTranslatedHeadings(4);
+
+      assertEquals(
+          "progress: 18 fetched, 1 analyzed, 0 verified, 2 failed, 40 waiting, 2.0 pages/s,"
+              + " 2.0 KiB/s, 4/10 headings translated, eta 0:00:20",
+          reporter.report(start + 10 * SECOND));
+      assertTrue(reporter.report(start + 20 * SECOND).contains(" 0.0 pages/s, 0.0 B/s,"));
+    }
+  }
+
+  @Test
+  void printsLastLineOnClose() {
+    new ProgressReporter(new CrawlMetrics(), () -> 0, out, Duration.ofHours(1)).close();
+
+    assertTrue(output.toString(StandardCharsets.UTF_8).startsWith("progress: 0 fetched,"));
+    assertTrue(
+        output.toString(StandardCharsets.UTF_8).endsWith("eta 0:00:00" + System.lineSeparator()));
+  }
+
+  @Test
+  void formatsEta() {
+    assertEquals("unknown", ProgressReporter.formatEta(5, 0));
+    assertEquals("1:01:01", ProgressReporter.formatEta(3661, 1));
+  }
+
+  @Test
+  void formatsBytes() {
+    assertEquals("512.0 B", ProgressReporter.formatBytes(512));
+    assertEquals("1.5 MiB", ProgressReporter.formatBytes(1.5 * 1024 * 1024));
+  }
+}
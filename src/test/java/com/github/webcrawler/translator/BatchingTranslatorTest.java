@@ -0,0 +1,115 @@
+package com.github.webcrawler.translator;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+public class BatchingTranslatorTest {
+
+  /** Translates to upper case and detects french for texts starting with "fr". */
+  private static final class RecordingTranslator implements Translator {
+    final List<List<String>> requests = Collections.synchronizedList(new ArrayList<>());
+
+    @Override
+    public Result translate(List<String> texts) throws TranslationException {
+      requests.add(texts);
+
+      return new Result(
+          Language.ENGLISH,
+          Language.GERMAN,
+          texts.stream().map(String::toUpperCase).toList(),
+          texts.stream()
+              .map(text -> text.startsWith("fr") ? Language.FRENCH : Language.ENGLISH)
+              .toList());
+    }
+  }
+
+  @Test
+  public void fullBatchIsSentWithoutWaiting() throws Exception {
+    RecordingTranslator recordingTranslator = new RecordingTranslator();
+
+    try (BatchingTranslator translator =
+        new BatchingTranslator(recordingTranslator, 3, Duration.ofHours(1))) {
+      CompletableFuture<Translator.Result> first = translator.translateAsync(List.of("en1", "en2"));
+      CompletableFuture<Translator.Result> second = translator.translateAsync(List.of("fr1"));
+
+      assertEquals(List.of("EN1", "EN2"), first.get(1, TimeUnit.SECONDS).translatedTexts());
+      assertEquals(List.of("FR1"), second.get(1, TimeUnit.SECONDS).translatedTexts());
+      assertEquals(List.of(List.of("en1", "en2", "fr1")), recordingTranslator.requests);
+    }
+  }
+
+  @Test
+  public void batchIsSentAfterWindow() throws Exception {
+    RecordingTranslator recordingTranslator = new RecordingTranslator();
+
+    try (BatchingTranslator translator =
+        new BatchingTranslator(recordingTranslator, 100, Duration.ofMillis(50))) {
+      CompletableFuture<Translator.Result> first = translator.translateAsync(List.of("en1"));
+      CompletableFuture<Translator.Result> second = translator.translateAsync(List.of("en2"));
+
+      first.get(1, TimeUnit.SECONDS);
+      second.get(1, TimeUnit.SECONDS);
+      assertEquals(List.of(List.of("en1", "en2")), recordingTranslator.requests);
+    }
+  }
+
+  @Test
+  public void sourceLanguageIsDetectedPerSubmission() throws Exception {
+    try (BatchingTranslator translator =
+        new BatchingTranslator(new RecordingTranslator(), 3, Duration.ofHours(1))) {
+      CompletableFuture<Translator.Result> english = translator.translateAsync(List.of("en1"));
+      CompletableFuture<Translator.Result> french =
+          translator.translateAsync(List.of("fr1", "fr2"));
+
+      assertEquals(Language.ENGLISH, english.get(1, TimeUnit.SECONDS).sourceLanguage());
+      assertEquals(Language.FRENCH, french.get(1, TimeUnit.SECONDS).sourceLanguage());
+      assertEquals(Language.GERMAN, french.get(1, TimeUnit.SECONDS).targetLanguage());
+      assertEquals(
+          Language.FRENCH,
+          Translator.Result.concat(List.of(english.get(), french.get())).sourceLanguage());
+    }
+  }
+
+  @Test
+  public void closeSendsWaitingTexts() throws Exception {
+    BatchingTranslator translator =
+        new BatchingTranslator(new RecordingTranslator(), 100, Duration.ofHours(1));
+    CompletableFuture<Translator.Result> result = translator.translateAsync(List.of("en1"));
+
+    translator.close();
+
+    assertEquals(List.of("EN1"), result.get(1, TimeUnit.SECONDS).translatedTexts());
+  }
+
+  @Test
+  public void failedBatchFailsAllSubmissions() {
+    Translator failingTranslator =
+        texts -> {
+          throw new TranslationException("texts could not be translated");
+        };
+
+    try (BatchingTranslator translator =
+        new BatchingTranslator(failingTranslator, 2, Duration.ofHours(1))) {
+      CompletableFuture<Translator.Result> first = translator.translateAsync(List.of("en1"));
+      CompletableFuture<Translator.Result> second = translator.translateAsync(List.of("en2"));
+
+      ExecutionException e =
+          assertThrows(ExecutionException.class, () -> first.get(1, TimeUnit.SECONDS));
+      assertInstanceOf(TranslationException.class, e.getCause());
+      assertThrows(ExecutionException.class, () -> second.get(1, TimeUnit.SECONDS));
+    }
+
+    try (BatchingTranslator translator =
+        new BatchingTranslator(failingTranslator, 1, Duration.ofHours(1))) {
+      assertThrows(TranslationException.class, () -> translator.translate(List.of("en1")));
+    }
+  }
+}
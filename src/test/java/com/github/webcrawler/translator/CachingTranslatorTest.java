@@ -0,0 +1,119 @@
+package com.github.webcrawler.translator;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class CachingTranslatorTest {
+
+  /** Translates to upper case and detects french for texts starting with "fr". */
+  private static final class RecordingTranslator implements Translator {
+    final List<List<String>> requests = new ArrayList<>();
+
+    @Override
+    public Result translate(List<String> texts) throws TranslationException {
+      requests.add(texts);
+
+      if (texts == null || texts.isEmpty()) {
+        return new Result(Language.GERMAN, Language.GERMAN, new ArrayList<>());
+      }
+
+      return new Result(
+          Language.ENGLISH,
+          Language.GERMAN,
+          texts.stream().map(String::toUpperCase).toList(),
+          texts.stream()
+              .map(text -> text.startsWith("fr") ? Language.FRENCH : Language.ENGLISH)
+              .toList());
+    }
+  }
+
+  @TempDir Path directory;
+
+  @Test
+  public void onlyMissesAreTranslated() throws IOException {
+    RecordingTranslator recordingTranslator = new RecordingTranslator();
+    Path path = directory.resolve("cache.jsonl");
+    CachingTranslator translator =
+        new CachingTranslator(recordingTranslator, Language.GERMAN, path);
+
+    translator.translate(List.of("en1", "en2"));
+    Translator.Result result = translator.translate(List.of("en2", "fr1", "fr2", "fr1"));
+
+    assertEquals(
+        List.of(List.of("en1", "en2"), List.of("fr1", "fr2")), recordingTranslator.requests);
+    assertEquals(List.of("EN2", "FR1", "FR2", "FR1"), result.translatedTexts());
+    assertEquals(Language.FRENCH, result.sourceLanguage());
+    assertEquals(Language.GERMAN, result.targetLanguage());
+  }
+
+  @Test
+  public void translationsArePersisted() throws IOException {
+    Path path = directory.resolve("cache.jsonl");
+    new CachingTranslator(new RecordingTranslator(), Language.GERMAN, path)
+        .translate(List.of("fr1", "multi\nline"));
+
+    RecordingTranslator recordingTranslator = new RecordingTranslator();
+    CachingTranslator translator =
+        new CachingTranslator(recordingTranslator, Language.GERMAN, path);
+    Translator.Result result = translator.translate(List.of("fr1", "multi\nline"));
+
+    assertEquals(2, translator.size());
+    assertTrue(recordingTranslator.requests.isEmpty());
+    assertEquals(List.of("FR1", "MULTI\nLINE"), result.translatedTexts());
+    assertEquals(List.of(Language.FRENCH, Language.ENGLISH), result.sourceLanguages());
+  }
+
+  @Test
+  public void cacheIsKeyedByTargetLanguage() throws IOException {
+    Path path = directory.resolve("cache.jsonl");
+    new CachingTranslator(new RecordingTranslator(), Language.GERMAN, path)
+        .translate(List.of("en1"));
+
+    RecordingTranslator recordingTranslator = new RecordingTranslator();
+    new CachingTranslator(recordingTranslator, Language.FRENCH, path).translate(List.of("en1"));
+
+    assertEquals(List.of(List.of("en1")), recordingTranslator.requests);
+  }
+
+  @Test
+  public void partiallyWrittenLineIsSkipped() throws IOException {
+    Path path = directory.resolve("cache.jsonl");
+    new CachingTranslator(new RecordingTranslator(), Language.GERMAN, path)
+        .translate(List.of("en1"));
+    Files.writeString(path, "{\"target_lang\":\"DE\",\"te", StandardOpenOption.APPEND);
+
+    CachingTranslator translator =
+        new CachingTranslator(new RecordingTranslator(), Language.GERMAN, path);
+
+    assertEquals(1, translator.size());
+  }
+
+  @Test
+  public void lineWithoutKnownTargetLanguageIsSkipped() throws IOException {
+    Path path = directory.resolve("cache.jsonl");
+    Files.writeString(
+        path,
+        """
+        {"text":"en1","translation":"EN1"}
+        {"target_lang":"XX","text":"en2","translation":"EN2"}
+        {"target_lang":"DE","text":"en3","translation":"EN3"}
+        """);
+
+    RecordingTranslator recordingTranslator = new RecordingTranslator();
+    CachingTranslator translator =
+        new CachingTranslator(recordingTranslator, Language.GERMAN, path);
+    Translator.Result result = translator.translate(List.of("en3"));
+
+    assertEquals(1, translator.size());
+    assertTrue(recordingTranslator.requests.isEmpty());
+    assertEquals(List.of(Language.UNKNOWN), result.sourceLanguages());
+  }
+}
@@ -6,11 +6,20 @@ import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.Mockito.when;
 
 import java.io.IOException;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.IntStream;
 import java.util.stream.Stream;
 import okhttp3.*;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.junit.jupiter.params.ParameterizedTest;
@@ -194,4 +203,246 @@ public class DeepLTranslatorTest {
         () -> translator.translate(List.of("element")),
         "forbidden: invalid auth_key");
   }
+
+  @Test
+  public void chunkByTextCount() {
+    DeepLTranslator translator =
+        new DeepLTranslator(
+            mockHttpClient,
+            Language.GERMAN,
+            "",
+            DeepLTranslator.DEEPL_FREE_API_URL,
+            new DeepLTranslator.Limits(2, Integer.MAX_VALUE, 1));
+
+    List<List<String>> chunks = translator.chunk(List.of("a", "b", "c", "d", "e"));
+
+    assertEquals(List.of(List.of("a", "b"), List.of("c", "d"), List.of("e")), chunks);
+  }
+
+  @Test
+  public void chunkByRequestSize() {
+    DeepLTranslator translator =
+        new DeepLTranslator(
+            mockHttpClient,
+            Language.GERMAN,
+            "key",
+            DeepLTranslator.DEEPL_FREE_API_URL,
+            new DeepLTranslator.Limits(50, 64, 1));
+    String text = "x".repeat(20);
+    String tooLong = "y".repeat(100);
+
+    List<List<String>> chunks = translator.chunk(List.of(text, text, tooLong, text));
+
+    assertEquals(List.of(List.of(text), List.of(text), List.of(tooLong), List.of(text)), chunks);
+  }
+
+  @Test
+  public void translateChunksConcurrentlyInOrder() throws Exception {
+    AtomicInteger requestsInFlight = new AtomicInteger();
+    AtomicInteger maxRequestsInFlight = new AtomicInteger();
+
+    try (MockWebServer server = new MockWebServer()) {
+      server.setDispatcher(
+          new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) throws InterruptedException {
+              maxRequestsInFlight.accumulateAndGet(requestsInFlight.incrementAndGet(), Math::max);
+              Thread.sleep(50);
+              requestsInFlight.decrementAndGet();
+
+              List<String> texts =
+                  Stream.of(request.getBody().readUtf8().split("&"))
+                      .filter(field -> field.startsWith("text="))
+                      .map(field -> field.substring("text=".length()))
+                      .toList();
+              String sourceLanguage = texts.get(0).startsWith("fr") ? "FR" : "EN";
+
+              return new MockResponse()
+                  .setBody(
+                      DeepLTranslator.JsonTranslations.fromLanguageAndTexts(
+                              Language.fromString(sourceLanguage),
+                              texts.stream().map(String::toUpperCase).toList())
+                          .toJsonString());
+            }
+          });
+
+      DeepLTranslator translator =
+          new DeepLTranslator(
+              new OkHttpClient(),
+              Language.GERMAN,
+              "",
+              server.url("/v2/translate").toString(),
+              new DeepLTranslator.Limits(2, Integer.MAX_VALUE, 3));
+      List<String> texts = List.of("en1", "en2", "en3", "en4", "fr1", "fr2");
+
+      Translator.Result result = translator.translate(texts);
+
+      assertEquals(List.of("EN1", "EN2", "EN3", "EN4", "FR1", "FR2"), result.translatedTexts());
+      assertEquals(Language.ENGLISH, result.sourceLanguage());
+      assertEquals(3, server.getRequestCount());
+      assertTrue(maxRequestsInFlight.get() > 1);
+    }
+  }
+
+  @Test
+  public void limitRequestsInFlightAcrossBatches() throws Exception {
+    AtomicInteger requestsInFlight = new AtomicInteger();
+    AtomicInteger maxRequestsInFlight = new AtomicInteger();
+
+    try (MockWebServer server = new MockWebServer()) {
+      server.setDispatcher(
+          new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) throws InterruptedException {
+              maxRequestsInFlight.accumulateAndGet(requestsInFlight.incrementAndGet(), Math::max);
+              Thread.sleep(50);
+              requestsInFlight.decrementAndGet();
+              return translationResponse("x", "x");
+            }
+          });
+
+      DeepLTranslator translator =
+          translatorFor(server, new DeepLTranslator.Limits(2, Integer.MAX_VALUE, 2));
+      // Every batch is sent as soon as it is full, so all batches are translated at once.
+      try (BatchingTranslator batching = new BatchingTranslator(translator, 4, Duration.ZERO)) {
+        List<CompletableFuture<Translator.Result>> results =
+            IntStream.range(0, 8)
+                .mapToObj(i -> batching.translateAsync(List.of("a", "b", "c", "d")))
+                .toList();
+
+        results.forEach(CompletableFuture::join);
+      }
+
+      assertEquals(16, server.getRequestCount());
+      assertEquals(2, maxRequestsInFlight.get());
+    }
+  }
+
+  @Test
+  public void failedChunkFailsTranslation() throws IOException {
+    try (MockWebServer server = new MockWebServer()) {
+      server.enqueue(new MockResponse().setResponseCode(413));
+      server.enqueue(new MockResponse().setResponseCode(413));
+
+      DeepLTranslator translator =
+          new DeepLTranslator(
+              new OkHttpClient(),
+              Language.GERMAN,
+              "",
+              server.url("/v2/translate").toString(),
+              new DeepLTranslator.Limits(1, Integer.MAX_VALUE, 2));
+
+      assertThrows(TranslationException.class, () -> translator.translate(List.of("a", "b")));
+    }
+  }
+
+  private static DeepLTranslator translatorFor(
+      MockWebServer server, DeepLTranslator.Limits limits) {
+    return new DeepLTranslator(
+        new OkHttpClient(), Language.GERMAN, "", server.url("/v2/translate").toString(), limits);
+  }
+
+  private static MockResponse translationResponse(String... translations) {
+    return new MockResponse()
+        .setBody(
+            DeepLTranslator.JsonTranslations.fromLanguageAndTexts(
+                    Language.ENGLISH, List.of(translations))
+                .toJsonString());
+  }
+
+  @Test
+  public void retryTooManyRequests() throws IOException {
+    try (MockWebServer server = new MockWebServer()) {
+      server.enqueue(new MockResponse().setResponseCode(429).setHeader("Retry-After", "0"));
+      server.enqueue(new MockResponse().setResponseCode(529).setHeader("Retry-After", "0"));
+      server.enqueue(translationResponse("Wort"));
+
+      Translator.Result result =
+          translatorFor(server, DeepLTranslator.Limits.DEFAULT).translate(List.of("word"));
+
+      assertEquals(List.of("Wort"), result.translatedTexts());
+      assertEquals(3, server.getRequestCount());
+    }
+  }
+
+  @Test
+  public void retryOnlyFailedChunk() throws IOException {
+    Map<String, AtomicInteger> attempts = new ConcurrentHashMap<>();
+
+    try (MockWebServer server = new MockWebServer()) {
+      server.setDispatcher(
+          new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) {
+              String body = request.getBody().readUtf8();
+              String text = body.substring(body.lastIndexOf("text=") + "text=".length());
+
+              if (text.equals("b")
+                  && attempts.computeIfAbsent(text, t -> new AtomicInteger()).incrementAndGet()
+                      == 1) {
+                return new MockResponse().setResponseCode(503);
+              }
+              return translationResponse(text.toUpperCase());
+            }
+          });
+
+      Translator.Result result =
+          translatorFor(
+                  server, new DeepLTranslator.Limits(1, Integer.MAX_VALUE, 2, 0, 1, Duration.ZERO))
+              .translate(List.of("a", "b", "c"));
+
+      assertEquals(List.of("A", "B", "C"), result.translatedTexts());
+      assertEquals(4, server.getRequestCount());
+    }
+  }
+
+  @Test
+  public void giveUpAfterMaxRetries() throws IOException {
+    try (MockWebServer server = new MockWebServer()) {
+      IntStream.range(0, 3).forEach(i -> server.enqueue(new MockResponse().setResponseCode(503)));
+
+      DeepLTranslator translator =
+          translatorFor(
+              server, new DeepLTranslator.Limits(50, Integer.MAX_VALUE, 1, 0, 2, Duration.ZERO));
+
+      assertThrows(TranslationException.class, () -> translator.translate(List.of("word")));
+      assertEquals(3, server.getRequestCount());
+    }
+  }
+
+  @Test
+  public void doNotRetryClientErrors() throws IOException {
+    try (MockWebServer server = new MockWebServer()) {
+      server.enqueue(new MockResponse().setResponseCode(456));
+
+      DeepLTranslator translator = translatorFor(server, DeepLTranslator.Limits.DEFAULT);
+
+      assertThrows(TranslationException.class, () -> translator.translate(List.of("word")));
+      assertEquals(1, server.getRequestCount());
+    }
+  }
+
+  @Test
+  public void throttleRequests() throws IOException {
+    try (MockWebServer server = new MockWebServer()) {
+      IntStream.range(0, 3).forEach(i -> server.enqueue(translationResponse("x")));
+      DeepLTranslator translator =
+          translatorFor(
+              server, new DeepLTranslator.Limits(1, Integer.MAX_VALUE, 3, 2, 0, Duration.ZERO));
+      long start = System.nanoTime();
+
+      translator.translate(List.of("a", "b", "c"));
+
+      // The bucket holds two tokens, so the third request waits for half a second.
+      assertTrue(System.nanoTime() - start >= Duration.ofMillis(400).toNanos());
+    }
+  }
+
+  @Test
+  public void parseRetryAfter() {
+    assertEquals(Duration.ofSeconds(3), DeepLTranslator.parseRetryAfter("3"));
+    assertEquals(Duration.ZERO, DeepLTranslator.parseRetryAfter("Wed, 21 Oct 2015 07:28:00 GMT"));
+    assertNull(DeepLTranslator.parseRetryAfter("soon"));
+    assertNull(DeepLTranslator.parseRetryAfter(null));
+  }
 }
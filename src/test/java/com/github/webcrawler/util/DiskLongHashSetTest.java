@@ -0,0 +1,47 @@
+package com.github.webcrawler.util;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class DiskLongHashSetTest {
+
+  @TempDir Path directory;
+
+  @Test
+  public void sameAsHashSetWhileGrowing() throws IOException {
+    Set<Long> expected = new HashSet<>();
+    Random random = new Random(0);
+
+    try (DiskLongHashSet set = DiskLongHashSet.createTemporary(directory)) {
+      // Enough distinct values to grow the table twice.
+      for (int i = 0; i < 200_000; i++) {
+        long value = random.nextInt(150_000) - 1;
+
+        assertEquals(expected.add(value), set.add(value));
+      }
+
+      assertEquals(expected.size(), set.size());
+      expected.forEach(value -> assertFalse(set.add(value)));
+    }
+  }
+
+  @Test
+  public void fileIsDeletedOnClose() throws IOException {
+    Path path = directory.resolve("set.bin");
+
+    DiskLongHashSet set = new DiskLongHashSet(path);
+    set.add(1);
+    assertTrue(Files.exists(path));
+
+    set.close();
+    assertFalse(Files.exists(path));
+  }
+}
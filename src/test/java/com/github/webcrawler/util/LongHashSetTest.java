@@ -0,0 +1,43 @@
+package com.github.webcrawler.util;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+
+public class LongHashSetTest {
+
+  @Test
+  public void addOnlyOnce() {
+    LongHashSet set = new LongHashSet();
+
+    assertTrue(set.add(42));
+    assertFalse(set.add(42));
+    assertTrue(set.add(0));
+    assertFalse(set.add(0));
+    assertTrue(set.add(-1));
+
+    assertEquals(3, set.size());
+    assertTrue(set.contains(0));
+    assertFalse(set.contains(43));
+  }
+
+  @Test
+  public void sameAsHashSetWhileGrowing() {
+    LongHashSet set = new LongHashSet(4);
+    Set<Long> expected = new HashSet<>();
+    Random random = new Random(0);
+
+    for (int i = 0; i < 100_000; i++) {
+      // Few distinct values in the low bits, so there are duplicates and colliding slots.
+      long value = (long) random.nextInt(50_000) << 40;
+
+      assertEquals(expected.add(value), set.add(value));
+    }
+
+    assertEquals(expected.size(), set.size());
+    expected.forEach(value -> assertTrue(set.contains(value)));
+  }
+}
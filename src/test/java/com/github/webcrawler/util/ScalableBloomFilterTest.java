@@ -0,0 +1,50 @@
+package com.github.webcrawler.util;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+public class ScalableBloomFilterTest {
+
+  @Test
+  public void addedValuesAreAlwaysSeen() {
+    ScalableBloomFilter filter = new ScalableBloomFilter(100, 0.01);
+
+    for (long value = 0; value < 10_000; value++) {
+      filter.add(value);
+    }
+
+    for (long value = 0; value < 10_000; value++) {
+      assertTrue(filter.mightContain(value));
+      assertFalse(filter.add(value));
+    }
+  }
+
+  @Test
+  public void falsePositiveRateHoldsWhileGrowing() {
+    double falsePositiveRate = 0.01;
+    ScalableBloomFilter filter = new ScalableBloomFilter(1_000, falsePositiveRate);
+    Random random = new Random(0);
+
+    int values = 100_000;
+    int falsePositives = 0;
+    for (int i = 0; i < values; i++) {
+      // Random values are distinct with overwhelming probability, so each rejection is wrong.
+      if (!filter.add(random.nextLong())) {
+        falsePositives++;
+      }
+    }
+
+    assertTrue(falsePositives < values * falsePositiveRate, "false positives: " + falsePositives);
+    // A few bytes per value instead of the 8 to 16 bytes of an exact set.
+    assertTrue(filter.bitSize() / 8 < values * 4L, "bytes: " + filter.bitSize() / 8);
+  }
+
+  @Test
+  public void illegalArguments() {
+    assertThrows(IllegalArgumentException.class, () -> new ScalableBloomFilter(0, 0.01));
+    assertThrows(IllegalArgumentException.class, () -> new ScalableBloomFilter(100, 0));
+    assertThrows(IllegalArgumentException.class, () -> new ScalableBloomFilter(100, 1));
+  }
+}
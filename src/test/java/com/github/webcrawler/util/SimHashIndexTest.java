@@ -0,0 +1,69 @@
+package com.github.webcrawler.util;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class SimHashIndexTest {
+
+  @Test
+  void findsSimHashesWithinDistance() {
+    SimHashIndex<String> index = new SimHashIndex<>(3);
+    long simHash = 0x0123456789abcdefL;
+
+    assertNull(index.addIfAbsent(simHash, "original"));
+    assertEquals("original", index.addIfAbsent(simHash, "same"));
+    // Three bits in three different blocks.
+    assertEquals("original", index.addIfAbsent(simHash ^ (1L | 1L << 20 | 1L << 40), "near"));
+    assertEquals(1, index.size());
+  }
+
+  @Test
+  void addsSimHashesBeyondDistance() {
+    SimHashIndex<String> index = new SimHashIndex<>(3);
+    long simHash = 0x0123456789abcdefL;
+
+    assertNull(index.addIfAbsent(simHash, "original"));
+    assertNull(index.addIfAbsent(simHash ^ 0b1111, "far"));
+    assertEquals(2, index.size());
+  }
+
+  @Test
+  void matchesLinearSearch() {
+    Random random = new Random(42);
+    SimHashIndex<Long> index = new SimHashIndex<>(4);
+    long[] added = new long[2000];
+    int size = 0;
+
+    for (int i = 0; i < 5000; i++) {
+      long simHash = random.nextLong();
+      if (i % 3 == 0 && size > 0) {
+        // Flip a few bits of a SimHash which is in the index already.
+        simHash = added[random.nextInt(size)];
+        for (int flip = random.nextInt(7); flip > 0; flip--) {
+          simHash ^= 1L << random.nextInt(64);
+        }
+      }
+
+      boolean near = false;
+      for (int j = 0; j < size; j++) {
+        near |= SimHash.distance(simHash, added[j]) <= 4;
+      }
+
+      Long found = index.addIfAbsent(simHash, simHash);
+      assertEquals(near, found != null);
+      if (found == null && size < added.length) {
+        added[size++] = simHash;
+      } else if (found == null) {
+        break;
+      }
+    }
+  }
+
+  @Test
+  void invalidDistance() {
+    assertThrows(IllegalArgumentException.class, () -> new SimHashIndex<>(-1));
+    assertThrows(IllegalArgumentException.class, () -> new SimHashIndex<>(32));
+  }
+}
@@ -0,0 +1,54 @@
+package com.github.webcrawler.util;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+class SimHashTest {
+
+  private static final String TEXT =
+      "The quick brown fox jumps over the lazy dog while the cat watches from the warm windowsill"
+          + " and the birds sing in the old oak tree behind the red barn at the end of the road";
+
+  @Test
+  void sameTextSameSimHash() {
+    assertEquals(SimHash.of(TEXT), SimHash.of(TEXT));
+  }
+
+  @Test
+  void ignoresCaseAndPunctuation() {
+    assertEquals(SimHash.of(TEXT), SimHash.of(TEXT.toUpperCase().replace(" ", ",  ")));
+  }
+
+  @Test
+  void appendedInPartsSameSimHash() {
+    SimHash simHash = new SimHash();
+    simHash.append(TEXT.substring(0, 40));
+    simHash.append(TEXT.substring(40));
+
+    assertEquals(SimHash.of(TEXT), simHash.value());
+  }
+
+  @Test
+  void similarTextsAreNear() {
+    String edited = TEXT.replace("red barn", "blue barn");
+
+    assertTrue(SimHash.distance(SimHash.of(TEXT), SimHash.of(edited)) <= 10);
+  }
+
+  @Test
+  void differentTextsAreFar() {
+    String other =
+        "Lorem ipsum dolor sit amet consectetur adipiscing elit sed do eiusmod tempor incididunt"
+            + " ut labore et dolore magna aliqua ut enim ad minim veniam quis nostrud exercitation";
+
+    assertTrue(SimHash.distance(SimHash.of(TEXT), SimHash.of(other)) > 16);
+  }
+
+  @Test
+  void distance() {
+    assertEquals(0, SimHash.distance(0b1011, 0b1011));
+    assertEquals(2, SimHash.distance(0b1011, 0b1110));
+    assertEquals(64, SimHash.distance(0, -1));
+  }
+}
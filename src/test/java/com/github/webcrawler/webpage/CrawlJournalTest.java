@@ -0,0 +1,104 @@
+package com.github.webcrawler.webpage;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.github.webcrawler.webpage.component.Heading;
+import com.github.webcrawler.webpage.component.Link;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class CrawlJournalTest {
+
+  private static final Link ROOT = Link.fromString("https://host");
+
+  private static final CrawlJournal.Entry ANALYZED =
+      new CrawlJournal.Entry(
+          ROOT,
+          CrawlJournal.Status.ANALYZED,
+          List.of(new Heading(Heading.Level.H2, "\u00dcberschrift")),
+          List.of(Link.fromString("https://host/a"), Link.fromString("https://other/b")),
+          0x5eed5eed5eedL);
+
+  private static final CrawlJournal.Entry UNREACHABLE =
+      new CrawlJournal.Entry(
+          Link.fromString("https://host/a"),
+          CrawlJournal.Status.UNREACHABLE,
+          List.of(),
+          List.of(),
+          0);
+
+  @TempDir Path directory;
+
+  @Test
+  void resumesRecordedEntries() throws IOException {
+    Path path = directory.resolve("journal");
+
+    try (CrawlJournal journal = new CrawlJournal(path, Duration.ofHours(1), false)) {
+      journal.record(ROOT, ANALYZED);
+      journal.record(ROOT, UNREACHABLE);
+    }
+
+    try (CrawlJournal journal = new CrawlJournal(path, Duration.ofHours(1), true)) {
+      Map<Link, CrawlJournal.Entry> checkpoint = journal.takeCheckpoint(ROOT);
+
+      assertEquals(Map.of(ANALYZED.link(), ANALYZED, UNREACHABLE.link(), UNREACHABLE), checkpoint);
+      assertTrue(journal.takeCheckpoint(ROOT).isEmpty());
+      assertTrue(journal.takeCheckpoint(Link.fromString("https://other")).isEmpty());
+    }
+  }
+
+  @Test
+  void flushesPeriodically() throws Exception {
+    Path path = directory.resolve("journal");
+
+    try (CrawlJournal journal = new CrawlJournal(path, Duration.ofMillis(10), false)) {
+      journal.record(ROOT, ANALYZED);
+
+      long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+      while (Files.size(path) == 0 && System.nanoTime() < deadline) {
+        Thread.sleep(10);
+      }
+      assertEquals(1, Files.readAllLines(path).size());
+    }
+  }
+
+  @Test
+  void skipsPartiallyWrittenLine() throws IOException {
+    Path path = directory.resolve("journal");
+
+    try (CrawlJournal journal = new CrawlJournal(path, Duration.ofHours(1), false)) {
+      journal.record(ROOT, ANALYZED);
+    }
+    Files.writeString(
+        path,
+        "{\"root\":\"https://host\",\"url\":\"ht",
+        StandardCharsets.UTF_8,
+        StandardOpenOption.APPEND);
+
+    try (CrawlJournal journal = new CrawlJournal(path, Duration.ofHours(1), true)) {
+      assertEquals(Map.of(ROOT, ANALYZED), journal.takeCheckpoint(ROOT));
+    }
+  }
+
+  @Test
+  void startsOverWithoutResume() throws IOException {
+    Path path = directory.resolve("journal");
+
+    try (CrawlJournal journal = new CrawlJournal(path, Duration.ofHours(1), false)) {
+      journal.record(ROOT, ANALYZED);
+    }
+
+    try (CrawlJournal journal = new CrawlJournal(path, Duration.ofHours(1), false)) {
+      assertTrue(journal.takeCheckpoint(ROOT).isEmpty());
+    }
+    assertEquals(0, Files.size(path));
+  }
+}
@@ -0,0 +1,508 @@
+package com.github.webcrawler.webpage;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.github.webcrawler.metrics.CrawlMetrics;
+import com.github.webcrawler.metrics.CrawlTrace;
+import com.github.webcrawler.util.LongHashSet;
+import com.github.webcrawler.webpage.component.Document;
+import com.github.webcrawler.webpage.component.Heading;
+import com.github.webcrawler.webpage.component.Link;
+import com.github.webcrawler.webpage.component.SitemapDocument;
+import com.github.webcrawler.webpage.component.StreamingDocument;
+import com.github.webcrawler.webpage.provider.DocumentProvider;
+import com.github.webcrawler.webpage.provider.HostScheduler;
+import com.github.webcrawler.webpage.provider.PoliteDocumentProvider;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+class CrawlerTest {
+
+  /** Serves pages which link to FAN_OUT other pages and records the concurrent fetches. */
+  static class SlowTreeDocumentProvider implements DocumentProvider {
+    static final int FAN_OUT = 5;
+
+    final Set<String> fetchedLocations = ConcurrentHashMap.newKeySet();
+    final Set<String> verifiedLocations = ConcurrentHashMap.newKeySet();
+    final AtomicInteger concurrentFetches = new AtomicInteger();
+    final AtomicInteger maxConcurrentFetches = new AtomicInteger();
+
+    @Override
+    public Document getDocument(String location) throws IOException {
+      fetchedLocations.add(location);
+      maxConcurrentFetches.accumulateAndGet(concurrentFetches.incrementAndGet(), Math::max);
+
+      try {
+        Thread.sleep(20);
+      } catch (InterruptedException e) {
+        throw new IOException(e);
+      } finally {
+        concurrentFetches.decrementAndGet();
+      }
+
+      if (location.endsWith("/broken")) {
+        throw new IOException("broken");
+      }
+
+      return new Document() {
+        @Override
+        public List<Heading> getHeadings() {
+          return new ArrayList<>(List.of(new Heading(Heading.Level.H1, location)));
+        }
+
+        @Override
+        public List<Link> getLinks() {
+          List<Link> links =
+              IntStream.range(0, FAN_OUT)
+                  .mapToObj(i -> Link.fromString(location + "/" + i))
+                  .collect(Collectors.toCollection(ArrayList::new));
+          links.add(Link.fromString(location + "/broken"));
+          return links;
+        }
+      };
+    }
+
+    @Override
+    public void verify(String location) throws IOException {
+      verifiedLocations.add(location);
+
+      if (location.endsWith("/broken")) {
+        throw new IOException("broken");
+      }
+    }
+  }
+
+  @Test
+  void crawlsChildrenConcurrently() throws IOException {
+    SlowTreeDocumentProvider provider = new SlowTreeDocumentProvider();
+    WebPage webPage;
+
+    try (Crawler crawler = new Crawler(8, false)) {
+      webPage =
+          new WebPage("https://host", 2, provider, new WebPageTest.DummyTranslator(), crawler);
+
+      webPage.fetch();
+      webPage.analyze();
+    }
+
+    int fan = SlowTreeDocumentProvider.FAN_OUT + 1;
+    assertEquals(1 + fan + (fan - 1) * fan, provider.fetchedLocations.size());
+    assertTrue(provider.maxConcurrentFetches.get() > 1);
+    assertTrue(webPage.toMarkdown().contains("broken link <a>https://host/broken</a>"));
+    assertTrue(webPage.toMarkdown().contains("broken link <a>https://host/4/broken</a>"));
+  }
+
+  @Test
+  void verifiesLeavesWithoutFetching() throws IOException {
+    SlowTreeDocumentProvider provider = new SlowTreeDocumentProvider();
+    WebPage webPage;
+
+    try (Crawler crawler = new Crawler(8, false)) {
+      webPage =
+          new WebPage(
+              "https://host", 2, provider, new WebPageTest.DummyTranslator(), crawler, true);
+
+      webPage.fetch();
+      webPage.analyze();
+    }
+
+    int fan = SlowTreeDocumentProvider.FAN_OUT + 1;
+    assertEquals(1 + fan, provider.fetchedLocations.size());
+    assertEquals((fan - 1) * fan, provider.verifiedLocations.size());
+    assertTrue(webPage.toMarkdown().contains("broken link <a>https://host/4/broken</a>"));
+    assertTrue(webPage.toMarkdown().contains("Webpage verified, but not fetched."));
+  }
+
+  @Test
+  void recordsMetrics() throws IOException {
+    SlowTreeDocumentProvider provider = new SlowTreeDocumentProvider();
+    CrawlMetrics metrics = new CrawlMetrics();
+
+    try (Crawler crawler = new Crawler(8, false)) {
+      WebPage webPage =
+          new WebPage("https://host", 2, provider, new WebPageTest.DummyTranslator(), crawler);
+      webPage.recordMetrics(metrics);
+
+      webPage.fetch();
+      webPage.analyze();
+    }
+
+    int fan = SlowTreeDocumentProvider.FAN_OUT + 1;
+    int broken = 1 + (fan - 1);
+    int fetched = 1 + fan + (fan - 1) * fan - broken;
+    assertEquals(broken, metrics.getBrokenLinks());
+    assertEquals(fetched, metrics.getPages().get("fetched"));
+    assertEquals(fetched, metrics.getPages().get("analyzed"));
+    assertEquals(fetched, metrics.stage(CrawlMetrics.Stage.EXTRACT_HEADINGS).getCount());
+    assertEquals(fetched, metrics.stage(CrawlMetrics.Stage.EXTRACT_LINKS).getCount());
+  }
+
+  @Test
+  void tracesWebPages(@TempDir Path directory) throws IOException {
+    SlowTreeDocumentProvider provider = new SlowTreeDocumentProvider();
+    Path path = directory.resolve("trace.jsonl");
+
+    try (Crawler crawler = new Crawler(8, false);
+        CrawlTrace trace = new CrawlTrace(path, CrawlTrace.DEFAULT_CAPACITY)) {
+      WebPage webPage =
+          new WebPage("https://host", 1, provider, new WebPageTest.DummyTranslator(), crawler);
+      webPage.traceTo(trace);
+
+      webPage.fetch();
+      webPage.analyze();
+    }
+
+    List<String> lines = Files.readAllLines(path);
+    assertEquals(1 + SlowTreeDocumentProvider.FAN_OUT + 1, lines.size());
+    assertTrue(lines.get(0).startsWith("{\"url\":\"https://host\",\"depth\":0,"));
+    assertTrue(
+        lines.stream()
+            .anyMatch(
+                line ->
+                    line.contains("\"url\":\"https://host/broken\",\"parent\":\"https://host\"")
+                        && line.contains("\"state\":\"unreachable\"")
+                        && line.contains("\"queue_ms\":")));
+    assertTrue(lines.stream().allMatch(line -> line.contains("\"fetch_ms\":")));
+  }
+
+  @ParameterizedTest
+  @EnumSource(SeenLinks.class)
+  void sameWebPagesWithEverySeenLinks(SeenLinks seenLinks, @TempDir Path directory)
+      throws IOException {
+    SlowTreeDocumentProvider provider = new SlowTreeDocumentProvider();
+
+    try (Crawler crawler = new Crawler(8, false, seenLinks.factory(0.0001, directory))) {
+      WebPage webPage =
+          new WebPage("https://host", 2, provider, new WebPageTest.DummyTranslator(), crawler);
+
+      webPage.fetch();
+      webPage.analyze();
+    }
+
+    int fan = SlowTreeDocumentProvider.FAN_OUT + 1;
+    assertEquals(1 + fan + (fan - 1) * fan, provider.fetchedLocations.size());
+    try (Stream<Path> files = Files.list(directory)) {
+      assertEquals(0, files.count());
+    }
+  }
+
+  @Test
+  void crawlsWithFrontierOnDisk(@TempDir Path directory) throws IOException {
+    SlowTreeDocumentProvider provider = new SlowTreeDocumentProvider();
+    WebPage webPage;
+
+    try (Crawler crawler = new Crawler(8, false, LongHashSet::new, directory)) {
+      webPage =
+          new WebPage("https://host", 2, provider, new WebPageTest.DummyTranslator(), crawler);
+
+      webPage.fetch();
+      webPage.analyze();
+    }
+
+    int fan = SlowTreeDocumentProvider.FAN_OUT + 1;
+    assertEquals(1 + fan + (fan - 1) * fan, provider.fetchedLocations.size());
+    assertTrue(webPage.toMarkdown().contains("broken link <a>https://host/4/broken</a>"));
+    try (Stream<Path> files = Files.list(directory)) {
+      assertEquals(0, files.count());
+    }
+  }
+
+  @Test
+  void resumesFromJournal(@TempDir Path directory) throws IOException {
+    Path path = directory.resolve("journal");
+    WebPage expected;
+
+    try (Crawler crawler = new Crawler(8, false)) {
+      expected =
+          new WebPage(
+              "https://host",
+              2,
+              new SlowTreeDocumentProvider(),
+              new WebPageTest.DummyTranslator(),
+              crawler);
+      expected.fetch();
+      expected.analyze();
+    }
+
+    // The first crawl only gets to depth 1 before it stops.
+    try (Crawler crawler = new Crawler(8, false);
+        CrawlJournal journal = new CrawlJournal(path, Duration.ofHours(1), false)) {
+      WebPage webPage =
+          new WebPage(
+              "https://host",
+              1,
+              new SlowTreeDocumentProvider(),
+              new WebPageTest.DummyTranslator(),
+              crawler);
+      webPage.journalTo(journal);
+      webPage.fetch();
+      webPage.analyze();
+    }
+
+    SlowTreeDocumentProvider provider = new SlowTreeDocumentProvider();
+    WebPage resumed;
+    try (Crawler crawler = new Crawler(8, false);
+        CrawlJournal journal = new CrawlJournal(path, Duration.ofHours(1), true)) {
+      resumed =
+          new WebPage("https://host", 2, provider, new WebPageTest.DummyTranslator(), crawler);
+      resumed.journalTo(journal);
+      resumed.fetch();
+      resumed.analyze();
+    }
+
+    int fan = SlowTreeDocumentProvider.FAN_OUT + 1;
+    assertEquals((fan - 1) * fan, provider.fetchedLocations.size());
+    assertFalse(provider.fetchedLocations.contains("https://host"));
+    assertEquals(expected.toMarkdown(), resumed.toMarkdown());
+  }
+
+  /** Serves an article, a print view of it with the same text and another article. */
+  static class MirroringDocumentProvider implements DocumentProvider {
+    static final String ARTICLE =
+        "<h1>Article</h1><p>The quick brown fox jumps over the lazy dog while the cat watches from"
+            + " the warm windowsill and the birds sing in the old oak tree behind the barn.</p>";
+
+    final Set<String> fetchedLocations = ConcurrentHashMap.newKeySet();
+
+    @Override
+    public Document getDocument(String location) {
+      fetchedLocations.add(location);
+
+      String html =
+          switch (location) {
+            case "https://host" -> "<a href=/article>a</a><a href=/article/print>p</a>"
+                + "<a href=/other>o</a>";
+            case "https://host/article" -> ARTICLE + "<a href=/article/comments>c</a>";
+            case "https://host/article/print" -> "<b>Print</b>"
+                + ARTICLE
+                + "<a href=/article/print/comments>c</a>";
+            case "https://host/article/comments" -> "<h1>Comments</h1><p>Nobody has written a"
+                + " comment yet, be the first one to share your thoughts about foxes.</p>";
+            default -> "<h1>Other</h1><p>Lorem ipsum dolor sit amet, consectetur adipiscing elit,"
+                + " sed do eiusmod tempor incididunt ut labore et dolore magna aliqua.</p>";
+          };
+      return StreamingDocument.parse(html, location);
+    }
+  }
+
+  @Test
+  void skipsNearDuplicates() throws IOException {
+    MirroringDocumentProvider provider = new MirroringDocumentProvider();
+    WebPage webPage;
+
+    // With a single webpage in flight, the article is crawled before its print view.
+    try (Crawler crawler = new Crawler(1, false)) {
+      webPage =
+          new WebPage("https://host", 2, provider, new WebPageTest.DummyTranslator(), crawler);
+      webPage.skipNearDuplicates(3);
+
+      webPage.fetch();
+      webPage.analyze();
+    }
+
+    assertTrue(provider.fetchedLocations.contains("https://host/article/comments"));
+    assertFalse(provider.fetchedLocations.contains("https://host/article/print/comments"));
+    assertTrue(
+        webPage
+            .toMarkdown()
+            .contains("Webpage is a near duplicate of <a>https://host/article</a>."));
+    assertEquals(1, webPage.toMarkdown().split("near duplicate", -1).length - 1);
+  }
+
+  /** Serves a root which links to pages of a slow and a fast host, the slow ones first. */
+  static class TwoHostDocumentProvider implements DocumentProvider {
+    static final int PAGES_PER_HOST = 6;
+
+    final List<String> fetchedLocations = Collections.synchronizedList(new ArrayList<>());
+
+    @Override
+    public Document getDocument(String location) {
+      fetchedLocations.add(location);
+
+      return new Document() {
+        @Override
+        public List<Heading> getHeadings() {
+          return new ArrayList<>(List.of(new Heading(Heading.Level.H1, location)));
+        }
+
+        @Override
+        public List<Link> getLinks() {
+          if (!location.equals("https://root")) {
+            return new ArrayList<>();
+          }
+          return Stream.of("slow", "fast")
+              .flatMap(
+                  host ->
+                      IntStream.range(0, PAGES_PER_HOST)
+                          .mapToObj(i -> Link.fromString("https://" + host + "/" + i)))
+              .collect(Collectors.toCollection(ArrayList::new));
+        }
+      };
+    }
+  }
+
+  @Test
+  void throttledHostDoesNotHoldUpOtherHosts() throws IOException {
+    TwoHostDocumentProvider provider = new TwoHostDocumentProvider();
+
+    try (Crawler crawler = new Crawler(2, false);
+        HostScheduler scheduler = new HostScheduler(HostScheduler.Limits.UNLIMITED)) {
+      scheduler.setMinDelay("slow", Duration.ofMillis(100));
+      crawler.awaitHostTurns(scheduler);
+      WebPage webPage =
+          new WebPage(
+              "https://root",
+              1,
+              new PoliteDocumentProvider(provider, scheduler),
+              new WebPageTest.DummyTranslator(),
+              crawler);
+
+      webPage.fetch();
+      webPage.analyze();
+    }
+
+    List<String> fetched = List.copyOf(provider.fetchedLocations);
+    assertEquals(1 + 2 * TwoHostDocumentProvider.PAGES_PER_HOST, fetched.size());
+    // Only the webpages of the slow host whose turn came first are fetched before the fast host.
+    int lastFast = 0;
+    for (int i = 0; i < fetched.size(); i++) {
+      if (fetched.get(i).startsWith("https://fast/")) {
+        lastFast = i;
+      }
+    }
+    List<String> slowBeforeFast =
+        fetched.subList(0, lastFast).stream()
+            .filter(location -> location.startsWith("https://slow/"))
+            .toList();
+    assertTrue(slowBeforeFast.size() <= 2, slowBeforeFast.toString());
+  }
+
+  @Test
+  void rootsSharingLinksGiveBackEveryTurn() throws Exception {
+    int sharedPages = 8;
+    DocumentProvider provider =
+        location -> {
+          try {
+            Thread.sleep(5);
+          } catch (InterruptedException e) {
+            throw new IOException(e);
+          }
+          return new Document() {
+            @Override
+            public List<Heading> getHeadings() {
+              return new ArrayList<>(List.of(new Heading(Heading.Level.H1, location)));
+            }
+
+            @Override
+            public List<Link> getLinks() {
+              if (location.contains("/shared")) {
+                return new ArrayList<>();
+              }
+              return IntStream.range(0, sharedPages)
+                  .mapToObj(i -> Link.fromString("https://host/shared" + i))
+                  .collect(Collectors.toCollection(ArrayList::new));
+            }
+          };
+        };
+
+    try (Crawler crawler = new Crawler(2, false);
+        HostScheduler scheduler =
+            new HostScheduler(new HostScheduler.Limits(8, Duration.ZERO, 0))) {
+      crawler.awaitHostTurns(scheduler);
+      DocumentProvider politeProvider = new PoliteDocumentProvider(provider, scheduler);
+      // Every root has seen links of its own, so the roots reserve turns for the same links.
+      List<WebPage> roots =
+          IntStream.range(0, 4)
+              .mapToObj(
+                  i ->
+                      new WebPage(
+                          "https://host/root" + i,
+                          1,
+                          politeProvider,
+                          new WebPageTest.DummyTranslator(),
+                          crawler))
+              .toList();
+
+      CompletableFuture.allOf(
+              roots.stream()
+                  .map(root -> root.tryFetchAsync().thenCompose(fetched -> root.tryAnalyzeAsync()))
+                  .toArray(CompletableFuture[]::new))
+          .get(10, TimeUnit.SECONDS);
+
+      // Unused reservations are given back right after their webpage is done, a lost turn never.
+      long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(1);
+      while (scheduler.getRequestsInFlight("host") > 0 && System.nanoTime() < deadline) {
+        Thread.sleep(10);
+      }
+      assertEquals(0, scheduler.getRequestsInFlight("host"));
+      for (WebPage root : roots) {
+        assertTrue(root.toMarkdown().contains("https://host/shared" + (sharedPages - 1)));
+      }
+    }
+  }
+
+  @Test
+  void crawlsLinksOfSitemapWhileReadingIt() throws IOException {
+    int pages = 2500;
+    Set<String> fetchedLocations = ConcurrentHashMap.newKeySet();
+    CountDownLatch firstChunkCrawled = new CountDownLatch(1);
+    DocumentProvider provider =
+        location -> {
+          if (!location.equals("https://host/sitemap.xml")) {
+            fetchedLocations.add(location);
+            firstChunkCrawled.countDown();
+            return new SitemapDocument(List.of());
+          }
+          return new SitemapDocument(
+              webPages -> {
+                for (int i = 0; i < pages; i++) {
+                  webPages.accept(Link.fromString("https://host/" + i));
+                  if (i == pages / 2) {
+                    try {
+                      // The links read so far are already crawled.
+                      assertTrue(firstChunkCrawled.await(5, TimeUnit.SECONDS));
+                    } catch (InterruptedException e) {
+                      throw new IOException(e);
+                    }
+                  }
+                }
+              });
+        };
+    WebPage webPage;
+
+    try (Crawler crawler = new Crawler(8, false)) {
+      webPage =
+          new WebPage(
+              "https://host/sitemap.xml", 1, provider, new WebPageTest.DummyTranslator(), crawler);
+
+      webPage.fetch();
+      webPage.analyze();
+    }
+
+    assertEquals(pages, fetchedLocations.size());
+    assertTrue(webPage.toMarkdown().contains("https://host/" + (pages - 1)));
+  }
+
+  @Test
+  void tooSmallParallelism() {
+    assertThrows(IllegalArgumentException.class, () -> new Crawler(0, false));
+  }
+}
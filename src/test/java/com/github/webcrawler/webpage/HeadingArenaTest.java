@@ -0,0 +1,53 @@
+package com.github.webcrawler.webpage;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.github.webcrawler.webpage.component.Heading;
+import java.util.Collections;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class HeadingArenaTest {
+
+  @Test
+  void rangesOfWebPages() {
+    HeadingArena arena = new HeadingArena();
+
+    int first =
+        arena.addAll(
+            List.of(new Heading(Heading.Level.H1, "one"), new Heading(Heading.Level.H2, "two")));
+    int second = arena.addAll(List.of(new Heading(Heading.Level.H3, "three")));
+
+    assertEquals(0, first);
+    assertEquals(2, second);
+    assertEquals(3, arena.size());
+    assertEquals(List.of(new Heading(Heading.Level.H3, "three")), arena.headings(second, 1));
+    assertEquals(List.of("one", "two", "three"), arena.texts());
+  }
+
+  @Test
+  void setTextsKeepsLevels() {
+    HeadingArena arena = new HeadingArena();
+    arena.addAll(
+        List.of(new Heading(Heading.Level.H1, "one"), new Heading(Heading.Level.H2, "two")));
+
+    arena.setTexts(1, List.of("zwei"));
+
+    assertEquals(
+        List.of(new Heading(Heading.Level.H1, "one"), new Heading(Heading.Level.H2, "zwei")),
+        arena.headings(0, 2));
+    assertThrows(IndexOutOfBoundsException.class, () -> arena.setTexts(1, List.of("a", "b")));
+  }
+
+  @Test
+  void growsBeyondInitialCapacity() {
+    HeadingArena arena = new HeadingArena();
+
+    for (int i = 0; i < 1000; i++) {
+      arena.addAll(Collections.nCopies(3, new Heading(Heading.Level.H4, "heading " + i)));
+    }
+
+    assertEquals(3000, arena.size());
+    assertEquals(List.of(new Heading(Heading.Level.H4, "heading 999")), arena.headings(2999, 1));
+  }
+}
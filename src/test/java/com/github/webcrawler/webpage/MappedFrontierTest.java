@@ -0,0 +1,75 @@
+package com.github.webcrawler.webpage;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.github.webcrawler.webpage.component.Link;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class MappedFrontierTest {
+
+  @TempDir Path directory;
+
+  private static Frontier.Entry entry(int i) {
+    return new Frontier.Entry(i / 10, i % 10, new Link("https", "host" + i, "/path/\u00e4/" + i));
+  }
+
+  @Test
+  void entriesInOrderAcrossSegments() throws IOException {
+    try (MappedFrontier frontier = new MappedFrontier(directory, 256)) {
+      for (int i = 0; i < 100; i++) {
+        frontier.add(entry(i));
+      }
+      assertEquals(100, frontier.size());
+      assertTrue(frontier.segmentCount() > 1);
+
+      for (int i = 0; i < 50; i++) {
+        assertEquals(entry(i), frontier.poll());
+      }
+      for (int i = 100; i < 150; i++) {
+        frontier.add(entry(i));
+      }
+      for (int i = 50; i < 150; i++) {
+        assertEquals(entry(i), frontier.poll());
+      }
+
+      assertNull(frontier.poll());
+      assertTrue(frontier.isEmpty());
+      assertEquals(1, frontier.segmentCount());
+    }
+  }
+
+  @Test
+  void entryLargerThanSegment() throws IOException {
+    Frontier.Entry large =
+        new Frontier.Entry(1, 2, new Link("https", "host", "/" + "x".repeat(1000)));
+
+    try (MappedFrontier frontier = new MappedFrontier(directory, 64)) {
+      frontier.add(entry(0));
+      frontier.add(large);
+      frontier.add(entry(1));
+
+      assertEquals(entry(0), frontier.poll());
+      assertEquals(large, frontier.poll());
+      assertEquals(entry(1), frontier.poll());
+    }
+  }
+
+  @Test
+  void filesAreDeletedOnClose() throws IOException {
+    MappedFrontier frontier = new MappedFrontier(directory, 64);
+    for (int i = 0; i < 10; i++) {
+      frontier.add(entry(i));
+    }
+
+    frontier.close();
+
+    try (Stream<Path> files = Files.list(directory)) {
+      assertEquals(0, files.count());
+    }
+  }
+}
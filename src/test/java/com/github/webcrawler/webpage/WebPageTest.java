@@ -1,18 +1,24 @@
 package com.github.webcrawler.webpage;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
 
+import com.github.webcrawler.translator.BatchingTranslator;
 import com.github.webcrawler.translator.Language;
 import com.github.webcrawler.translator.TranslationException;
 import com.github.webcrawler.translator.Translator;
 import com.github.webcrawler.webpage.component.Document;
 import com.github.webcrawler.webpage.component.JsoupDocument;
 import com.github.webcrawler.webpage.provider.DocumentProvider;
+import com.github.webcrawler.webpage.provider.RobotsTxtCache;
 import java.io.File;
 import java.io.IOException;
+import java.io.StringWriter;
 import java.nio.file.Files;
 import java.nio.file.Paths;
+import java.time.Duration;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.jsoup.Jsoup;
 import org.junit.jupiter.api.Test;
 
@@ -92,6 +98,50 @@ class WebPageTest {
     assertEquals(EXPECTED_TRANSLATED_MARKDOWN_WITH_CHILDREN, generatedMarkdown);
   }
 
+  @Test
+  void closesCrawlerOfItsOwnWhenDone() throws Exception {
+    WebPage webPage =
+        new WebPage(
+            "https://testpage/10-three-child-links-with-headings-and-broken.html",
+            5,
+            new JsoupLocalDocumentProvider(),
+            new DummyTranslator());
+
+    webPage.fetch();
+    webPage.analyze();
+
+    // Once its executor is shut down, the idle threads of the crawler end.
+    long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+    while (crawlerThreadsAlive() && System.nanoTime() < deadline) {
+      Thread.sleep(10);
+    }
+    assertFalse(crawlerThreadsAlive());
+  }
+
+  private static boolean crawlerThreadsAlive() {
+    return Thread.getAllStackTraces().keySet().stream()
+        .anyMatch(thread -> thread.getName().startsWith("crawler-") && thread.isAlive());
+  }
+
+  @Test
+  void toMarkdownWithChildrenCrawledConcurrently() throws IOException {
+    try (Crawler crawler = new Crawler(4, false)) {
+      WebPage webPage =
+          new WebPage(
+              "https://testpage/10-three-child-links-with-headings-and-broken.html",
+              5,
+              new JsoupLocalDocumentProvider(),
+              new DummyTranslator(),
+              crawler);
+
+      webPage.fetch();
+      webPage.analyze();
+      String generatedMarkdown = webPage.toMarkdown();
+
+      assertEquals(EXPECTED_MARKDOWN_WITH_CHILDREN, generatedMarkdown);
+    }
+  }
+
   @Test
   void toMarkdownWithoutChildren() throws IOException {
     WebPage webPage =
@@ -108,6 +158,24 @@ class WebPageTest {
     assertEquals(EXPECTED_MARKDOWN_WITHOUT_CHILDREN, generatedMarkdown);
   }
 
+  @Test
+  void linksOfLeavesAreNotCheckedAgainstRobotsTxt() throws IOException {
+    RobotsTxtCache robotsTxts = mock(RobotsTxtCache.class);
+    WebPage webPage =
+        new WebPage(
+            "https://testpage/10-three-child-links-with-headings-and-broken.html",
+            0,
+            new JsoupLocalDocumentProvider(),
+            new DummyTranslator());
+    webPage.obeyRobotsTxt(robotsTxts);
+
+    webPage.fetch();
+    webPage.analyze();
+
+    verifyNoInteractions(robotsTxts);
+    assertEquals(EXPECTED_MARKDOWN_WITHOUT_CHILDREN, webPage.toMarkdown());
+  }
+
   @Test
   void toMarkdownWithChildren() throws IOException {
     WebPage webPage =
@@ -123,4 +191,71 @@ class WebPageTest {
 
     assertEquals(EXPECTED_MARKDOWN_WITH_CHILDREN, generatedMarkdown);
   }
+
+  @Test
+  void toMarkdownWritesToAppendable() throws IOException {
+    WebPage webPage =
+        new WebPage(
+            "https://testpage/10-three-child-links-with-headings-and-broken.html",
+            5,
+            new JsoupLocalDocumentProvider(),
+            new DummyTranslator());
+
+    webPage.fetch();
+    webPage.analyze();
+    webPage.translate();
+    StringWriter out = new StringWriter();
+    webPage.toMarkdown(out, 0);
+
+    assertEquals(EXPECTED_TRANSLATED_MARKDOWN_WITH_CHILDREN, out.toString());
+  }
+
+  @Test
+  void toMarkdownTranslatedIncrementallyWithChildren() throws IOException {
+    try (Crawler crawler = new Crawler(4, false);
+        BatchingTranslator translator =
+            new BatchingTranslator(new DummyTranslator(), 2, Duration.ofMillis(10))) {
+      WebPage webPage =
+          new WebPage(
+              "https://testpage/10-three-child-links-with-headings-and-broken.html",
+              5,
+              new JsoupLocalDocumentProvider(),
+              translator,
+              crawler);
+
+      webPage.fetch();
+      webPage.analyze();
+      webPage.translate();
+      String generatedMarkdown = webPage.toMarkdown();
+
+      assertEquals(EXPECTED_TRANSLATED_MARKDOWN_WITH_CHILDREN, generatedMarkdown);
+    }
+  }
+
+  @Test
+  void headingsAreTranslatedWhileCrawling() throws IOException {
+    AtomicInteger translatedTexts = new AtomicInteger();
+    Translator countingTranslator =
+        texts -> {
+          translatedTexts.addAndGet(texts.size());
+          return new DummyTranslator().translate(texts);
+        };
+
+    try (BatchingTranslator translator =
+        new BatchingTranslator(countingTranslator, 1, Duration.ZERO)) {
+      WebPage webPage =
+          new WebPage(
+              "https://testpage/10-three-child-links-with-headings-and-broken.html",
+              5,
+              new JsoupLocalDocumentProvider(),
+              translator);
+
+      webPage.fetch();
+      webPage.analyze();
+      List<Translator.Result> results = webPage.awaitTranslations();
+
+      assertFalse(results.isEmpty());
+      assertEquals(webPage.getHeadingArena().size(), translatedTexts.get());
+    }
+  }
 }
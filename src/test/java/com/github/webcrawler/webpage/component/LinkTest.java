@@ -1,6 +1,7 @@
 package com.github.webcrawler.webpage.component;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
 import com.github.webcrawler.webpage.util.AsciiArrow;
@@ -52,4 +53,27 @@ public class LinkTest {
         .withNonnullFields("scheme")
         .verify();
   }
+
+  @Test
+  public void fingerprintOfSameUrl() {
+    Link link = Link.fromString("https://host/path?query#fragment");
+
+    assertEquals(new Link("https", "host", "/path").fingerprint(), link.fingerprint());
+    assertEquals(new Link("https", "host", "/path", true).fingerprint(), link.fingerprint());
+    assertNotEquals(new Link("https", "host", "/path/").fingerprint(), link.fingerprint());
+    assertNotEquals(new Link("http", "host", "/path").fingerprint(), link.fingerprint());
+  }
+
+  @Test
+  public void fromStringKeepsPortUnlessDefault() {
+    assertEquals(
+        new Link("http", "localhost:8080", "/path"), Link.fromString("http://localhost:8080/path"));
+    assertEquals(new Link("https", "host", "/path"), Link.fromString("https://host:443/path"));
+  }
+
+  @Test
+  public void uncommonLinksAreStillValidated() {
+    assertEquals("file://host/path", new Link("file", "host", "/path").toString());
+    assertThrows(IllegalArgumentException.class, () -> new Link("http", "host", ":port"));
+  }
 }
@@ -0,0 +1,114 @@
+package com.github.webcrawler.webpage.component;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+import org.junit.jupiter.api.Test;
+
+class SitemapDocumentTest {
+
+  private static final String URLSET =
+      """
+      <?xml version="1.0" encoding="UTF-8"?>
+      <urlset xmlns="http://www.sitemaps.org/schemas/sitemap/0.9">
+        <url>
+          <loc>https://example.com/</loc>
+          <lastmod>2024-01-01</lastmod>
+        </url>
+        <url>
+          <loc>
+            https://example.com/articles?page=2&amp;sort=new
+          </loc>
+        </url>
+        <url><loc>mailto:someone@example.com</loc></url>
+      </urlset>
+      """;
+
+  private static final String SITEMAP_INDEX =
+      """
+      <?xml version="1.0" encoding="UTF-8"?>
+      <sitemapindex xmlns="http://www.sitemaps.org/schemas/sitemap/0.9">
+        <sitemap><loc>https://example.com/sitemap-1.xml.gz</loc></sitemap>
+        <sitemap><loc>https://example.com/sitemap-2.xml</loc></sitemap>
+      </sitemapindex>
+      """;
+
+  private final List<Link> webPages = new ArrayList<>();
+  private final List<String> sitemaps = new ArrayList<>();
+
+  private static InputStream stream(String xml) {
+    return new ByteArrayInputStream(xml.getBytes(StandardCharsets.UTF_8));
+  }
+
+  private static InputStream gzipped(String xml) throws IOException {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (GZIPOutputStream out = new GZIPOutputStream(bytes)) {
+      out.write(xml.getBytes(StandardCharsets.UTF_8));
+    }
+    return new ByteArrayInputStream(bytes.toByteArray());
+  }
+
+  @Test
+  void parseUrlset() throws IOException {
+    SitemapDocument.parse(stream(URLSET), webPages::add, sitemaps::add);
+
+    assertEquals(
+        List.of(
+            new Link("https", "example.com", "/"), new Link("https", "example.com", "/articles")),
+        webPages);
+    assertEquals(List.of(), sitemaps);
+  }
+
+  @Test
+  void parseSitemapIndex() throws IOException {
+    SitemapDocument.parse(stream(SITEMAP_INDEX), webPages::add, sitemaps::add);
+
+    assertEquals(List.of(), webPages);
+    assertEquals(
+        List.of("https://example.com/sitemap-1.xml.gz", "https://example.com/sitemap-2.xml"),
+        sitemaps);
+  }
+
+  @Test
+  void parseGzipped() throws IOException {
+    SitemapDocument.parse(gzipped(URLSET), webPages::add, sitemaps::add);
+
+    assertEquals(2, webPages.size());
+  }
+
+  @Test
+  void parseMalformed() {
+    assertThrows(
+        IOException.class,
+        () -> SitemapDocument.parse(stream("<urlset><url>"), webPages::add, sitemaps::add));
+  }
+
+  @Test
+  void parseIgnoresExternalEntities() throws IOException {
+    String xml =
+        """
+        <?xml version="1.0"?>
+        <!DOCTYPE urlset [<!ENTITY secret SYSTEM "file:///etc/passwd">]>
+        <urlset><url><loc>https://example.com/&secret;</loc></url></urlset>
+        """;
+
+    assertThrows(
+        IOException.class, () -> SitemapDocument.parse(stream(xml), webPages::add, sitemaps::add));
+    assertEquals(List.of(), webPages);
+  }
+
+  @Test
+  void hasNoHeadings() {
+    SitemapDocument document = new SitemapDocument(List.of(new Link("https", "example.com", "/")));
+
+    assertEquals(List.of(), document.getHeadings());
+    assertEquals(List.of(new Link("https", "example.com", "/")), document.getLinks());
+  }
+}
@@ -0,0 +1,175 @@
+package com.github.webcrawler.webpage.component;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.github.webcrawler.webpage.component.JsoupDocumentTest.HtmlSnippets;
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Stream;
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Element;
+import org.jsoup.parser.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+public class StreamingDocumentTest {
+
+  private static final String BASE_URL = "https://testpage/dir/index.html";
+
+  private static final String MALFORMED_HTML =
+      """
+      <!DOCTYPE html>
+      <html><head>
+      <meta charset="utf-8">
+      <title><h1>Not a heading</h1></title>
+      <script>document.write("<h2>Not a heading</h2><a href='/script'>");</script>
+      <style>a > b { color: red; }</style>
+      </head><body>
+      <!-- <h3>Commented out</h3> <a href="/comment"></a> --->
+      <h1 class='title'>  Heading <b>with</b>
+         <i>markup</i> &amp; entities&nbsp;&lt;&gt; </h1>
+      <h2>Line<br>break</h2>
+      <div><h3>Closed by parent</div> text after
+      <h4>Unclosed<h5>Next heading</h5>
+      <a title="a > b" href = "relative?query#fragment">relative</a>
+      <a href=/absolute-path>absolute path</a>
+      <A HREF='../parent'>upper case</A>
+      <a href="https://host/?a=1&amp;b=2">entity in attribute</a>
+      <a name="no-href">no href</a>
+      <a href="mailto:user@host">mail</a>
+      </body></html>
+      """;
+
+  private static Stream<File> dummyPages() {
+    File directory = new File(StreamingDocumentTest.class.getResource("/dummy-pages").getPath());
+
+    return Stream.of(Objects.requireNonNull(directory.listFiles(File::isFile))).sorted();
+  }
+
+  @ParameterizedTest
+  @MethodSource("dummyPages")
+  public void testSameAsJsoupDocument(File page) throws IOException {
+    JsoupDocument expected = new JsoupDocument(Jsoup.parse(page, null, BASE_URL));
+
+    StreamingDocument document;
+    try (InputStream in = new FileInputStream(page)) {
+      document = StreamingDocument.parse(in, null, BASE_URL);
+    }
+
+    assertEquals(expected.getHeadings(), document.getHeadings());
+    assertEquals(expected.getLinks(), document.getLinks());
+  }
+
+  @Test
+  public void testMalformedSameAsJsoupDocument() {
+    JsoupDocument expected = new JsoupDocument(Jsoup.parse(MALFORMED_HTML, BASE_URL));
+
+    StreamingDocument document = StreamingDocument.parse(MALFORMED_HTML, BASE_URL);
+
+    assertEquals(expected.getHeadings(), document.getHeadings());
+    assertEquals(expected.getLinks(), document.getLinks());
+  }
+
+  @Test
+  public void testValidHeadings() {
+    StreamingDocument document = StreamingDocument.parse(HtmlSnippets.headingFromOneToSix, "");
+
+    assertEquals(
+        List.of(
+            new Heading(Heading.Level.H1, "Heading 1"),
+            new Heading(Heading.Level.H2, "Heading 2"),
+            new Heading(Heading.Level.H3, "Heading 3"),
+            new Heading(Heading.Level.H4, "Heading 4"),
+            new Heading(Heading.Level.H5, "Heading 5"),
+            new Heading(Heading.Level.H6, "Heading 6")),
+        document.getHeadings());
+  }
+
+  @Test
+  public void testInvalidHeadings() {
+    StreamingDocument document = StreamingDocument.parse(HtmlSnippets.invalidHeadings, "");
+
+    assertEquals(List.of(), document.getHeadings());
+  }
+
+  @Test
+  public void testValidLinks() {
+    StreamingDocument document = StreamingDocument.parse(HtmlSnippets.validLinks, "");
+
+    assertEquals(
+        List.of(
+            new Link("http", "host", "/"),
+            new Link("http", "host", "/path"),
+            new Link("https", "host", "/")),
+        document.getLinks());
+  }
+
+  @Test
+  public void testInvalidLinks() {
+    StreamingDocument document = StreamingDocument.parse(HtmlSnippets.invalidLinks, "");
+
+    assertEquals(List.of(), document.getLinks());
+  }
+
+  @Test
+  public void testBaseTag() {
+    StreamingDocument document =
+        StreamingDocument.parse("<base href='https://other/base/'><a href='page'></a>", BASE_URL);
+
+    assertEquals(List.of(new Link("https", "other", "/base/page")), document.getLinks());
+  }
+
+  @ParameterizedTest
+  @MethodSource("urlsToResolve")
+  public void testResolvesLikeJsoup(String baseUrl, String relUrl) {
+    String expected = new Element(Tag.valueOf("a"), baseUrl).attr("href", relUrl).absUrl("href");
+
+    assertEquals(expected, StreamingDocument.resolve(baseUrl, relUrl));
+  }
+
+  static Stream<Arguments> urlsToResolve() {
+    return Stream.of(
+        Arguments.of(BASE_URL, "page.html"),
+        Arguments.of(BASE_URL, "/root.html"),
+        Arguments.of(BASE_URL, "?query=1"),
+        Arguments.of(BASE_URL, "#fragment"),
+        Arguments.of(BASE_URL, "../../../up.html"),
+        Arguments.of(BASE_URL, "//other/page"),
+        Arguments.of(BASE_URL, "https://other:8080/page?a=b#c"),
+        Arguments.of(BASE_URL, "mailto:someone@testpage"),
+        Arguments.of(BASE_URL, "unknown://page"),
+        Arguments.of("", "page.html"),
+        Arguments.of("", "https://other/page"),
+        Arguments.of("", "unknown:page"));
+  }
+
+  @Test
+  public void testCharsetFromMetaTag() throws IOException {
+    byte[] html =
+        "<meta charset=\"iso-8859-1\"><h1>Gr\u00fc\u00dfe</h1>"
+            .getBytes(StandardCharsets.ISO_8859_1);
+
+    StreamingDocument document =
+        StreamingDocument.parse(new ByteArrayInputStream(html), null, BASE_URL);
+
+    assertEquals(List.of(new Heading(Heading.Level.H1, "Gr\u00fc\u00dfe")), document.getHeadings());
+  }
+
+  @Test
+  public void testLongHeadingIsTruncated() {
+    String text = "x".repeat(StreamingDocument.MAX_HEADING_LENGTH * 2);
+
+    StreamingDocument document = StreamingDocument.parse("<h1>" + text + "</h1>", BASE_URL);
+
+    assertEquals(
+        StreamingDocument.MAX_HEADING_LENGTH, document.getHeadings().get(0).text().length());
+  }
+}
@@ -0,0 +1,116 @@
+package com.github.webcrawler.webpage.provider;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.github.webcrawler.webpage.component.Document;
+import com.github.webcrawler.webpage.component.Heading;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class CachingDocumentProviderTest {
+
+  private static final String LAST_MODIFIED = "Mon, 01 Jan 2024 00:00:00 GMT";
+
+  @TempDir Path directory;
+
+  private MockWebServer server;
+  private CachingDocumentProvider provider;
+
+  @BeforeEach
+  void setup() throws IOException {
+    server = new MockWebServer();
+    server.start();
+    provider = newProvider();
+  }
+
+  @AfterEach
+  void teardown() throws IOException {
+    provider.close();
+    server.shutdown();
+  }
+
+  private CachingDocumentProvider newProvider() {
+    return new CachingDocumentProvider(
+        OkHttpDocumentProvider.newPooledClient(2, 2), DocumentParser.DOM, directory, 1 << 20);
+  }
+
+  private static MockResponse htmlResponse(String heading) {
+    return new MockResponse()
+        .setHeader("Content-Type", "text/html; charset=utf-8")
+        .setBody("<h1>" + heading + "</h1>");
+  }
+
+  private static List<Heading> headings(String heading) {
+    return List.of(new Heading(Heading.Level.H1, heading));
+  }
+
+  @Test
+  void notModifiedIsServedFromCache() throws Exception {
+    server.enqueue(htmlResponse("Cached").setHeader("ETag", "\"v1\""));
+    server.enqueue(new MockResponse().setResponseCode(304).setHeader("ETag", "\"v1\""));
+
+    String url = server.url("/page").toString();
+    provider.getDocument(url);
+    Document document = provider.getDocument(url);
+
+    assertEquals(headings("Cached"), document.getHeadings());
+    assertNull(server.takeRequest().getHeader("If-None-Match"));
+    assertEquals("\"v1\"", server.takeRequest().getHeader("If-None-Match"));
+    assertEquals(1, provider.hitCount());
+  }
+
+  @Test
+  void revalidatesFreshResponses() throws Exception {
+    server.enqueue(
+        htmlResponse("Cached")
+            .setHeader("Last-Modified", LAST_MODIFIED)
+            .setHeader("Cache-Control", "max-age=3600"));
+    server.enqueue(new MockResponse().setResponseCode(304));
+
+    String url = server.url("/page").toString();
+    provider.getDocument(url);
+    Document document = provider.getDocumentAsync(url).get();
+
+    assertEquals(headings("Cached"), document.getHeadings());
+    assertEquals(2, server.getRequestCount());
+    server.takeRequest();
+    assertEquals(LAST_MODIFIED, server.takeRequest().getHeader("If-Modified-Since"));
+  }
+
+  @Test
+  void modifiedIsFetchedAgain() throws IOException {
+    server.enqueue(htmlResponse("Old").setHeader("ETag", "\"v1\""));
+    server.enqueue(htmlResponse("New").setHeader("ETag", "\"v2\""));
+
+    String url = server.url("/page").toString();
+    provider.getDocument(url);
+
+    assertEquals(headings("New"), provider.getDocument(url).getHeadings());
+    assertEquals(0, provider.hitCount());
+  }
+
+  @Test
+  void cacheSurvivesRestart() throws Exception {
+    server.enqueue(htmlResponse("Cached").setHeader("ETag", "\"v1\""));
+    server.enqueue(new MockResponse().setResponseCode(304));
+
+    String url = server.url("/page").toString();
+    provider.getDocument(url);
+    provider.close();
+
+    provider = newProvider();
+    assertEquals(headings("Cached"), provider.getDocument(url).getHeadings());
+
+    server.takeRequest();
+    RecordedRequest revalidation = server.takeRequest();
+    assertEquals("\"v1\"", revalidation.getHeader("If-None-Match"));
+  }
+}
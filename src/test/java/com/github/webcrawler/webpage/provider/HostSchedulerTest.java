@@ -0,0 +1,128 @@
+package com.github.webcrawler.webpage.provider;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+class HostSchedulerTest {
+
+  @Test
+  void limitsConcurrentRequestsPerHost() throws Exception {
+    try (HostScheduler scheduler =
+        new HostScheduler(new HostScheduler.Limits(2, Duration.ZERO, 0))) {
+      CompletableFuture<Void> first = scheduler.acquire("host");
+      CompletableFuture<Void> second = scheduler.acquire("host");
+      CompletableFuture<Void> third = scheduler.acquire("host");
+
+      first.get(1, TimeUnit.SECONDS);
+      second.get(1, TimeUnit.SECONDS);
+      assertFalse(third.isDone());
+
+      scheduler.release("host");
+
+      third.get(1, TimeUnit.SECONDS);
+    }
+  }
+
+  @Test
+  void otherHostsAreNotBlocked() throws Exception {
+    try (HostScheduler scheduler =
+        new HostScheduler(new HostScheduler.Limits(1, Duration.ofHours(1), 0))) {
+      scheduler.acquire("slow-host");
+      CompletableFuture<Void> blocked = scheduler.acquire("slow-host");
+      CompletableFuture<Void> other = scheduler.acquire("other-host");
+
+      other.get(1, TimeUnit.SECONDS);
+      assertFalse(blocked.isDone());
+    }
+  }
+
+  @Test
+  void countsEveryReservationOfTheSameUrl() throws Exception {
+    try (HostScheduler scheduler =
+        new HostScheduler(new HostScheduler.Limits(4, Duration.ZERO, 0))) {
+      scheduler.reserve("host", "https://host/shared").get(1, TimeUnit.SECONDS);
+      scheduler.reserve("host", "https://host/shared").get(1, TimeUnit.SECONDS);
+
+      assertTrue(scheduler.claim("https://host/shared"));
+      scheduler.release("host");
+      scheduler.cancelReservation("host", "https://host/shared");
+      scheduler.cancelReservation("host", "https://host/shared");
+
+      assertFalse(scheduler.claim("https://host/shared"));
+      assertEquals(0, scheduler.getRequestsInFlight("host"));
+    }
+  }
+
+  @Test
+  void grantsTurnsOnItsOwnThreads() throws Exception {
+    try (HostScheduler scheduler =
+        new HostScheduler(new HostScheduler.Limits(1, Duration.ZERO, 0))) {
+      scheduler.await("host");
+      CompletableFuture<String> thread =
+          scheduler.acquire("host").thenApply(turn -> Thread.currentThread().getName());
+
+      scheduler.release("host");
+
+      assertTrue(thread.get(1, TimeUnit.SECONDS).startsWith("host-scheduler"));
+    }
+  }
+
+  @Test
+  void delaysRequestsToTheSameHost() throws Exception {
+    try (HostScheduler scheduler =
+        new HostScheduler(new HostScheduler.Limits(4, Duration.ofMillis(100), 0))) {
+      long start = System.nanoTime();
+
+      scheduler.await("host");
+      scheduler.await("host");
+
+      assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(100));
+    }
+  }
+
+  @Test
+  void delaysRequestsByMinDelayOfHost() throws Exception {
+    try (HostScheduler scheduler =
+        new HostScheduler(new HostScheduler.Limits(4, Duration.ZERO, 0))) {
+      scheduler.setMinDelay("host", Duration.ofMillis(100));
+      long start = System.nanoTime();
+
+      scheduler.await("host");
+      scheduler.await("host");
+      scheduler.await("other-host");
+      scheduler.await("other-host");
+
+      assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(100));
+      assertTrue(System.nanoTime() - start < TimeUnit.MILLISECONDS.toNanos(200));
+    }
+  }
+
+  @Test
+  void limitsRequestRatePerHost() throws Exception {
+    try (HostScheduler scheduler =
+        new HostScheduler(new HostScheduler.Limits(4, Duration.ZERO, 2))) {
+      long start = System.nanoTime();
+
+      scheduler.await("host");
+      scheduler.await("host");
+      scheduler.release("host");
+      scheduler.release("host");
+      scheduler.await("host");
+
+      assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(400));
+    }
+  }
+
+  @Test
+  void invalidLimits() {
+    assertThrows(
+        IllegalArgumentException.class, () -> new HostScheduler.Limits(0, Duration.ZERO, 0));
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> new HostScheduler.Limits(1, Duration.ofMillis(-1), 0));
+  }
+}
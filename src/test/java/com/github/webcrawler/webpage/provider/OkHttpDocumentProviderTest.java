@@ -0,0 +1,149 @@
+package com.github.webcrawler.webpage.provider;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.github.webcrawler.webpage.component.Document;
+import com.github.webcrawler.webpage.component.Heading;
+import com.github.webcrawler.webpage.component.Link;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.jsoup.HttpStatusException;
+import org.jsoup.UnsupportedMimeTypeException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class OkHttpDocumentProviderTest {
+
+  private static final String HTML =
+      """
+      <h1>Heading 1</h1>
+      <a href="/relative">relative</a>
+      <a href="https://host/absolute">absolute</a>
+      """;
+
+  private MockWebServer server;
+  private final DocumentProvider provider =
+      new OkHttpDocumentProvider(OkHttpDocumentProvider.newPooledClient(2, 2));
+
+  @BeforeEach
+  void setup() throws IOException {
+    server = new MockWebServer();
+    server.start();
+  }
+
+  @AfterEach
+  void teardown() throws IOException {
+    server.shutdown();
+  }
+
+  private static MockResponse htmlResponse() {
+    return new MockResponse().setHeader("Content-Type", "text/html; charset=utf-8").setBody(HTML);
+  }
+
+  @Test
+  void getDocument() throws IOException {
+    server.enqueue(htmlResponse());
+
+    Document document = provider.getDocument(server.url("/page").toString());
+
+    assertEquals(List.of(new Heading(Heading.Level.H1, "Heading 1")), document.getHeadings());
+    assertEquals(
+        List.of(
+            Link.fromString(server.url("/relative").toString()),
+            Link.fromString("https://host/absolute")),
+        document.getLinks());
+  }
+
+  @Test
+  void reusesConnections() throws Exception {
+    server.enqueue(htmlResponse());
+    server.enqueue(htmlResponse());
+
+    provider.getDocument(server.url("/first").toString());
+    provider.getDocument(server.url("/second").toString());
+
+    assertEquals(0, server.takeRequest().getSequenceNumber());
+    assertEquals(1, server.takeRequest().getSequenceNumber());
+  }
+
+  @Test
+  void unsuccessfulResponse() {
+    server.enqueue(new MockResponse().setResponseCode(404));
+
+    assertThrows(
+        HttpStatusException.class, () -> provider.getDocument(server.url("/missing").toString()));
+  }
+
+  @Test
+  void unsupportedContentType() {
+    server.enqueue(new MockResponse().setHeader("Content-Type", "application/pdf").setBody("%PDF"));
+
+    assertThrows(
+        UnsupportedMimeTypeException.class,
+        () -> provider.getDocument(server.url("/file.pdf").toString()));
+  }
+
+  @Test
+  void getDocumentAsync() throws Exception {
+    server.enqueue(htmlResponse());
+
+    Document document =
+        provider.getDocumentAsync(server.url("/page").toString()).get(5, TimeUnit.SECONDS);
+
+    assertEquals(List.of(new Heading(Heading.Level.H1, "Heading 1")), document.getHeadings());
+  }
+
+  @Test
+  void unsuccessfulResponseAsync() {
+    server.enqueue(new MockResponse().setResponseCode(404));
+
+    ExecutionException e =
+        assertThrows(
+            ExecutionException.class,
+            () ->
+                provider
+                    .getDocumentAsync(server.url("/missing").toString())
+                    .get(5, TimeUnit.SECONDS));
+    assertInstanceOf(HttpStatusException.class, e.getCause());
+  }
+
+  @Test
+  void verifyWithHeadRequest() throws Exception {
+    server.enqueue(new MockResponse().setHeader("Content-Type", "text/html"));
+
+    provider.verify(server.url("/page").toString());
+
+    assertEquals("HEAD", server.takeRequest().getMethod());
+  }
+
+  @Test
+  void verifyFallsBackToRangeRequest() throws Exception {
+    server.enqueue(new MockResponse().setResponseCode(405));
+    server.enqueue(
+        new MockResponse()
+            .setResponseCode(206)
+            .setHeader("Content-Type", "text/html")
+            .setBody("<"));
+
+    provider.verifyAsync(server.url("/page").toString()).get(5, TimeUnit.SECONDS);
+
+    assertEquals("HEAD", server.takeRequest().getMethod());
+    RecordedRequest rangeRequest = server.takeRequest();
+    assertEquals("GET", rangeRequest.getMethod());
+    assertEquals("bytes=0-0", rangeRequest.getHeader("Range"));
+  }
+
+  @Test
+  void verifyUnsuccessfulResponse() {
+    server.enqueue(new MockResponse().setResponseCode(404));
+
+    assertThrows(
+        HttpStatusException.class, () -> provider.verify(server.url("/missing").toString()));
+  }
+}
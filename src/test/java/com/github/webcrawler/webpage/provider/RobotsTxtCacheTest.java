@@ -0,0 +1,100 @@
+package com.github.webcrawler.webpage.provider;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import com.github.webcrawler.webpage.component.Link;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class RobotsTxtCacheTest {
+
+  private MockWebServer server;
+  private final Map<String, Duration> crawlDelays = new ConcurrentHashMap<>();
+  private final RobotsTxtCache robotsTxts =
+      new RobotsTxtCache(
+          OkHttpDocumentProvider.newPooledClient(2, 2),
+          RobotsTxtCache.DEFAULT_USER_AGENT,
+          crawlDelays::put);
+
+  @BeforeEach
+  void setup() throws IOException {
+    server = new MockWebServer();
+    server.start();
+  }
+
+  @AfterEach
+  void teardown() throws IOException {
+    server.shutdown();
+  }
+
+  private Link link(String path) {
+    return Link.fromString(server.url(path).toString());
+  }
+
+  @Test
+  void fetchesRobotsTxtOncePerHost() throws Exception {
+    server.enqueue(
+        new MockResponse().setBody("User-agent: *\nDisallow: /private\nCrawl-delay: 120"));
+
+    assertFalse(robotsTxts.isAllowed(link("/private/page")));
+    assertTrue(robotsTxts.isAllowed(link("/public/page")));
+
+    assertEquals(1, server.getRequestCount());
+    assertEquals("/robots.txt", server.takeRequest().getPath());
+    assertEquals(
+        Map.of(server.getHostName() + ":" + server.getPort(), RobotsTxtCache.MAX_CRAWL_DELAY),
+        crawlDelays);
+  }
+
+  @Test
+  void checksAsynchronouslyInTurnOfHost() throws Exception {
+    server.enqueue(
+        new MockResponse()
+            .setBody("User-agent: *\nDisallow: /private")
+            .setBodyDelay(200, TimeUnit.MILLISECONDS));
+    String host = server.getHostName() + ":" + server.getPort();
+
+    try (HostScheduler scheduler = spy(new HostScheduler(HostScheduler.Limits.UNLIMITED))) {
+      RobotsTxtCache scheduled =
+          new RobotsTxtCache(
+              OkHttpDocumentProvider.newPooledClient(2, 2),
+              RobotsTxtCache.DEFAULT_USER_AGENT,
+              scheduler,
+              crawlDelays::put);
+
+      CompletableFuture<Boolean> allowed = scheduled.isAllowedAsync(link("/private/page"));
+      assertFalse(allowed.isDone());
+
+      assertFalse(allowed.get(5, TimeUnit.SECONDS));
+      assertTrue(scheduled.isAllowedAsync(link("/public")).get(5, TimeUnit.SECONDS));
+      assertEquals(1, server.getRequestCount());
+      verify(scheduler).acquire(host);
+      verify(scheduler, timeout(1000)).release(host);
+    }
+  }
+
+  @Test
+  void missingRobotsTxtAllowsEverything() {
+    server.enqueue(new MockResponse().setResponseCode(404));
+
+    assertTrue(robotsTxts.isAllowed(link("/private/page")));
+    assertTrue(crawlDelays.isEmpty());
+  }
+
+  @Test
+  void unreachableRobotsTxtDisallowsEverything() {
+    server.enqueue(new MockResponse().setResponseCode(503));
+
+    assertFalse(robotsTxts.isAllowed(link("/page")));
+  }
+}
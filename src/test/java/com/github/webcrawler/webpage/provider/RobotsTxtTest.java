@@ -0,0 +1,97 @@
+package com.github.webcrawler.webpage.provider;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Duration;
+import org.junit.jupiter.api.Test;
+
+class RobotsTxtTest {
+
+  private static final String ROBOTS_TXT =
+      """
+      # Comments and unknown lines are ignored.
+      Sitemap: https://host/sitemap.xml
+
+      User-agent: *
+      Disallow: /search
+      Disallow: /*.pdf$
+      Allow: /search/about
+      Disallow: /private*/draft
+      Crawl-delay: 2.5
+
+      User-agent: webcrawler
+      User-agent: other
+      Disallow: /only-for-webcrawler
+
+      User-agent: webcrawler
+      Disallow: /also-for-webcrawler
+      """;
+
+  @Test
+  void withoutRulesEverythingIsAllowed() {
+    RobotsTxt robotsTxt = RobotsTxt.parse("", "webcrawler");
+
+    assertTrue(robotsTxt.isAllowed("/"));
+    assertTrue(robotsTxt.isAllowed(""));
+    assertNull(robotsTxt.crawlDelay());
+  }
+
+  @Test
+  void prefixRules() {
+    RobotsTxt robotsTxt = RobotsTxt.parse(ROBOTS_TXT, "somebot");
+
+    assertTrue(robotsTxt.isAllowed("/"));
+    assertFalse(robotsTxt.isAllowed("/search"));
+    assertFalse(robotsTxt.isAllowed("/search/results/2"));
+    assertTrue(robotsTxt.isAllowed("/find"));
+  }
+
+  @Test
+  void longestMatchDecides() {
+    RobotsTxt robotsTxt = RobotsTxt.parse(ROBOTS_TXT, "somebot");
+
+    assertTrue(robotsTxt.isAllowed("/search/about"));
+    assertTrue(robotsTxt.isAllowed("/search/about/team"));
+    assertFalse(robotsTxt.isAllowed("/search/abou"));
+  }
+
+  @Test
+  void allowWinsTie() {
+    RobotsTxt robotsTxt = RobotsTxt.parse("User-agent: *\nDisallow: /page\nAllow: /page", "bot");
+
+    assertTrue(robotsTxt.isAllowed("/page"));
+  }
+
+  @Test
+  void wildcardsAndAnchors() {
+    RobotsTxt robotsTxt = RobotsTxt.parse(ROBOTS_TXT, "somebot");
+
+    assertFalse(robotsTxt.isAllowed("/files/report.pdf"));
+    assertTrue(robotsTxt.isAllowed("/files/report.pdf.html"));
+    assertFalse(robotsTxt.isAllowed("/private/draft"));
+    assertFalse(robotsTxt.isAllowed("/private-area/2024/draft/1"));
+    assertTrue(robotsTxt.isAllowed("/private/final"));
+  }
+
+  @Test
+  void crawlDelay() {
+    assertEquals(Duration.ofMillis(2500), RobotsTxt.parse(ROBOTS_TXT, "somebot").crawlDelay());
+    assertNull(RobotsTxt.parse(ROBOTS_TXT, "webcrawler").crawlDelay());
+  }
+
+  @Test
+  void mostSpecificGroupIsChosenAndCombined() {
+    RobotsTxt robotsTxt = RobotsTxt.parse(ROBOTS_TXT, "WebCrawler");
+
+    assertFalse(robotsTxt.isAllowed("/only-for-webcrawler"));
+    assertFalse(robotsTxt.isAllowed("/also-for-webcrawler"));
+    assertTrue(robotsTxt.isAllowed("/search"));
+  }
+
+  @Test
+  void allowAndDisallowAll() {
+    assertTrue(RobotsTxt.ALLOW_ALL.isAllowed("/anything"));
+    assertFalse(RobotsTxt.DISALLOW_ALL.isAllowed("/anything"));
+    assertFalse(RobotsTxt.DISALLOW_ALL.isAllowed(""));
+  }
+}
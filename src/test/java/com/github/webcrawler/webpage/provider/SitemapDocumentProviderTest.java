@@ -0,0 +1,147 @@
+package com.github.webcrawler.webpage.provider;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import com.github.webcrawler.webpage.component.Document;
+import com.github.webcrawler.webpage.component.Link;
+import com.github.webcrawler.webpage.component.SitemapDocument;
+import java.io.IOException;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okio.Buffer;
+import org.jsoup.HttpStatusException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class SitemapDocumentProviderTest {
+
+  private MockWebServer server;
+  private final DocumentProvider webPages = mock(DocumentProvider.class);
+
+  @BeforeEach
+  void setup() throws IOException {
+    server = new MockWebServer();
+    server.start();
+  }
+
+  @AfterEach
+  void teardown() throws IOException {
+    server.shutdown();
+  }
+
+  private SitemapDocumentProvider newProvider(String sitemap) {
+    return new SitemapDocumentProvider(
+        OkHttpDocumentProvider.newPooledClient(2, 2), webPages, List.of(sitemap));
+  }
+
+  private static String urlset(String... paths) {
+    StringBuilder xml =
+        new StringBuilder("<urlset xmlns=\"http://www.sitemaps.org/schemas/sitemap/0.9\">");
+    for (String path : paths) {
+      xml.append("<url><loc>https://example.com").append(path).append("</loc></url>");
+    }
+    return xml.append("</urlset>").toString();
+  }
+
+  private static Buffer gzipped(String xml) throws IOException {
+    Buffer buffer = new Buffer();
+    try (GZIPOutputStream out = new GZIPOutputStream(buffer.outputStream())) {
+      out.write(xml.getBytes());
+    }
+    return buffer;
+  }
+
+  @Test
+  void readsSitemapIntoDocument() throws IOException {
+    server.enqueue(new MockResponse().setBody(urlset("/a", "/b")));
+    String sitemap = server.url("/sitemap.xml").toString();
+
+    Document document = newProvider(sitemap).getDocument(sitemap);
+
+    assertInstanceOf(SitemapDocument.class, document);
+    assertEquals(
+        List.of(new Link("https", "example.com", "/a"), new Link("https", "example.com", "/b")),
+        document.getLinks());
+    verifyNoInteractions(webPages);
+  }
+
+  @Test
+  void followsSitemapIndexOnce() throws Exception {
+    String index = server.url("/sitemap-index.xml").toString();
+    String first = server.url("/sitemap-1.xml.gz").toString();
+    String second = server.url("/sitemap-2.xml").toString();
+    server.enqueue(
+        new MockResponse()
+            .setBody(
+                "<sitemapindex><sitemap><loc>%s</loc></sitemap><sitemap><loc>%s</loc></sitemap>"
+                        .formatted(first, second)
+                    + "<sitemap><loc>%s</loc></sitemap></sitemapindex>".formatted(first)));
+    server.enqueue(
+        new MockResponse()
+            .setHeader("Content-Type", "application/x-gzip")
+            .setBody(gzipped(urlset("/a"))));
+    server.enqueue(new MockResponse().setBody(urlset("/b")));
+
+    Document document = newProvider(index).getDocumentAsync(index).join();
+
+    assertEquals(
+        List.of(new Link("https", "example.com", "/a"), new Link("https", "example.com", "/b")),
+        document.getLinks());
+    assertEquals(3, server.getRequestCount());
+    assertEquals("/sitemap-index.xml", server.takeRequest().getPath());
+    assertEquals("/sitemap-1.xml.gz", server.takeRequest().getPath());
+    assertEquals("/sitemap-2.xml", server.takeRequest().getPath());
+  }
+
+  @Test
+  void waitsForTurnOfEverySitemap() throws Exception {
+    String index = server.url("/sitemap-index.xml").toString();
+    String first = server.url("/sitemap-1.xml").toString();
+    server.enqueue(
+        new MockResponse()
+            .setBody(
+                "<sitemapindex><sitemap><loc>%s</loc></sitemap></sitemapindex>".formatted(first)));
+    server.enqueue(new MockResponse().setBody(urlset("/a")));
+    String host = server.getHostName() + ":" + server.getPort();
+
+    try (HostScheduler scheduler = spy(new HostScheduler(HostScheduler.Limits.UNLIMITED))) {
+      SitemapDocumentProvider provider =
+          new SitemapDocumentProvider(
+              OkHttpDocumentProvider.newPooledClient(2, 2), webPages, List.of(index), scheduler);
+
+      Document document = provider.getDocument(index);
+      verifyNoInteractions(scheduler);
+
+      assertEquals(List.of(new Link("https", "example.com", "/a")), document.getLinks());
+      verify(scheduler, times(2)).await(host);
+      verify(scheduler, times(2)).release(host);
+    }
+  }
+
+  @Test
+  void failsIfSitemapIsMissing() throws IOException {
+    server.enqueue(new MockResponse().setResponseCode(404));
+    String sitemap = server.url("/sitemap.xml").toString();
+
+    SitemapDocument document = (SitemapDocument) newProvider(sitemap).getDocument(sitemap);
+
+    assertThrows(HttpStatusException.class, () -> document.readLinks(link -> {}));
+  }
+
+  @Test
+  void delegatesOtherUrls() throws IOException {
+    Document page = new SitemapDocument(List.of());
+    when(webPages.getDocument("https://example.com/a")).thenReturn(page);
+    SitemapDocumentProvider provider = newProvider(server.url("/sitemap.xml").toString());
+
+    assertSame(page, provider.getDocument("https://example.com/a"));
+    provider.verify("https://example.com/b");
+
+    verify(webPages).verify("https://example.com/b");
+    assertEquals(0, server.getRequestCount());
+  }
+}